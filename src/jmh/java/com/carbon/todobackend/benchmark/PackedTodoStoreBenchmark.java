@@ -0,0 +1,64 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.service.memory.PackedTodoStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of the in-memory store with millions of resident todos,
+ * the garbage collector having only a few dozen arrays to trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PackedTodoStoreBenchmark {
+
+    @Param({"1000000", "5000000"})
+    private int rows;
+
+    private PackedTodoStore todoStore;
+
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        todoStore = new PackedTodoStore(rows);
+        ids = new UUID[rows];
+        final List<Todo> todos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ids[i] = UUID.randomUUID();
+            todos.add(new Todo(ids[i], "Todo number " + i, i % 2 == 0, i, 0L));
+        }
+        todoStore.load(todos);
+    }
+
+    @Benchmark
+    public Optional<Todo> findById() {
+        return todoStore.get(ids[ThreadLocalRandom.current().nextInt(rows)]);
+    }
+
+    @Benchmark
+    public List<Todo> firstPage() {
+        return todoStore.pageAfter(null, null, 100);
+    }
+}
@@ -0,0 +1,65 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.domain.entities.TodoEntity;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import com.carbon.todobackend.service.mapper.TodoMapperImpl;
+import com.carbon.todobackend.service.mapper.UpdateTodoRequestMapper;
+import com.carbon.todobackend.service.mapper.UpdateTodoRequestMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the MapStruct mappers on the entity/dto hot path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoMapperBenchmark {
+
+    private final TodoMapper todoMapper = new TodoMapperImpl();
+
+    private final UpdateTodoRequestMapper updateTodoRequestMapper = new UpdateTodoRequestMapperImpl();
+
+    private TodoEntity todoEntity;
+
+    private UpdateTodoRequest updateTodoRequest;
+
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        id = UUID.randomUUID();
+        todoEntity = new TodoEntity();
+        todoEntity.setId(id);
+        todoEntity.setTitle("Buy some milk");
+        todoEntity.setCompleted(false);
+        todoEntity.setOrder(42);
+        updateTodoRequest = new UpdateTodoRequest("Buy some milk", true, 42);
+    }
+
+    @Benchmark
+    public Todo todoMapperToDto() {
+        return todoMapper.toDto(todoEntity);
+    }
+
+    @Benchmark
+    public TodoEntity updateTodoRequestMapperToEntity() {
+        return updateTodoRequestMapper.toEntity(updateTodoRequest, id);
+    }
+}
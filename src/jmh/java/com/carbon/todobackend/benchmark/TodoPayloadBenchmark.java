@@ -0,0 +1,135 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.rest.codec.TodoPayloadFormat;
+import com.carbon.todobackend.rest.codec.TodoViewEncoder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding of the GET /api/todos payload per format: the object
+ * writer of the whole list, one object writer call per todo as the list
+ * endpoint did, and the hand-written encoder it uses now. The setup prints
+ * the payload sizes, plain and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoPayloadBenchmark {
+
+    private static final String[] WORDS = {"buy", "milk", "call", "mom", "write", "report", "fix", "bike", "book",
+            "flights", "pay", "rent", "water", "plants", "clean", "kitchen", "review", "pull", "request", "groceries"};
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private TodoPayloadFormat payloadFormat;
+
+    private ObjectMapper jsonMapper;
+
+    private ObjectWriter writer;
+
+    private ObjectWriter todoViewWriter;
+
+    private ObjectReader reader;
+
+    private List<TodoView> todoViews;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        payloadFormat = TodoPayloadFormat.valueOf(format.toUpperCase());
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        final ObjectMapper objectMapper = switch (payloadFormat) {
+            case JSON -> jsonMapper;
+            case CBOR -> Jackson2ObjectMapperBuilder.cbor().build();
+            case SMILE -> Jackson2ObjectMapperBuilder.smile().build();
+        };
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TodoView.class));
+        todoViewWriter = jsonMapper.writerFor(TodoView.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        reader = objectMapper.readerFor(TodoView[].class);
+        final Random random = new Random(42);
+        todoViews = IntStream.range(0, size)
+                .mapToObj(i -> {
+                    final UUID id = new UUID(random.nextLong(), random.nextLong());
+                    final String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                            + " " + WORDS[random.nextInt(WORDS.length)];
+                    return new TodoView(id, title, random.nextBoolean(), i * 1024, "http://localhost:8080/api/todos/" + id);
+                })
+                .toList();
+        payload = encodeTodoViewEncoder();
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(payload);
+        }
+        System.out.printf("%n%s, %d todos: %d bytes, %d gzipped, %d bytes with the object writer%n",
+                format, size, payload.length, gzipped.size(), encodeObjectWriter().length);
+    }
+
+    @Benchmark
+    public byte[] encodeObjectWriter() throws IOException {
+        return writer.writeValueAsBytes(todoViews);
+    }
+
+    @Benchmark
+    public byte[] encodeObjectWriterPerTodo() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(size * 128);
+        try (JsonGenerator generator = payloadFormat.createGenerator(jsonMapper.getFactory(), outputStream)) {
+            generator.writeStartArray();
+            for (TodoView todoView : todoViews) {
+                todoViewWriter.writeValue(generator, todoView);
+            }
+            generator.writeEndArray();
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeTodoViewEncoder() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(size * 128);
+        try (JsonGenerator generator = payloadFormat.createGenerator(jsonMapper.getFactory(), outputStream)) {
+            generator.writeStartArray();
+            for (TodoView todoView : todoViews) {
+                TodoViewEncoder.write(generator, todoView);
+            }
+            generator.writeEndArray();
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public TodoView[] decode() throws IOException {
+        return reader.readValue(payload);
+    }
+}
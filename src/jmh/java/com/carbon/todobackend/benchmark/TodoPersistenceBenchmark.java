@@ -0,0 +1,79 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.TodobackendApplication;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable write throughput of the embedded todo log against the JPA service on
+ * the embedded H2 database, a write returning once it is persisted in both.
+ * <p>
+ * Concurrent writers let the log batch their records under a single force.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+public class TodoPersistenceBenchmark {
+
+    @Param({"log", "h2"})
+    private String backend;
+
+    private Path directory;
+
+    private ConfigurableApplicationContext context;
+
+    private TodoService todoService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("todo-persistence");
+        context = new SpringApplicationBuilder(TodobackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("log".equals(backend) ? new String[]{"log"} : new String[0])
+                .properties("logging.level.root=WARN")
+                // An argument, for the profile file not to override it.
+                .run("--todo.log.directory=" + directory);
+        todoService = context.getBean(TodoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Todo save() throws AlreadyExistException {
+        return todoService.save(new CreateTodoRequest(UUID.randomUUID().toString()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.TodobackendApplication;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the in-memory store to come back after a restart, replaying the
+ * embedded todo log or loading every row from a file-backed H2 database.
+ * <p>
+ * Each invocation starts a whole context, so both backends pay the same
+ * startup cost on top of their recovery.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class TodoRecoveryBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    @Param({"log", "h2"})
+    private String backend;
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, AlreadyExistException {
+        directory = Files.createTempDirectory("todo-recovery");
+        try (ConfigurableApplicationContext context = start()) {
+            final TodoService todoService = context.getBean(TodoService.class);
+            for (int from = 0; from < rows; from += SEED_BATCH_SIZE) {
+                final List<CreateTodoRequest> todos = new ArrayList<>(SEED_BATCH_SIZE);
+                for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, rows); i++) {
+                    todos.add(new CreateTodoRequest("Todo number " + i));
+                }
+                todoService.saveAll(todos);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long recover() {
+        try (ConfigurableApplicationContext context = start()) {
+            return context.getBean(TodoService.class).summarize().total();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TodobackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("log".equals(backend) ? "log" : "memory")
+                .properties("logging.level.root=WARN")
+                // Arguments, for the profile files not to override them.
+                .run("--todo.log.directory=" + directory,
+                        "--todo.memory.initial-capacity=" + rows,
+                        "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE");
+    }
+}
@@ -0,0 +1,95 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.rest.codec.EncodedTodoWriter;
+import com.carbon.todobackend.rest.codec.TodoViewEncoder;
+import com.carbon.todobackend.rest.link.TodoLinks;
+import com.carbon.todobackend.service.cache.EncodedTodo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Writing the JSON of GET /api/todos into a reused buffer, as the response
+ * buffer of the servlet container: mapping and encoding every todo, against
+ * copying the bytes kept by the response cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoResponseCacheBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final JsonFactory jsonFactory = Jackson2ObjectMapperBuilder.json().build().getFactory();
+
+    private final TodoLinks links = TodoLinks.of("http://localhost:8080/api/todos");
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1 << 21);
+
+    private List<Todo> todos;
+
+    private List<EncodedTodo> encodedTodos;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        todos = IntStream.range(0, size)
+                .mapToObj(i -> new Todo(new UUID(random.nextLong(), random.nextLong()), "Todo number " + i,
+                        random.nextBoolean(), i * 1024, 0L))
+                .toList();
+        encodedTodos = todos.stream()
+                .map(todo -> TodoViewEncoder.encode(jsonFactory, todo))
+                .toList();
+    }
+
+    @Benchmark
+    public int encodeTodos() throws IOException {
+        outputStream.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (Todo todo : todos) {
+                TodoViewEncoder.write(generator, new TodoView(todo.id(), todo.title(), todo.completed(), todo.order(),
+                        links.todo(todo.id())));
+            }
+            generator.writeEndArray();
+        }
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int copyEncodedTodos() throws IOException {
+        outputStream.reset();
+        final EncodedTodoWriter writer = new EncodedTodoWriter(outputStream, links);
+        writer.writeStartArray();
+        for (EncodedTodo encodedTodo : encodedTodos) {
+            writer.write(encodedTodo);
+        }
+        writer.writeEndArray();
+        return outputStream.size();
+    }
+}
@@ -0,0 +1,106 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.service.search.TodoSearchHit;
+import com.carbon.todobackend.service.search.TodoSearchIndex;
+import com.carbon.todobackend.service.search.TodoSearchResults;
+import com.carbon.todobackend.service.search.TodoTitleQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a title search through the trigram index, against scoring every
+ * title as a LIKE '%x%' scan would. Titles are a few words drawn from a
+ * vocabulary of 5000 made-up words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoSearchBenchmark {
+
+    private static final int VOCABULARY = 5000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    /**
+     * word: a whole word, prefix: its first 4 letters, typo: the word with
+     * two letters swapped.
+     */
+    @Param({"word", "prefix", "typo"})
+    private String kind;
+
+    private TodoSearchIndex todoSearchIndex;
+
+    private UUID[] ids;
+
+    private String[] titles;
+
+    private TodoTitleQuery query;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            final StringBuilder word = new StringBuilder();
+            for (int length = 5 + random.nextInt(5); word.length() < length; ) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        todoSearchIndex = new TodoSearchIndex(null, null);
+        ids = new UUID[rows];
+        titles = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            final StringBuilder title = new StringBuilder(words[random.nextInt(VOCABULARY)]);
+            for (int n = 1 + random.nextInt(4); n > 0; n--) {
+                title.append(' ').append(words[random.nextInt(VOCABULARY)]);
+            }
+            ids[i] = UUID.randomUUID();
+            titles[i] = TodoTitleQuery.normalize(title.toString());
+            todoSearchIndex.put(ids[i], titles[i]);
+        }
+        final String word = words[7];
+        query = TodoTitleQuery.parse(switch (kind) {
+            case "prefix" -> word.substring(0, 4);
+            case "typo" -> word.charAt(1) + "" + word.charAt(0) + word.substring(2);
+            default -> word;
+        });
+        System.out.printf("%n%d titles, %d KiB of posting lists%n", todoSearchIndex.size(),
+                todoSearchIndex.postingBytes() / 1024);
+    }
+
+    @Benchmark
+    public List<TodoSearchHit> index() {
+        return todoSearchIndex.search(query, 21, null);
+    }
+
+    @Benchmark
+    public List<TodoSearchHit> scan() {
+        final TodoSearchResults results = new TodoSearchResults(21, null);
+        for (int i = 0; i < rows; i++) {
+            final int score = query.score(titles[i]);
+            if (score >= 0) {
+                results.offer(ids[i], score);
+            }
+        }
+        return results.hits();
+    }
+}
@@ -0,0 +1,111 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.TodobackendApplication;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TodoRepositoryBaseService against the embedded H2 database, at several table sizes.
+ * <p>
+ * Rows are seeded with plain JDBC batches once the context is up, so the
+ * in-memory title index does not know their titles: benchmarks only write
+ * fresh titles and never rely on it for conflicts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class TodoServiceBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private TodoService todoService;
+
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodobackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        todoService = context.getBean(TodoService.class);
+        ids = seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Todo save() throws AlreadyExistException {
+        return todoService.save(new CreateTodoRequest(UUID.randomUUID().toString()));
+    }
+
+    @Benchmark
+    public Todo update() throws AlreadyExistException, NotExistingTodoException {
+        final UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return todoService.update(new UpdateTodoRequest(UUID.randomUUID().toString(), true, 1), id);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Todo> findAll() {
+        return todoService.findAll();
+    }
+
+    private static List<UUID> seed(JdbcTemplate jdbcTemplate, int rows) {
+        final List<UUID> ids = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int from = 0; from < rows; from += SEED_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(
+                    "insert into \"todo\" (\"id\", \"title\", \"completed\", \"order\", \"version\") values (?, ?, ?, ?, 0)",
+                    ids.subList(from, Math.min(from + SEED_BATCH_SIZE, rows)),
+                    SEED_BATCH_SIZE,
+                    (ps, id) -> {
+                        ps.setObject(1, id);
+                        ps.setString(2, "seed " + id);
+                        ps.setBoolean(3, false);
+                        ps.setInt(4, ThreadLocalRandom.current().nextInt(rows));
+                    });
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package com.carbon.todobackend.benchmark;
+
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of the GET /api/todos payload, with the object
+ * mapper configured as Spring Boot does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoViewSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+
+    private List<TodoView> todoViews;
+
+    @Setup
+    public void setUp() {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TodoView.class));
+        todoViews = IntStream.range(0, size)
+                .mapToObj(i -> {
+                    final UUID id = UUID.randomUUID();
+                    return new TodoView(id, "Todo " + i, i % 2 == 0, i, "http://localhost:8080/api/todos/" + id);
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTodoViews() throws JsonProcessingException {
+        return writer.writeValueAsBytes(todoViews);
+    }
+}
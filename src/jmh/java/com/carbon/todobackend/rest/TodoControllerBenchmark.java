@@ -0,0 +1,69 @@
+package com.carbon.todobackend.rest;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import com.carbon.todobackend.rest.link.TodoLinks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a Todo into a TodoView, and of resolving the request
+ * links, the latter being paid once per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoControllerBenchmark {
+
+    private final TodoLinkFactory todoLinkFactory = new TodoLinkFactory();
+
+    private final TodoController todoController = new TodoController(null, null, todoLinkFactory, null, new ObjectMapper());
+
+    private Todo todo;
+
+    private TodoLinks links;
+
+    @Setup
+    public void setUp() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+        request.setQueryString("limit=100");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        todo = new Todo(UUID.randomUUID(), "Buy some milk", false, 42);
+        links = todoLinkFactory.forCurrentRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public TodoView toTodoView() {
+        return todoController.toTodoView(todo, links);
+    }
+
+    @Benchmark
+    public TodoLinks forCurrentRequest() {
+        return todoLinkFactory.forCurrentRequest();
+    }
+}
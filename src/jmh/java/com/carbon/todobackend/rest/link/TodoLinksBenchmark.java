@@ -0,0 +1,75 @@
+package com.carbon.todobackend.rest.link;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Links of a whole GET /api/todos response: one builder per item, as the
+ * controller used to do, against one TodoLinks per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TodoLinksBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    private final TodoLinkFactory todoLinkFactory = new TodoLinkFactory();
+
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/todos")));
+        ids = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void uriBuilderPerItem(Blackhole blackhole) {
+        for (UUID id : ids) {
+            blackhole.consume(ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(id)
+                    .toUriString());
+        }
+    }
+
+    @Benchmark
+    public void todoLinksPerRequest(Blackhole blackhole) {
+        final TodoLinks links = todoLinkFactory.forCurrentRequest();
+        for (UUID id : ids) {
+            blackhole.consume(links.todo(id));
+        }
+    }
+}
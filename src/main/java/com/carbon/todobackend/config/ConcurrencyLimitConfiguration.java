@@ -0,0 +1,47 @@
+package com.carbon.todobackend.config;
+
+import com.carbon.todobackend.rest.limit.ConcurrencyLimitFilter;
+import com.carbon.todobackend.rest.limit.GradientConcurrencyLimit;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Adaptive concurrency limits in front of the API, see {@link ConcurrencyLimitFilter}.
+ * <p>
+ * The filter runs right after the observation filter, so the shed requests
+ * still show up in http.server.requests, with their 503.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todo.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+class ConcurrencyLimitConfiguration {
+
+    @Bean
+    ConcurrencyLimitFilter concurrencyLimitFilter(@Value("${todo.concurrency-limit.initial-limit:20}") int initialLimit,
+                                                  @Value("${todo.concurrency-limit.min-limit:2}") int minLimit,
+                                                  @Value("${todo.concurrency-limit.max-limit:200}") int maxLimit,
+                                                  @Value("${todo.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        return new ConcurrencyLimitFilter(
+                new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit),
+                new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit),
+                Set.of(TodoLinkFactory.COLLECTION_PATH + "/changes"),
+                retryAfter);
+    }
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        final FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.carbon.todobackend.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns {@link io.micrometer.observation.annotation.Observed} methods into
+ * observations, hence timers and spans.
+ */
+@Configuration
+class ObservabilityConfiguration {
+
+    @Bean
+    ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.carbon.todobackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.relational.RelationalManagedTypes;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.Optional;
+
+/**
+ * R2DBC access to the todo table for the reactive stack.
+ * <p>
+ * Boot's R2DBC auto-configuration is excluded: its reactive transaction
+ * manager would otherwise replace the JPA one the servlet stack relies on.
+ * The transaction manager built here is only reachable through the
+ * {@link TransactionalOperator}.
+ * <p>
+ * The JDBC datasource is declared explicitly because Boot's one backs off as
+ * soon as a {@link ConnectionFactory} bean exists, and Flyway migrates the
+ * schema through it.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+@EnableR2dbcRepositories("com.carbon.todobackend.dao.reactive")
+public class ReactiveDatabaseConfiguration extends AbstractR2dbcConfiguration {
+
+    private final String url;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    public ReactiveDatabaseConfiguration(@Value("${todo.reactive.r2dbc-url}") String url,
+                                         DataSourceProperties dataSourceProperties) {
+        this.url = url;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource() {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Override
+    @Bean
+    public ConnectionFactory connectionFactory() {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword())
+                .build());
+    }
+
+    /**
+     * The schema is created with quoted identifiers, see
+     * {@code hibernate.globally_quoted_identifiers}.
+     */
+    @Override
+    @Bean
+    public R2dbcMappingContext r2dbcMappingContext(Optional<NamingStrategy> namingStrategy,
+                                                   R2dbcCustomConversions r2dbcCustomConversions,
+                                                   RelationalManagedTypes r2dbcManagedTypes) {
+        final R2dbcMappingContext mappingContext = super.r2dbcMappingContext(namingStrategy, r2dbcCustomConversions,
+                r2dbcManagedTypes);
+        mappingContext.setForceQuote(true);
+        return mappingContext;
+    }
+
+    @Bean
+    TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
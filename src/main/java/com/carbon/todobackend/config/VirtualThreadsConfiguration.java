@@ -0,0 +1,47 @@
+package com.carbon.todobackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the Tomcat request handling, hence the transactional service calls made
+ * on the request thread, and the asynchronous MVC responses on virtual threads.
+ * <p>
+ * Enabled with {@code todo.execution.mode=virtual}, see the
+ * {@code virtual-threads} profile. Requires a Java 21 runtime: the executor is
+ * looked up reflectively so the application still builds for Java 17, and
+ * startup fails fast on an older runtime.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "todo.execution.mode", havingValue = "virtual")
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The virtual execution mode requires Java 21 or later", e);
+        }
+    }
+}
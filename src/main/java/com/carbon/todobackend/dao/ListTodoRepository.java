@@ -0,0 +1,63 @@
+package com.carbon.todobackend.dao;
+
+import com.carbon.todobackend.domain.entities.ListTodoEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Todos of the todo lists. Every query is bounded to one list, and served by
+ * an index leading with the list id.
+ */
+public interface ListTodoRepository extends JpaRepository<ListTodoEntity, UUID> {
+    boolean existsByListIdAndTitle(UUID listId, String title);
+
+    boolean existsByListIdAndTitleAndIdNot(UUID listId, String title, UUID id);
+
+    Optional<ListTodoEntity> findByListIdAndId(UUID listId, UUID id);
+
+    /**
+     * First keyset page of the list, ordered by order (nulls first) then id.
+     */
+    @Query("""
+            select t from ListTodoEntity t
+            where t.listId = :listId
+            order by t.order asc nulls first, t.id asc""")
+    List<ListTodoEntity> findFirstPage(@Param("listId") UUID listId, Pageable pageable);
+
+    /**
+     * Keyset page of the list starting strictly after the (order, id) position.
+     * A null order means the cursor is still inside the leading run of unordered todos.
+     */
+    @Query("""
+            select t from ListTodoEntity t
+            where t.listId = :listId
+              and ((:order is null and (t.order is not null or t.id > :id))
+                or t.order > :order
+                or (t.order = :order and t.id > :id))
+            order by t.order asc nulls first, t.id asc""")
+    List<ListTodoEntity> findPageAfter(@Param("listId") UUID listId, @Param("order") Integer order,
+                                       @Param("id") UUID id, Pageable pageable);
+
+    /**
+     * Delete with a single statement, without loading the todo first.
+     *
+     * @return the number of rows deleted, 0 if the todo did not exist in the list
+     */
+    @Modifying
+    @Query("delete from ListTodoEntity t where t.listId = :listId and t.id = :id")
+    int deleteTodoById(@Param("listId") UUID listId, @Param("id") UUID id);
+
+    /**
+     * Delete every todo of the list with a single statement.
+     */
+    @Modifying
+    @Query("delete from ListTodoEntity t where t.listId = :listId")
+    int deleteAllByListId(@Param("listId") UUID listId);
+}
@@ -0,0 +1,10 @@
+package com.carbon.todobackend.dao;
+
+/**
+ * Number of todos and of completed ones, computed by the database.
+ */
+public interface TodoCountsProjection {
+    long getTotal();
+
+    long getCompleted();
+}
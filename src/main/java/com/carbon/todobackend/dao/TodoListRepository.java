@@ -0,0 +1,21 @@
+package com.carbon.todobackend.dao;
+
+import com.carbon.todobackend.domain.entities.TodoListEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface TodoListRepository extends JpaRepository<TodoListEntity, UUID> {
+
+    /**
+     * Delete with a single statement, the foreign key cascading to the todos of the list.
+     *
+     * @return the number of rows deleted, 0 if the list did not exist
+     */
+    @Modifying
+    @Query("delete from TodoListEntity l where l.id = :id")
+    int deleteListById(@Param("id") UUID id);
+}
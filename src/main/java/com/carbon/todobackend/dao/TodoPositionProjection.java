@@ -0,0 +1,12 @@
+package com.carbon.todobackend.dao;
+
+import java.util.UUID;
+
+/**
+ * Id and order of a todo, read without loading the entity.
+ */
+public interface TodoPositionProjection {
+    UUID getId();
+
+    Integer getOrder();
+}
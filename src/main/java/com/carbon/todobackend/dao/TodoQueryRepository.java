@@ -0,0 +1,44 @@
+package com.carbon.todobackend.dao;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoField;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.entities.TodoEntity;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Criteria queries of {@link TodoRepository}, built from the filters, sort and
+ * columns a client asked for. Only the selected columns are read or written:
+ * the entities returned are transient, their other fields being null.
+ */
+public interface TodoQueryRepository {
+
+    /**
+     * Every todo matching the query, in its sort order, fetched by chunks from
+     * an open cursor. Must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<TodoEntity> streamMatching(TodoQuery query);
+
+    /**
+     * Keyset page of the todos matching the query, ordered by order (nulls
+     * first) then id, starting strictly after the (order, id) position.
+     *
+     * @param id the id of the position, null for the first page
+     */
+    List<TodoEntity> findPageMatching(TodoQuery query, Integer order, UUID id, int limit);
+
+    /**
+     * Write some columns of a todo with a single UPDATE, provided it is still
+     * at the expected version, and move it to the version of the todo.
+     *
+     * @param todo the todo, holding the values of the columns and its next version
+     * @param columns the columns to write
+     * @param version the version the todo must still be at
+     * @return the number of rows updated, 0 if the todo changed or does not exist
+     */
+    int updateColumns(Todo todo, Set<TodoField> columns, Long version);
+}
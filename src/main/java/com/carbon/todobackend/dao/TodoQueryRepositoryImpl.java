@@ -0,0 +1,202 @@
+package com.carbon.todobackend.dao;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoField;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSort;
+import com.carbon.todobackend.domain.entities.TodoEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.sqm.NullPrecedence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Criteria API implementation of {@link TodoQueryRepository}, picked up by
+ * Spring Data as a fragment of {@link TodoRepository}. Its updates bypass the
+ * persistence context and must run in a transaction.
+ * <p>
+ * The filters on completed and on the order range are served by the indexes
+ * of {@link TodoEntity}, as is the title prefix by the unique title index.
+ * A title contained anywhere is matched by a scan.
+ */
+public class TodoQueryRepositoryImpl implements TodoQueryRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    public TodoQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<TodoEntity> streamMatching(TodoQuery query) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        final Root<TodoEntity> todo = criteria.from(TodoEntity.class);
+        final List<Order> orders = new ArrayList<>();
+        if (query.sort().isEmpty()) {
+            orders.addAll(keysetOrder(builder, todo));
+        } else {
+            for (TodoSort sort : query.sort()) {
+                orders.add(order(builder, todo.get(sort.field().attribute()), sort.descending()));
+            }
+            if (query.sort().stream().noneMatch(sort -> sort.field() == TodoField.ID)) {
+                // Ties are broken the same way on every request.
+                orders.add(builder.asc(todo.get(TodoField.ID.attribute())));
+            }
+        }
+        return select(criteria, todo, query, filters(builder, todo, query), orders)
+                .setHint(HINT_FETCH_SIZE, 256)
+                .getResultStream()
+                .map(tuple -> toEntity(tuple, query.fields()));
+    }
+
+    @Override
+    public List<TodoEntity> findPageMatching(TodoQuery query, Integer order, UUID id, int limit) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        final Root<TodoEntity> todo = criteria.from(TodoEntity.class);
+        final List<Predicate> predicates = filters(builder, todo, query);
+        if (id != null) {
+            predicates.add(after(builder, todo, order, id));
+        }
+        return select(criteria, todo, query, predicates, keysetOrder(builder, todo))
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> toEntity(tuple, query.fields()))
+                .toList();
+    }
+
+    @Override
+    public int updateColumns(Todo todo, Set<TodoField> columns, Long version) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaUpdate<TodoEntity> update = builder.createCriteriaUpdate(TodoEntity.class);
+        final Root<TodoEntity> todoEntity = update.from(TodoEntity.class);
+        for (TodoField column : columns) {
+            switch (column) {
+                case TITLE -> set(builder, update, todoEntity.get(column.attribute()), todo.title(), String.class);
+                case COMPLETED -> set(builder, update, todoEntity.get(column.attribute()), todo.completed(), Boolean.class);
+                case ORDER -> set(builder, update, todoEntity.get(column.attribute()), todo.order(), Integer.class);
+                case ID -> throw new IllegalArgumentException("The id of a todo cannot be updated");
+            }
+        }
+        final Path<Long> todoVersion = todoEntity.get("version");
+        update.set(todoVersion, todo.version());
+        update.where(
+                builder.equal(todoEntity.get(TodoField.ID.attribute()), todo.id()),
+                version == null ? builder.isNull(todoVersion) : builder.equal(todoVersion, version));
+        final int updated = entityManager.createQuery(update).executeUpdate();
+        if (updated == 0) {
+            // A managed copy of the row is stale, so that reading it again gets the current one.
+            entityManager.detach(entityManager.getReference(TodoEntity.class, todo.id()));
+        }
+        return updated;
+    }
+
+    private static <T> void set(CriteriaBuilder builder, CriteriaUpdate<TodoEntity> update, Path<T> path, T value, Class<T> type) {
+        if (value == null) {
+            update.set(path, builder.nullLiteral(type));
+        } else {
+            update.set(path, value);
+        }
+    }
+
+    private TypedQuery<Tuple> select(CriteriaQuery<Tuple> criteria, Root<TodoEntity> todo, TodoQuery query,
+                                     List<Predicate> predicates, List<Order> orders) {
+        criteria.multiselect(query.fields().stream()
+                .<Selection<?>>map(field -> todo.get(field.attribute()).alias(field.attribute()))
+                .toList());
+        criteria.where(predicates.toArray(Predicate[]::new));
+        criteria.orderBy(orders);
+        return entityManager.createQuery(criteria);
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder builder, Root<TodoEntity> todo, TodoQuery query) {
+        final List<Predicate> predicates = new ArrayList<>();
+        if (query.completed() != null) {
+            predicates.add(builder.equal(todo.get(TodoField.COMPLETED.attribute()), query.completed()));
+        }
+        if (query.titlePrefix() != null) {
+            predicates.add(builder.like(todo.get(TodoField.TITLE.attribute()), escapeLike(query.titlePrefix()) + "%", LIKE_ESCAPE));
+        }
+        if (query.titleContains() != null) {
+            predicates.add(builder.like(todo.get(TodoField.TITLE.attribute()), "%" + escapeLike(query.titleContains()) + "%", LIKE_ESCAPE));
+        }
+        if (query.minOrder() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(todo.get(TodoField.ORDER.attribute()), query.minOrder()));
+        }
+        if (query.maxOrder() != null) {
+            predicates.add(builder.lessThanOrEqualTo(todo.get(TodoField.ORDER.attribute()), query.maxOrder()));
+        }
+        return predicates;
+    }
+
+    /**
+     * Same position test as {@link TodoRepository#findPageAfter}.
+     */
+    private static Predicate after(CriteriaBuilder builder, Root<TodoEntity> todo, Integer order, UUID id) {
+        final Path<Integer> todoOrder = todo.get(TodoField.ORDER.attribute());
+        final Path<UUID> todoId = todo.get(TodoField.ID.attribute());
+        if (order == null) {
+            return builder.or(builder.isNotNull(todoOrder), builder.greaterThan(todoId, id));
+        }
+        return builder.or(
+                builder.greaterThan(todoOrder, order),
+                builder.and(builder.equal(todoOrder, order), builder.greaterThan(todoId, id)));
+    }
+
+    private static List<Order> keysetOrder(CriteriaBuilder builder, Root<TodoEntity> todo) {
+        return List.of(
+                order(builder, todo.get(TodoField.ORDER.attribute()), false),
+                builder.asc(todo.get(TodoField.ID.attribute())));
+    }
+
+    private static Order order(CriteriaBuilder builder, Path<?> path, boolean descending) {
+        return descending
+                ? ((JpaOrder) builder.desc(path)).nullPrecedence(NullPrecedence.LAST)
+                : ((JpaOrder) builder.asc(path)).nullPrecedence(NullPrecedence.FIRST);
+    }
+
+    private static String escapeLike(String value) {
+        final StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static TodoEntity toEntity(Tuple tuple, Set<TodoField> fields) {
+        final TodoEntity todoEntity = new TodoEntity();
+        for (TodoField field : fields) {
+            switch (field) {
+                case ID -> todoEntity.setId(tuple.get(field.attribute(), UUID.class));
+                case TITLE -> todoEntity.setTitle(tuple.get(field.attribute(), String.class));
+                case COMPLETED -> todoEntity.setCompleted(tuple.get(field.attribute(), Boolean.class));
+                case ORDER -> todoEntity.setOrder(tuple.get(field.attribute(), Integer.class));
+            }
+        }
+        return todoEntity;
+    }
+}
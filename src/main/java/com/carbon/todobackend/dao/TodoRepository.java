@@ -1,10 +1,160 @@
 package com.carbon.todobackend.dao;
 
 import com.carbon.todobackend.domain.entities.TodoEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TodoRepository extends JpaRepository<TodoEntity, UUID> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface TodoRepository extends JpaRepository<TodoEntity, UUID>, TodoQueryRepository {
     boolean existsByTitle(String title);
+
+    /**
+     * First keyset page, ordered by order (nulls first) then id.
+     */
+    @Query("select t from TodoEntity t order by t.order asc nulls first, t.id asc")
+    List<TodoEntity> findFirstPage(Pageable pageable);
+
+    /**
+     * Keyset page starting strictly after the (order, id) position.
+     * A null order means the cursor is still inside the leading run of unordered todos.
+     */
+    @Query("""
+            select t from TodoEntity t
+            where (:order is null and (t.order is not null or t.id > :id))
+               or t.order > :order
+               or (t.order = :order and t.id > :id)
+            order by t.order asc nulls first, t.id asc""")
+    List<TodoEntity> findPageAfter(@Param("order") Integer order, @Param("id") UUID id, Pageable pageable);
+
+    /**
+     * Every todo in keyset order, fetched by chunks from an open cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from TodoEntity t order by t.order asc nulls first, t.id asc")
+    Stream<TodoEntity> streamAll();
+
+    /**
+     * Every non null title with its todo id, used to warm the in-memory title index.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1024"))
+    @Query("select t.id as id, t.title as title from TodoEntity t where t.title is not null")
+    Stream<TodoTitleProjection> streamTitles();
+
+    /**
+     * Both counts in a single aggregate query, no row being loaded.
+     */
+    @Query("select count(t) as total, count(case when t.completed = true then 1 end) as completed from TodoEntity t")
+    TodoCountsProjection countTodos();
+
+    /**
+     * Delete the completed todos with a single statement. Their ids are read
+     * back from the rows deleted, H2's old table of the statement, for the
+     * in-memory indexes. They are read as text, a native query getting the
+     * bytes of a UUID column.
+     *
+     * @return the ids of the todos deleted
+     */
+    @Query(nativeQuery = true, value = """
+            select cast("id" as varchar) from old table (delete from "todo" where "completed" = true)""")
+    List<UUID> deleteCompleted();
+
+    /**
+     * Delete with a single statement, without loading the todo first.
+     *
+     * @return the number of rows deleted, 0 if the todo did not exist
+     */
+    @Modifying
+    @Query("delete from TodoEntity t where t.id = :id")
+    int deleteTodoById(@Param("id") UUID id);
+
+    /**
+     * Positions of the first todos, in keyset order.
+     */
+    @Query("select t.id as id, t.order as order from TodoEntity t order by t.order asc nulls first, t.id asc")
+    List<TodoPositionProjection> findFirstPositions(Pageable pageable);
+
+    /**
+     * Positions of the todos following the (order, id) position, in keyset order.
+     */
+    @Query("""
+            select t.id as id, t.order as order from TodoEntity t
+            where (:order is null and (t.order is not null or t.id > :id))
+               or t.order > :order
+               or (t.order = :order and t.id > :id)
+            order by t.order asc nulls first, t.id asc""")
+    List<TodoPositionProjection> findPositionsAfter(@Param("order") Integer order, @Param("id") UUID id,
+                                                    Pageable pageable);
+
+    /**
+     * Position of the "id" todo.
+     */
+    @Query("select t.id as id, t.order as order from TodoEntity t where t.id = :id")
+    Optional<TodoPositionProjection> findPositionById(@Param("id") UUID id);
+
+    /**
+     * The "id" todo, locked until the end of the transaction so that
+     * concurrent writes of it take turns.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TodoEntity t where t.id = :id")
+    Optional<TodoEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Every todo in keyset order, locked for renumbering.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TodoEntity t order by t.order asc nulls first, t.id asc")
+    List<TodoEntity> findAllForUpdate();
+
+    @Query("select t.id from TodoEntity t where t.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Overwrite a todo with a state decided elsewhere, version included.
+     *
+     * @return the number of rows updated, 0 if the todo is not stored yet
+     */
+    @Modifying
+    @Query("""
+            update TodoEntity t
+            set t.title = :title, t.completed = :completed, t.order = :order, t.version = :version
+            where t.id = :id""")
+    int overwrite(@Param("id") UUID id, @Param("title") String title, @Param("completed") Boolean completed,
+                  @Param("order") Integer order, @Param("version") Long version);
+
+    /**
+     * Insert a todo whose id is already assigned, which persist would generate again.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into "todo" ("id", "title", "completed", "order", "version")
+            values (:id, :title, :completed, :order, :version)""")
+    void insert(@Param("id") UUID id, @Param("title") String title, @Param("completed") Boolean completed,
+                @Param("order") Integer order, @Param("version") Long version);
+
+    /**
+     * Free the titles of the todos, so that they can be written back in any order.
+     */
+    @Modifying
+    @Query("update TodoEntity t set t.title = null where t.id in :ids")
+    void clearTitles(@Param("ids") Collection<UUID> ids);
 }
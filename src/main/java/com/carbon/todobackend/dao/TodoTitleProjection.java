@@ -0,0 +1,12 @@
+package com.carbon.todobackend.dao;
+
+import java.util.UUID;
+
+/**
+ * Id and title of a todo, read without loading the entity.
+ */
+public interface TodoTitleProjection {
+    UUID getId();
+
+    String getTitle();
+}
@@ -0,0 +1,50 @@
+package com.carbon.todobackend.dao.reactive;
+
+import com.carbon.todobackend.domain.entities.ReactiveTodoEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ReactiveTodoRepository extends R2dbcRepository<ReactiveTodoEntity, UUID> {
+    Mono<Boolean> existsByTitle(String title);
+
+    Mono<Long> countByCompleted(Boolean completed);
+
+    /**
+     * Every todo in keyset order, emitted as the rows are read.
+     */
+    @Query("SELECT * FROM \"todo\" ORDER BY \"order\" ASC NULLS FIRST, \"id\" ASC")
+    Flux<ReactiveTodoEntity> findAllInKeysetOrder();
+
+    /**
+     * First keyset page, ordered by order (nulls first) then id.
+     */
+    @Query("SELECT * FROM \"todo\" ORDER BY \"order\" ASC NULLS FIRST, \"id\" ASC LIMIT :limit")
+    Flux<ReactiveTodoEntity> findFirstPage(@Param("limit") int limit);
+
+    /**
+     * Keyset page starting strictly after the (order, id) position.
+     * A null order means the cursor is still inside the leading run of unordered todos.
+     */
+    @Query("""
+            SELECT * FROM "todo"
+            WHERE (CAST(:order AS INTEGER) IS NULL AND ("order" IS NOT NULL OR "id" > :id))
+               OR "order" > :order
+               OR ("order" = :order AND "id" > :id)
+            ORDER BY "order" ASC NULLS FIRST, "id" ASC
+            LIMIT :limit""")
+    Flux<ReactiveTodoEntity> findPageAfter(@Param("order") Integer order, @Param("id") UUID id, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM \"todo\" WHERE \"completed\" = TRUE")
+    Mono<Long> deleteCompleted();
+
+    @Query("SELECT \"id\" FROM \"todo\" WHERE \"id\" IN (:ids)")
+    Flux<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+}
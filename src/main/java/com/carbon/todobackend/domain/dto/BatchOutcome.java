@@ -0,0 +1,9 @@
+package com.carbon.todobackend.domain.dto;
+
+public enum BatchOutcome {
+	CREATED,
+	UPDATED,
+	DELETED,
+	CONFLICT,
+	NOT_FOUND
+}
@@ -0,0 +1,7 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.UUID;
+
+public record BatchUpdateTodoRequest(UUID id, String title, Boolean completed, Integer order) {
+
+}
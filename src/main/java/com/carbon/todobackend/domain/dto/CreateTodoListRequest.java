@@ -0,0 +1,5 @@
+package com.carbon.todobackend.domain.dto;
+
+public record CreateTodoListRequest(String name) {
+
+}
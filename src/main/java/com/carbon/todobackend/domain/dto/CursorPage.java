@@ -0,0 +1,11 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> items, String next) {
+
+	public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+		return new CursorPage<>(items.stream().<R>map(mapper).toList(), next);
+	}
+}
@@ -0,0 +1,10 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * Target position of a moved todo: right after the "after" todo, or first when it is null.
+ */
+public record MoveTodoRequest(UUID after) {
+
+}
@@ -1,7 +1,15 @@
 package com.carbon.todobackend.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.UUID;
 
-public record Todo(UUID id, String title, Boolean completed, Integer order) {
+/**
+ * A todo. The version is carried by the ETag header rather than the body.
+ */
+public record Todo(UUID id, String title, Boolean completed, Integer order, @JsonIgnore Long version) {
 
+	public Todo(UUID id, String title, Boolean completed, Integer order) {
+		this(id, title, completed, order, null);
+	}
 }
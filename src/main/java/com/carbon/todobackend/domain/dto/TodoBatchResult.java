@@ -0,0 +1,14 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.UUID;
+
+public record TodoBatchResult(BatchOutcome outcome, UUID id, Todo todo) {
+
+	public static TodoBatchResult of(BatchOutcome outcome, Todo todo) {
+		return new TodoBatchResult(outcome, todo.id(), todo);
+	}
+
+	public static TodoBatchResult of(BatchOutcome outcome, UUID id) {
+		return new TodoBatchResult(outcome, id, null);
+	}
+}
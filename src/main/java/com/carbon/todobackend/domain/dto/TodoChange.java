@@ -0,0 +1,11 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * A committed change of the todo collection. The todo is only set for
+ * CREATED and UPDATED, the id for those and DELETED.
+ */
+public record TodoChange(long sequence, TodoChangeType type, UUID id, Todo todo) {
+
+}
@@ -0,0 +1,13 @@
+package com.carbon.todobackend.domain.dto;
+
+public enum TodoChangeType {
+	CREATED,
+	UPDATED,
+	DELETED,
+	/** Every todo was deleted. */
+	CLEARED,
+	/** Every completed todo was deleted. */
+	COMPLETED_DELETED,
+	/** Changes were missed, the collection has to be fetched again. */
+	RESET
+}
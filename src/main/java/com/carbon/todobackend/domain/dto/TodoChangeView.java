@@ -0,0 +1,7 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.UUID;
+
+public record TodoChangeView(TodoChangeType type, UUID id, TodoView todo) {
+
+}
@@ -0,0 +1,24 @@
+package com.carbon.todobackend.domain.dto;
+
+/**
+ * A stored column of a todo, that a query can select, filter or sort on.
+ */
+public enum TodoField {
+	ID("id"),
+	TITLE("title"),
+	COMPLETED("completed"),
+	ORDER("order");
+
+	private final String attribute;
+
+	TodoField(String attribute) {
+		this.attribute = attribute;
+	}
+
+	/**
+	 * @return the name of the field, both in the entity and in the JSON view
+	 */
+	public String attribute() {
+		return attribute;
+	}
+}
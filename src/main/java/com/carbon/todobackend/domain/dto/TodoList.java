@@ -0,0 +1,10 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.UUID;
+
+/**
+ * A todo list, owning its todos and the uniqueness of their titles.
+ */
+public record TodoList(UUID id, String name) {
+
+}
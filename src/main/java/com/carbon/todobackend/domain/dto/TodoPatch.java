@@ -0,0 +1,84 @@
+package com.carbon.todobackend.domain.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7396) of a todo: a member set to null clears the
+ * field, an absent member leaves it unchanged. Other members are ignored.
+ */
+@JsonDeserialize(using = TodoPatch.Deserializer.class)
+public record TodoPatch(Set<TodoField> fields, String title, Boolean completed, Integer order) {
+
+	public TodoPatch {
+		final Set<TodoField> present = EnumSet.noneOf(TodoField.class);
+		present.addAll(fields);
+		present.remove(TodoField.ID);
+		fields = Collections.unmodifiableSet(present);
+	}
+
+	public static TodoPatch of(ObjectNode patch) {
+		final Set<TodoField> fields = EnumSet.noneOf(TodoField.class);
+		final JsonNode title = member(patch, TodoField.TITLE, fields);
+		final JsonNode completed = member(patch, TodoField.COMPLETED, fields);
+		final JsonNode order = member(patch, TodoField.ORDER, fields);
+		if (title != null && !title.isNull() && !title.isTextual()
+				|| completed != null && !completed.isNull() && !completed.isBoolean()
+				|| order != null && !order.isNull() && !(order.isIntegralNumber() && order.canConvertToInt())) {
+			throw new IllegalArgumentException("A todo patch holds a string title, a boolean completed and an integer order");
+		}
+		return new TodoPatch(fields,
+				title == null || title.isNull() ? null : title.textValue(),
+				completed == null || completed.isNull() ? null : completed.booleanValue(),
+				order == null || order.isNull() ? null : order.intValue());
+	}
+
+	private static JsonNode member(ObjectNode patch, TodoField field, Set<TodoField> fields) {
+		final JsonNode value = patch.get(field.attribute());
+		if (value != null) {
+			fields.add(field);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the todo with the patched fields replaced, its version unchanged
+	 */
+	public Todo applyTo(Todo todo) {
+		return new Todo(
+				todo.id(),
+				fields.contains(TodoField.TITLE) ? title : todo.title(),
+				fields.contains(TodoField.COMPLETED) ? completed : todo.completed(),
+				fields.contains(TodoField.ORDER) ? order : todo.order(),
+				todo.version());
+	}
+
+	/**
+	 * Read the patch as a tree, the only way to tell an absent member from a null one.
+	 */
+	static class Deserializer extends StdDeserializer<TodoPatch> {
+
+		Deserializer() {
+			super(TodoPatch.class);
+		}
+
+		@Override
+		public TodoPatch deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			final ObjectNode patch = context.readValue(parser, ObjectNode.class);
+			try {
+				return of(patch);
+			} catch (IllegalArgumentException e) {
+				return (TodoPatch) context.handleInstantiationProblem(TodoPatch.class, patch, e);
+			}
+		}
+	}
+}
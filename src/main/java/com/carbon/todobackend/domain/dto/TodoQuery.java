@@ -0,0 +1,49 @@
+package com.carbon.todobackend.domain.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filters, sort and columns of a todo listing. Null filters match every todo;
+ * the title filters are case sensitive and the order range is inclusive.
+ * <p>
+ * Without sort keys the todos come in keyset order, by order then id.
+ */
+public record TodoQuery(Boolean completed, String titlePrefix, String titleContains, Integer minOrder, Integer maxOrder,
+		List<TodoSort> sort, Set<TodoField> fields) {
+
+	public static final TodoQuery ALL = new TodoQuery(null, null, null, null, null, List.of(), EnumSet.allOf(TodoField.class));
+
+	public TodoQuery {
+		final Set<TodoField> selected = EnumSet.noneOf(TodoField.class);
+		selected.addAll(fields);
+		sort = List.copyOf(sort);
+		fields = Collections.unmodifiableSet(selected);
+	}
+
+	/**
+	 * @return whether some todos may be left out
+	 */
+	public boolean isFiltered() {
+		return completed != null || titlePrefix != null || titleContains != null || minOrder != null || maxOrder != null;
+	}
+
+	/**
+	 * @return whether every todo is listed whole, in keyset order
+	 */
+	public boolean isAll() {
+		return !isFiltered() && sort.isEmpty() && fields.size() == TodoField.values().length;
+	}
+
+	/**
+	 * @return the same query, also reading the given columns
+	 */
+	public TodoQuery selecting(TodoField... more) {
+		final Set<TodoField> selected = EnumSet.noneOf(TodoField.class);
+		selected.addAll(fields);
+		selected.addAll(List.of(more));
+		return new TodoQuery(completed, titlePrefix, titleContains, minOrder, maxOrder, sort, selected);
+	}
+}
@@ -0,0 +1,8 @@
+package com.carbon.todobackend.domain.dto;
+
+/**
+ * One sort key. Null values come first in ascending order, last in descending order.
+ */
+public record TodoSort(TodoField field, boolean descending) {
+
+}
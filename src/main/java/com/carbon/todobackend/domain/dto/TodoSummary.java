@@ -0,0 +1,11 @@
+package com.carbon.todobackend.domain.dto;
+
+/**
+ * Counts of the todos. A todo whose completed flag is not set is active.
+ */
+public record TodoSummary(long total, long active, long completed) {
+
+	public static TodoSummary of(long total, long completed) {
+		return new TodoSummary(total, total - completed, completed);
+	}
+}
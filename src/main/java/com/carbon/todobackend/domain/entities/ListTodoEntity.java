@@ -0,0 +1,105 @@
+package com.carbon.todobackend.domain.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A todo owned by a todo list. Every index leads with the list id.
+ */
+@Entity
+@Table(name = "list_todo", uniqueConstraints = {
+		@UniqueConstraint(name = "list_todo_title_uk", columnNames = {"list_id", "title"})
+}, indexes = {
+		@Index(name = "list_todo_completed_idx", columnList = "list_id, completed"),
+		// Also serves the keyset order of a list, by order then id.
+		@Index(name = "list_todo_order_idx", columnList = "list_id, order, id")
+})
+public class ListTodoEntity implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	private UUID id;
+
+	@Column(name = "list_id", nullable = false, updatable = false)
+	private UUID listId;
+
+	private String title;
+	private Boolean completed;
+	private Integer order;
+
+	@Version
+	private Long version;
+
+	public ListTodoEntity() {
+		// Empty constructor.
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	public UUID getListId() {
+		return listId;
+	}
+
+	public void setListId(UUID listId) {
+		this.listId = listId;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public Boolean isCompleted() {
+		return completed;
+	}
+
+	public void setCompleted(Boolean completed) {
+		this.completed = completed;
+	}
+
+	public Integer getOrder() {
+		return order;
+	}
+
+	public void setOrder(Integer order) {
+		this.order = order;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		ListTodoEntity todo = (ListTodoEntity) o;
+		return Objects.equals(id, todo.id) && Objects.equals(listId, todo.listId) && Objects.equals(title, todo.title)
+				&& Objects.equals(completed, todo.completed) && Objects.equals(order, todo.order);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, listId, title, completed, order);
+	}
+}
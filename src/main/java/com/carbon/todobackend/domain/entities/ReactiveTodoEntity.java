@@ -0,0 +1,89 @@
+package com.carbon.todobackend.domain.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Row of the todo table as read and written by the reactive (R2DBC) stack.
+ * The id is assigned by the application before the row is inserted, and the
+ * column names are spelled out since the schema uses quoted lower case identifiers.
+ */
+@Table("todo")
+public class ReactiveTodoEntity {
+
+	@Id
+	@Column("id")
+	private UUID id;
+
+	@Column("title")
+	private String title;
+	@Column("completed")
+	private Boolean completed;
+	@Column("order")
+	private Integer order;
+	@Version
+	@Column("version")
+	private Long version;
+
+	public ReactiveTodoEntity() {
+		// Empty constructor.
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public Boolean isCompleted() {
+		return completed;
+	}
+
+	public void setCompleted(Boolean completed) {
+		this.completed = completed;
+	}
+
+	public Integer getOrder() {
+		return order;
+	}
+
+	public void setOrder(Integer order) {
+		this.order = order;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		ReactiveTodoEntity todo = (ReactiveTodoEntity) o;
+		return Objects.equals(id, todo.id) && Objects.equals(title, todo.title) && Objects.equals(completed, todo.completed) && Objects.equals(order, todo.order);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, title, completed, order);
+	}
+}
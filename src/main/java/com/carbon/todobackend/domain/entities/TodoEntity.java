@@ -8,7 +8,11 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "todo")
+@Table(name = "todo", indexes = {
+		@Index(name = "todo_completed_idx", columnList = "completed"),
+		// Also serves the keyset order, by order then id.
+		@Index(name = "todo_order_idx", columnList = "order, id")
+})
 public class TodoEntity implements Serializable {
 
 	@Serial
@@ -23,6 +27,9 @@ public class TodoEntity implements Serializable {
 	private Boolean completed;
 	private Integer order;
 
+	@Version
+	private Long version;
+
 	public TodoEntity() {
 		// Empty constructor.
 	}
@@ -51,6 +58,14 @@ public class TodoEntity implements Serializable {
 		this.order = order;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public UUID getId() {
 		return id;
 	}
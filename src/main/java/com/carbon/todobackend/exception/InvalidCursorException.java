@@ -0,0 +1,12 @@
+package com.carbon.todobackend.exception;
+
+import java.io.Serial;
+
+public class InvalidCursorException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.carbon.todobackend.exception;
+
+import java.io.Serial;
+
+public class InvalidQueryException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidQueryException(final String message) {
+        super(message);
+    }
+}
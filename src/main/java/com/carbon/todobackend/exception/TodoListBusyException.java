@@ -0,0 +1,12 @@
+package com.carbon.todobackend.exception;
+
+import java.io.Serial;
+
+public class TodoListBusyException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public TodoListBusyException(final String message) {
+        super(message);
+    }
+}
@@ -1,21 +1,56 @@
 package com.carbon.todobackend.rest;
 
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
 import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.MoveTodoRequest;
 import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoChange;
+import com.carbon.todobackend.domain.dto.TodoChangeView;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSummary;
 import com.carbon.todobackend.domain.dto.TodoView;
 import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
 import com.carbon.todobackend.exception.AlreadyExistException;
 import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
+import com.carbon.todobackend.rest.codec.EncodedTodoWriter;
+import com.carbon.todobackend.rest.codec.TodoPayloadFormat;
+import com.carbon.todobackend.rest.codec.TodoViewEncoder;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import com.carbon.todobackend.rest.link.TodoLinks;
 import com.carbon.todobackend.service.TodoService;
+import com.carbon.todobackend.service.cache.EncodedTodo;
+import com.carbon.todobackend.service.cache.TodoResponseCache;
+import com.carbon.todobackend.service.event.TodoChangeFeed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -25,15 +60,35 @@ import java.util.UUID;
  *
  */
 @Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @CrossOrigin(origins = "http://localhost:4200")
 @RestController
-@RequestMapping("/api/todos")
+@RequestMapping(TodoLinkFactory.COLLECTION_PATH)
 public class TodoController {
 
+	static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
 	private final TodoService todoService;
 
-	public TodoController(TodoService todoService) {
+	private final TodoChangeFeed todoChangeFeed;
+
+	private final TodoLinkFactory todoLinkFactory;
+
+	private final TodoResponseCache todoResponseCache;
+
+	private final ObjectMapper objectMapper;
+
+	private final ObjectWriter projectionWriter;
+
+	public TodoController(TodoService todoService, TodoChangeFeed todoChangeFeed, TodoLinkFactory todoLinkFactory,
+			TodoResponseCache todoResponseCache, ObjectMapper objectMapper) {
 		this.todoService = todoService;
+		this.todoChangeFeed = todoChangeFeed;
+		this.todoLinkFactory = todoLinkFactory;
+		this.todoResponseCache = todoResponseCache;
+		this.objectMapper = objectMapper;
+		this.projectionWriter = objectMapper.writerFor(Map.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 	}
 
 	/**
@@ -49,13 +104,9 @@ public class TodoController {
 	public ResponseEntity<Todo> createTodo(@RequestBody CreateTodoRequest todo) throws AlreadyExistException {
 		log.debug("REST Request to create todo: {}", todo);
 		final Todo createdUser = todoService.save(todo);
-		final URI location = ServletUriComponentsBuilder
-	              .fromCurrentRequest()
-	              .path("/{id}")
-	              .buildAndExpand(createdUser.id())
-	              .toUri();
+		final URI location = URI.create(todoLinkFactory.forCurrentRequest().todo(createdUser.id()));
 
-		return ResponseEntity.created(location)
+		return withETag(ResponseEntity.created(location), createdUser)
 				.body(createdUser);
 	}
 
@@ -63,58 +114,426 @@ public class TodoController {
 	 * PUT /todos : Update a todo.
 	 *
 	 * @param todo the todo dto
+	 * @param ifMatch the ETag the client last saw, to update only that version
 	 * @return the ResponseEntity with status 200 (OK) and with body the
 	 *         todoDto, or with status 400 (Bad Request) if the todo has not
-	 *         already an ID
+	 *         already an ID, or with status 412 (Precondition Failed) if it is
+	 *         no longer at the If-Match version
 	 */
 	@PutMapping("/{id}")
 	@CrossOrigin(methods = RequestMethod.PUT)
-	public ResponseEntity<Todo> updateTodo(@RequestBody UpdateTodoRequest todo, @PathVariable UUID id) throws AlreadyExistException, NotExistingTodoException {
+	public ResponseEntity<Todo> updateTodo(@RequestBody UpdateTodoRequest todo, @PathVariable UUID id,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws AlreadyExistException, NotExistingTodoException {
 		log.debug("REST Request to update todo: {}", todo);
-		final Todo updatedUser = todoService.update(todo, id);
-		return ResponseEntity.ok().body(updatedUser);
+		final Todo updatedUser = todoService.update(todo, id, expectedVersion(ifMatch));
+		return withETag(ResponseEntity.ok(), updatedUser).body(updatedUser);
 	}
 
 	/**
-	 * GET /todos : Get all the todos.
+	 * PATCH /todos/:id : Change some fields of a todo, as a JSON Merge Patch.
 	 *
-	 * @return the ResponseEntity with status 200 (Ok) and the list of todos in body
+	 * @param patch the members to change, null clearing the field
+	 * @param ifMatch the ETag the client last saw, to patch only that version
+	 * @return the ResponseEntity with status 200 (OK) and with body the
+	 *         patched todo, or with status 404 (Not Found) if it does not
+	 *         exist, or with status 409 (Conflict) if the title is taken or
+	 *         the todo changed meanwhile, or with status 412 (Precondition
+	 *         Failed) if it is no longer at the If-Match version
+	 */
+	@PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+	@CrossOrigin(methods = RequestMethod.PATCH)
+	public ResponseEntity<Todo> patchTodo(@RequestBody TodoPatch patch, @PathVariable UUID id,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws AlreadyExistException, NotExistingTodoException {
+		log.debug("REST Request to patch todo: {}", patch);
+		final Todo patchedTodo = todoService.patch(patch, id, expectedVersion(ifMatch));
+		return withETag(ResponseEntity.ok(), patchedTodo).body(patchedTodo);
+	}
+
+	/**
+	 * POST /todos/:id/move : Move a todo right after another one, or first.
+	 * Only the moved todo gets a new order, most of the time.
+	 *
+	 * @param moveTodoRequest the todo to follow, none to move it first
+	 * @return the ResponseEntity with status 200 (OK) and with body the moved
+	 *         todo, or with status 404 (Not Found) if either todo does not
+	 *         exist, or with status 409 (Conflict) if the todo changed meanwhile,
+	 *         or with status 503 (Service Unavailable) if other moves did not
+	 *         complete in time
+	 */
+	@PostMapping(path = "/{id}/move", consumes = MediaType.APPLICATION_JSON_VALUE)
+	@CrossOrigin(methods = RequestMethod.POST)
+	public ResponseEntity<Todo> moveTodo(@RequestBody MoveTodoRequest moveTodoRequest, @PathVariable UUID id) throws NotExistingTodoException {
+		log.debug("REST Request to move todo {}: {}", id, moveTodoRequest);
+		final Todo movedTodo = todoService.move(id, moveTodoRequest.after());
+		return withETag(ResponseEntity.ok(), movedTodo).body(movedTodo);
+	}
+
+	/**
+	 * POST /todos/batch : Create several todos.
+	 *
+	 * @param todos the todos to create
+	 * @return the ResponseEntity with status 200 (OK) and with body the result
+	 *         of each todo, or with status 413 (Payload Too Large) if the batch
+	 *         holds too many todos
+	 */
+	@PostMapping("/batch")
+	@CrossOrigin(methods = RequestMethod.POST)
+	public ResponseEntity<List<TodoBatchResult>> createTodos(@RequestBody List<CreateTodoRequest> todos) throws AlreadyExistException {
+		log.debug("REST Request to create {} todos", todos.size());
+		return ResponseEntity.ok().body(todoService.saveAll(todos));
+	}
+
+	/**
+	 * PATCH /todos/batch : Update several todos.
+	 *
+	 * @param todos the changes, null fields being left unchanged
+	 * @return the ResponseEntity with status 200 (OK) and with body the result
+	 *         of each change, or with status 413 (Payload Too Large) if the
+	 *         batch holds too many todos
+	 */
+	@PatchMapping("/batch")
+	@CrossOrigin(methods = RequestMethod.PATCH)
+	public ResponseEntity<List<TodoBatchResult>> updateTodos(@RequestBody List<BatchUpdateTodoRequest> todos) throws AlreadyExistException {
+		log.debug("REST Request to update {} todos", todos.size());
+		return ResponseEntity.ok().body(todoService.updateAll(todos));
+	}
+
+	/**
+	 * DELETE /todos/batch : Delete several todos.
+	 *
+	 * @param ids the ids of the todos to delete
+	 * @return the ResponseEntity with status 200 (OK) and with body the result
+	 *         of each id, or with status 413 (Payload Too Large) if the batch
+	 *         holds too many ids
+	 */
+	@DeleteMapping("/batch")
+	@CrossOrigin(methods = RequestMethod.DELETE)
+	public ResponseEntity<List<TodoBatchResult>> deleteTodos(@RequestBody List<UUID> ids) {
+		log.debug("REST Request to delete {} todos", ids.size());
+		return ResponseEntity.ok().body(todoService.deleteAllById(ids));
+	}
+
+	/**
+	 * GET /todos : Get all the todos, or those matching the query parameters.
+	 * <p>
+	 * The JSON array is written incrementally while the todos are read from a
+	 * database cursor, so the heap use does not depend on the size of the table.
+	 * Filters, sort and fields are applied by the database, which reads only
+	 * the columns of the requested fields. A poll whose If-None-Match still
+	 * matches the collection version is answered without querying the database.
+	 * The todos are written in JSON, or in CBOR or Smile when Accept names one.
+	 * The JSON of all the todos is copied from their encoded bytes, as long as
+	 * they did not change, see {@link TodoResponseCache}.
+	 *
+	 * @param parameters the filters, sort and fields, see {@link TodoQueryParameters}
+	 * @param accept the media types accepted by the client, see {@link TodoPayloadFormat#negotiate(String)}
+	 * @return the ResponseEntity with status 200 (Ok) and the list of todos in body,
+	 *         or with status 304 (Not Modified) if nothing changed, or with
+	 *         status 400 (Bad Request) if a sort key or field is unknown
 	 *
 	 */
 	@GetMapping
 	@CrossOrigin(methods = RequestMethod.GET)
-	public ResponseEntity<List<TodoView>> getAllTodos() {
-		log.debug("REST Request to find all todos");
-		final List<TodoView> todos = todoService.findAll().stream().map(this::toTodoView).toList();
-		return ResponseEntity.ok().body(todos);
+	public ResponseEntity<StreamingResponseBody> getAllTodos(TodoQueryParameters parameters,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept, WebRequest webRequest) {
+		log.debug("REST Request to find all todos matching {}", parameters);
+		final TodoQuery query = parameters.toQuery();
+		final Set<String> properties = parameters.properties();
+		final String collectionVersion = todoService.collectionVersion();
+		final String eTag = collectionETag(collectionVersion);
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		final TodoPayloadFormat format = TodoPayloadFormat.negotiate(accept);
+		final TodoLinks links = todoLinkFactory.forCurrentRequest();
+		final StreamingResponseBody body = format == TodoPayloadFormat.JSON && properties == null && query.isAll()
+				? outputStream -> writeEncodedTodos(new EncodedTodoWriter(outputStream, links), collectionVersion)
+				: outputStream -> {
+			try (JsonGenerator generator = format.createGenerator(objectMapper.getFactory(), outputStream)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.writeStartArray();
+				if (properties == null && query.isAll()) {
+					todoService.streamAll(todo -> writeTodoView(generator, toTodoView(todo, links)));
+				} else if (properties == null) {
+					todoService.streamAll(query, todo -> writeTodoView(generator, toTodoView(todo, links)));
+				} else {
+					todoService.streamAll(query, todo -> writeProjection(generator, project(todo, properties, links)));
+				}
+				generator.writeEndArray();
+			}
+		};
+		// checkNotModified already set the ETag, which a streaming body would append a second time.
+		return ResponseEntity.ok()
+				.varyBy(HttpHeaders.ACCEPT)
+				.contentType(format.mediaType())
+				.body(body);
+	}
+
+	/**
+	 * GET /todos?limit=:limit&after=:cursor : Get a page of the todos.
+	 *
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor of the previous page, absent for the first page
+	 * @param parameters the filters and fields, pages being always sorted by order then id
+	 * @return the ResponseEntity with status 200 (Ok) and the page in body, or
+	 *         with status 304 (Not Modified) if nothing changed, or with status
+	 *         400 (Bad Request) if the cursor is malformed or a sort is requested
+	 */
+	@GetMapping(params = "limit")
+	@CrossOrigin(methods = RequestMethod.GET)
+	public ResponseEntity<CursorPage<Object>> getTodoPage(@RequestParam int limit, @RequestParam(required = false) String after,
+			TodoQueryParameters parameters, WebRequest webRequest) {
+		log.debug("REST Request to find a page of {} todos after {} matching {}", limit, after, parameters);
+		final TodoQuery query = parameters.toQuery();
+		final Set<String> properties = parameters.properties();
+		final String eTag = collectionETag();
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		final TodoLinks links = todoLinkFactory.forCurrentRequest();
+		final CursorPage<Todo> todos = properties == null && query.isAll()
+				? todoService.findPage(limit, after)
+				: todoService.findPage(limit, after, query);
+		final CursorPage<Object> page = todos.map(todo -> properties == null
+				? toTodoView(todo, links)
+				: project(todo, properties, links));
+		return ResponseEntity.ok().eTag(eTag).body(page);
+	}
+
+	/**
+	 * GET /todos/search?q=:query&limit=:limit&after=:cursor : Search the todos by title.
+	 * <p>
+	 * Titles are matched case insensitively, by prefix, substring or with a
+	 * few typos, from an in-memory index. The best matches come first.
+	 *
+	 * @param q the searched text
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor of the previous page, absent for the first page
+	 * @return the ResponseEntity with status 200 (Ok) and the page in body, or
+	 *         with status 304 (Not Modified) if nothing changed, or with status
+	 *         400 (Bad Request) if the query is blank or the cursor malformed
+	 */
+	@GetMapping("/search")
+	@CrossOrigin(methods = RequestMethod.GET)
+	public ResponseEntity<CursorPage<TodoView>> searchTodos(@RequestParam String q,
+			@RequestParam(defaultValue = "20") int limit, @RequestParam(required = false) String after, WebRequest webRequest) {
+		log.debug("REST Request to search a page of {} todos after {} matching {}", limit, after, q);
+		final String eTag = collectionETag();
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		final TodoLinks links = todoLinkFactory.forCurrentRequest();
+		final CursorPage<TodoView> page = todoService.search(q, limit, after)
+				.map(todo -> toTodoView(todo, links));
+		return ResponseEntity.ok().eTag(eTag).body(page);
+	}
+
+	/**
+	 * GET /todos/summary : Count the todos, without transferring them.
+	 *
+	 * @return the ResponseEntity with status 200 (Ok) and the total, active and
+	 *         completed counts in body, or with status 304 (Not Modified) if
+	 *         nothing changed
+	 */
+	@GetMapping("/summary")
+	@CrossOrigin(methods = RequestMethod.GET)
+	public ResponseEntity<TodoSummary> getSummary(WebRequest webRequest) {
+		log.debug("REST Request to summarize todos");
+		final String eTag = collectionETag();
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(eTag).body(todoService.summarize());
+	}
+
+	/**
+	 * GET /todos/changes : Follow the changes of the todos as Server-Sent Events.
+	 * <p>
+	 * Each event is named after the change type and identified by the epoch
+	 * of the feed and its sequence. A client reconnecting with Last-Event-ID,
+	 * or opening the stream with the after parameter, first receives the
+	 * changes it missed, or a reset event when they are no longer buffered or
+	 * the id comes from before a restart.
+	 *
+	 * @param lastEventId the id of the last event received, sent back by the browser on reconnection
+	 * @param after the id of the last event received, for the first connection
+	 * @return the endless stream of changes
+	 */
+	@GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@CrossOrigin(methods = RequestMethod.GET)
+	public Flux<ServerSentEvent<TodoChangeView>> getChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+			@RequestParam(required = false) String after) {
+		log.debug("REST Request to follow todo changes after {}", lastEventId != null ? lastEventId : after);
+		final TodoLinks links = todoLinkFactory.forCurrentRequest();
+		return todoChangeFeed.changesAfter(lastEventId != null ? lastEventId : after)
+				.map(change -> ServerSentEvent.builder(toTodoChangeView(change, links))
+						.id(todoChangeFeed.eventId(change))
+						.event(change.type().name().toLowerCase(Locale.ROOT))
+						.build());
 	}
 
 	/**
 	 * GET /todos/:id : Get the "id" todo.
 	 *
+	 * The JSON of a todo that did not change is copied from its encoded bytes.
+	 *
 	 * @param id the id
-	 * @return the ResponseEntity with status 200 (Ok)
+	 * @param accept the media types accepted by the client, see {@link TodoPayloadFormat#negotiate(String)}
+	 * @return the ResponseEntity with status 200 (Ok), or with status 304 (Not
+	 *         Modified) if the If-None-Match version is still the current one
 	 */
 	@GetMapping("/{id}")
 	@CrossOrigin(methods = RequestMethod.GET)
-	public ResponseEntity<TodoView> getTodoById(@PathVariable UUID id) {
+	public ResponseEntity<Object> getTodoById(@PathVariable UUID id,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept, WebRequest webRequest) {
 		log.debug("REST Request to get todo by id: {}", id);
-		Optional<TodoView> todoView = todoService.findById(id).map(this::toTodoView);
-		return ResponseEntity.of(todoView);
+		final Optional<Todo> todo = todoService.findById(id);
+		if (todo.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		if (webRequest.checkNotModified(eTagOf(todo.get()))) {
+			return null;
+		}
+		final TodoLinks links = todoLinkFactory.forCurrentRequest();
+		if (TodoPayloadFormat.negotiate(accept) == TodoPayloadFormat.JSON) {
+			return withETag(ResponseEntity.ok(), todo.get())
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(EncodedTodoWriter.toBytes(encode(todo.get()), links));
+		}
+		return withETag(ResponseEntity.ok(), todo.get()).body(toTodoView(todo.get(), links));
 	}
 
-	private TodoView toTodoView(Todo todo) {
-		final URI location = ServletUriComponentsBuilder
-				.fromCurrentRequest()
-				.build()
-				.toUri();
+	/**
+	 * Write every todo, from the bytes kept for the collection version if
+	 * any. Otherwise they are read from the database, reusing the bytes of
+	 * the todos that did not change, then kept if not too many.
+	 */
+	private void writeEncodedTodos(EncodedTodoWriter writer, String collectionVersion) throws IOException {
+		writer.writeStartArray();
+		final List<EncodedTodo> encodedTodos = todoResponseCache.getCollection(collectionVersion);
+		if (encodedTodos != null) {
+			for (EncodedTodo encodedTodo : encodedTodos) {
+				writer.write(encodedTodo);
+			}
+		} else {
+			final List<EncodedTodo> readTodos = new ArrayList<>();
+			final int maximumSize = todoResponseCache.collectionMaximumSize();
+			todoService.streamAll(todo -> {
+				final EncodedTodo encodedTodo = encode(todo);
+				if (readTodos.size() <= maximumSize) {
+					readTodos.add(encodedTodo);
+				}
+				try {
+					writer.write(encodedTodo);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			todoResponseCache.putCollection(collectionVersion, readTodos);
+		}
+		writer.writeEndArray();
+	}
+
+	/**
+	 * The JSON of the todo, encoded once per version.
+	 */
+	private EncodedTodo encode(Todo todo) {
+		if (todo.version() == null) {
+			return TodoViewEncoder.encode(objectMapper.getFactory(), todo);
+		}
+		final EncodedTodo cached = todoResponseCache.get(todo.id(), todo.version());
+		if (cached != null) {
+			return cached;
+		}
+		final EncodedTodo encodedTodo = TodoViewEncoder.encode(objectMapper.getFactory(), todo);
+		todoResponseCache.put(todo.id(), encodedTodo);
+		return encodedTodo;
+	}
+
+	private String collectionETag() {
+		return collectionETag(todoService.collectionVersion());
+	}
+
+	private static String collectionETag(String collectionVersion) {
+		return "W/\"" + collectionVersion + "\"";
+	}
+
+	static String eTagOf(Todo todo) {
+		return todo.version() == null ? null : "\"" + todo.version() + "\"";
+	}
 
+	static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Todo todo) {
+		final String eTag = eTagOf(todo);
+		return eTag == null ? builder : builder.eTag(eTag);
+	}
+
+	/**
+	 * Version required by an If-Match header: none for an absent header or
+	 * "*", the todo version for a strong ETag. Anything else cannot match.
+	 */
+	static Long expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		final String eTag = ifMatch.trim();
+		if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+			try {
+				return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+			} catch (NumberFormatException e) {
+				// Not one of our ETags.
+			}
+		}
+		throw new TodoVersionMismatchException("If-Match does not match any version: " + ifMatch);
+	}
+
+	TodoView toTodoView(Todo todo, TodoLinks links) {
 		return new TodoView(
 				todo.id(),
 				todo.title(),
 				todo.completed(),
 				todo.order(),
-				location.toString());
+				links.todo(todo.id()));
+	}
+
+	private TodoChangeView toTodoChangeView(TodoChange change, TodoLinks links) {
+		return new TodoChangeView(
+				change.type(),
+				change.id(),
+				change.todo() == null ? null : toTodoView(change.todo(), links));
+	}
+
+	/**
+	 * The requested properties of the todo, in the requested order.
+	 */
+	private static Map<String, Object> project(Todo todo, Set<String> properties, TodoLinks links) {
+		final Map<String, Object> projection = new LinkedHashMap<>();
+		for (String property : properties) {
+			projection.put(property, switch (property) {
+				case "id" -> todo.id();
+				case "title" -> todo.title();
+				case "completed" -> todo.completed();
+				case "order" -> todo.order();
+				case TodoQueryParameters.URL -> links.todo(todo.id());
+				default -> throw new IllegalArgumentException("Unknown todo property: " + property);
+			});
+		}
+		return projection;
+	}
+
+	private void writeProjection(JsonGenerator generator, Map<String, Object> projection) {
+		try {
+			projectionWriter.writeValue(generator, projection);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeTodoView(JsonGenerator generator, TodoView todoView) {
+		try {
+			TodoViewEncoder.write(generator, todoView);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	/**
@@ -143,4 +562,17 @@ public class TodoController {
 		log.debug("REST Request to delete all todos");
 		todoService.deleteAll();
 	}
+
+	/**
+	 * DELETE /todos/completed : Delete the completed todos.
+	 *
+	 * @return the ResponseEntity with status 204 (OK)
+	 */
+	@DeleteMapping("/completed")
+	@CrossOrigin(methods = RequestMethod.DELETE)
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void deleteCompleted() {
+		log.debug("REST Request to delete the completed todos");
+		todoService.deleteCompleted();
+	}
 }
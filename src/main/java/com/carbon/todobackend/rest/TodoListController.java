@@ -0,0 +1,202 @@
+package com.carbon.todobackend.rest;
+
+import com.carbon.todobackend.domain.dto.CreateTodoListRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoList;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import com.carbon.todobackend.rest.link.TodoLinks;
+import com.carbon.todobackend.service.TodoListService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.carbon.todobackend.rest.TodoController.eTagOf;
+import static com.carbon.todobackend.rest.TodoController.expectedVersion;
+import static com.carbon.todobackend.rest.TodoController.withETag;
+
+/**
+ * REST controller for managing the todo lists and their todos, alongside the
+ * unowned todos of {@link TodoController}.
+ */
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping(TodoLinkFactory.LISTS_PATH)
+public class TodoListController {
+
+	static final int DEFAULT_PAGE_SIZE = 100;
+
+	private final TodoListService todoListService;
+
+	private final TodoLinkFactory todoLinkFactory;
+
+	public TodoListController(TodoListService todoListService, TodoLinkFactory todoLinkFactory) {
+		this.todoListService = todoListService;
+		this.todoLinkFactory = todoLinkFactory;
+	}
+
+	/**
+	 * POST /lists : Create a new todo list.
+	 *
+	 * @param todoList the list to create
+	 * @return the ResponseEntity with status 201 (Created) and with body the new list
+	 */
+	@PostMapping
+	@CrossOrigin(methods = RequestMethod.POST)
+	public ResponseEntity<TodoList> createList(@RequestBody CreateTodoListRequest todoList) {
+		log.debug("REST Request to create todo list: {}", todoList);
+		final TodoList createdList = todoListService.createList(todoList);
+		final URI location = URI.create(todoLinkFactory.list(createdList.id()));
+		return ResponseEntity.created(location).body(createdList);
+	}
+
+	/**
+	 * GET /lists/:listId : Get the "listId" todo list.
+	 *
+	 * @param listId the id of the list
+	 * @return the ResponseEntity with status 200 (Ok), or with status 404 (Not Found)
+	 */
+	@GetMapping("/{listId}")
+	@CrossOrigin(methods = RequestMethod.GET)
+	public ResponseEntity<TodoList> getList(@PathVariable UUID listId) {
+		log.debug("REST Request to get todo list: {}", listId);
+		return ResponseEntity.of(todoListService.findList(listId));
+	}
+
+	/**
+	 * DELETE /lists/:listId : Delete the "listId" todo list and its todos.
+	 *
+	 * @param listId the id of the list
+	 */
+	@DeleteMapping("/{listId}")
+	@CrossOrigin(methods = RequestMethod.DELETE)
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void deleteList(@PathVariable UUID listId) {
+		log.debug("REST Request to delete todo list: {}", listId);
+		todoListService.deleteList(listId);
+	}
+
+	/**
+	 * POST /lists/:listId/todos : Create a new todo in a list.
+	 *
+	 * @param todo the todo dto
+	 * @return the ResponseEntity with status 201 (Created) and with body the new
+	 *         todo, or with status 404 (Not Found) if the list does not exist, or
+	 *         with status 409 (Conflict) if the list already has the title
+	 */
+	@PostMapping("/{listId}/todos")
+	@CrossOrigin(methods = RequestMethod.POST)
+	public ResponseEntity<Todo> createTodo(@PathVariable UUID listId, @RequestBody CreateTodoRequest todo) throws AlreadyExistException {
+		log.debug("REST Request to create todo in list {}: {}", listId, todo);
+		final Todo createdTodo = todoListService.save(listId, todo);
+		final URI location = URI.create(todoLinkFactory.forList(listId).todo(createdTodo.id()));
+		return withETag(ResponseEntity.created(location), createdTodo).body(createdTodo);
+	}
+
+	/**
+	 * PUT /lists/:listId/todos/:id : Update a todo of a list.
+	 *
+	 * @param todo the todo dto
+	 * @param ifMatch the ETag the client last saw, to update only that version
+	 * @return the ResponseEntity with status 200 (OK) and with body the todo,
+	 *         or with status 404 (Not Found) if the list has no such todo, or
+	 *         with status 409 (Conflict) if the list already has the title, or
+	 *         with status 412 (Precondition Failed) if it is no longer at the
+	 *         If-Match version
+	 */
+	@PutMapping("/{listId}/todos/{id}")
+	@CrossOrigin(methods = RequestMethod.PUT)
+	public ResponseEntity<Todo> updateTodo(@PathVariable UUID listId, @PathVariable UUID id, @RequestBody UpdateTodoRequest todo,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws AlreadyExistException, NotExistingTodoException {
+		log.debug("REST Request to update todo {} in list {}: {}", id, listId, todo);
+		final Todo updatedTodo = todoListService.update(listId, todo, id, expectedVersion(ifMatch));
+		return withETag(ResponseEntity.ok(), updatedTodo).body(updatedTodo);
+	}
+
+	/**
+	 * GET /lists/:listId/todos?limit=:limit&after=:cursor : Get a page of the todos of a list.
+	 *
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor of the previous page, absent for the first page
+	 * @return the ResponseEntity with status 200 (Ok) and the page in body, or
+	 *         with status 404 (Not Found) if the list does not exist
+	 */
+	@GetMapping("/{listId}/todos")
+	@CrossOrigin(methods = RequestMethod.GET)
+	public ResponseEntity<CursorPage<TodoView>> getTodoPage(@PathVariable UUID listId,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit, @RequestParam(required = false) String after) {
+		log.debug("REST Request to find a page of {} todos of list {} after {}", limit, listId, after);
+		final TodoLinks links = todoLinkFactory.forList(listId);
+		return ResponseEntity.ok(todoListService.findPage(listId, limit, after)
+				.map(todo -> toTodoView(todo, links)));
+	}
+
+	/**
+	 * GET /lists/:listId/todos/:id : Get the "id" todo of a list.
+	 *
+	 * @return the ResponseEntity with status 200 (Ok), or with status 404 (Not
+	 *         Found) if the list has no such todo, or with status 304 (Not
+	 *         Modified) if the If-None-Match version is still the current one
+	 */
+	@GetMapping("/{listId}/todos/{id}")
+	@CrossOrigin(methods = RequestMethod.GET)
+	public ResponseEntity<TodoView> getTodoById(@PathVariable UUID listId, @PathVariable UUID id, WebRequest webRequest) {
+		log.debug("REST Request to get todo {} of list {}", id, listId);
+		final Optional<Todo> todo = todoListService.findById(listId, id);
+		if (todo.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		if (webRequest.checkNotModified(eTagOf(todo.get()))) {
+			return null;
+		}
+		return withETag(ResponseEntity.ok(), todo.get()).body(toTodoView(todo.get(), todoLinkFactory.forList(listId)));
+	}
+
+	/**
+	 * DELETE /lists/:listId/todos/:id : Delete the "id" todo of a list.
+	 */
+	@DeleteMapping("/{listId}/todos/{id}")
+	@CrossOrigin(methods = RequestMethod.DELETE)
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void deleteTodoById(@PathVariable UUID listId, @PathVariable UUID id) {
+		log.debug("REST Request to delete todo {} of list {}", id, listId);
+		todoListService.deleteById(listId, id);
+	}
+
+	/**
+	 * DELETE /lists/:listId/todos : Delete the todos of a list, keeping the list.
+	 */
+	@DeleteMapping("/{listId}/todos")
+	@CrossOrigin(methods = RequestMethod.DELETE)
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void deleteAllTodos(@PathVariable UUID listId) {
+		log.debug("REST Request to delete all todos of list {}", listId);
+		todoListService.deleteAll(listId);
+	}
+
+	private static TodoView toTodoView(Todo todo, TodoLinks links) {
+		return new TodoView(
+				todo.id(),
+				todo.title(),
+				todo.completed(),
+				todo.order(),
+				links.todo(todo.id()));
+	}
+}
@@ -0,0 +1,85 @@
+package com.carbon.todobackend.rest;
+
+import com.carbon.todobackend.domain.dto.TodoField;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSort;
+import com.carbon.todobackend.exception.InvalidQueryException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Query parameters of GET /todos.
+ * <p>
+ * completed, titlePrefix, titleContains, minOrder and maxOrder filter the
+ * todos. sort lists the sort keys, descending when prefixed with "-", as in
+ * sort=-completed,title. fields lists the properties to return, as in
+ * fields=title,url.
+ */
+public record TodoQueryParameters(Boolean completed, String titlePrefix, String titleContains, Integer minOrder,
+		Integer maxOrder, String sort, String fields) {
+
+	static final String URL = "url";
+
+	private static final char DESCENDING = '-';
+
+	/**
+	 * @return the properties to return, in the requested order, or null for the whole view
+	 */
+	Set<String> properties() {
+		if (fields == null) {
+			return null;
+		}
+		final Set<String> properties = new LinkedHashSet<>();
+		for (String name : split(fields)) {
+			properties.add(name.equals(URL) ? URL : field(name).attribute());
+		}
+		return Collections.unmodifiableSet(properties);
+	}
+
+	/**
+	 * @return the query reading the columns behind the properties to return
+	 */
+	TodoQuery toQuery() {
+		final Set<TodoField> columns = EnumSet.allOf(TodoField.class);
+		if (fields != null) {
+			columns.clear();
+			for (String name : split(fields)) {
+				// The url is built from the id.
+				columns.add(name.equals(URL) ? TodoField.ID : field(name));
+			}
+		}
+		final List<TodoSort> sortKeys = new ArrayList<>();
+		if (sort != null) {
+			for (String key : split(sort)) {
+				final boolean descending = key.charAt(0) == DESCENDING;
+				sortKeys.add(new TodoSort(field(descending ? key.substring(1) : key), descending));
+			}
+		}
+		return new TodoQuery(completed, titlePrefix, titleContains, minOrder, maxOrder, sortKeys, columns);
+	}
+
+	private static List<String> split(String names) {
+		final List<String> split = Arrays.stream(names.split(","))
+				.map(String::trim)
+				.toList();
+		if (split.isEmpty() || split.contains("")) {
+			throw new InvalidQueryException("Empty name in: " + names);
+		}
+		return split;
+	}
+
+	private static TodoField field(String name) {
+		for (TodoField field : TodoField.values()) {
+			if (field.attribute().equals(name)) {
+				return field;
+			}
+		}
+		throw new InvalidQueryException("Unknown todo field: " + name);
+	}
+}
@@ -0,0 +1,59 @@
+package com.carbon.todobackend.rest.codec;
+
+import com.carbon.todobackend.rest.link.TodoLinks;
+import com.carbon.todobackend.service.cache.EncodedTodo;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a JSON array of encoded todos, copying the bytes of each todo around
+ * the base URL of its link, itself encoded once per request.
+ */
+public final class EncodedTodoWriter {
+
+    private final OutputStream outputStream;
+
+    private final byte[] link;
+
+    private int count;
+
+    public EncodedTodoWriter(OutputStream outputStream, TodoLinks links) {
+        this.outputStream = outputStream;
+        this.link = linkOf(links);
+    }
+
+    public void writeStartArray() throws IOException {
+        outputStream.write('[');
+    }
+
+    public void write(EncodedTodo encodedTodo) throws IOException {
+        if (count++ > 0) {
+            outputStream.write(',');
+        }
+        outputStream.write(encodedTodo.head());
+        outputStream.write(link);
+        outputStream.write(encodedTodo.tail());
+    }
+
+    public void writeEndArray() throws IOException {
+        outputStream.write(']');
+    }
+
+    /**
+     * The JSON of a single todo.
+     */
+    public static byte[] toBytes(EncodedTodo encodedTodo, TodoLinks links) {
+        final byte[] link = linkOf(links);
+        final byte[] bytes = new byte[encodedTodo.size() + link.length];
+        System.arraycopy(encodedTodo.head(), 0, bytes, 0, encodedTodo.head().length);
+        System.arraycopy(link, 0, bytes, encodedTodo.head().length, link.length);
+        System.arraycopy(encodedTodo.tail(), 0, bytes, encodedTodo.head().length + link.length, encodedTodo.tail().length);
+        return bytes;
+    }
+
+    private static byte[] linkOf(TodoLinks links) {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(links.collection() + '/');
+    }
+}
@@ -0,0 +1,80 @@
+package com.carbon.todobackend.rest.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodings of the todo payloads. JSON is the default, CBOR and Smile are
+ * binary encodings of the same structure, smaller and faster to parse.
+ */
+public enum TodoPayloadFormat {
+
+    JSON(MediaType.APPLICATION_JSON, null),
+    CBOR(new MediaType("application", "cbor"), new CBORFactory()),
+    SMILE(new MediaType("application", "x-jackson-smile"), new SmileFactory());
+
+    private final MediaType mediaType;
+
+    private final JsonFactory factory;
+
+    TodoPayloadFormat(MediaType mediaType, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Generator writing this format to the stream.
+     *
+     * @param jsonFactory the factory of the JSON generators, configured as the object mapper
+     */
+    public JsonGenerator createGenerator(JsonFactory jsonFactory, OutputStream outputStream) throws IOException {
+        return (factory == null ? jsonFactory : factory).createGenerator(outputStream);
+    }
+
+    /**
+     * Format preferred by an Accept header. A binary format has to be named,
+     * wildcards, unknown types and a malformed header get JSON.
+     */
+    public static TodoPayloadFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        TodoPayloadFormat negotiated = JSON;
+        double quality = -1;
+        try {
+            for (MediaType accepted : MediaType.parseMediaTypes(accept)) {
+                final TodoPayloadFormat format = of(accepted);
+                if (format != null && accepted.getQualityValue() > quality) {
+                    negotiated = format;
+                    quality = accepted.getQualityValue();
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        return negotiated;
+    }
+
+    private static TodoPayloadFormat of(MediaType accepted) {
+        if (accepted.isWildcardType() || accepted.isWildcardSubtype()) {
+            return JSON;
+        }
+        for (TodoPayloadFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(accepted)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -1,35 +1,108 @@
 package com.carbon.todobackend.rest.handler;
 
 import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.exception.InvalidQueryException;
+import com.carbon.todobackend.exception.MoveInProgressException;
 import com.carbon.todobackend.exception.NotExistingTodoException;
 import com.carbon.todobackend.exception.NotFoundException;
+import com.carbon.todobackend.exception.TodoListBusyException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.filter.ServerHttpObservationFilter;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({AlreadyExistException.class})
-    ResponseEntity<?> handleAlreadyExist() {
+    ResponseEntity<?> handleAlreadyExist(HttpServletRequest request, AlreadyExistException e) {
+        recordError(request, e);
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .build();
     }
 
     @ExceptionHandler({NotFoundException.class})
-    ResponseEntity<?> handleNotFound() {
+    ResponseEntity<?> handleNotFound(HttpServletRequest request, NotFoundException e) {
+        recordError(request, e);
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .build();
     }
 
     @ExceptionHandler({NotExistingTodoException.class})
-    ResponseEntity<?> handleNotExistingTodo() {
+    ResponseEntity<?> handleNotExistingTodo(HttpServletRequest request, NotExistingTodoException e) {
+        recordError(request, e);
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .build();
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler({InvalidCursorException.class})
+    ResponseEntity<?> handleInvalidCursor(HttpServletRequest request, InvalidCursorException e) {
+        recordError(request, e);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    @ExceptionHandler({InvalidQueryException.class})
+    ResponseEntity<?> handleInvalidQuery(HttpServletRequest request, InvalidQueryException e) {
+        recordError(request, e);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .build();
+    }
+
+    @ExceptionHandler({BatchTooLargeException.class})
+    ResponseEntity<?> handleBatchTooLarge(HttpServletRequest request, BatchTooLargeException e) {
+        recordError(request, e);
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .build();
+    }
+
+    @ExceptionHandler({TodoVersionMismatchException.class})
+    ResponseEntity<?> handleVersionMismatch(HttpServletRequest request, TodoVersionMismatchException e) {
+        recordError(request, e);
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .build();
+    }
+
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    ResponseEntity<?> handleConcurrentUpdate(HttpServletRequest request, OptimisticLockingFailureException e) {
+        recordError(request, e);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .build();
+    }
+
+    @ExceptionHandler({MoveInProgressException.class, TodoListBusyException.class})
+    ResponseEntity<?> handleLockTimeout(HttpServletRequest request, RuntimeException e) {
+        recordError(request, e);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    /**
+     * Handled exceptions do not reach the http.server.requests observation,
+     * which would otherwise tag these responses with exception "none".
+     */
+    private static void recordError(HttpServletRequest request, Exception e) {
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setError(e));
+    }
+}
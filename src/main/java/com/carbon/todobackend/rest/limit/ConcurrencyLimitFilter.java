@@ -0,0 +1,141 @@
+package com.carbon.todobackend.rest.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sheds the requests over the concurrency limit with a 503 (Service
+ * Unavailable) and a Retry-After header, before they wait for a worker, a
+ * lock or a connection. Reads (GET and HEAD) and writes have their own limit.
+ * <p>
+ * A request holds its permit until its response completes, asynchronous
+ * ones included. Long-lived streams, such as the change feed, are not
+ * limited: their duration says nothing of the load.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final GradientConcurrencyLimit readLimit;
+
+    private final GradientConcurrencyLimit writeLimit;
+
+    private final Set<String> unlimitedPaths;
+
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(GradientConcurrencyLimit readLimit, GradientConcurrencyLimit writeLimit,
+                                  Set<String> unlimitedPaths, Duration retryAfter) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.unlimitedPaths = Set.copyOf(unlimitedPaths);
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return unlimitedPaths.contains(URL_PATH_HELPER.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final boolean read = isRead(request);
+        final GradientConcurrencyLimit.Permit permit = (read ? readLimit : writeLimit).tryAcquire();
+        if (permit == null) {
+            log.debug("Shedding {} {}, over the {} limit", request.getMethod(), request.getRequestURI(), read ? "read" : "write");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return;
+        }
+        boolean async = false;
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(permit, response));
+                async = true;
+            }
+            failed = isFailure(response);
+        } finally {
+            if (!async) {
+                permit.release(failed);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTo(registry, "read", readLimit);
+        bindTo(registry, "write", writeLimit);
+    }
+
+    private static void bindTo(MeterRegistry registry, String kind, GradientConcurrencyLimit limit) {
+        Gauge.builder("todo.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Concurrent requests let through")
+                .tag("kind", kind)
+                .register(registry);
+        Gauge.builder("todo.concurrency.inflight", limit, GradientConcurrencyLimit::inflight)
+                .description("Requests being served")
+                .tag("kind", kind)
+                .register(registry);
+        FunctionCounter.builder("todo.concurrency.rejected", limit, GradientConcurrencyLimit::rejected)
+                .description("Requests shed with a 503")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    /**
+     * Whether the request failed for lack of resources, rather than being refused.
+     */
+    private static boolean isFailure(HttpServletResponse response) {
+        return response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+    private record PermitReleasingListener(GradientConcurrencyLimit.Permit permit, HttpServletResponse response)
+            implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release(isFailure(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.carbon.todobackend.rest.limit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit following the latency of the requests it lets through.
+ * <p>
+ * Each latency is compared with a long term average: while it stays within
+ * {@value #TOLERANCE} times the average, the limit grows by about its square
+ * root, past that it shrinks in proportion, down to half per sample. The
+ * changes are smoothed, and a limit that is not half used learns nothing,
+ * latencies being then unrelated to it. A failed request backs the limit off
+ * by {@value #BACKOFF}. Requests over the limit are rejected, not queued.
+ */
+public final class GradientConcurrencyLimit {
+
+    static final double TOLERANCE = 1.5;
+
+    static final double BACKOFF = 0.9;
+
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Samples averaged by the long term latency.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * First samples averaged evenly, before the long term average moves slowly.
+     */
+    private static final int WARMUP = 10;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+
+    private double longLatency;
+
+    private int samples;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Let a request through, if under the limit.
+     *
+     * @return the permit to release once the request completed, null if rejected
+     */
+    public Permit tryAcquire() {
+        for (;;) {
+            final int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Permit(nanoClock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /**
+     * @return the number of requests rejected since startup
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long latency, int inflightAtStart) {
+        final double sample = Math.max(1, latency);
+        if (samples < WARMUP) {
+            samples++;
+            longLatency += (sample - longLatency) / samples;
+        } else {
+            longLatency += (sample - longLatency) * 2 / (LONG_WINDOW + 1);
+        }
+        if (longLatency > 2 * sample) {
+            // Latency went back down, do not keep comparing with the overload.
+            longLatency *= 0.95;
+        }
+        if (inflightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / sample));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private synchronized void onDrop() {
+        update(estimatedLimit * BACKOFF);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * A request let through, counted against the limit until released.
+     */
+    public final class Permit {
+
+        private final long start;
+
+        private final int inflightAtStart;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long start, int inflightAtStart) {
+            this.start = start;
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        /**
+         * Give the permit back, only the first call counting.
+         *
+         * @param dropped whether the request failed, backing the limit off
+         *                instead of sampling its latency
+         */
+        public void release(boolean dropped) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inflight.decrementAndGet();
+            if (dropped) {
+                onDrop();
+            } else {
+                onSample(nanoClock.getAsLong() - start, inflightAtStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.carbon.todobackend.rest.link;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.UUID;
+
+/**
+ * Resolves the todo links of the current request, to be done once per request.
+ */
+@Component
+public class TodoLinkFactory {
+
+    public static final String COLLECTION_PATH = "/api/todos";
+
+    public static final String LISTS_PATH = "/api/lists";
+
+    /**
+     * Links of the request bound to the current thread, servlet stack only.
+     */
+    public TodoLinks forCurrentRequest() {
+        return TodoLinks.of(ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path(COLLECTION_PATH)
+                .build()
+                .toUriString());
+    }
+
+    /**
+     * URL of a todo list, for the request bound to the current thread.
+     */
+    public String list(UUID listId) {
+        return ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path(LISTS_PATH)
+                .pathSegment(listId.toString())
+                .build()
+                .toUriString();
+    }
+
+    /**
+     * Links of the todos of a list, for the request bound to the current thread.
+     */
+    public TodoLinks forList(UUID listId) {
+        return TodoLinks.of(list(listId) + "/todos");
+    }
+
+    /**
+     * Links of a reactive request.
+     */
+    public TodoLinks forRequest(ServerRequest request) {
+        return TodoLinks.of(UriComponentsBuilder
+                .fromUri(request.uri())
+                .replacePath(request.requestPath().contextPath().value())
+                .path(COLLECTION_PATH)
+                .replaceQuery(null)
+                .build()
+                .toUriString());
+    }
+}
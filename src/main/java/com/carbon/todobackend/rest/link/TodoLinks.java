@@ -0,0 +1,36 @@
+package com.carbon.todobackend.rest.link;
+
+import java.util.UUID;
+
+/**
+ * Links of one request, built from a base URL resolved once.
+ * <p>
+ * Writing the link of a todo is a single concatenation, no URI parsing nor
+ * builder is involved per item.
+ */
+public final class TodoLinks {
+
+    private final String collection;
+
+    private final String itemPrefix;
+
+    private TodoLinks(String collection) {
+        this.collection = collection;
+        this.itemPrefix = collection + '/';
+    }
+
+    /**
+     * @param collection the absolute URL of the todo collection, without trailing slash
+     */
+    public static TodoLinks of(String collection) {
+        return new TodoLinks(collection);
+    }
+
+    public String collection() {
+        return collection;
+    }
+
+    public String todo(UUID id) {
+        return itemPrefix.concat(id.toString());
+    }
+}
@@ -0,0 +1,185 @@
+package com.carbon.todobackend.rest.reactive;
+
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import com.carbon.todobackend.rest.link.TodoLinks;
+import com.carbon.todobackend.service.ReactiveTodoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reactive handler for managing Todo, the WebFlux counterpart of TodoController.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TodoHandler {
+
+	private static final ParameterizedTypeReference<List<CreateTodoRequest>> CREATE_TODO_REQUESTS = new ParameterizedTypeReference<>() {
+	};
+
+	private static final ParameterizedTypeReference<List<BatchUpdateTodoRequest>> BATCH_UPDATE_TODO_REQUESTS = new ParameterizedTypeReference<>() {
+	};
+
+	private static final ParameterizedTypeReference<List<UUID>> IDS = new ParameterizedTypeReference<>() {
+	};
+
+	private final ReactiveTodoService todoService;
+
+	private final TodoLinkFactory todoLinkFactory;
+
+	public TodoHandler(ReactiveTodoService todoService, TodoLinkFactory todoLinkFactory) {
+		this.todoService = todoService;
+		this.todoLinkFactory = todoLinkFactory;
+	}
+
+	/**
+	 * POST /todos : Create a new todo.
+	 */
+	public Mono<ServerResponse> createTodo(ServerRequest request) {
+		return request.bodyToMono(CreateTodoRequest.class)
+				.doOnNext(todo -> log.debug("REST Request to create todo: {}", todo))
+				.flatMap(todoService::save)
+				.flatMap(todo -> ServerResponse.created(URI.create(todoLinkFactory.forRequest(request).todo(todo.id()))).bodyValue(todo));
+	}
+
+	/**
+	 * PUT /todos/:id : Update a todo.
+	 */
+	public Mono<ServerResponse> updateTodo(ServerRequest request) {
+		return id(request).flatMap(id -> request.bodyToMono(UpdateTodoRequest.class)
+				.doOnNext(todo -> log.debug("REST Request to update todo: {}", todo))
+				.flatMap(todo -> todoService.update(todo, id)))
+				.flatMap(todo -> ServerResponse.ok().bodyValue(todo));
+	}
+
+	/**
+	 * POST /todos/batch : Create several todos.
+	 */
+	public Mono<ServerResponse> createTodos(ServerRequest request) {
+		return request.bodyToMono(CREATE_TODO_REQUESTS)
+				.doOnNext(todos -> log.debug("REST Request to create {} todos", todos.size()))
+				.flatMap(todos -> batchResponse(todoService.saveAll(todos).collectList()));
+	}
+
+	/**
+	 * PATCH /todos/batch : Update several todos.
+	 */
+	public Mono<ServerResponse> updateTodos(ServerRequest request) {
+		return request.bodyToMono(BATCH_UPDATE_TODO_REQUESTS)
+				.doOnNext(todos -> log.debug("REST Request to update {} todos", todos.size()))
+				.flatMap(todos -> batchResponse(todoService.updateAll(todos).collectList()));
+	}
+
+	/**
+	 * DELETE /todos/batch : Delete several todos.
+	 */
+	public Mono<ServerResponse> deleteTodos(ServerRequest request) {
+		return request.bodyToMono(IDS)
+				.doOnNext(ids -> log.debug("REST Request to delete {} todos", ids.size()))
+				.flatMap(ids -> batchResponse(todoService.deleteAllById(ids).collectList()));
+	}
+
+	/**
+	 * GET /todos : Get all the todos, streamed as they are read.
+	 */
+	public Mono<ServerResponse> getAllTodos(ServerRequest request) {
+		log.debug("REST Request to find all todos");
+		final TodoLinks links = todoLinkFactory.forRequest(request);
+		return ServerResponse.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(todoService.findAll().map(todo -> toTodoView(todo, links)), TodoView.class);
+	}
+
+	/**
+	 * GET /todos?limit=:limit&after=:cursor : Get a page of the todos.
+	 */
+	public Mono<ServerResponse> getTodoPage(ServerRequest request) {
+		final TodoLinks links = todoLinkFactory.forRequest(request);
+		return Mono.fromCallable(() -> Integer.parseInt(request.queryParam("limit").orElseThrow()))
+				.flatMap(limit -> todoService.findPage(limit, request.queryParam("after").orElse(null)))
+				.map(page -> page.map(todo -> toTodoView(todo, links)))
+				.flatMap(page -> ServerResponse.ok().bodyValue(page));
+	}
+
+	/**
+	 * GET /todos/summary : Count the todos, without transferring them.
+	 */
+	public Mono<ServerResponse> getSummary(ServerRequest request) {
+		log.debug("REST Request to summarize todos");
+		return todoService.summarize()
+				.flatMap(summary -> ServerResponse.ok().bodyValue(summary));
+	}
+
+	/**
+	 * GET /todos/:id : Get the "id" todo.
+	 */
+	public Mono<ServerResponse> getTodoById(ServerRequest request) {
+		final TodoLinks links = todoLinkFactory.forRequest(request);
+		return id(request)
+				.doOnNext(id -> log.debug("REST Request to get todo by id: {}", id))
+				.flatMap(todoService::findById)
+				.flatMap(todo -> ServerResponse.ok().bodyValue(toTodoView(todo, links)))
+				.switchIfEmpty(ServerResponse.notFound().build());
+	}
+
+	/**
+	 * DELETE /todos/:id : Delete the "id" todo.
+	 */
+	public Mono<ServerResponse> deleteById(ServerRequest request) {
+		return id(request)
+				.doOnNext(id -> log.debug("REST Request to delete todo by id: {}", id))
+				.flatMap(todoService::deleteById)
+				.then(ServerResponse.noContent().build());
+	}
+
+	/**
+	 * DELETE /todos : Delete the todos.
+	 */
+	public Mono<ServerResponse> deleteAll(ServerRequest request) {
+		log.debug("REST Request to delete all todos");
+		return todoService.deleteAll()
+				.then(ServerResponse.noContent().build());
+	}
+
+	/**
+	 * DELETE /todos/completed : Delete the completed todos.
+	 */
+	public Mono<ServerResponse> deleteCompleted(ServerRequest request) {
+		log.debug("REST Request to delete the completed todos");
+		return todoService.deleteCompleted()
+				.then(ServerResponse.noContent().build());
+	}
+
+	private static Mono<ServerResponse> batchResponse(Mono<List<TodoBatchResult>> results) {
+		return results.flatMap(todos -> ServerResponse.ok().bodyValue(todos));
+	}
+
+	private static Mono<UUID> id(ServerRequest request) {
+		return Mono.fromCallable(() -> UUID.fromString(request.pathVariable("id")));
+	}
+
+	private static TodoView toTodoView(Todo todo, TodoLinks links) {
+		return new TodoView(
+				todo.id(),
+				todo.title(),
+				todo.completed(),
+				todo.order(),
+				links.todo(todo.id()));
+	}
+}
@@ -0,0 +1,60 @@
+package com.carbon.todobackend.rest.reactive;
+
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.NotFoundException;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+
+/**
+ * Functional routes of the reactive stack, matching the TodoController
+ * endpoints for the collection, its batches, its summary, its completed todos
+ * and PUT, GET and DELETE of a single todo. PATCH of a todo, its move, the
+ * search and the change feed are served by the servlet stack only.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TodoRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> todoRoutes(TodoHandler todoHandler) {
+        return RouterFunctions.route()
+                .path(TodoLinkFactory.COLLECTION_PATH, builder -> builder
+                        .POST("/batch", todoHandler::createTodos)
+                        .PATCH("/batch", todoHandler::updateTodos)
+                        .DELETE("/batch", todoHandler::deleteTodos)
+                        .GET("/summary", todoHandler::getSummary)
+                        .DELETE("/completed", todoHandler::deleteCompleted)
+                        .GET("/{id}", todoHandler::getTodoById)
+                        .PUT("/{id}", todoHandler::updateTodo)
+                        .DELETE("/{id}", todoHandler::deleteById)
+                        .GET("", queryParam("limit", limit -> true), todoHandler::getTodoPage)
+                        .GET("", todoHandler::getAllTodos)
+                        .POST("", todoHandler::createTodo)
+                        .DELETE("", todoHandler::deleteAll))
+                .onError(AlreadyExistException.class, (e, request) -> status(HttpStatus.CONFLICT))
+                .onError(OptimisticLockingFailureException.class, (e, request) -> status(HttpStatus.CONFLICT))
+                .onError(NotExistingTodoException.class, (e, request) -> status(HttpStatus.NOT_FOUND))
+                .onError(NotFoundException.class, (e, request) -> status(HttpStatus.NOT_FOUND))
+                .onError(InvalidCursorException.class, (e, request) -> status(HttpStatus.BAD_REQUEST))
+                .onError(IllegalArgumentException.class, (e, request) -> status(HttpStatus.BAD_REQUEST))
+                .onError(BatchTooLargeException.class, (e, request) -> status(HttpStatus.PAYLOAD_TOO_LARGE))
+                .build();
+    }
+
+    private static Mono<ServerResponse> status(HttpStatus status) {
+        return ServerResponse.status(status).build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.carbon.todobackend.service;
+
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The non-blocking counterpart of {@link TodoService}. Errors are signalled
+ * with the same exceptions.
+ */
+public interface ReactiveTodoService {
+
+	/**
+	 * Save a todo.
+	 *
+	 * @param todo the entity to save
+	 * @return the persisted entity, or an AlreadyExistException error
+	 */
+	Mono<Todo> save(CreateTodoRequest todo);
+
+	/**
+	 * Update a todo.
+	 *
+	 * @param todo the todo dto
+	 * @return the todo dto, or an AlreadyExistException or NotExistingTodoException error
+	 */
+	Mono<Todo> update(UpdateTodoRequest todo, UUID id);
+
+	/**
+	 * Save several todos in one transaction.
+	 *
+	 * @param todos the todos to create
+	 * @return the result of each todo, in the order of the request
+	 */
+	Flux<TodoBatchResult> saveAll(List<CreateTodoRequest> todos);
+
+	/**
+	 * Update several todos in one transaction. Null fields are left unchanged.
+	 *
+	 * @param todos the changes, each one carrying the id of its todo
+	 * @return the result of each change, in the order of the request
+	 */
+	Flux<TodoBatchResult> updateAll(List<BatchUpdateTodoRequest> todos);
+
+	/**
+	 * Delete several todos with a single statement.
+	 *
+	 * @param ids the ids
+	 * @return the result of each id, in the order of the request
+	 */
+	Flux<TodoBatchResult> deleteAllById(List<UUID> ids);
+
+	/**
+	 * Get all todos, emitted as they are read.
+	 *
+	 * @return the todos in keyset order
+	 */
+	Flux<Todo> findAll();
+
+	/**
+	 * Get one keyset page of todos, ordered by order then id.
+	 *
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor returned with the previous page, or null for the first page
+	 * @return the page with the cursor of the next one, null when there is none
+	 */
+	Mono<CursorPage<Todo>> findPage(int limit, String after);
+
+	/**
+	 * Count the todos, without loading them.
+	 *
+	 * @return the total, active and completed counts
+	 */
+	Mono<TodoSummary> summarize();
+
+	/**
+	 * Get by the "id" todo.
+	 *
+	 * @param id the id
+	 * @return the todo, or empty
+	 */
+	Mono<Todo> findById(UUID id);
+
+	/**
+	 * Delete the "id" todo.
+	 *
+	 * @param id the id
+	 */
+	Mono<Void> deleteById(UUID id);
+
+	/**
+	 * Delete all todos.
+	 */
+	Mono<Void> deleteAll();
+
+	/**
+	 * Delete the completed todos.
+	 *
+	 * @return the number of todos deleted
+	 */
+	Mono<Long> deleteCompleted();
+}
@@ -0,0 +1,98 @@
+package com.carbon.todobackend.service;
+
+import com.carbon.todobackend.domain.dto.CreateTodoListRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoList;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The todo lists and their todos. Titles are unique per list, and the writes
+ * of a list never wait for those of another one.
+ */
+public interface TodoListService {
+
+	/**
+	 * Create a todo list.
+	 *
+	 * @param todoList the list to create
+	 * @return the created list
+	 */
+	TodoList createList(CreateTodoListRequest todoList);
+
+	/**
+	 * Get the "listId" todo list.
+	 *
+	 * @param listId the id of the list
+	 * @return the list
+	 */
+	Optional<TodoList> findList(UUID listId);
+
+	/**
+	 * Delete the "listId" todo list and its todos.
+	 *
+	 * @param listId the id of the list
+	 */
+	void deleteList(UUID listId);
+
+	/**
+	 * Save a todo in a list.
+	 *
+	 * @param listId the id of the list
+	 * @param todo the todo to save
+	 * @return the persisted todo
+	 * @throws AlreadyExistException if the list already has a todo with the title
+	 */
+	Todo save(UUID listId, CreateTodoRequest todo) throws AlreadyExistException;
+
+	/**
+	 * Update a todo of a list, provided it is still at the expected version.
+	 *
+	 * @param listId the id of the list
+	 * @param todo the new state of the todo
+	 * @param id the id of the todo
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the updated todo
+	 */
+	Todo update(UUID listId, UpdateTodoRequest todo, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException;
+
+	/**
+	 * Get one keyset page of the todos of a list.
+	 *
+	 * @param listId the id of the list
+	 * @param limit the maximum number of todos
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	CursorPage<Todo> findPage(UUID listId, int limit, String after);
+
+	/**
+	 * Get the "id" todo of a list.
+	 *
+	 * @param listId the id of the list
+	 * @param id the id of the todo
+	 * @return the todo, empty if the list has no such todo
+	 */
+	Optional<Todo> findById(UUID listId, UUID id);
+
+	/**
+	 * Delete the "id" todo of a list.
+	 *
+	 * @param listId the id of the list
+	 * @param id the id of the todo
+	 */
+	void deleteById(UUID listId, UUID id);
+
+	/**
+	 * Delete every todo of a list.
+	 *
+	 * @param listId the id of the list
+	 */
+	void deleteAll(UUID listId);
+}
@@ -1,7 +1,13 @@
 package com.carbon.todobackend.service;
 
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
 import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
 import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSummary;
 import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
 import com.carbon.todobackend.exception.AlreadyExistException;
 import com.carbon.todobackend.exception.NotExistingTodoException;
@@ -9,6 +15,7 @@ import com.carbon.todobackend.exception.NotExistingTodoException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * The Interface TodoService.
@@ -30,14 +37,126 @@ public interface TodoService {
 	 * @return the todo dto
 	 */
 	Todo update(UpdateTodoRequest todo, UUID id) throws AlreadyExistException, NotExistingTodoException;
+
+	/**
+	 * Update a todo, provided it is still at the expected version.
+	 *
+	 * @param todo the todo dto
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the todo dto
+	 */
+	Todo update(UpdateTodoRequest todo, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException;
+
+	/**
+	 * Apply a merge patch to a todo, provided it is still at the expected version.
+	 *
+	 * @param patch the fields to change
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the patched todo
+	 */
+	Todo patch(TodoPatch patch, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException;
 	
+	/**
+	 * Move a todo right after another one, without changing the order of the others.
+	 *
+	 * @param id the id of the todo to move
+	 * @param after the id of the todo to follow, or null to move it first
+	 * @return the moved todo
+	 */
+	Todo move(UUID id, UUID after) throws NotExistingTodoException;
+	
+	/**
+	 * Save several todos in one transaction.
+	 *
+	 * @param todos the todos to create
+	 * @return the result of each todo, in the order of the request
+	 */
+	List<TodoBatchResult> saveAll(List<CreateTodoRequest> todos) throws AlreadyExistException;
+
+	/**
+	 * Update several todos in one transaction. Null fields are left unchanged.
+	 *
+	 * @param todos the changes, each one carrying the id of its todo
+	 * @return the result of each change, in the order of the request
+	 */
+	List<TodoBatchResult> updateAll(List<BatchUpdateTodoRequest> todos) throws AlreadyExistException;
+
+	/**
+	 * Delete several todos with a single statement.
+	 *
+	 * @param ids the ids
+	 * @return the result of each id, in the order of the request
+	 */
+	List<TodoBatchResult> deleteAllById(List<UUID> ids);
+
 	/**
 	 * Get all todos.
 	 *
 	 * @return the list of entities
 	 */
 	List<Todo> findAll();
+
+	/**
+	 * Get one keyset page of todos, ordered by order then id.
+	 *
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor returned with the previous page, or null for the first page
+	 * @return the page with the cursor of the next one, null when there is none
+	 */
+	CursorPage<Todo> findPage(int limit, String after);
+
+	/**
+	 * Get one keyset page of the todos matching the query, ordered by order then id.
+	 *
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor returned with the previous page, or null for the first page
+	 * @param query the filters and columns, without sort keys
+	 * @return the page with the cursor of the next one, null when there is none
+	 */
+	CursorPage<Todo> findPage(int limit, String after, TodoQuery query);
+
+	/**
+	 * Search the todos by title, best matches first: the title itself, then
+	 * titles starting with the query, having a word starting with it,
+	 * containing it, or containing it with a few typos.
+	 *
+	 * @param query the searched text, case insensitive
+	 * @param limit the maximum number of todos in the page
+	 * @param after the cursor returned with the previous page, or null for the first page
+	 * @return the page with the cursor of the next one, null when there is none
+	 */
+	CursorPage<Todo> search(String query, int limit, String after);
+
+	/**
+	 * Visit every todo, in keyset order, without holding them all in memory.
+	 *
+	 * @param action the callback receiving each todo
+	 */
+	void streamAll(Consumer<? super Todo> action);
+
+	/**
+	 * Visit the todos matching the query, in its sort order. The fields the
+	 * query does not select may be left null.
+	 *
+	 * @param query the filters, sort and columns
+	 * @param action the callback receiving each todo
+	 */
+	void streamAll(TodoQuery query, Consumer<? super Todo> action);
 	
+	/**
+	 * Get the version of the whole collection, cheap enough to answer every poll.
+	 *
+	 * @return an opaque value, different after every committed write
+	 */
+	String collectionVersion();
+
+	/**
+	 * Count the todos, without loading them.
+	 *
+	 * @return the total, active and completed counts
+	 */
+	TodoSummary summarize();
+
 	/**
 	 * Get by the "id" todo.
 	 *
@@ -57,4 +176,11 @@ public interface TodoService {
 	 * Delete all todos.
 	 */
 	void deleteAll();
+
+	/**
+	 * Delete the completed todos.
+	 *
+	 * @return the number of todos deleted
+	 */
+	int deleteCompleted();
 }
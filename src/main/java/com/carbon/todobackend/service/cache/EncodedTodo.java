@@ -0,0 +1,16 @@
+package com.carbon.todobackend.service.cache;
+
+/**
+ * Response bytes of one version of a todo, split where the link of the
+ * todo starts: its base URL depends on the request and goes in between.
+ *
+ * @param version the version of the todo encoded
+ * @param head the bytes before the base URL of the link
+ * @param tail the bytes after it
+ */
+public record EncodedTodo(long version, byte[] head, byte[] tail) {
+
+    public int size() {
+        return head.length + tail.length;
+    }
+}
@@ -0,0 +1,112 @@
+package com.carbon.todobackend.service.cache;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
+
+/**
+ * Bounded read-through cache of todos by id.
+ * <p>
+ * Writes are applied once the surrounding transaction has committed, so a
+ * rolled back change never becomes visible. A write never replaces a todo of
+ * a higher version, so transactions whose hooks run out of order still leave
+ * the latest one cached.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+public class TodoCache {
+
+    private final Cache<UUID, Todo> cache;
+
+    public TodoCache(@Value("${todo.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${todo.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the "id" todo, loading it on a miss. Absent todos are not cached.
+     *
+     * @param id the id
+     * @param loader the lookup used on a miss
+     * @return the optional
+     */
+    public Optional<Todo> get(UUID id, Function<UUID, Optional<Todo>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Store the todo once the current transaction commits.
+     *
+     * @param todo the todo written
+     */
+    public void putAfterCommit(Todo todo) {
+        afterCommit(() -> cache.asMap().merge(todo.id(), todo, TodoCache::latest));
+    }
+
+    private static Todo latest(Todo cached, Todo written) {
+        if (cached.version() == null || written.version() == null) {
+            return written;
+        }
+        return written.version() >= cached.version() ? written : cached;
+    }
+
+    /**
+     * Drop the "id" todo right away, whether or not the current transaction commits.
+     *
+     * @param id the id
+     */
+    public void evict(UUID id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drop the "id" todo once the current transaction commits.
+     *
+     * @param id the id
+     */
+    public void evictAfterCommit(UUID id) {
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Drop the todos once the current transaction commits.
+     *
+     * @param ids the ids
+     */
+    public void evictAfterCommit(Collection<UUID> ids) {
+        afterCommit(() -> cache.invalidateAll(ids));
+    }
+
+    /**
+     * Drop every todo once the current transaction commits.
+     */
+    public void clearAfterCommit() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    /**
+     * Get the hit, miss and eviction counters.
+     *
+     * @return the counters since startup
+     */
+    public TodoCacheStats stats() {
+        final CacheStats stats = cache.stats();
+        return new TodoCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
@@ -0,0 +1,5 @@
+package com.carbon.todobackend.service.cache;
+
+public record TodoCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+
+}
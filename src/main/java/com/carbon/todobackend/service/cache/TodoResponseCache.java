@@ -0,0 +1,133 @@
+package com.carbon.todobackend.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
+
+/**
+ * Encoded responses of the todos, so that reading an unchanged todo does not
+ * map nor serialize it again.
+ * <p>
+ * A todo is only served for the version it was encoded from, and the whole
+ * collection for the collection version it was read at, so an entry put by a
+ * read racing with a write is never served once the write is visible. Writes
+ * also drop their entries once committed, to give the memory back early.
+ */
+@Component
+public class TodoResponseCache {
+
+    private final Cache<UUID, EncodedTodo> todos;
+
+    private final int collectionMaximumSize;
+
+    private volatile EncodedCollection collection;
+
+    public TodoResponseCache(@Value("${todo.response-cache.maximum-bytes:64MB}") DataSize maximumBytes,
+                             @Value("${todo.response-cache.collection-maximum-size:100000}") int collectionMaximumSize) {
+        this.todos = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes.toBytes())
+                .<UUID, EncodedTodo>weigher((id, encodedTodo) -> encodedTodo.size())
+                .build();
+        this.collectionMaximumSize = collectionMaximumSize;
+    }
+
+    /**
+     * Get the bytes of the "id" todo at that version.
+     *
+     * @return the bytes, null if absent or encoded from another version
+     */
+    public EncodedTodo get(UUID id, long version) {
+        final EncodedTodo encodedTodo = todos.getIfPresent(id);
+        return encodedTodo == null || encodedTodo.version() != version ? null : encodedTodo;
+    }
+
+    public void put(UUID id, EncodedTodo encodedTodo) {
+        todos.put(id, encodedTodo);
+    }
+
+    /**
+     * Get the bytes of every todo, in the order of GET /api/todos.
+     *
+     * @param collectionVersion the current collection version
+     * @return the todos, null if the collection was not encoded at that version
+     */
+    public List<EncodedTodo> getCollection(String collectionVersion) {
+        final EncodedCollection encodedCollection = collection;
+        return encodedCollection == null || !encodedCollection.version().equals(collectionVersion)
+                ? null
+                : encodedCollection.todos();
+    }
+
+    /**
+     * Keep the bytes of every todo, read at that collection version.
+     *
+     * @return false if there are too many todos to keep
+     */
+    public boolean putCollection(String collectionVersion, List<EncodedTodo> encodedTodos) {
+        if (encodedTodos.size() > collectionMaximumSize) {
+            return false;
+        }
+        collection = new EncodedCollection(collectionVersion, List.copyOf(encodedTodos));
+        return true;
+    }
+
+    /**
+     * Most todos kept as a whole collection.
+     */
+    public int collectionMaximumSize() {
+        return collectionMaximumSize;
+    }
+
+    /**
+     * Drop the "id" todo and the collection once the current transaction commits.
+     *
+     * @param id the id
+     */
+    public void evictAfterCommit(UUID id) {
+        afterCommit(() -> {
+            todos.invalidate(id);
+            collection = null;
+        });
+    }
+
+    /**
+     * Drop the todos and the collection once the current transaction commits.
+     *
+     * @param ids the ids
+     */
+    public void evictAfterCommit(Collection<UUID> ids) {
+        afterCommit(() -> {
+            todos.invalidateAll(ids);
+            collection = null;
+        });
+    }
+
+    /**
+     * Drop everything once the current transaction commits.
+     */
+    public void clearAfterCommit() {
+        afterCommit(() -> {
+            todos.invalidateAll();
+            collection = null;
+        });
+    }
+
+    /**
+     * @return the number of todos kept
+     */
+    public long size() {
+        todos.cleanUp();
+        return todos.estimatedSize();
+    }
+
+    private record EncodedCollection(String version, List<EncodedTodo> todos) {
+    }
+}
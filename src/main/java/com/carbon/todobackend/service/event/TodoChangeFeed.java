@@ -0,0 +1,172 @@
+package com.carbon.todobackend.service.event;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoChange;
+import com.carbon.todobackend.domain.dto.TodoChangeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
+
+/**
+ * Feed of the committed todo changes, kept in a bounded ring buffer so that a
+ * subscriber can resume from the last sequence it received.
+ * <p>
+ * Event ids are the epoch of this instance, drawn at startup, followed by the
+ * sequence of the change. An id of another epoch, handed out before a restart,
+ * is answered with a RESET, telling the client to fetch the collection again.
+ * The same happens when the client fell further behind than the buffer holds.
+ * <p>
+ * Each subscriber may lag behind by at most one buffer of changes. Past that
+ * it stops receiving them and is disconnected once it has consumed the ones
+ * held, then resumes from its last sequence when it reconnects.
+ */
+@Slf4j
+@Component
+public class TodoChangeFeed {
+
+    private static final char EPOCH_SEPARATOR = ':';
+
+    /**
+     * Stands for an event id of another epoch, placed before every change of this one.
+     */
+    private static final long BEFORE_EPOCH = -1;
+
+    private static final long FIRST_SEQUENCE = 1;
+
+    private final TodoChange[] ring;
+
+    private final Set<FluxSink<TodoChange>> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+
+    private long lastSequence;
+
+    public TodoChangeFeed(@Value("${todo.changes.buffer-size:1024}") int bufferSize) {
+        this.ring = new TodoChange[bufferSize];
+    }
+
+    /**
+     * Get the id of the change as sent to the clients.
+     *
+     * @param change a change of this feed
+     * @return the epoch and the sequence of the change
+     */
+    public String eventId(TodoChange change) {
+        return epoch + EPOCH_SEPARATOR + change.sequence();
+    }
+
+    /**
+     * Publish a change of the todo once the current transaction commits.
+     *
+     * @param type CREATED or UPDATED
+     * @param todo the todo written
+     */
+    public void publishAfterCommit(TodoChangeType type, Todo todo) {
+        afterCommit(() -> publish(type, todo.id(), todo));
+    }
+
+    /**
+     * Publish the deletion of the "id" todo once the current transaction commits.
+     *
+     * @param id the id
+     */
+    public void publishDeletedAfterCommit(UUID id) {
+        afterCommit(() -> publish(TodoChangeType.DELETED, id, null));
+    }
+
+    /**
+     * Publish the deletion of the todos once the current transaction commits.
+     * Subscribers falling behind a large deletion are sent a RESET on reconnection.
+     *
+     * @param ids the ids
+     */
+    public void publishDeletedAfterCommit(Collection<UUID> ids) {
+        afterCommit(() -> ids.forEach(id -> publish(TodoChangeType.DELETED, id, null)));
+    }
+
+    /**
+     * Publish the deletion of every completed todo once the current transaction
+     * commits, as a single change whatever their number.
+     */
+    public void publishCompletedDeletedAfterCommit() {
+        afterCommit(() -> publish(TodoChangeType.COMPLETED_DELETED, null, null));
+    }
+
+    /**
+     * Publish the deletion of every todo once the current transaction commits.
+     */
+    public void publishClearedAfterCommit() {
+        afterCommit(() -> publish(TodoChangeType.CLEARED, null, null));
+    }
+
+    private synchronized void publish(TodoChangeType type, UUID id, Todo todo) {
+        final TodoChange change = new TodoChange(++lastSequence, type, id, todo);
+        ring[index(change.sequence())] = change;
+        subscribers.forEach(subscriber -> subscriber.next(change));
+    }
+
+    /**
+     * Get the changes following an event id, then every new change as it is committed.
+     *
+     * @param lastEventId the id of the last change received, or null to only get new changes
+     * @return the endless flux of changes, starting with a RESET if some were missed
+     */
+    public Flux<TodoChange> changesAfter(String lastEventId) {
+        final Long after = lastEventId == null ? null : sequenceOf(lastEventId);
+        return Flux.<TodoChange>create(subscriber -> {
+                    // Replaying and registering under the publishing lock, no change falls in between.
+                    synchronized (this) {
+                        missedChanges(after).forEach(subscriber::next);
+                        subscribers.add(subscriber);
+                    }
+                    subscriber.onDispose(() -> subscribers.remove(subscriber));
+                })
+                .onBackpressureBuffer(ring.length,
+                        change -> log.debug("Disconnecting a change feed subscriber lagging at {}", change.sequence()),
+                        BufferOverflowStrategy.ERROR);
+    }
+
+    private long sequenceOf(String eventId) {
+        final int separator = eventId.lastIndexOf(EPOCH_SEPARATOR);
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return BEFORE_EPOCH;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return BEFORE_EPOCH;
+        }
+    }
+
+    private List<TodoChange> missedChanges(Long after) {
+        if (after == null || after == lastSequence) {
+            return List.of();
+        }
+        final long oldest = Math.max(lastSequence - ring.length + 1, FIRST_SEQUENCE);
+        if (after < oldest - 1 || after > lastSequence) {
+            return List.of(new TodoChange(lastSequence, TodoChangeType.RESET, null, null));
+        }
+        final List<TodoChange> missed = new ArrayList<>((int) (lastSequence - after));
+        for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+            missed.add(ring[index(sequence)]);
+        }
+        return missed;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+}
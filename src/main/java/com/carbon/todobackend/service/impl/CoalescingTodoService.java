@@ -0,0 +1,152 @@
+package com.carbon.todobackend.service.impl;
+
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.TodoService;
+import com.carbon.todobackend.service.pipeline.TodoWrite;
+import com.carbon.todobackend.service.pipeline.TodoWritePipeline;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Service Implementation for managing Todo which sends the single creates and
+ * updates through the {@link TodoWritePipeline}, to share their commits. The
+ * other calls go straight to the {@link TodoRepositoryBaseService}.
+ * <p>
+ * Not transactional itself: a caller waits for its write without holding a
+ * connection.
+ */
+@Slf4j
+@AllArgsConstructor
+@Primary
+@Service
+@ConditionalOnExpression("'${todo.storage:jpa}' == 'jpa' and ${todo.write-pipeline.enabled:false}")
+public class CoalescingTodoService implements TodoService {
+
+	private final TodoRepositoryBaseService todoRepositoryBaseService;
+
+	private final TodoWritePipeline todoWritePipeline;
+
+	@Override
+	public Todo save(CreateTodoRequest createTodoRequest) throws AlreadyExistException {
+		log.debug("Request to queue the save of todo: {}", createTodoRequest);
+		try {
+			return todoWritePipeline.submit(TodoWrite.create(createTodoRequest)).await();
+		} catch (NotExistingTodoException e) {
+			throw new IllegalStateException("A create failed on a missing todo", e);
+		}
+	}
+
+	@Override
+	public Todo update(UpdateTodoRequest updateTodoRequest, UUID id) throws AlreadyExistException, NotExistingTodoException {
+		return update(updateTodoRequest, id, null);
+	}
+
+	@Override
+	public Todo update(UpdateTodoRequest updateTodoRequest, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException {
+		log.debug("Request to queue the update of todo: {}", updateTodoRequest);
+		return todoWritePipeline.submit(TodoWrite.update(updateTodoRequest, id, expectedVersion)).await();
+	}
+
+	@Override
+	public Todo patch(TodoPatch patch, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException {
+		return todoRepositoryBaseService.patch(patch, id, expectedVersion);
+	}
+
+	@Override
+	public Todo move(UUID id, UUID after) throws NotExistingTodoException {
+		return todoRepositoryBaseService.move(id, after);
+	}
+
+	@Override
+	public List<TodoBatchResult> saveAll(List<CreateTodoRequest> createTodoRequests) throws AlreadyExistException {
+		return todoRepositoryBaseService.saveAll(createTodoRequests);
+	}
+
+	@Override
+	public List<TodoBatchResult> updateAll(List<BatchUpdateTodoRequest> batchUpdateTodoRequests) throws AlreadyExistException {
+		return todoRepositoryBaseService.updateAll(batchUpdateTodoRequests);
+	}
+
+	@Override
+	public List<TodoBatchResult> deleteAllById(List<UUID> ids) {
+		return todoRepositoryBaseService.deleteAllById(ids);
+	}
+
+	@Override
+	public List<Todo> findAll() {
+		return todoRepositoryBaseService.findAll();
+	}
+
+	@Override
+	public CursorPage<Todo> findPage(int limit, String after) {
+		return todoRepositoryBaseService.findPage(limit, after);
+	}
+
+	@Override
+	public CursorPage<Todo> findPage(int limit, String after, TodoQuery query) {
+		return todoRepositoryBaseService.findPage(limit, after, query);
+	}
+
+	@Override
+	public void streamAll(Consumer<? super Todo> action) {
+		todoRepositoryBaseService.streamAll(action);
+	}
+
+	@Override
+	public void streamAll(TodoQuery query, Consumer<? super Todo> action) {
+		todoRepositoryBaseService.streamAll(query, action);
+	}
+
+	@Override
+	public String collectionVersion() {
+		return todoRepositoryBaseService.collectionVersion();
+	}
+
+	@Override
+	public CursorPage<Todo> search(String query, int limit, String after) {
+		return todoRepositoryBaseService.search(query, limit, after);
+	}
+
+	@Override
+	public TodoSummary summarize() {
+		return todoRepositoryBaseService.summarize();
+	}
+
+	@Override
+	public Optional<Todo> findById(UUID id) {
+		return todoRepositoryBaseService.findById(id);
+	}
+
+	@Override
+	public void deleteById(UUID id) {
+		todoRepositoryBaseService.deleteById(id);
+	}
+
+	@Override
+	public void deleteAll() {
+		todoRepositoryBaseService.deleteAll();
+	}
+
+	@Override
+	public int deleteCompleted() {
+		return todoRepositoryBaseService.deleteCompleted();
+	}
+}
@@ -0,0 +1,515 @@
+package com.carbon.todobackend.service.impl;
+
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoChangeType;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSort;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
+import com.carbon.todobackend.service.TodoService;
+import com.carbon.todobackend.service.event.TodoChangeFeed;
+import com.carbon.todobackend.service.memory.PackedTodoStore;
+import com.carbon.todobackend.service.memory.TodoPersistence;
+import com.carbon.todobackend.service.search.TodoSearchResults;
+import com.carbon.todobackend.service.search.TodoTitleQuery;
+import com.carbon.todobackend.service.version.TodoCollectionVersion;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.MAX_BATCH_SIZE;
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.MAX_PAGE_SIZE;
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.checkUnsorted;
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.searchPage;
+
+/**
+ * Service Implementation for managing Todo, served from the in-memory
+ * {@link PackedTodoStore} and persisted through the {@link TodoPersistence}
+ * configured, written back to the database asynchronously by default.
+ * <p>
+ * Writes are visible as soon as they return, there is no transaction to wait
+ * for. Each write waits once for its changes to be persisted, when the
+ * persistence makes them durable on return.
+ */
+@Slf4j
+@AllArgsConstructor
+@Service
+@ConditionalOnProperty(name = "todo.storage", havingValue = "memory")
+public class MemoryTodoService implements TodoService {
+
+	private final PackedTodoStore todoStore;
+
+	private final TodoPersistence todoPersistence;
+
+	private final TodoCollectionVersion todoCollectionVersion;
+
+	private final TodoChangeFeed todoChangeFeed;
+
+	/**
+	 * Save a todo.
+	 *
+	 * @param createTodoRequest the entity to save
+	 * @return the persisted entity
+	 */
+	@Override
+	public Todo save(CreateTodoRequest createTodoRequest) throws AlreadyExistException {
+		log.debug("Request to save todo: {}", createTodoRequest);
+		final Todo todo = create(createTodoRequest);
+		todoPersistence.awaitPersisted();
+		return todo;
+	}
+
+	private Todo create(CreateTodoRequest createTodoRequest) throws AlreadyExistException {
+		final Todo todo = todoStore.create(UUID.randomUUID(), createTodoRequest.title(), false, null);
+		written(TodoChangeType.CREATED, todo);
+		return todo;
+	}
+
+	/**
+	 * Update a updateTodoRequest.
+	 *
+	 * @param updateTodoRequest the updateTodoRequest dto
+	 * @return the updateTodoRequest dto
+	 */
+	@Override
+	public Todo update(UpdateTodoRequest updateTodoRequest, UUID id) throws AlreadyExistException, NotExistingTodoException {
+		return update(updateTodoRequest, id, null);
+	}
+
+	/**
+	 * Update a updateTodoRequest, provided it is still at the expected version.
+	 *
+	 * @param updateTodoRequest the updateTodoRequest dto
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the updateTodoRequest dto
+	 */
+	@Override
+	public Todo update(UpdateTodoRequest updateTodoRequest, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException {
+		log.debug("Request to update todo: {}", updateTodoRequest);
+		final Todo todo = todoStore.update(id, current -> {
+			if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+				throw new TodoVersionMismatchException("Todo is no longer at version " + expectedVersion);
+			}
+			return new Todo(id, updateTodoRequest.title(), updateTodoRequest.completed(), updateTodoRequest.order(), current.version());
+		});
+		written(TodoChangeType.UPDATED, todo);
+		todoPersistence.awaitPersisted();
+		return todo;
+	}
+
+	/**
+	 * Apply a merge patch, provided the todo is still at the expected version.
+	 *
+	 * @param patch the fields to change
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the patched todo
+	 */
+	@Override
+	public Todo patch(TodoPatch patch, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException {
+		log.debug("Request to patch todo: {}", patch);
+		final Todo current = todoStore.get(id)
+				.orElseThrow(() -> new NotExistingTodoException("Todo does not exist"));
+		if ((expectedVersion == null || expectedVersion.equals(current.version())) && patch.applyTo(current).equals(current)) {
+			// Nothing to write, as in the database.
+			return current;
+		}
+		final Todo todo = todoStore.update(id, latest -> {
+			if (expectedVersion != null && !expectedVersion.equals(latest.version())) {
+				throw new TodoVersionMismatchException("Todo is no longer at version " + expectedVersion);
+			}
+			return patch.applyTo(latest);
+		});
+		written(TodoChangeType.UPDATED, todo);
+		todoPersistence.awaitPersisted();
+		return todo;
+	}
+
+	/**
+	 * Move a todo to the midpoint of its new neighbours, under the store lock.
+	 *
+	 * @param id the id of the todo to move
+	 * @param after the id of the todo to follow, or null to move it first
+	 * @return the moved todo, unchanged if it already follows "after"
+	 */
+	@Override
+	public Todo move(UUID id, UUID after) throws NotExistingTodoException {
+		log.debug("Request to move todo {} after {}", id, after);
+		final List<Todo> renumbered = new ArrayList<>();
+		final Todo current = todoStore.get(id)
+				.orElseThrow(() -> new NotExistingTodoException("Todo does not exist"));
+		final Todo todo = todoStore.move(id, after, renumbered::add);
+		renumbered.forEach(renumberedTodo -> written(TodoChangeType.UPDATED, renumberedTodo));
+		if (!todo.equals(current)) {
+			written(TodoChangeType.UPDATED, todo);
+		}
+		todoPersistence.awaitPersisted();
+		return todo;
+	}
+
+	/**
+	 * Save several todos, each one independently of the others.
+	 *
+	 * @param createTodoRequests the todos to create
+	 * @return the result of each todo, CONFLICT when its title is taken
+	 */
+	@Override
+	public List<TodoBatchResult> saveAll(List<CreateTodoRequest> createTodoRequests) {
+		log.debug("Request to save {} todos", createTodoRequests.size());
+		checkBatchSize(createTodoRequests);
+		final List<TodoBatchResult> results = new ArrayList<>(createTodoRequests.size());
+		for (CreateTodoRequest createTodoRequest : createTodoRequests) {
+			try {
+				results.add(TodoBatchResult.of(BatchOutcome.CREATED, create(createTodoRequest)));
+			} catch (AlreadyExistException e) {
+				results.add(new TodoBatchResult(BatchOutcome.CONFLICT, null, null));
+			}
+		}
+		todoPersistence.awaitPersisted();
+		return results;
+	}
+
+	/**
+	 * Update several todos, each one independently of the others.
+	 *
+	 * @param batchUpdateTodoRequests the changes
+	 * @return the result of each change, NOT_FOUND or CONFLICT when it was not applied
+	 */
+	@Override
+	public List<TodoBatchResult> updateAll(List<BatchUpdateTodoRequest> batchUpdateTodoRequests) {
+		log.debug("Request to update {} todos", batchUpdateTodoRequests.size());
+		checkBatchSize(batchUpdateTodoRequests);
+		final List<TodoBatchResult> results = new ArrayList<>(batchUpdateTodoRequests.size());
+		for (BatchUpdateTodoRequest request : batchUpdateTodoRequests) {
+			if (request.id() == null) {
+				results.add(TodoBatchResult.of(BatchOutcome.NOT_FOUND, (UUID) null));
+				continue;
+			}
+			try {
+				final Todo todo = todoStore.update(request.id(), current -> new Todo(
+						current.id(),
+						request.title() != null ? request.title() : current.title(),
+						request.completed() != null ? request.completed() : current.completed(),
+						request.order() != null ? request.order() : current.order(),
+						current.version()));
+				written(TodoChangeType.UPDATED, todo);
+				results.add(TodoBatchResult.of(BatchOutcome.UPDATED, todo));
+			} catch (NotExistingTodoException e) {
+				results.add(TodoBatchResult.of(BatchOutcome.NOT_FOUND, request.id()));
+			} catch (AlreadyExistException e) {
+				results.add(TodoBatchResult.of(BatchOutcome.CONFLICT, request.id()));
+			}
+		}
+		todoPersistence.awaitPersisted();
+		return results;
+	}
+
+	/**
+	 * Delete several todos.
+	 *
+	 * @param ids the ids
+	 * @return the result of each id, NOT_FOUND when it did not exist
+	 */
+	@Override
+	public List<TodoBatchResult> deleteAllById(List<UUID> ids) {
+		log.debug("Request to delete {} todos", ids.size());
+		checkBatchSize(ids);
+		final List<TodoBatchResult> results = ids.stream()
+				.map(id -> TodoBatchResult.of(delete(id) ? BatchOutcome.DELETED : BatchOutcome.NOT_FOUND, id))
+				.toList();
+		todoPersistence.awaitPersisted();
+		return results;
+	}
+
+	private static void checkBatchSize(List<?> batch) {
+		if (batch.size() > MAX_BATCH_SIZE) {
+			throw new BatchTooLargeException("A batch holds at most " + MAX_BATCH_SIZE + " todos");
+		}
+	}
+
+	/**
+	 * Get all todos.
+	 *
+	 * @return the list of entities
+	 */
+	@Override
+	public List<Todo> findAll() {
+		log.debug("Request to find all todos");
+		final List<Todo> todos = new ArrayList<>(todoStore.size());
+		todoStore.forEach(todos::add);
+		return todos;
+	}
+
+	/**
+	 * Get one keyset page of todos.
+	 *
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	public CursorPage<Todo> findPage(int limit, String after) {
+		log.debug("Request to find a page of {} todos after {}", limit, after);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		final TodoCursor cursor = after == null ? null : TodoCursor.decode(after);
+		// One extra todo tells whether another page follows.
+		final List<Todo> todos = cursor == null
+				? todoStore.pageAfter(null, null, size + 1)
+				: todoStore.pageAfter(cursor.order(), cursor.id(), size + 1);
+		final boolean hasNext = todos.size() > size;
+		final List<Todo> page = hasNext ? todos.subList(0, size) : todos;
+		final String next = hasNext ? TodoCursor.of(page.get(size - 1)).encode() : null;
+		return new CursorPage<>(page, next);
+	}
+
+	/**
+	 * Get one keyset page of the todos matching the query, filtered while
+	 * walking the store in keyset order.
+	 *
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @param query the filters
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	public CursorPage<Todo> findPage(int limit, String after, TodoQuery query) {
+		log.debug("Request to find a page of {} todos after {} matching {}", limit, after, query);
+		checkUnsorted(query);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		final TodoCursor cursor = after == null ? null : TodoCursor.decode(after);
+		final Predicate<Todo> filter = matching(query);
+		final List<Todo> todos = new ArrayList<>(size + 1);
+		Integer order = cursor == null ? null : cursor.order();
+		UUID id = cursor == null ? null : cursor.id();
+		// One extra todo tells whether another page follows.
+		while (todos.size() <= size) {
+			final List<Todo> chunk = todoStore.pageAfter(order, id, size + 1);
+			for (int i = 0; i < chunk.size() && todos.size() <= size; i++) {
+				if (filter.test(chunk.get(i))) {
+					todos.add(chunk.get(i));
+				}
+			}
+			if (chunk.size() <= size) {
+				break;
+			}
+			final Todo last = chunk.get(chunk.size() - 1);
+			order = last.order();
+			id = last.id();
+		}
+		final boolean hasNext = todos.size() > size;
+		final List<Todo> page = hasNext ? todos.subList(0, size) : todos;
+		final String next = hasNext ? TodoCursor.of(page.get(size - 1)).encode() : null;
+		return new CursorPage<>(page, next);
+	}
+
+	/**
+	 * Search the todos by title, scanning the store. Only the jpa storage
+	 * keeps a trigram index of the titles.
+	 *
+	 * @param query the searched text
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	public CursorPage<Todo> search(String query, int limit, String after) {
+		log.debug("Request to search a page of {} todos after {} matching {}", limit, after, query);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		final TodoTitleQuery titleQuery = TodoTitleQuery.parse(query);
+		// One extra hit tells whether another page follows.
+		final TodoSearchResults results = new TodoSearchResults(size + 1,
+				after == null ? null : TodoSearchCursor.decode(after));
+		todoStore.forEach(todo -> {
+			if (todo.title() != null) {
+				final int score = titleQuery.score(TodoTitleQuery.normalize(todo.title()));
+				if (score >= 0) {
+					results.offer(todo.id(), score);
+				}
+			}
+		});
+		return searchPage(results.hits(), size, todoStore::get);
+	}
+
+	/**
+	 * Visit every todo, in keyset order.
+	 *
+	 * @param action the callback receiving each todo
+	 */
+	@Override
+	public void streamAll(Consumer<? super Todo> action) {
+		log.debug("Request to stream all todos");
+		todoStore.forEach(action);
+	}
+
+	/**
+	 * Visit the todos matching the query. Sorting on anything but the keyset
+	 * order holds the matching todos in memory.
+	 *
+	 * @param query the filters and sort, every field being read anyway
+	 * @param action the callback receiving each todo
+	 */
+	@Override
+	public void streamAll(TodoQuery query, Consumer<? super Todo> action) {
+		log.debug("Request to stream the todos matching {}", query);
+		final Predicate<Todo> filter = matching(query);
+		if (query.sort().isEmpty()) {
+			todoStore.forEach(todo -> {
+				if (filter.test(todo)) {
+					action.accept(todo);
+				}
+			});
+			return;
+		}
+		final List<Todo> todos = new ArrayList<>();
+		todoStore.forEach(todo -> {
+			if (filter.test(todo)) {
+				todos.add(todo);
+			}
+		});
+		todos.sort(sortedBy(query.sort()));
+		todos.forEach(action);
+	}
+
+	private static Predicate<Todo> matching(TodoQuery query) {
+		return todo -> (query.completed() == null || query.completed().equals(todo.completed()))
+				&& (query.titlePrefix() == null || todo.title() != null && todo.title().startsWith(query.titlePrefix()))
+				&& (query.titleContains() == null || todo.title() != null && todo.title().contains(query.titleContains()))
+				&& (query.minOrder() == null || todo.order() != null && todo.order() >= query.minOrder())
+				&& (query.maxOrder() == null || todo.order() != null && todo.order() <= query.maxOrder());
+	}
+
+	/**
+	 * Same order as the database: nulls first when ascending, ties broken by id.
+	 */
+	private static Comparator<Todo> sortedBy(List<TodoSort> sort) {
+		Comparator<Todo> comparator = (todo, other) -> 0;
+		for (TodoSort key : sort) {
+			final Comparator<Todo> byKey = switch (key.field()) {
+				case ID -> nullsFirst(Todo::id);
+				case TITLE -> nullsFirst(Todo::title);
+				case COMPLETED -> nullsFirst(Todo::completed);
+				case ORDER -> nullsFirst(Todo::order);
+			};
+			comparator = comparator.thenComparing(key.descending() ? byKey.reversed() : byKey);
+		}
+		return comparator.thenComparing(Todo::id);
+	}
+
+	private static <T extends Comparable<? super T>> Comparator<Todo> nullsFirst(Function<Todo, T> key) {
+		return Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+	}
+
+	/**
+	 * Get the version of the whole collection.
+	 *
+	 * @return an opaque value, different after every write
+	 */
+	@Override
+	public String collectionVersion() {
+		return todoCollectionVersion.current();
+	}
+
+	/**
+	 * Count the todos from the completed bits of the store.
+	 *
+	 * @return the total, active and completed counts
+	 */
+	@Override
+	public TodoSummary summarize() {
+		log.debug("Request to summarize todos");
+		return todoStore.summarize();
+	}
+
+	/**
+	 * Get by the "id" todo.
+	 *
+	 * @param id the id
+	 * @return the optional
+	 */
+	@Override
+	public Optional<Todo> findById(UUID id) {
+		log.debug("Request to find todo by id: {}", id);
+		return todoStore.get(id);
+	}
+
+	/**
+	 * Delete the "id" todo.
+	 *
+	 * @param id the id
+	 */
+	@Override
+	public void deleteById(UUID id) {
+		log.debug("Request to delete todo by id: {}", id);
+		if (delete(id)) {
+			todoPersistence.awaitPersisted();
+		}
+	}
+
+	private boolean delete(UUID id) {
+		if (!todoStore.remove(id)) {
+			return false;
+		}
+		todoPersistence.markDirty(id);
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishDeletedAfterCommit(id);
+		return true;
+	}
+
+	/**
+	 * Delete all todos.
+	 */
+	@Override
+	public void deleteAll() {
+		log.debug("Request to delete all todos");
+		// Marked under the store lock: a todo created right after is written back after the clear.
+		todoStore.clear(todoPersistence::markCleared);
+		todoPersistence.awaitPersisted();
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishClearedAfterCommit();
+	}
+
+	/**
+	 * Delete the completed todos in one pass over the store.
+	 *
+	 * @return the number of todos deleted
+	 */
+	@Override
+	public int deleteCompleted() {
+		log.debug("Request to delete the completed todos");
+		final int deleted = todoStore.removeCompleted(todoPersistence::markDirty);
+		if (deleted > 0) {
+			todoPersistence.awaitPersisted();
+			todoCollectionVersion.incrementAfterCommit();
+			todoChangeFeed.publishCompletedDeletedAfterCommit();
+		}
+		return deleted;
+	}
+
+	/**
+	 * Out of a transaction, the after commit hooks run at once.
+	 */
+	private void written(TodoChangeType type, Todo todo) {
+		todoPersistence.markDirty(todo.id());
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishAfterCommit(type, todo);
+	}
+}
@@ -0,0 +1,312 @@
+package com.carbon.todobackend.service.impl;
+
+import com.carbon.todobackend.dao.reactive.ReactiveTodoRepository;
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.domain.entities.ReactiveTodoEntity;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.ReactiveTodoService;
+import com.carbon.todobackend.service.mapper.CreateTodoRequestMapper;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import com.carbon.todobackend.service.mapper.UpdateTodoRequestMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.MAX_BATCH_SIZE;
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.MAX_PAGE_SIZE;
+
+/**
+ * Reactive Service Implementation for managing Todo, over R2DBC.
+ * <p>
+ * Title uniqueness is checked against the database inside the write
+ * transaction, which also sees the earlier writes of a batch; the unique
+ * constraint stays the last-resort guard.
+ */
+@Slf4j
+@AllArgsConstructor
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTodoRepositoryBaseService implements ReactiveTodoService {
+
+	private final TodoMapper todoMapper;
+
+	private final CreateTodoRequestMapper createTodoRequestMapper;
+
+	private final UpdateTodoRequestMapper updateTodoRequestMapper;
+
+	private final ReactiveTodoRepository todoRepository;
+
+	private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+	private final TransactionalOperator transactionalOperator;
+
+	/**
+	 * Save a todo.
+	 *
+	 * @param createTodoRequest the entity to save
+	 * @return the persisted entity
+	 */
+	@Override
+	public Mono<Todo> save(CreateTodoRequest createTodoRequest) {
+		log.debug("Request to save todo: {}", createTodoRequest);
+		return isTitleTaken(createTodoRequest.title())
+				.flatMap(taken -> taken
+						? Mono.<Todo>error(new AlreadyExistException("Title for the same value already exist"))
+						: insert(createTodoRequest))
+				.onErrorMap(DataIntegrityViolationException.class, e -> new AlreadyExistException("Title for the same value already exist"))
+				.as(transactionalOperator::transactional);
+	}
+
+	/**
+	 * Update a todo.
+	 *
+	 * @param updateTodoRequest the updateTodoRequest dto
+	 * @return the updateTodoRequest dto
+	 */
+	@Override
+	public Mono<Todo> update(UpdateTodoRequest updateTodoRequest, UUID id) {
+		log.debug("Request to update todo: {}", updateTodoRequest);
+		return todoRepository.findById(id)
+				.switchIfEmpty(Mono.error(() -> new NotExistingTodoException("Todo does not exist")))
+				.flatMap(todo -> (Objects.equals(todo.getTitle(), updateTodoRequest.title())
+						? Mono.just(false)
+						: isTitleTaken(updateTodoRequest.title()))
+						.flatMap(taken -> {
+							if (taken) {
+								return Mono.<ReactiveTodoEntity>error(new AlreadyExistException(
+										"Updating todo with a title which is already present is forbidden"));
+							}
+							final ReactiveTodoEntity todoEntity = updateTodoRequestMapper.toReactiveEntity(updateTodoRequest, id);
+							// The update checks the version, a concurrent update fails instead of being overwritten.
+							todoEntity.setVersion(todo.getVersion());
+							return r2dbcEntityTemplate.update(todoEntity);
+						}))
+				.onErrorMap(DataIntegrityViolationException.class, e -> new AlreadyExistException(
+						"Updating todo with a title which is already present is forbidden"))
+				.map(todoMapper::toDto)
+				.as(transactionalOperator::transactional);
+	}
+
+	/**
+	 * Save several todos, one after the other, in one transaction.
+	 *
+	 * @param createTodoRequests the todos to create
+	 * @return the result of each todo, CONFLICT when its title is taken
+	 */
+	@Override
+	public Flux<TodoBatchResult> saveAll(List<CreateTodoRequest> createTodoRequests) {
+		log.debug("Request to save {} todos", createTodoRequests.size());
+		return checkBatchSize(createTodoRequests)
+				.thenMany(Flux.fromIterable(createTodoRequests))
+				.concatMap(createTodoRequest -> isTitleTaken(createTodoRequest.title())
+						.flatMap(taken -> taken
+								? Mono.just(new TodoBatchResult(BatchOutcome.CONFLICT, null, null))
+								: insert(createTodoRequest).map(todo -> TodoBatchResult.of(BatchOutcome.CREATED, todo))))
+				.onErrorMap(DataIntegrityViolationException.class, e -> new AlreadyExistException("Title for the same value already exist"))
+				.as(transactionalOperator::transactional);
+	}
+
+	/**
+	 * Update several todos, one after the other, in one transaction.
+	 *
+	 * @param batchUpdateTodoRequests the changes
+	 * @return the result of each change, NOT_FOUND or CONFLICT when it was not applied
+	 */
+	@Override
+	public Flux<TodoBatchResult> updateAll(List<BatchUpdateTodoRequest> batchUpdateTodoRequests) {
+		log.debug("Request to update {} todos", batchUpdateTodoRequests.size());
+		return checkBatchSize(batchUpdateTodoRequests)
+				.thenMany(Flux.fromIterable(batchUpdateTodoRequests))
+				.concatMap(this::apply)
+				.onErrorMap(DataIntegrityViolationException.class, e -> new AlreadyExistException(
+						"Updating todo with a title which is already present is forbidden"))
+				.as(transactionalOperator::transactional);
+	}
+
+	private Mono<TodoBatchResult> apply(BatchUpdateTodoRequest request) {
+		if (request.id() == null) {
+			return Mono.just(new TodoBatchResult(BatchOutcome.NOT_FOUND, null, null));
+		}
+		return todoRepository.findById(request.id())
+				.flatMap(todo -> (request.title() == null || request.title().equals(todo.getTitle())
+						? Mono.just(false)
+						: isTitleTaken(request.title()))
+						.flatMap(taken -> {
+							if (taken) {
+								return Mono.just(TodoBatchResult.of(BatchOutcome.CONFLICT, request.id()));
+							}
+							applyChanges(todo, request);
+							return r2dbcEntityTemplate.update(todo)
+									.map(updated -> TodoBatchResult.of(BatchOutcome.UPDATED, todoMapper.toDto(updated)));
+						}))
+				.defaultIfEmpty(TodoBatchResult.of(BatchOutcome.NOT_FOUND, request.id()));
+	}
+
+	private static void applyChanges(ReactiveTodoEntity todo, BatchUpdateTodoRequest request) {
+		if (request.title() != null) {
+			todo.setTitle(request.title());
+		}
+		if (request.completed() != null) {
+			todo.setCompleted(request.completed());
+		}
+		if (request.order() != null) {
+			todo.setOrder(request.order());
+		}
+	}
+
+	/**
+	 * Delete several todos with a single statement.
+	 *
+	 * @param ids the ids
+	 * @return the result of each id, NOT_FOUND when it did not exist
+	 */
+	@Override
+	public Flux<TodoBatchResult> deleteAllById(List<UUID> ids) {
+		log.debug("Request to delete {} todos", ids.size());
+		if (ids.isEmpty()) {
+			return Flux.empty();
+		}
+		return checkBatchSize(ids)
+				.then(todoRepository.findExistingIds(ids).collect(Collectors.toSet()))
+				.flatMap(existingIds -> existingIds.isEmpty()
+						? Mono.just(existingIds)
+						: todoRepository.deleteAllById(existingIds).thenReturn(existingIds))
+				.flatMapMany(existingIds -> Flux.fromIterable(ids)
+						.map(id -> TodoBatchResult.of(existingIds.contains(id) ? BatchOutcome.DELETED : BatchOutcome.NOT_FOUND, id)))
+				.as(transactionalOperator::transactional);
+	}
+
+	/**
+	 * Get all todos, emitted as the rows are read.
+	 *
+	 * @return the todos in keyset order
+	 */
+	@Override
+	public Flux<Todo> findAll() {
+		log.debug("Request to find all todos");
+		return todoRepository.findAllInKeysetOrder()
+				.map(todoMapper::toDto);
+	}
+
+	/**
+	 * Get one keyset page of todos.
+	 *
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	public Mono<CursorPage<Todo>> findPage(int limit, String after) {
+		log.debug("Request to find a page of {} todos after {}", limit, after);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		// One extra row tells whether another page follows.
+		return Flux.defer(() -> {
+					if (after == null) {
+						return todoRepository.findFirstPage(size + 1);
+					}
+					final TodoCursor cursor = TodoCursor.decode(after);
+					return todoRepository.findPageAfter(cursor.order(), cursor.id(), size + 1);
+				})
+				.collectList()
+				.map(todoEntities -> {
+					final boolean hasNext = todoEntities.size() > size;
+					final List<ReactiveTodoEntity> page = hasNext ? todoEntities.subList(0, size) : todoEntities;
+					final ReactiveTodoEntity last = hasNext ? page.get(size - 1) : null;
+					final String next = last == null ? null : new TodoCursor(last.getOrder(), last.getId()).encode();
+					return new CursorPage<>(page.stream().map(todoMapper::toDto).toList(), next);
+				});
+	}
+
+	/**
+	 * Count the todos with two count queries.
+	 *
+	 * @return the total, active and completed counts
+	 */
+	@Override
+	public Mono<TodoSummary> summarize() {
+		log.debug("Request to summarize todos");
+		return Mono.zip(todoRepository.count(), todoRepository.countByCompleted(true))
+				.map(counts -> TodoSummary.of(counts.getT1(), counts.getT2()));
+	}
+
+	/**
+	 * Get by the "id" todo.
+	 *
+	 * @param id the id
+	 * @return the todo, or empty
+	 */
+	@Override
+	public Mono<Todo> findById(UUID id) {
+		log.debug("Request to find todo by id: {}", id);
+		return todoRepository.findById(id)
+				.map(todoMapper::toDto);
+	}
+
+	/**
+	 * Delete the "id" todo.
+	 *
+	 * @param id the id
+	 */
+	@Override
+	public Mono<Void> deleteById(UUID id) {
+		log.debug("Request to delete todo by id: {}", id);
+		return todoRepository.deleteById(id);
+	}
+
+	/**
+	 * Delete all todos with a single statement.
+	 */
+	@Override
+	public Mono<Void> deleteAll() {
+		log.debug("Request to delete all todos");
+		return todoRepository.deleteAll();
+	}
+
+	/**
+	 * Delete the completed todos with a single statement.
+	 *
+	 * @return the number of todos deleted
+	 */
+	@Override
+	public Mono<Long> deleteCompleted() {
+		log.debug("Request to delete the completed todos");
+		return todoRepository.deleteCompleted();
+	}
+
+	private Mono<Todo> insert(CreateTodoRequest createTodoRequest) {
+		final ReactiveTodoEntity todoEntity = createTodoRequestMapper.toReactiveEntity(createTodoRequest);
+		todoEntity.setId(UUID.randomUUID());
+		return r2dbcEntityTemplate.insert(todoEntity)
+				.map(todoMapper::toDto);
+	}
+
+	private Mono<Boolean> isTitleTaken(String title) {
+		return title == null ? Mono.just(false) : todoRepository.existsByTitle(title);
+	}
+
+	private static Mono<Void> checkBatchSize(List<?> batch) {
+		return batch.size() > MAX_BATCH_SIZE
+				? Mono.error(new BatchTooLargeException("A batch holds at most " + MAX_BATCH_SIZE + " todos"))
+				: Mono.empty();
+	}
+}
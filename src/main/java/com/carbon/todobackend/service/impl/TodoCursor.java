@@ -0,0 +1,43 @@
+package com.carbon.todobackend.service.impl;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.entities.TodoEntity;
+import com.carbon.todobackend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position (order, id) handed to clients as the next page token.
+ */
+record TodoCursor(Integer order, UUID id) {
+
+	private static final char SEPARATOR = ':';
+
+	static TodoCursor of(TodoEntity todoEntity) {
+		return new TodoCursor(todoEntity.getOrder(), todoEntity.getId());
+	}
+
+	static TodoCursor of(Todo todo) {
+		return new TodoCursor(todo.order(), todo.id());
+	}
+
+	static TodoCursor decode(String token) {
+		try {
+			final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			final int separator = raw.indexOf(SEPARATOR);
+			final String order = raw.substring(0, separator);
+			return new TodoCursor(
+					order.isEmpty() ? null : Integer.valueOf(order),
+					UUID.fromString(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new InvalidCursorException("Malformed cursor: " + token);
+		}
+	}
+
+	String encode() {
+		final String raw = (order == null ? "" : order.toString()) + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
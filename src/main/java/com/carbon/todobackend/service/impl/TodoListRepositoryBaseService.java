@@ -0,0 +1,304 @@
+package com.carbon.todobackend.service.impl;
+
+import com.carbon.todobackend.dao.ListTodoRepository;
+import com.carbon.todobackend.dao.TodoListRepository;
+import com.carbon.todobackend.domain.dto.CreateTodoListRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoList;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.domain.entities.ListTodoEntity;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.NotFoundException;
+import com.carbon.todobackend.exception.TodoListBusyException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
+import com.carbon.todobackend.service.TodoListService;
+import com.carbon.todobackend.service.mapper.TodoListMapper;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import com.carbon.todobackend.service.support.StripedLocks;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static com.carbon.todobackend.service.impl.TodoRepositoryBaseService.MAX_PAGE_SIZE;
+
+/**
+ * Service Implementation for managing the todo lists.
+ * <p>
+ * The writes of a list are serialized on the stripe of its id. The stripe is
+ * taken before the transaction begins and released once it has completed, so
+ * a writer waiting for it holds no pooled connection, and the title check
+ * reads what the previous writer of the list committed. A writer waiting
+ * longer than the lock timeout gives up. Writers of different
+ * lists proceed in parallel. The unique constraint on (list, title) stays the
+ * last-resort guard. Reads take no lock.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+@Observed(name = "todo.list.service")
+public class TodoListRepositoryBaseService implements TodoListService {
+
+	private final TodoListRepository todoListRepository;
+
+	private final ListTodoRepository listTodoRepository;
+
+	private final TodoListMapper todoListMapper;
+
+	private final TodoMapper todoMapper;
+
+	private final StripedLocks listLocks;
+
+	private final Duration lockTimeout;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public TodoListRepositoryBaseService(TodoListRepository todoListRepository, ListTodoRepository listTodoRepository,
+			TodoListMapper todoListMapper, TodoMapper todoMapper, PlatformTransactionManager transactionManager,
+			@Value("${todo.lists.lock-stripes:64}") int lockStripes,
+			@Value("${todo.lists.lock-timeout:2s}") Duration lockTimeout) {
+		this.todoListRepository = todoListRepository;
+		this.listTodoRepository = listTodoRepository;
+		this.todoListMapper = todoListMapper;
+		this.todoMapper = todoMapper;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.listLocks = new StripedLocks(lockStripes);
+		this.lockTimeout = lockTimeout;
+	}
+
+	@Override
+	@Transactional
+	public TodoList createList(CreateTodoListRequest createTodoListRequest) {
+		log.debug("Request to create todo list: {}", createTodoListRequest);
+		return todoListMapper.toDto(todoListRepository.save(todoListMapper.toEntity(createTodoListRequest)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<TodoList> findList(UUID listId) {
+		log.debug("Request to find todo list: {}", listId);
+		return todoListRepository.findById(listId).map(todoListMapper::toDto);
+	}
+
+	@Override
+	public void deleteList(UUID listId) {
+		log.debug("Request to delete todo list: {}", listId);
+		writeListWithoutResult(listId, () -> todoListRepository.deleteListById(listId));
+	}
+
+	/**
+	 * Save a todo in a list, once no other todo of the list has the title.
+	 *
+	 * @param listId the id of the list
+	 * @param createTodoRequest the todo to save
+	 * @return the persisted todo
+	 */
+	@Override
+	public Todo save(UUID listId, CreateTodoRequest createTodoRequest) throws AlreadyExistException {
+		log.debug("Request to save todo in list {}: {}", listId, createTodoRequest);
+		return writeList(listId, () -> {
+			requireList(listId);
+			if (createTodoRequest.title() != null
+					&& listTodoRepository.existsByListIdAndTitle(listId, createTodoRequest.title())) {
+				throw new AlreadyExistException("Title for the same value already exist");
+			}
+			final ListTodoEntity todoEntity = new ListTodoEntity();
+			todoEntity.setListId(listId);
+			todoEntity.setTitle(createTodoRequest.title());
+			todoEntity.setCompleted(false);
+			return todoMapper.toDto(saveAndFlush(todoEntity));
+		});
+	}
+
+	/**
+	 * Update a todo of a list, provided it is still at the expected version and
+	 * no other todo of the list has the new title.
+	 *
+	 * @param listId the id of the list
+	 * @param updateTodoRequest the new state of the todo
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the updated todo
+	 */
+	@Override
+	public Todo update(UUID listId, UpdateTodoRequest updateTodoRequest, UUID id, Long expectedVersion)
+			throws AlreadyExistException, NotExistingTodoException {
+		log.debug("Request to update todo {} in list {}: {}", id, listId, updateTodoRequest);
+		// A missing todo is reported once the transaction has completed.
+		final Optional<Todo> updatedTodo = writeList(listId, () -> {
+			requireList(listId);
+			final Optional<ListTodoEntity> todoEntity = listTodoRepository.findByListIdAndId(listId, id);
+			return todoEntity.isEmpty()
+					? Optional.empty()
+					: Optional.of(update(todoEntity.get(), updateTodoRequest, expectedVersion));
+		});
+		return updatedTodo.orElseThrow(() -> new NotExistingTodoException("Todo does not exist"));
+	}
+
+	private Todo update(ListTodoEntity todoEntity, UpdateTodoRequest updateTodoRequest, Long expectedVersion)
+			throws AlreadyExistException {
+		final UUID listId = todoEntity.getListId();
+		final UUID id = todoEntity.getId();
+		if (expectedVersion != null && !expectedVersion.equals(todoEntity.getVersion())) {
+			throw new TodoVersionMismatchException("Todo is no longer at version " + expectedVersion);
+		}
+		// An unchanged title is not looked up again.
+		if (updateTodoRequest.title() != null && !Objects.equals(updateTodoRequest.title(), todoEntity.getTitle())
+				&& listTodoRepository.existsByListIdAndTitleAndIdNot(listId, updateTodoRequest.title(), id)) {
+			throw new AlreadyExistException(
+					"Updating todo with a title which is already present is forbidden");
+		}
+		todoEntity.setTitle(updateTodoRequest.title());
+		todoEntity.setCompleted(updateTodoRequest.completed());
+		todoEntity.setOrder(updateTodoRequest.order());
+		try {
+			return todoMapper.toDto(saveAndFlush(todoEntity));
+		} catch (OptimisticLockingFailureException e) {
+			if (expectedVersion != null) {
+				throw new TodoVersionMismatchException("Todo is no longer at version " + expectedVersion);
+			}
+			throw e;
+		}
+	}
+
+	private ListTodoEntity saveAndFlush(ListTodoEntity todoEntity) throws AlreadyExistException {
+		try {
+			return listTodoRepository.saveAndFlush(todoEntity);
+		} catch (DataIntegrityViolationException e) {
+			throw new AlreadyExistException("Title for the same value already exist");
+		}
+	}
+
+	/**
+	 * Get one keyset page of the todos of a list, from the (list, order, id) index.
+	 *
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<Todo> findPage(UUID listId, int limit, String after) {
+		log.debug("Request to find a page of {} todos of list {} after {}", limit, listId, after);
+		requireList(listId);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		// One extra row tells whether another page follows.
+		final Pageable pageable = PageRequest.ofSize(size + 1);
+		final List<ListTodoEntity> todoEntities;
+		if (after == null) {
+			todoEntities = listTodoRepository.findFirstPage(listId, pageable);
+		} else {
+			final TodoCursor cursor = TodoCursor.decode(after);
+			todoEntities = listTodoRepository.findPageAfter(listId, cursor.order(), cursor.id(), pageable);
+		}
+		final boolean hasNext = todoEntities.size() > size;
+		final List<ListTodoEntity> page = hasNext ? todoEntities.subList(0, size) : todoEntities;
+		final ListTodoEntity last = hasNext ? page.get(size - 1) : null;
+		final String next = last == null ? null : new TodoCursor(last.getOrder(), last.getId()).encode();
+		return new CursorPage<>(page.stream().map(todoMapper::toDto).toList(), next);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Todo> findById(UUID listId, UUID id) {
+		log.debug("Request to find todo {} of list {}", id, listId);
+		return listTodoRepository.findByListIdAndId(listId, id).map(todoMapper::toDto);
+	}
+
+	@Override
+	public void deleteById(UUID listId, UUID id) {
+		log.debug("Request to delete todo {} of list {}", id, listId);
+		writeListWithoutResult(listId, () -> listTodoRepository.deleteTodoById(listId, id));
+	}
+
+	@Override
+	public void deleteAll(UUID listId) {
+		log.debug("Request to delete all todos of list {}", listId);
+		writeListWithoutResult(listId, () -> {
+			requireList(listId);
+			listTodoRepository.deleteAllByListId(listId);
+		});
+	}
+
+	/**
+	 * Run a write of the list in its own transaction, under the stripe of the
+	 * list. A rejected write rolls back and its exception is rethrown as is.
+	 *
+	 * @throws TodoListBusyException if the other writes of the stripe did not complete in time
+	 */
+	private <T> T writeList(UUID listId, ListWrite<T> write) throws AlreadyExistException {
+		final Lock lock = lockList(listId);
+		try {
+			return transactionTemplate.execute(status -> {
+				try {
+					return write.run();
+				} catch (AlreadyExistException e) {
+					throw new RejectedListWrite(e);
+				}
+			});
+		} catch (RejectedListWrite e) {
+			throw (AlreadyExistException) e.getCause();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void writeListWithoutResult(UUID listId, Runnable write) {
+		final Lock lock = lockList(listId);
+		try {
+			transactionTemplate.executeWithoutResult(status -> write.run());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Lock lockList(UUID listId) {
+		final Lock lock = listLocks.get(listId);
+		try {
+			if (lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				return lock;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		throw new TodoListBusyException("Other writes of the todo list are still in progress");
+	}
+
+	@FunctionalInterface
+	private interface ListWrite<T> {
+		T run() throws AlreadyExistException;
+	}
+
+	/**
+	 * Carries a checked rejection out of the transaction callback, rolling it back.
+	 */
+	private static final class RejectedListWrite extends RuntimeException {
+		RejectedListWrite(AlreadyExistException cause) {
+			super(cause);
+		}
+	}
+
+	private void requireList(UUID listId) {
+		if (!todoListRepository.existsById(listId)) {
+			throw new NotFoundException("Todo list does not exist");
+		}
+	}
+}
@@ -1,26 +1,79 @@
 package com.carbon.todobackend.service.impl;
 
+import com.carbon.todobackend.dao.TodoCountsProjection;
+import com.carbon.todobackend.dao.TodoPositionProjection;
 import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
 import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
 import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoChangeType;
+import com.carbon.todobackend.domain.dto.TodoField;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSummary;
 import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
 import com.carbon.todobackend.domain.entities.TodoEntity;
 import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidQueryException;
+import com.carbon.todobackend.exception.MoveInProgressException;
 import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
 import com.carbon.todobackend.service.TodoService;
+import com.carbon.todobackend.service.cache.TodoCache;
+import com.carbon.todobackend.service.cache.TodoResponseCache;
+import com.carbon.todobackend.service.event.TodoChangeFeed;
+import com.carbon.todobackend.service.index.TodoTitleIndex;
 import com.carbon.todobackend.service.mapper.CreateTodoRequestMapper;
 import com.carbon.todobackend.service.mapper.TodoMapper;
 import com.carbon.todobackend.service.mapper.UpdateTodoRequestMapper;
+import com.carbon.todobackend.service.pipeline.TodoWrite;
+import com.carbon.todobackend.service.pipeline.TodoWritePipeline;
+import com.carbon.todobackend.service.search.TodoSearchHit;
+import com.carbon.todobackend.service.search.TodoSearchIndex;
+import com.carbon.todobackend.service.search.TodoTitleQuery;
+import com.carbon.todobackend.service.support.TodoOrdering;
+import com.carbon.todobackend.service.version.TodoCollectionVersion;
+import jakarta.persistence.EntityManager;
+import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
 
 /**
  * Service Implementation for managing Todo.
@@ -28,8 +81,17 @@ import java.util.stream.Collectors;
 @Slf4j
 @AllArgsConstructor
 @Service
-@Transactional
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+@Observed(name = "todo.service")
+@Transactional(rollbackFor = AlreadyExistException.class)
 public class TodoRepositoryBaseService implements TodoService {
+
+	static final int MAX_PAGE_SIZE = 1000;
+
+	static final int MAX_BATCH_SIZE = 1000;
+
+	static final Duration MOVE_LOCK_TIMEOUT = Duration.ofSeconds(2);
+
 	
 	private final TodoMapper todoMapper;
 
@@ -39,6 +101,23 @@ public class TodoRepositoryBaseService implements TodoService {
 
 	private final TodoRepository todoRepository;
 
+	private final EntityManager entityManager;
+
+	private final TodoCache todoCache;
+
+	private final TodoResponseCache todoResponseCache;
+
+	private final TodoTitleIndex todoTitleIndex;
+
+	private final TodoSearchIndex todoSearchIndex;
+
+	private final TodoCollectionVersion todoCollectionVersion;
+
+	private final TodoChangeFeed todoChangeFeed;
+
+	private final PlatformTransactionManager transactionManager;
+
+	private final Lock moveLock = new ReentrantLock();
 
 	/**
 	 * Save a todo.
@@ -49,12 +128,16 @@ public class TodoRepositoryBaseService implements TodoService {
 	@Override
 	public Todo save(CreateTodoRequest createTodoRequest) throws AlreadyExistException {
 		log.debug("Request to save todo: {}", createTodoRequest);
-		if (existsTitle(createTodoRequest.title())) {
-			throw new AlreadyExistException("Title for the same value already exist");
-		}
-		TodoEntity todoEntity = createTodoRequestMapper.toEntity(createTodoRequest);
-		todoEntity = todoRepository.save(todoEntity);
-		return todoMapper.toDto(todoEntity);
+		TodoEntity todoEntity = toNewEntity(createTodoRequest);
+		todoEntity = saveAndFlush(todoEntity);
+		final Todo todo = todoMapper.toDto(todoEntity);
+		todoTitleIndex.assignAfterCommit(todo.title(), todo.id());
+		todoSearchIndex.putAfterCommit(todo);
+		todoCache.putAfterCommit(todo);
+		todoResponseCache.evictAfterCommit(todo.id());
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishAfterCommit(TodoChangeType.CREATED, todo);
+		return todo;
 	}
 
 	/**
@@ -65,29 +148,514 @@ public class TodoRepositoryBaseService implements TodoService {
 	 */
 	@Override
 	public Todo update(UpdateTodoRequest updateTodoRequest, UUID id) throws AlreadyExistException, NotExistingTodoException {
+		return update(updateTodoRequest, id, null);
+	}
+
+	/**
+	 * Update a updateTodoRequest, provided it is still at the expected version.
+	 *
+	 * @param updateTodoRequest the updateTodoRequest dto
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the updateTodoRequest dto
+	 */
+	@Override
+	public Todo update(UpdateTodoRequest updateTodoRequest, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException {
 		log.debug("Request to update todo: {}", updateTodoRequest);
-		Optional<Todo> todo = findById(id);
+		TodoEntity todoEntity = toUpdatedEntity(updateTodoRequest, id, expectedVersion);
+		try {
+			todoEntity = saveAndFlush(todoEntity);
+		} catch (OptimisticLockingFailureException e) {
+			if (expectedVersion != null) {
+				throw versionMismatch(id, expectedVersion);
+			}
+			todoCache.evict(id);
+			throw e;
+		}
+		final Todo updatedTodo = todoMapper.toDto(todoEntity);
+		todoTitleIndex.assignAfterCommit(updatedTodo.title(), id);
+		todoSearchIndex.putAfterCommit(updatedTodo);
+		todoCache.putAfterCommit(updatedTodo);
+		todoResponseCache.evictAfterCommit(updatedTodo.id());
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishAfterCommit(TodoChangeType.UPDATED, updatedTodo);
+		return updatedTodo;
+	}
+
+	private TodoEntity toNewEntity(CreateTodoRequest createTodoRequest) throws AlreadyExistException {
+		if (!todoTitleIndex.reserve(createTodoRequest.title(), null)) {
+			throw new AlreadyExistException("Title for the same value already exist");
+		}
+		return createTodoRequestMapper.toEntity(createTodoRequest);
+	}
+
+	private TodoEntity toUpdatedEntity(UpdateTodoRequest updateTodoRequest, UUID id, Long expectedVersion)
+			throws AlreadyExistException, NotExistingTodoException {
+		Optional<Todo> todo = findCurrent(id, expectedVersion);
 		if (todo.isEmpty()) {
 			throw new NotExistingTodoException("Todo does not exist");
 		}
-		if (!isSameTodo(todo, updateTodoRequest) && existsTitle(updateTodoRequest.title())) {
+		if (expectedVersion != null && !expectedVersion.equals(todo.get().version())) {
+			throw versionMismatch(id, expectedVersion);
+		}
+		if (!todoTitleIndex.reserve(updateTodoRequest.title(), id)) {
 			throw new AlreadyExistException(
 					"Updating todo with a title which is already present is forbidden");
 		}
 		TodoEntity todoEntity = updateTodoRequestMapper.toEntity(updateTodoRequest, id);
-		todoEntity = todoRepository.saveAndFlush(todoEntity);
-		return todoMapper.toDto(todoEntity);
+		// Merging checks the version, a concurrent update fails instead of being overwritten.
+		todoEntity.setVersion(todo.get().version());
+		return todoEntity;
+	}
+
+	/**
+	 * Read the todo a write applies to. A conditional write starts from the
+	 * cache, its version being checked against the client's anyway. Without
+	 * one, the row is read and locked, so that concurrent unconditional writes
+	 * take turns and the last one wins, as they did before versions existed.
+	 */
+	private Optional<Todo> findCurrent(UUID id, Long expectedVersion) {
+		if (expectedVersion != null) {
+			return findById(id);
+		}
+		return todoRepository.findByIdForUpdate(id).map(todoMapper::toDto);
+	}
+
+	/**
+	 * The cached version may be the stale one, so it is dropped for the next
+	 * attempt to read the row again.
+	 */
+	private TodoVersionMismatchException versionMismatch(UUID id, Long expectedVersion) {
+		todoCache.evict(id);
+		return new TodoVersionMismatchException("Todo is no longer at version " + expectedVersion);
+	}
+
+	/**
+	 * Write the creates and updates queued by the {@link TodoWritePipeline},
+	 * flushed together in this transaction. Each write is checked as save and
+	 * update do and a rejected one fails alone, before anything is written.
+	 * The others complete once the transaction commits. A second write on the
+	 * same todo is left pending, for the pipeline to write it on its own.
+	 *
+	 * @param writes the writes, the accepted ones left pending if the flush fails
+	 */
+	public void writeAll(List<TodoWrite> writes) throws AlreadyExistException {
+		log.debug("Request to write {} queued todos", writes.size());
+		final Set<UUID> ids = new HashSet<>();
+		final List<TodoEntity> todoEntities = new ArrayList<>(writes.size());
+		for (TodoWrite write : writes) {
+			TodoEntity todoEntity = null;
+			try {
+				if (write.isCreate()) {
+					todoEntity = todoRepository.save(toNewEntity(write.createTodoRequest()));
+				} else if (ids.add(write.id())) {
+					todoEntity = todoRepository.save(
+							toUpdatedEntity(write.updateTodoRequest(), write.id(), write.expectedVersion()));
+				}
+			} catch (AlreadyExistException | NotExistingTodoException | TodoVersionMismatchException e) {
+				write.fail(e);
+			}
+			todoEntities.add(todoEntity);
+		}
+		// The flush increments the versions, so the written todos are mapped afterwards.
+		flush(todoEntities);
+		boolean written = false;
+		for (int i = 0; i < todoEntities.size(); i++) {
+			if (todoEntities.get(i) == null) {
+				continue;
+			}
+			final TodoWrite write = writes.get(i);
+			final Todo todo = todoMapper.toDto(todoEntities.get(i));
+			todoTitleIndex.assignAfterCommit(todo.title(), todo.id());
+			todoSearchIndex.putAfterCommit(todo);
+			todoCache.putAfterCommit(todo);
+			todoResponseCache.evictAfterCommit(todo.id());
+			todoChangeFeed.publishAfterCommit(write.isCreate() ? TodoChangeType.CREATED : TodoChangeType.UPDATED, todo);
+			afterCommit(() -> write.complete(todo));
+			written = true;
+		}
+		if (written) {
+			todoCollectionVersion.incrementAfterCommit();
+		}
+	}
+
+	/**
+	 * Apply a merge patch with a single UPDATE of the changed columns. The
+	 * current todo usually comes from the cache, in which case the UPDATE is
+	 * the only statement and its version condition rejects a concurrent
+	 * change. With If-Match that rejection is the client's to handle. Without,
+	 * the row is read again, locked, and the patch applied to it, so that the
+	 * last patch wins. A patch of the title without If-Match locks the row
+	 * first, its title being reserved against the current one.
+	 *
+	 * @param patch the fields to change
+	 * @param expectedVersion the version the client last saw, or null to skip the check
+	 * @return the patched todo, unchanged if the patch changes nothing
+	 */
+	@Override
+	public Todo patch(TodoPatch patch, UUID id, Long expectedVersion) throws AlreadyExistException, NotExistingTodoException {
+		log.debug("Request to patch todo: {}", patch);
+		final Optional<Todo> found = patch.fields().contains(TodoField.TITLE)
+				? findCurrent(id, expectedVersion)
+				: findById(id);
+		final Todo current = found.orElseThrow(() -> new NotExistingTodoException("Todo does not exist"));
+		if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+			throw versionMismatch(id, expectedVersion);
+		}
+		final Optional<Todo> patched = patchRow(patch, current);
+		if (patched.isPresent()) {
+			return patched.get();
+		}
+		// Changed or deleted since it was read.
+		if (expectedVersion != null) {
+			throw versionMismatch(id, expectedVersion);
+		}
+		todoCache.evict(id);
+		final Todo locked = todoRepository.findByIdForUpdate(id)
+				.map(todoMapper::toDto)
+				.orElseThrow(() -> new NotExistingTodoException("Todo does not exist"));
+		return patchRow(patch, locked)
+				.orElseThrow(() -> new ObjectOptimisticLockingFailureException(TodoEntity.class, id));
+	}
+
+	/**
+	 * @return the patched todo, the current one if the patch changes nothing,
+	 * or empty if the row is no longer at the version of the current one
+	 */
+	private Optional<Todo> patchRow(TodoPatch patch, Todo current) throws AlreadyExistException {
+		final UUID id = current.id();
+		final Todo patched = patch.applyTo(current);
+		final Set<TodoField> changed = EnumSet.noneOf(TodoField.class);
+		if (!Objects.equals(patched.title(), current.title())) {
+			changed.add(TodoField.TITLE);
+		}
+		if (!Objects.equals(patched.completed(), current.completed())) {
+			changed.add(TodoField.COMPLETED);
+		}
+		if (!Objects.equals(patched.order(), current.order())) {
+			changed.add(TodoField.ORDER);
+		}
+		if (changed.isEmpty()) {
+			return Optional.of(current);
+		}
+		// An unchanged title is not looked up again.
+		if (changed.contains(TodoField.TITLE) && !todoTitleIndex.reserve(patched.title(), id)) {
+			throw new AlreadyExistException(
+					"Updating todo with a title which is already present is forbidden");
+		}
+		final Todo updatedTodo = new Todo(id, patched.title(), patched.completed(), patched.order(),
+				current.version() == null ? 0L : current.version() + 1);
+		final int updated;
+		try {
+			updated = todoRepository.updateColumns(updatedTodo, changed, current.version());
+		} catch (DataIntegrityViolationException e) {
+			todoTitleIndex.release(patched.title());
+			throw new AlreadyExistException("Title for the same value already exist");
+		}
+		if (updated == 0) {
+			if (changed.contains(TodoField.TITLE)) {
+				todoTitleIndex.release(patched.title());
+			}
+			return Optional.empty();
+		}
+		if (changed.contains(TodoField.TITLE)) {
+			todoTitleIndex.assignAfterCommit(updatedTodo.title(), id);
+			todoSearchIndex.putAfterCommit(updatedTodo);
+		}
+		todoCache.putAfterCommit(updatedTodo);
+		todoResponseCache.evictAfterCommit(updatedTodo.id());
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishAfterCommit(TodoChangeType.UPDATED, updatedTodo);
+		return Optional.of(updatedTodo);
+	}
+
+	/**
+	 * Move a todo with a single UPDATE of its order, to the midpoint of its
+	 * new neighbours. Moves are serialized so that two of them never take the
+	 * same order. The lock is taken before the transaction begins and
+	 * released once it has completed, so a waiting move holds no pooled
+	 * connection, and one waiting longer than {@link #MOVE_LOCK_TIMEOUT} gives
+	 * up. When the neighbours leave no room in between, every todo is
+	 * renumbered first, in the same transaction.
+	 *
+	 * @param id the id of the todo to move
+	 * @param after the id of the todo to follow, or null to move it first
+	 * @return the moved todo, unchanged if it already follows "after"
+	 * @throws MoveInProgressException if the other moves did not complete in time
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public Todo move(UUID id, UUID after) throws NotExistingTodoException {
+		log.debug("Request to move todo {} after {}", id, after);
+		lockMoves();
+		try {
+			return new TransactionTemplate(transactionManager).execute(status -> {
+				try {
+					return moveLocked(id, after);
+				} catch (NotExistingTodoException e) {
+					throw new MissingMovedTodo(e);
+				}
+			});
+		} catch (MissingMovedTodo e) {
+			throw (NotExistingTodoException) e.getCause();
+		} finally {
+			moveLock.unlock();
+		}
+	}
+
+	private void lockMoves() {
+		try {
+			if (moveLock.tryLock(MOVE_LOCK_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		throw new MoveInProgressException("Other moves are still in progress");
+	}
+
+	/**
+	 * Carries a missing todo out of the transaction callback, rolling it back.
+	 */
+	private static final class MissingMovedTodo extends RuntimeException {
+		MissingMovedTodo(NotExistingTodoException cause) {
+			super(cause);
+		}
+	}
+
+	private Todo moveLocked(UUID id, UUID after) throws NotExistingTodoException {
+		// Read from the database, the cache may not have the previous move yet.
+		Todo current = todoRepository.findById(id).map(todoMapper::toDto)
+				.orElseThrow(() -> new NotExistingTodoException("Todo does not exist"));
+		if (id.equals(after)) {
+			return current;
+		}
+		final TodoPositionProjection previous = after == null ? null : todoRepository.findPositionById(after)
+				.orElseThrow(() -> new NotExistingTodoException("Todo to move after does not exist"));
+		final TodoPositionProjection next = next(previous);
+		if (next != null && next.getId().equals(id)) {
+			return current;
+		}
+		OptionalInt order = orderBetween(previous, next);
+		if (order.isEmpty()) {
+			final Map<UUID, Todo> renumbered = renumber();
+			current = renumbered.get(id);
+			order = TodoOrdering.between(
+					previous == null ? null : renumbered.get(previous.getId()).order(),
+					next == null ? null : renumbered.get(next.getId()).order());
+		}
+		final Todo movedTodo = new Todo(id, current.title(), current.completed(), order.orElseThrow(),
+				current.version() == null ? 0L : current.version() + 1);
+		if (todoRepository.updateColumns(movedTodo, EnumSet.of(TodoField.ORDER), current.version()) == 0) {
+			throw new ObjectOptimisticLockingFailureException(TodoEntity.class, id);
+		}
+		todoCache.putAfterCommit(movedTodo);
+		todoResponseCache.evictAfterCommit(movedTodo.id());
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishAfterCommit(TodoChangeType.UPDATED, movedTodo);
+		return movedTodo;
 	}
 
-	private boolean isSameTodo(Optional<Todo> todo, UpdateTodoRequest updateTodoRequest) {
-		return todo
-				.map(Todo::title)
-				.filter(updateTodoRequest.title()::equals)
-				.isPresent();
+	private TodoPositionProjection next(TodoPositionProjection previous) {
+		final List<TodoPositionProjection> positions = previous == null
+				? todoRepository.findFirstPositions(PageRequest.of(0, 1))
+				: todoRepository.findPositionsAfter(previous.getOrder(), previous.getId(), PageRequest.of(0, 1));
+		return positions.isEmpty() ? null : positions.get(0);
 	}
 
-	private boolean existsTitle(String title) {
-		return todoRepository.existsByTitle(title);
+	private static OptionalInt orderBetween(TodoPositionProjection previous, TodoPositionProjection next) {
+		if (previous != null && previous.getOrder() == null || next != null && next.getOrder() == null) {
+			// Unordered todos come first, nothing fits among them.
+			return OptionalInt.empty();
+		}
+		return TodoOrdering.between(
+				previous == null ? null : previous.getOrder(),
+				next == null ? null : next.getOrder());
+	}
+
+	/**
+	 * Spread every todo {@link TodoOrdering#GAP} apart again, in their current
+	 * order. All rows are locked, which waits for the writes in progress.
+	 *
+	 * @return every todo by id, as renumbered
+	 */
+	private Map<UUID, Todo> renumber() {
+		final List<TodoEntity> todoEntities = todoRepository.findAllForUpdate();
+		final List<TodoEntity> renumberedEntities = new ArrayList<>();
+		for (int i = 0; i < todoEntities.size(); i++) {
+			final TodoEntity todoEntity = todoEntities.get(i);
+			final int order = TodoOrdering.renumbered(i, todoEntities.size());
+			if (todoEntity.getOrder() == null || todoEntity.getOrder() != order) {
+				todoEntity.setOrder(order);
+				renumberedEntities.add(todoEntity);
+			}
+		}
+		// Written in JDBC batches, each row one version higher.
+		todoRepository.flush();
+		for (TodoEntity todoEntity : renumberedEntities) {
+			final Todo todo = todoMapper.toDto(todoEntity);
+			todoCache.putAfterCommit(todo);
+			todoResponseCache.evictAfterCommit(todo.id());
+			todoChangeFeed.publishAfterCommit(TodoChangeType.UPDATED, todo);
+		}
+		log.info("Renumbered {} of {} todos", renumberedEntities.size(), todoEntities.size());
+		return todoEntities.stream().collect(Collectors.toMap(TodoEntity::getId, todoMapper::toDto));
+	}
+
+	/**
+	 * Save several todos. Titles are checked against the title index and
+	 * against each other, then every accepted todo is inserted in JDBC batches.
+	 *
+	 * @param createTodoRequests the todos to create
+	 * @return the result of each todo, CONFLICT when its title is taken
+	 */
+	@Override
+	public List<TodoBatchResult> saveAll(List<CreateTodoRequest> createTodoRequests) throws AlreadyExistException {
+		log.debug("Request to save {} todos", createTodoRequests.size());
+		checkBatchSize(createTodoRequests);
+		final List<TodoEntity> todoEntities = new ArrayList<>(createTodoRequests.size());
+		for (CreateTodoRequest createTodoRequest : createTodoRequests) {
+			todoEntities.add(todoTitleIndex.reserve(createTodoRequest.title(), null)
+					? createTodoRequestMapper.toEntity(createTodoRequest)
+					: null);
+		}
+		todoRepository.saveAll(todoEntities.stream().filter(Objects::nonNull).toList());
+		flush(todoEntities);
+		final List<TodoBatchResult> results = new ArrayList<>(todoEntities.size());
+		for (TodoEntity todoEntity : todoEntities) {
+			if (todoEntity == null) {
+				results.add(new TodoBatchResult(BatchOutcome.CONFLICT, null, null));
+				continue;
+			}
+			final Todo todo = todoMapper.toDto(todoEntity);
+			todoTitleIndex.assignAfterCommit(todo.title(), todo.id());
+			todoSearchIndex.putAfterCommit(todo);
+			todoCache.putAfterCommit(todo);
+			todoResponseCache.evictAfterCommit(todo.id());
+			todoChangeFeed.publishAfterCommit(TodoChangeType.CREATED, todo);
+			results.add(TodoBatchResult.of(BatchOutcome.CREATED, todo));
+		}
+		todoCollectionVersion.incrementAfterCommit();
+		return results;
+	}
+
+	/**
+	 * Update several todos. The todos are loaded with one query, changed in
+	 * place and written back in JDBC batches when flushed.
+	 *
+	 * @param batchUpdateTodoRequests the changes
+	 * @return the result of each change, NOT_FOUND or CONFLICT when it was not applied
+	 */
+	@Override
+	public List<TodoBatchResult> updateAll(List<BatchUpdateTodoRequest> batchUpdateTodoRequests) throws AlreadyExistException {
+		log.debug("Request to update {} todos", batchUpdateTodoRequests.size());
+		checkBatchSize(batchUpdateTodoRequests);
+		final Set<UUID> ids = new HashSet<>();
+		batchUpdateTodoRequests.forEach(request -> ids.add(request.id()));
+		ids.remove(null);
+		final Map<UUID, TodoEntity> todoEntities = todoRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(TodoEntity::getId, Function.identity()));
+		final List<TodoBatchResult> results = new ArrayList<>(batchUpdateTodoRequests.size());
+		final List<TodoEntity> updated = new ArrayList<>(batchUpdateTodoRequests.size());
+		for (BatchUpdateTodoRequest request : batchUpdateTodoRequests) {
+			final TodoEntity todoEntity = todoEntities.get(request.id());
+			if (todoEntity == null) {
+				results.add(TodoBatchResult.of(BatchOutcome.NOT_FOUND, request.id()));
+				updated.add(null);
+				continue;
+			}
+			if (!todoTitleIndex.reserve(request.title(), request.id())) {
+				results.add(TodoBatchResult.of(BatchOutcome.CONFLICT, request.id()));
+				updated.add(null);
+				continue;
+			}
+			applyChanges(todoEntity, request);
+			results.add(null);
+			updated.add(todoEntity);
+		}
+		// The flush increments the versions, so the updated todos are mapped afterwards.
+		flush(updated);
+		for (int i = 0; i < updated.size(); i++) {
+			if (updated.get(i) == null) {
+				continue;
+			}
+			// Hooks run in registration order, so the last change of a todo wins.
+			final Todo todo = todoMapper.toDto(updated.get(i));
+			todoTitleIndex.assignAfterCommit(todo.title(), todo.id());
+			todoSearchIndex.putAfterCommit(todo);
+			todoCache.putAfterCommit(todo);
+			todoResponseCache.evictAfterCommit(todo.id());
+			todoChangeFeed.publishAfterCommit(TodoChangeType.UPDATED, todo);
+			results.set(i, TodoBatchResult.of(BatchOutcome.UPDATED, todo));
+		}
+		todoCollectionVersion.incrementAfterCommit();
+		return results;
+	}
+
+	private static void applyChanges(TodoEntity todoEntity, BatchUpdateTodoRequest request) {
+		if (request.title() != null) {
+			todoEntity.setTitle(request.title());
+		}
+		if (request.completed() != null) {
+			todoEntity.setCompleted(request.completed());
+		}
+		if (request.order() != null) {
+			todoEntity.setOrder(request.order());
+		}
+	}
+
+	/**
+	 * Delete several todos with a single statement, without loading them.
+	 *
+	 * @param ids the ids
+	 * @return the result of each id, NOT_FOUND when it did not exist
+	 */
+	@Override
+	public List<TodoBatchResult> deleteAllById(List<UUID> ids) {
+		log.debug("Request to delete {} todos", ids.size());
+		checkBatchSize(ids);
+		final Set<UUID> existingIds = new HashSet<>(todoRepository.findExistingIds(ids));
+		if (!existingIds.isEmpty()) {
+			todoRepository.deleteAllByIdInBatch(existingIds);
+		}
+		todoTitleIndex.removeAfterCommit(existingIds);
+		todoSearchIndex.removeAfterCommit(existingIds);
+		todoCache.evictAfterCommit(existingIds);
+		todoResponseCache.evictAfterCommit(existingIds);
+		todoChangeFeed.publishDeletedAfterCommit(existingIds);
+		todoCollectionVersion.incrementAfterCommit();
+		return ids.stream()
+				.map(id -> TodoBatchResult.of(existingIds.contains(id) ? BatchOutcome.DELETED : BatchOutcome.NOT_FOUND, id))
+				.toList();
+	}
+
+	private static void checkBatchSize(List<?> batch) {
+		if (batch.size() > MAX_BATCH_SIZE) {
+			throw new BatchTooLargeException("A batch holds at most " + MAX_BATCH_SIZE + " todos");
+		}
+	}
+
+	private void flush(List<TodoEntity> todoEntities) throws AlreadyExistException {
+		try {
+			todoRepository.flush();
+		} catch (DataIntegrityViolationException e) {
+			todoEntities.stream()
+					.filter(Objects::nonNull)
+					.forEach(todoEntity -> todoTitleIndex.release(todoEntity.getTitle()));
+			throw new AlreadyExistException("Title for the same value already exist");
+		}
+	}
+
+	/**
+	 * Flush the write so that the unique constraint on the title, the guard
+	 * behind the title index, is checked inside this method.
+	 */
+	private TodoEntity saveAndFlush(TodoEntity todoEntity) throws AlreadyExistException {
+		try {
+			return todoRepository.saveAndFlush(todoEntity);
+		} catch (DataIntegrityViolationException e) {
+			todoTitleIndex.release(todoEntity.getTitle());
+			throw new AlreadyExistException("Title for the same value already exist");
+		}
 	}
 
 	/**
@@ -105,7 +673,157 @@ public class TodoRepositoryBaseService implements TodoService {
 	}
 
 	/**
-	 * Get by the "id" todo.
+	 * Get one keyset page of todos.
+	 *
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<Todo> findPage(int limit, String after) {
+		log.debug("Request to find a page of {} todos after {}", limit, after);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		// One extra row tells whether another page follows.
+		final Pageable pageable = PageRequest.ofSize(size + 1);
+		final List<TodoEntity> todoEntities;
+		if (after == null) {
+			todoEntities = todoRepository.findFirstPage(pageable);
+		} else {
+			final TodoCursor cursor = TodoCursor.decode(after);
+			todoEntities = todoRepository.findPageAfter(cursor.order(), cursor.id(), pageable);
+		}
+		final boolean hasNext = todoEntities.size() > size;
+		final List<TodoEntity> page = hasNext ? todoEntities.subList(0, size) : todoEntities;
+		final String next = hasNext ? TodoCursor.of(page.get(size - 1)).encode() : null;
+		return new CursorPage<>(page.stream().map(todoMapper::toDto).toList(), next);
+	}
+
+	/**
+	 * Get one keyset page of the todos matching the query, reading only the
+	 * selected columns and those of the cursor.
+	 *
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @param query the filters and columns
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<Todo> findPage(int limit, String after, TodoQuery query) {
+		log.debug("Request to find a page of {} todos after {} matching {}", limit, after, query);
+		checkUnsorted(query);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		final TodoQuery pageQuery = query.selecting(TodoField.ID, TodoField.ORDER);
+		final TodoCursor cursor = after == null ? null : TodoCursor.decode(after);
+		// One extra row tells whether another page follows.
+		final List<TodoEntity> todoEntities = cursor == null
+				? todoRepository.findPageMatching(pageQuery, null, null, size + 1)
+				: todoRepository.findPageMatching(pageQuery, cursor.order(), cursor.id(), size + 1);
+		final boolean hasNext = todoEntities.size() > size;
+		final List<TodoEntity> page = hasNext ? todoEntities.subList(0, size) : todoEntities;
+		final String next = hasNext ? TodoCursor.of(page.get(size - 1)).encode() : null;
+		return new CursorPage<>(page.stream().map(todoMapper::toDto).toList(), next);
+	}
+
+	/**
+	 * Search the todos by title in the trigram index, the hits being read
+	 * through the cache. No title is scanned in the database.
+	 *
+	 * @param query the searched text
+	 * @param limit the maximum number of todos, clamped to [1, MAX_PAGE_SIZE]
+	 * @param after the cursor of the previous page, or null
+	 * @return the page and the cursor of the next one
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<Todo> search(String query, int limit, String after) {
+		log.debug("Request to search a page of {} todos after {} matching {}", limit, after, query);
+		final int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		final TodoTitleQuery titleQuery = TodoTitleQuery.parse(query);
+		// One extra hit tells whether another page follows.
+		final List<TodoSearchHit> hits = todoSearchIndex.search(titleQuery, size + 1,
+				after == null ? null : TodoSearchCursor.decode(after));
+		return searchPage(hits, size, this::findById);
+	}
+
+	static CursorPage<Todo> searchPage(List<TodoSearchHit> hits, int size, Function<UUID, Optional<Todo>> loader) {
+		final boolean hasNext = hits.size() > size;
+		final List<TodoSearchHit> page = hasNext ? hits.subList(0, size) : hits;
+		final String next = hasNext ? TodoSearchCursor.encode(page.get(size - 1)) : null;
+		// A todo deleted since it was indexed is left out.
+		return new CursorPage<>(page.stream()
+				.map(hit -> loader.apply(hit.id()))
+				.flatMap(Optional::stream)
+				.toList(), next);
+	}
+
+	static void checkUnsorted(TodoQuery query) {
+		if (!query.sort().isEmpty()) {
+			throw new InvalidQueryException("Pages are always sorted by order then id");
+		}
+	}
+
+	/**
+	 * Visit every todo from an open database cursor, detaching each entity once
+	 * mapped so the persistence context does not grow with the table.
+	 *
+	 * @param action the callback receiving each todo
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAll(Consumer<? super Todo> action) {
+		log.debug("Request to stream all todos");
+		try (Stream<TodoEntity> todoEntities = todoRepository.streamAll()) {
+			todoEntities.forEach(todoEntity -> {
+				final Todo todo = todoMapper.toDto(todoEntity);
+				entityManager.detach(todoEntity);
+				action.accept(todo);
+			});
+		}
+	}
+
+	/**
+	 * Visit the todos matching the query from an open database cursor. Only
+	 * the selected columns are read, into transient entities.
+	 *
+	 * @param query the filters, sort and columns
+	 * @param action the callback receiving each todo
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAll(TodoQuery query, Consumer<? super Todo> action) {
+		log.debug("Request to stream the todos matching {}", query);
+		try (Stream<TodoEntity> todoEntities = todoRepository.streamMatching(query)) {
+			todoEntities.forEach(todoEntity -> action.accept(todoMapper.toDto(todoEntity)));
+		}
+	}
+
+	/**
+	 * Get the version of the whole collection, without querying the database.
+	 *
+	 * @return an opaque value, different after every committed write
+	 */
+	@Override
+	public String collectionVersion() {
+		return todoCollectionVersion.current();
+	}
+
+	/**
+	 * Count the todos with one aggregate query.
+	 *
+	 * @return the total, active and completed counts
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public TodoSummary summarize() {
+		log.debug("Request to summarize todos");
+		final TodoCountsProjection counts = todoRepository.countTodos();
+		return TodoSummary.of(counts.getTotal(), counts.getCompleted());
+	}
+
+	/**
+	 * Get by the "id" todo, served from the cache when present.
 	 *
 	 * @param id the id
 	 * @return the optional
@@ -114,27 +832,63 @@ public class TodoRepositoryBaseService implements TodoService {
 	@Transactional(readOnly = true)
 	public Optional<Todo> findById(UUID id) {
 		log.debug("Request to find todo by id: {}", id);
-		return todoRepository.findById(id)
-				.map(todoMapper::toDto);
+		return todoCache.get(id, key -> todoRepository.findById(key)
+				.map(todoMapper::toDto));
 	}
 
 	/**
-	 * Delete the "id" todo.
+	 * Delete the "id" todo with a single statement, doing nothing if it does not exist.
 	 *
 	 * @param id the id
 	 */
 	@Override
 	public void deleteById(UUID id) {
 		log.debug("Request to delete todo by id: {}", id);
-		todoRepository.deleteById(id);
+		if (todoRepository.deleteTodoById(id) == 0) {
+			return;
+		}
+		todoTitleIndex.removeAfterCommit(id);
+		todoSearchIndex.removeAfterCommit(id);
+		todoCache.evictAfterCommit(id);
+		todoResponseCache.evictAfterCommit(id);
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishDeletedAfterCommit(id);
 	}
 
 	/**
-	 * Delete all todos.
+	 * Delete all todos with a single statement.
 	 */
 	@Override
 	public void deleteAll() {
 		log.debug("Request to delete all todos");
-		todoRepository.deleteAll();
+		todoRepository.deleteAllInBatch();
+		todoTitleIndex.clearAfterCommit();
+		todoSearchIndex.clearAfterCommit();
+		todoCache.clearAfterCommit();
+		todoResponseCache.clearAfterCommit();
+		todoCollectionVersion.incrementAfterCommit();
+		todoChangeFeed.publishClearedAfterCommit();
+	}
+
+	/**
+	 * Delete the completed todos with a single statement, without loading any
+	 * entity. The caches are cleared and the feed announces the deletion as
+	 * one change, only the title and search indexes drop the ids one by one.
+	 *
+	 * @return the number of todos deleted
+	 */
+	@Override
+	public int deleteCompleted() {
+		log.debug("Request to delete the completed todos");
+		final List<UUID> ids = todoRepository.deleteCompleted();
+		if (!ids.isEmpty()) {
+			todoTitleIndex.removeAfterCommit(ids);
+			todoSearchIndex.removeAfterCommit(ids);
+			todoCache.clearAfterCommit();
+			todoResponseCache.clearAfterCommit();
+			todoCollectionVersion.incrementAfterCommit();
+			todoChangeFeed.publishCompletedDeletedAfterCommit();
+		}
+		return ids.size();
 	}
 }
@@ -0,0 +1,37 @@
+package com.carbon.todobackend.service.impl;
+
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.service.search.TodoSearchHit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque cursor of a search page: the score and id of its last hit.
+ */
+final class TodoSearchCursor {
+
+	private static final char SEPARATOR = ':';
+
+	private TodoSearchCursor() {
+		// Utility class.
+	}
+
+	static TodoSearchHit decode(String token) {
+		try {
+			final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			final int separator = raw.indexOf(SEPARATOR);
+			return new TodoSearchHit(
+					UUID.fromString(raw.substring(separator + 1)),
+					Integer.parseInt(raw.substring(0, separator)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new InvalidCursorException("Malformed cursor: " + token);
+		}
+	}
+
+	static String encode(TodoSearchHit hit) {
+		final String raw = Integer.toString(hit.score()) + SEPARATOR + hit.id();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,170 @@
+package com.carbon.todobackend.service.index;
+
+import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.dao.TodoTitleProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
+import static com.carbon.todobackend.service.support.TransactionHooks.afterRollback;
+
+/**
+ * In-memory index of the todo titles, answering uniqueness checks without a
+ * database round-trip.
+ * <p>
+ * A title is first reserved, atomically, by the writing transaction. The
+ * reservation becomes the owner id once the transaction commits and is
+ * released if it rolls back. Titles are compared exactly, as the unique
+ * constraint on the title column does, which stays the last-resort guard.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+public class TodoTitleIndex implements SmartInitializingSingleton {
+
+    private static final UUID RESERVED = new UUID(0L, 0L);
+
+    private final Map<String, UUID> idsByTitle = new ConcurrentHashMap<>();
+
+    private final Map<UUID, String> titlesById = new ConcurrentHashMap<>();
+
+    private final TodoRepository todoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TodoTitleIndex(TodoRepository todoRepository, PlatformTransactionManager transactionManager) {
+        this.todoRepository = todoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Load the existing titles before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TodoTitleProjection> titles = todoRepository.streamTitles()) {
+                titles.forEach(title -> put(title.getTitle(), title.getId()));
+            }
+        });
+        log.info("Loaded {} todo titles into the title index", titlesById.size());
+    }
+
+    /**
+     * Reserve the title for the "id" todo, or for a todo to be created when the id is null.
+     *
+     * @param title the title to write
+     * @param id the id of the todo being updated, null on creation
+     * @return false if the title belongs to another todo or is reserved by a pending write
+     */
+    public boolean reserve(String title, UUID id) {
+        if (title == null) {
+            return true;
+        }
+        final UUID owner = idsByTitle.putIfAbsent(title, RESERVED);
+        if (owner == null) {
+            afterRollback(() -> release(title));
+            return true;
+        }
+        return owner.equals(id);
+    }
+
+    /**
+     * Release a reservation which will not be written.
+     *
+     * @param title the reserved title
+     */
+    public void release(String title) {
+        if (title != null) {
+            idsByTitle.remove(title, RESERVED);
+        }
+    }
+
+    /**
+     * Bind the title to the "id" todo once the current transaction commits,
+     * freeing the title the todo had before.
+     *
+     * @param title the written title
+     * @param id the id
+     */
+    public void assignAfterCommit(String title, UUID id) {
+        afterCommit(() -> put(title, id));
+    }
+
+    /**
+     * Free the title of the "id" todo once the current transaction commits.
+     *
+     * @param id the id
+     */
+    public void removeAfterCommit(UUID id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Free the titles of the todos once the current transaction commits.
+     *
+     * @param ids the ids
+     */
+    public void removeAfterCommit(Collection<UUID> ids) {
+        afterCommit(() -> ids.forEach(this::remove));
+    }
+
+    /**
+     * Free every title once the current transaction commits. Pending reservations are kept.
+     */
+    public void clearAfterCommit() {
+        afterCommit(() -> {
+            idsByTitle.values().removeIf(owner -> !RESERVED.equals(owner));
+            titlesById.clear();
+        });
+    }
+
+    /**
+     * Tell whether the title is taken or reserved.
+     *
+     * @param title the title
+     * @return true if a todo owns the title or a pending write reserved it
+     */
+    public boolean contains(String title) {
+        return title != null && idsByTitle.containsKey(title);
+    }
+
+    /**
+     * Get the number of indexed todos.
+     *
+     * @return the number of committed titles
+     */
+    public int size() {
+        return titlesById.size();
+    }
+
+    private void put(String title, UUID id) {
+        final String previous = title == null ? titlesById.remove(id) : titlesById.put(id, title);
+        if (previous != null && !previous.equals(title)) {
+            idsByTitle.remove(previous, id);
+        }
+        if (title != null) {
+            idsByTitle.put(title, id);
+        }
+    }
+
+    private void remove(UUID id) {
+        final String title = titlesById.remove(id);
+        if (title != null) {
+            idsByTitle.remove(title, id);
+        }
+    }
+}
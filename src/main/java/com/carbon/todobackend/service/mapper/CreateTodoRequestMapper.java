@@ -1,6 +1,7 @@
 package com.carbon.todobackend.service.mapper;
 
 import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.entities.ReactiveTodoEntity;
 import com.carbon.todobackend.domain.entities.TodoEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -12,4 +13,8 @@ public interface CreateTodoRequestMapper {
     @Mapping(source = "title", target = "title")
     @Mapping(target = "completed", constant = "false")
     TodoEntity toEntity(CreateTodoRequest createTodoRequest);
+
+    @Mapping(source = "title", target = "title")
+    @Mapping(target = "completed", constant = "false")
+    ReactiveTodoEntity toReactiveEntity(CreateTodoRequest createTodoRequest);
 }
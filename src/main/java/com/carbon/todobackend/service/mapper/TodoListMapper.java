@@ -0,0 +1,22 @@
+package com.carbon.todobackend.service.mapper;
+
+import com.carbon.todobackend.domain.dto.CreateTodoListRequest;
+import com.carbon.todobackend.domain.dto.TodoList;
+import com.carbon.todobackend.domain.entities.TodoListEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Mapper for the entity TodoListEntity and its DTO called TodoList.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface TodoListMapper {
+
+    @Mapping(source = "id", target = "id")
+    @Mapping(source = "name", target = "name")
+    TodoList toDto(TodoListEntity todoListEntity);
+
+    @Mapping(source = "name", target = "name")
+    TodoListEntity toEntity(CreateTodoListRequest createTodoListRequest);
+}
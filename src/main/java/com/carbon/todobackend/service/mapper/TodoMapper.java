@@ -1,6 +1,8 @@
 package com.carbon.todobackend.service.mapper;
 
 import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.entities.ListTodoEntity;
+import com.carbon.todobackend.domain.entities.ReactiveTodoEntity;
 import com.carbon.todobackend.domain.entities.TodoEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -18,5 +20,20 @@ public interface TodoMapper {
 	@Mapping(source = "title", target = "title")
 	@Mapping(source = "completed", target = "completed")
 	@Mapping(source = "order", target = "order")
+	@Mapping(source = "version", target = "version")
 	Todo toDto(TodoEntity todoEntity);
-}
\ No newline at end of file
+
+	@Mapping(source = "id", target = "id")
+	@Mapping(source = "title", target = "title")
+	@Mapping(source = "completed", target = "completed")
+	@Mapping(source = "order", target = "order")
+	@Mapping(source = "version", target = "version")
+	Todo toDto(ReactiveTodoEntity reactiveTodoEntity);
+
+	@Mapping(source = "id", target = "id")
+	@Mapping(source = "title", target = "title")
+	@Mapping(source = "completed", target = "completed")
+	@Mapping(source = "order", target = "order")
+	@Mapping(source = "version", target = "version")
+	Todo toDto(ListTodoEntity listTodoEntity);
+}
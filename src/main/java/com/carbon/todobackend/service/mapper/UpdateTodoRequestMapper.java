@@ -1,6 +1,7 @@
 package com.carbon.todobackend.service.mapper;
 
 import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.domain.entities.ReactiveTodoEntity;
 import com.carbon.todobackend.domain.entities.TodoEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -16,4 +17,10 @@ public interface UpdateTodoRequestMapper {
     @Mapping(source = "updateTodoRequest.order", target = "order")
     @Mapping(source = "id", target = "id")
     TodoEntity toEntity(UpdateTodoRequest updateTodoRequest, UUID id);
+
+    @Mapping(source = "updateTodoRequest.title", target = "title")
+    @Mapping(source = "updateTodoRequest.completed", target = "completed")
+    @Mapping(source = "updateTodoRequest.order", target = "order")
+    @Mapping(source = "id", target = "id")
+    ReactiveTodoEntity toReactiveEntity(UpdateTodoRequest updateTodoRequest, UUID id);
 }
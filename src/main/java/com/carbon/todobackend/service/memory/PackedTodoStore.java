@@ -0,0 +1,605 @@
+package com.carbon.todobackend.service.memory;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.support.TodoOrdering;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Todos packed into primitive columns, indexed by slot.
+ * <p>
+ * Each todo takes a slot: its id as two longs, its order as an int, its
+ * version as a long, its completed flag and null markers as bits, and a
+ * reference to its title, kept off-heap in a {@link TitleArena}. Ids and
+ * titles are looked up through open-addressing {@link SlotIndex}es, and the
+ * slots are kept sorted by (order nulls first, id) for keyset pages.
+ * Millions of todos thus hold in a few dozen arrays instead of millions of
+ * objects for the garbage collector to trace.
+ * <p>
+ * Reads share a lock, writes take it exclusively.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "memory")
+public class PackedTodoStore {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TitleArena titleArena;
+
+    private long[] idHighs;
+
+    private long[] idLows;
+
+    private long[] titles;
+
+    private int[] titleHashes;
+
+    private int[] orders;
+
+    private long[] versions;
+
+    private final BitSet completed = new BitSet();
+
+    private final BitSet completedNull = new BitSet();
+
+    private final BitSet orderNull = new BitSet();
+
+    /** Slots ever used, live or freed. */
+    private int slots;
+
+    private int[] freeSlots = new int[16];
+
+    private int freeSlotCount;
+
+    /** Live slots in (order nulls first, id) order. */
+    private int[] sorted;
+
+    private int sortedSize;
+
+    private int size;
+
+    private final SlotIndex ids;
+
+    private final SlotIndex titleIndex;
+
+    public PackedTodoStore(@Value("${todo.memory.initial-capacity:1024}") int initialCapacity) {
+        final int capacity = Math.max(initialCapacity, 16);
+        this.titleArena = new TitleArena(capacity * 32);
+        this.idHighs = new long[capacity];
+        this.idLows = new long[capacity];
+        this.titles = new long[capacity];
+        this.titleHashes = new int[capacity];
+        this.orders = new int[capacity];
+        this.versions = new long[capacity];
+        this.sorted = new int[capacity];
+        this.ids = new SlotIndex(capacity, this::idHash);
+        this.titleIndex = new SlotIndex(capacity, slot -> titleHashes[slot]);
+    }
+
+    /**
+     * Get the "id" todo.
+     *
+     * @param id the id
+     * @return the optional
+     */
+    public Optional<Todo> get(UUID id) {
+        lock.readLock().lock();
+        try {
+            final int slot = slotOf(id);
+            return slot < 0 ? Optional.empty() : Optional.of(todoAt(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a todo, at version 0.
+     *
+     * @return the added todo
+     * @throws AlreadyExistException if another todo has the title
+     */
+    public Todo create(UUID id, String title, Boolean completed, Integer order) throws AlreadyExistException {
+        lock.writeLock().lock();
+        try {
+            if (slotOfTitle(title) >= 0) {
+                throw new AlreadyExistException("Title for the same value already exist");
+            }
+            final int slot = insert(new Todo(id, title, completed, order, 0L));
+            insertSorted(slot);
+            return todoAt(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the "id" todo by its changed copy, one version higher.
+     *
+     * @param change builds the new todo from the current one, may throw to abort the update
+     * @return the updated todo
+     * @throws NotExistingTodoException if there is no such todo
+     * @throws AlreadyExistException if another todo has the new title
+     */
+    public Todo update(UUID id, UnaryOperator<Todo> change) throws NotExistingTodoException, AlreadyExistException {
+        lock.writeLock().lock();
+        try {
+            final int slot = slotOf(id);
+            if (slot < 0) {
+                throw new NotExistingTodoException("Todo does not exist");
+            }
+            final Todo current = todoAt(slot);
+            final Todo updated = change.apply(current);
+            final int owner = slotOfTitle(updated.title());
+            if (owner >= 0 && owner != slot) {
+                throw new AlreadyExistException("Updating todo with a title which is already present is forbidden");
+            }
+            final boolean reorder = !Objects.equals(current.order(), updated.order());
+            if (reorder) {
+                removeSorted(slot);
+            }
+            if (!Objects.equals(current.title(), updated.title())) {
+                unindexTitle(slot);
+                titleArena.free(titles[slot]);
+                writeTitle(slot, updated.title());
+            }
+            writeCompleted(slot, updated.completed());
+            writeOrder(slot, updated.order());
+            versions[slot] = current.version() + 1;
+            if (reorder) {
+                insertSorted(slot);
+            }
+            compactTitlesIfNeeded();
+            return todoAt(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move the "id" todo right after the "after" todo, to the midpoint of its
+     * new neighbours, renumbering every todo first when there is no room.
+     *
+     * @param after the id of the todo to follow, or null to move it first
+     * @param renumbered receives each todo given a new order by a renumbering, while the lock is held
+     * @return the moved todo, one version higher, or unchanged if it already follows "after"
+     * @throws NotExistingTodoException if either todo does not exist
+     */
+    public Todo move(UUID id, UUID after, Consumer<Todo> renumbered) throws NotExistingTodoException {
+        lock.writeLock().lock();
+        try {
+            final int slot = slotOf(id);
+            final int previous = after == null ? -1 : slotOf(after);
+            if (slot < 0 || after != null && previous < 0) {
+                throw new NotExistingTodoException("Todo does not exist");
+            }
+            final int position = previous < 0 ? 0 : search(previous) + 1;
+            final int next = position < sortedSize ? sorted[position] : -1;
+            if (previous == slot || next == slot) {
+                return todoAt(slot);
+            }
+            OptionalInt order = orderBetween(previous, next);
+            if (order.isEmpty()) {
+                renumber(renumbered);
+                order = orderBetween(previous, next);
+            }
+            removeSorted(slot);
+            writeOrder(slot, order.orElseThrow());
+            versions[slot]++;
+            insertSorted(slot);
+            return todoAt(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private OptionalInt orderBetween(int previous, int next) {
+        if (previous >= 0 && orderNull.get(previous) || next >= 0 && orderNull.get(next)) {
+            // Unordered todos come first, nothing fits among them.
+            return OptionalInt.empty();
+        }
+        return TodoOrdering.between(previous < 0 ? null : orders[previous], next < 0 ? null : orders[next]);
+    }
+
+    private void renumber(Consumer<Todo> renumbered) {
+        // The new orders follow the sorted slots, which therefore stay sorted.
+        for (int i = 0; i < sortedSize; i++) {
+            final int slot = sorted[i];
+            final int order = TodoOrdering.renumbered(i, sortedSize);
+            if (orderNull.get(slot) || orders[slot] != order) {
+                writeOrder(slot, order);
+                versions[slot]++;
+                renumbered.accept(todoAt(slot));
+            }
+        }
+    }
+
+    /**
+     * Remove the "id" todo.
+     *
+     * @param id the id
+     * @return false if there was no such todo
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            final int slot = slotOf(id);
+            if (slot < 0) {
+                return false;
+            }
+            removeSorted(slot);
+            release(slot);
+            compactTitlesIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every completed todo in a single pass over the sorted slots.
+     *
+     * @param removed receives the id of each removed todo, while the lock is held
+     * @return the number of todos removed
+     */
+    public int removeCompleted(Consumer<UUID> removed) {
+        lock.writeLock().lock();
+        try {
+            int kept = 0;
+            for (int i = 0; i < sortedSize; i++) {
+                final int slot = sorted[i];
+                if (completed.get(slot)) {
+                    removed.accept(new UUID(idHighs[slot], idLows[slot]));
+                    release(slot);
+                } else {
+                    sorted[kept++] = slot;
+                }
+            }
+            final int count = sortedSize - kept;
+            sortedSize = kept;
+            compactTitlesIfNeeded();
+            return count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void release(int slot) {
+        ids.remove(idHash(slot), slot);
+        unindexTitle(slot);
+        titleArena.free(titles[slot]);
+        titles[slot] = TitleArena.NONE;
+        // Free slots hold no completed bit, for summarize to count them all at once.
+        writeCompleted(slot, null);
+        freeSlot(slot);
+        size--;
+    }
+
+    /**
+     * Remove every todo.
+     *
+     * @param whileLocked run before any other write sees the store empty
+     */
+    public void clear(Runnable whileLocked) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            whileLocked.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            titleIndex.clear();
+            titleArena.clear();
+            completed.clear();
+            completedNull.clear();
+            orderNull.clear();
+            slots = 0;
+            freeSlotCount = 0;
+            sortedSize = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the content of the store, sorting the todos once at the end.
+     * Titles are not checked for uniqueness, they come from the database.
+     *
+     * @param todos the todos to load
+     */
+    public void load(Iterable<Todo> todos) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Todo todo : todos) {
+                if (slotOf(todo.id()) < 0) {
+                    // Inserting may grow the sorted array, hence before indexing it.
+                    final int slot = insert(todo);
+                    sorted[sortedSize++] = slot;
+                }
+            }
+            sort(sorted, sortedSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the todos following a keyset position, in (order nulls first, id) order.
+     *
+     * @param order the order of the last todo seen
+     * @param id the id of the last todo seen, or null to start from the first todo
+     * @param limit the maximum number of todos
+     * @return the todos
+     */
+    public List<Todo> pageAfter(Integer order, UUID id, int limit) {
+        lock.readLock().lock();
+        try {
+            final int from = id == null ? 0 : positionAfter(order, id);
+            final int to = (int) Math.min((long) from + limit, sortedSize);
+            final List<Todo> page = new ArrayList<>(Math.max(to - from, 0));
+            for (int i = from; i < to; i++) {
+                page.add(todoAt(sorted[i]));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every todo in (order nulls first, id) order, a chunk at a time so
+     * that writers are not held back for the whole visit.
+     *
+     * @param action the callback receiving each todo
+     */
+    public void forEach(Consumer<? super Todo> action) {
+        List<Todo> chunk = pageAfter(null, null, 256);
+        while (!chunk.isEmpty()) {
+            chunk.forEach(action);
+            final Todo last = chunk.get(chunk.size() - 1);
+            chunk = pageAfter(last.order(), last.id(), 256);
+        }
+    }
+
+    /**
+     * Count the todos, the completed ones with a population count of their bits.
+     */
+    public TodoSummary summarize() {
+        lock.readLock().lock();
+        try {
+            return TodoSummary.of(size, completed.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int insert(Todo todo) {
+        final int slot = allocateSlot();
+        idHighs[slot] = todo.id().getMostSignificantBits();
+        idLows[slot] = todo.id().getLeastSignificantBits();
+        writeTitle(slot, todo.title());
+        writeCompleted(slot, todo.completed());
+        writeOrder(slot, todo.order());
+        versions[slot] = todo.version() == null ? 0L : todo.version();
+        ids.insert(idHash(slot), slot);
+        size++;
+        return slot;
+    }
+
+    private void writeTitle(int slot, String title) {
+        titles[slot] = titleArena.append(title);
+        if (title != null) {
+            titleHashes[slot] = title.hashCode();
+            titleIndex.insert(titleHashes[slot], slot);
+        }
+    }
+
+    private void unindexTitle(int slot) {
+        if (titles[slot] != TitleArena.NONE) {
+            titleIndex.remove(titleHashes[slot], slot);
+        }
+    }
+
+    private void writeCompleted(int slot, Boolean value) {
+        completedNull.set(slot, value == null);
+        completed.set(slot, Boolean.TRUE.equals(value));
+    }
+
+    private void writeOrder(int slot, Integer value) {
+        orderNull.set(slot, value == null);
+        orders[slot] = value == null ? 0 : value;
+    }
+
+    private Todo todoAt(int slot) {
+        return new Todo(
+                new UUID(idHighs[slot], idLows[slot]),
+                titleArena.read(titles[slot]),
+                completedNull.get(slot) ? null : completed.get(slot),
+                orderNull.get(slot) ? null : orders[slot],
+                versions[slot]);
+    }
+
+    private int slotOf(UUID id) {
+        final long high = id.getMostSignificantBits();
+        final long low = id.getLeastSignificantBits();
+        return ids.find(Long.hashCode(high ^ low), slot -> idHighs[slot] == high && idLows[slot] == low);
+    }
+
+    private int slotOfTitle(String title) {
+        if (title == null) {
+            return -1;
+        }
+        final int hash = title.hashCode();
+        final byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+        return titleIndex.find(hash, slot -> titleHashes[slot] == hash && titleArena.matches(titles[slot], bytes));
+    }
+
+    private int idHash(int slot) {
+        return Long.hashCode(idHighs[slot] ^ idLows[slot]);
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slots == idHighs.length) {
+            grow(slots * 2);
+        }
+        return slots++;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private void grow(int capacity) {
+        idHighs = Arrays.copyOf(idHighs, capacity);
+        idLows = Arrays.copyOf(idLows, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        titleHashes = Arrays.copyOf(titleHashes, capacity);
+        orders = Arrays.copyOf(orders, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        sorted = Arrays.copyOf(sorted, capacity);
+    }
+
+    private void compactTitlesIfNeeded() {
+        if (titleArena.needsCompaction()) {
+            titleArena.compact(titles, slots);
+        }
+    }
+
+
+    // Sorted slots, kept up to date with a binary search and an array shift per change.
+
+    private void insertSorted(int slot) {
+        final int position = -search(slot) - 1;
+        System.arraycopy(sorted, position, sorted, position + 1, sortedSize - position);
+        sorted[position] = slot;
+        sortedSize++;
+    }
+
+    private void removeSorted(int slot) {
+        final int position = search(slot);
+        System.arraycopy(sorted, position + 1, sorted, position, sortedSize - 1 - position);
+        sortedSize--;
+    }
+
+    /**
+     * @return the position of the slot among the sorted slots, or
+     *         (-insertion point - 1) when it is not among them
+     */
+    private int search(int slot) {
+        int low = 0;
+        int high = sortedSize - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = compare(sorted[middle], slot);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    private int positionAfter(Integer order, UUID id) {
+        int low = 0;
+        int high = sortedSize - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (compareToKey(sorted[middle], order, id) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int slot, int other) {
+        if (orderNull.get(slot) != orderNull.get(other)) {
+            return orderNull.get(slot) ? -1 : 1;
+        }
+        int comparison = Integer.compare(orders[slot], orders[other]);
+        if (comparison == 0) {
+            comparison = Long.compare(idHighs[slot], idHighs[other]);
+        }
+        return comparison == 0 ? Long.compare(idLows[slot], idLows[other]) : comparison;
+    }
+
+    private int compareToKey(int slot, Integer order, UUID id) {
+        if (orderNull.get(slot) != (order == null)) {
+            return orderNull.get(slot) ? -1 : 1;
+        }
+        int comparison = order == null ? 0 : Integer.compare(orders[slot], order);
+        if (comparison == 0) {
+            comparison = Long.compare(idHighs[slot], id.getMostSignificantBits());
+        }
+        return comparison == 0 ? Long.compare(idLows[slot], id.getLeastSignificantBits()) : comparison;
+    }
+
+    /** Bottom-up merge sort of the first slots, without boxing them. */
+    private void sort(int[] slotsToSort, int count) {
+        int[] from = slotsToSort;
+        int[] to = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count; low += 2 * width) {
+                final int middle = Math.min(low + width, count);
+                final int high = Math.min(low + 2 * width, count);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    to[i] = left < middle && (right >= high || compare(from[left], from[right]) <= 0)
+                            ? from[left++]
+                            : from[right++];
+                }
+            }
+            final int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != slotsToSort) {
+            System.arraycopy(from, 0, slotsToSort, 0, count);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.carbon.todobackend.service.memory;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Open-addressing hash index from a key to a store slot, with linear probing.
+ * <p>
+ * Keys are not held here: the caller gives the hash of the key and a predicate
+ * telling whether a slot holds it, so the index is a single int array.
+ * Not thread-safe, guarded by the store lock.
+ */
+final class SlotIndex {
+
+    private static final int EMPTY = 0;
+
+    private static final int DELETED = -1;
+
+    /** Hash of the key held by a slot, to move the entries when resizing. */
+    private final IntUnaryOperator hashOfSlot;
+
+    /** Slot + 1 per bucket, EMPTY or DELETED otherwise. */
+    private int[] buckets;
+
+    private int size;
+
+    private int deleted;
+
+    SlotIndex(int expectedSize, IntUnaryOperator hashOfSlot) {
+        this.hashOfSlot = hashOfSlot;
+        this.buckets = new int[capacityFor(expectedSize)];
+    }
+
+    /**
+     * @return the slot holding the key, or -1
+     */
+    int find(int hash, IntPredicate holdsKey) {
+        final int mask = buckets.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            final int bucket = buckets[i];
+            if (bucket == EMPTY) {
+                return -1;
+            }
+            if (bucket != DELETED && holdsKey.test(bucket - 1)) {
+                return bucket - 1;
+            }
+        }
+    }
+
+    /**
+     * Index a slot whose key is not indexed yet.
+     */
+    void insert(int hash, int slot) {
+        if ((size + deleted + 1) * 2 > buckets.length) {
+            rehash(size + 1);
+        }
+        final int mask = buckets.length - 1;
+        int i = spread(hash) & mask;
+        while (buckets[i] != EMPTY && buckets[i] != DELETED) {
+            i = (i + 1) & mask;
+        }
+        if (buckets[i] == DELETED) {
+            deleted--;
+        }
+        buckets[i] = slot + 1;
+        size++;
+    }
+
+    /**
+     * Remove the slot indexed under the hash, if any.
+     */
+    void remove(int hash, int slot) {
+        final int mask = buckets.length - 1;
+        for (int i = spread(hash) & mask; buckets[i] != EMPTY; i = (i + 1) & mask) {
+            if (buckets[i] == slot + 1) {
+                buckets[i] = DELETED;
+                size--;
+                deleted++;
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        buckets = new int[capacityFor(0)];
+        size = 0;
+        deleted = 0;
+    }
+
+    private void rehash(int expectedSize) {
+        final int[] old = buckets;
+        buckets = new int[capacityFor(expectedSize)];
+        size = 0;
+        deleted = 0;
+        for (int bucket : old) {
+            if (bucket != EMPTY && bucket != DELETED) {
+                insert(hashOfSlot.applyAsInt(bucket - 1), bucket - 1);
+            }
+        }
+    }
+
+    /** Power of two leaving the load factor under 1/3, so the next resize is far enough. */
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(expectedSize, 8) * 3 - 1) << 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
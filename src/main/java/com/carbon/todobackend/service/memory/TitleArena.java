@@ -0,0 +1,125 @@
+package com.carbon.todobackend.service.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Append-only arena of UTF-8 titles in direct memory, out of reach of the
+ * garbage collector.
+ * <p>
+ * A title is referenced by a packed long, its offset in the high bits and its
+ * length in the low ones. Overwritten titles leave garbage behind, reclaimed
+ * by {@link #compact(long[], int)} once it outweighs the live bytes.
+ * Not thread-safe, guarded by the store lock.
+ */
+final class TitleArena {
+
+    /** Reference of a null title. */
+    static final long NONE = -1L;
+
+    private static final int MIN_GARBAGE_TO_COMPACT = 1 << 20;
+
+    private ByteBuffer bytes;
+
+    private long garbage;
+
+    TitleArena(int initialCapacity) {
+        this.bytes = ByteBuffer.allocateDirect(Math.max(initialCapacity, 64));
+    }
+
+    long append(String title) {
+        if (title == null) {
+            return NONE;
+        }
+        return append(title.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long append(byte[] title) {
+        ensureRemaining(title.length);
+        final int offset = bytes.position();
+        bytes.put(title);
+        return ((long) offset << 32) | title.length;
+    }
+
+    String read(long ref) {
+        if (ref == NONE) {
+            return null;
+        }
+        final byte[] title = new byte[length(ref)];
+        bytes.get(offset(ref), title);
+        return new String(title, StandardCharsets.UTF_8);
+    }
+
+    boolean matches(long ref, byte[] title) {
+        if (ref == NONE || length(ref) != title.length) {
+            return false;
+        }
+        final int offset = offset(ref);
+        for (int i = 0; i < title.length; i++) {
+            if (bytes.get(offset + i) != title[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void free(long ref) {
+        if (ref != NONE) {
+            garbage += length(ref);
+        }
+    }
+
+    boolean needsCompaction() {
+        return garbage > MIN_GARBAGE_TO_COMPACT && garbage > bytes.position() - garbage;
+    }
+
+    /**
+     * Copy the live titles into a fresh buffer, rewriting their references in place.
+     *
+     * @param refs the title reference of each slot, NONE for empty slots
+     * @param slots the number of slots in use
+     */
+    void compact(long[] refs, int slots) {
+        final ByteBuffer old = bytes;
+        bytes = ByteBuffer.allocateDirect(Math.max((int) (old.position() - garbage) * 2, 64));
+        garbage = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (refs[slot] != NONE) {
+                final byte[] title = new byte[length(refs[slot])];
+                old.get(offset(refs[slot]), title);
+                refs[slot] = append(title);
+            }
+        }
+    }
+
+    void clear() {
+        bytes.clear();
+        garbage = 0;
+    }
+
+    long usedBytes() {
+        return bytes.position();
+    }
+
+    private void ensureRemaining(int length) {
+        if (bytes.remaining() >= length) {
+            return;
+        }
+        final long required = (long) bytes.position() + length;
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Title arena is full");
+        }
+        final ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Math.max(required, bytes.capacity() * 2L), Integer.MAX_VALUE));
+        bytes.flip();
+        grown.put(bytes);
+        bytes = grown;
+    }
+
+    private static int offset(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static int length(long ref) {
+        return (int) ref;
+    }
+}
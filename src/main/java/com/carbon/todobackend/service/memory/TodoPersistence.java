@@ -0,0 +1,44 @@
+package com.carbon.todobackend.service.memory;
+
+import java.util.UUID;
+
+/**
+ * Storage SPI behind the {@link PackedTodoStore}: loads the store at startup,
+ * then persists the todos the memory service changes. The implementation is
+ * chosen with {@code todo.memory.persistence}:
+ * <ul>
+ *     <li>{@code database}, the default: {@link TodoWriteBehind}, asynchronous writes to the JPA database</li>
+ *     <li>{@code log}: {@link com.carbon.todobackend.service.memory.log.TodoLog}, an embedded append-only log</li>
+ * </ul>
+ * Changes are only marked, the implementation reading the state of the
+ * marked todos from the store when it writes them.
+ */
+public interface TodoPersistence {
+
+    /**
+     * Persist the "id" todo in whatever state the store holds when it is
+     * written, deleted if the store no longer holds it. Never blocks, the
+     * store lock may be held.
+     *
+     * @param id the id of the todo created, updated or deleted
+     */
+    void markDirty(UUID id);
+
+    /**
+     * Delete every persisted todo, before writing the ones marked afterwards.
+     * Never blocks, the store lock may be held.
+     */
+    void markCleared();
+
+    /**
+     * Wait until the changes marked so far are durable, when the
+     * implementation guarantees durability on return. Must not be called
+     * with the store lock held.
+     */
+    void awaitPersisted();
+
+    /**
+     * Persist the pending changes now.
+     */
+    void flush();
+}
@@ -0,0 +1,200 @@
+package com.carbon.todobackend.service.memory;
+
+import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.entities.TodoEntity;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the database behind the {@link PackedTodoStore}: loads the store at
+ * startup, then writes the changed todos back asynchronously.
+ * <p>
+ * Writers only mark the id they changed. On each tick the marked todos are
+ * written in their current state, so successive changes of a todo cost a
+ * single write, in one transaction. A failed write is retried on the next
+ * tick. Changes made since the last tick are lost if the process dies.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnExpression("'${todo.storage:jpa}' == 'memory' and '${todo.memory.persistence:database}' == 'database'")
+public class TodoWriteBehind implements TodoPersistence, SmartInitializingSingleton,
+        ApplicationListener<ContextClosedEvent> {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Set<UUID> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean cleared = new AtomicBoolean();
+
+    private final PackedTodoStore todoStore;
+
+    private final TodoRepository todoRepository;
+
+    private final TodoMapper todoMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration delay;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "todo-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TodoWriteBehind(PackedTodoStore todoStore, TodoRepository todoRepository, TodoMapper todoMapper,
+                           EntityManager entityManager, PlatformTransactionManager transactionManager,
+                           @Value("${todo.memory.write-behind-delay:1s}") Duration delay) {
+        this.todoStore = todoStore;
+        this.todoRepository = todoRepository;
+        this.todoMapper = todoMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.delay = delay;
+    }
+
+    /**
+     * Load every todo before the application starts serving requests, then
+     * start writing back.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        final TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<TodoEntity> todoEntities = todoRepository.streamAll()) {
+                todoStore.load(() -> todoEntities.map(this::detachedDto).iterator());
+            }
+        });
+        log.info("Loaded {} todos into the in-memory store", todoStore.size());
+        executor.scheduleWithFixedDelay(this::flush, delay.toMillis(), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Todo detachedDto(TodoEntity todoEntity) {
+        final Todo todo = todoMapper.toDto(todoEntity);
+        entityManager.detach(todoEntity);
+        return todo;
+    }
+
+    /**
+     * Write the "id" todo back, in whatever state it is at the next tick.
+     *
+     * @param id the id of the todo created, updated or deleted
+     */
+    @Override
+    public void markDirty(UUID id) {
+        dirtyIds.add(id);
+    }
+
+    /**
+     * Delete every stored todo at the next tick, before writing the marked ones.
+     */
+    @Override
+    public void markCleared() {
+        cleared.set(true);
+    }
+
+    /**
+     * Return at once, the changes are written back at the next tick.
+     */
+    @Override
+    public void awaitPersisted() {
+        // Asynchronous by design.
+    }
+
+    /**
+     * Write the pending changes back now, once the write in progress if any is done.
+     */
+    @Override
+    public synchronized void flush() {
+        final boolean clear = cleared.getAndSet(false);
+        final List<UUID> ids = new ArrayList<>();
+        for (Iterator<UUID> iterator = dirtyIds.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            // Removed before the todo is read, a change made meanwhile marks it again.
+            iterator.remove();
+        }
+        if (!clear && ids.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(clear, ids));
+            log.debug("Wrote back {} todos", ids.size());
+        } catch (RuntimeException e) {
+            log.error("Could not write back {} todos, retrying on the next tick", ids.size(), e);
+            if (clear) {
+                cleared.set(true);
+            }
+            dirtyIds.addAll(ids);
+        }
+    }
+
+    private void write(boolean clear, List<UUID> ids) {
+        if (clear) {
+            todoRepository.deleteAllInBatch();
+        }
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            final List<UUID> removed = new ArrayList<>();
+            final List<Todo> present = new ArrayList<>();
+            for (UUID id : ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()))) {
+                todoStore.get(id).ifPresentOrElse(present::add, () -> removed.add(id));
+            }
+            if (!removed.isEmpty()) {
+                todoRepository.deleteAllByIdInBatch(removed);
+            }
+            if (!present.isEmpty()) {
+                todoRepository.clearTitles(present.stream().map(Todo::id).toList());
+            }
+        }
+        // Every title being written is free by now, whatever the order of the writes.
+        for (UUID id : ids) {
+            todoStore.get(id).ifPresent(todo -> {
+                if (todoRepository.overwrite(todo.id(), todo.title(), todo.completed(), todo.order(), todo.version()) == 0) {
+                    todoRepository.insert(todo.id(), todo.title(), todo.completed(), todo.order(), todo.version());
+                }
+            });
+        }
+    }
+
+    /**
+     * Write the last changes back when the context starts closing: once the
+     * beans are being destroyed, the repositories can no longer be used.
+     */
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delay.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
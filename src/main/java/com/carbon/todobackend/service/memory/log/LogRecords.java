@@ -0,0 +1,182 @@
+package com.carbon.todobackend.service.memory.log;
+
+import com.carbon.todobackend.domain.dto.Todo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of the log records, shared by the segments and the snapshots.
+ * Each record is framed by its length and the checksum of its body, so that
+ * a record torn by a crash is detected and the log cut right before it:
+ * <pre>
+ * int body length | int CRC32C of the body | body
+ * PUT    : byte 1 | long id msb | long id lsb | long version | byte flags | int order | int title length | title
+ * DELETE : byte 2 | long id msb | long id lsb
+ * CLEAR  : byte 3
+ * </pre>
+ * A PUT holds the whole state of a todo, so replaying the records in order
+ * keeps the last state of each todo whatever came before. A zero length
+ * marks the end of the written part of a segment.
+ */
+final class LogRecords {
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte PUT = 1;
+
+    private static final byte DELETE = 2;
+
+    private static final byte CLEAR = 3;
+
+    private static final int COMPLETED_SET = 1;
+
+    private static final int COMPLETED = 2;
+
+    private static final int ORDER_SET = 4;
+
+    private static final int TITLE_SET = 8;
+
+    private LogRecords() {
+        // Utility class.
+    }
+
+    /**
+     * Write the record of the todo at the buffer position.
+     *
+     * @return false, the buffer being left unchanged, if the record does not fit
+     */
+    static boolean put(ByteBuffer buffer, Todo todo) {
+        final byte[] title = todo.title() == null ? new byte[0] : todo.title().getBytes(StandardCharsets.UTF_8);
+        final int length = 1 + 16 + 8 + 1 + 4 + 4 + title.length;
+        if (buffer.remaining() < HEADER_SIZE + length) {
+            return false;
+        }
+        final int start = begin(buffer, length);
+        buffer.put(PUT)
+                .putLong(todo.id().getMostSignificantBits())
+                .putLong(todo.id().getLeastSignificantBits())
+                .putLong(todo.version() == null ? 0L : todo.version())
+                .put((byte) ((todo.completed() != null ? COMPLETED_SET : 0)
+                        | (Boolean.TRUE.equals(todo.completed()) ? COMPLETED : 0)
+                        | (todo.order() != null ? ORDER_SET : 0)
+                        | (todo.title() != null ? TITLE_SET : 0)))
+                .putInt(todo.order() == null ? 0 : todo.order())
+                .putInt(title.length)
+                .put(title);
+        end(buffer, start);
+        return true;
+    }
+
+    /**
+     * Write the record of a deleted todo at the buffer position.
+     *
+     * @return false, the buffer being left unchanged, if the record does not fit
+     */
+    static boolean delete(ByteBuffer buffer, UUID id) {
+        final int length = 1 + 16;
+        if (buffer.remaining() < HEADER_SIZE + length) {
+            return false;
+        }
+        final int start = begin(buffer, length);
+        buffer.put(DELETE)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        end(buffer, start);
+        return true;
+    }
+
+    /**
+     * Write the record deleting every todo at the buffer position.
+     *
+     * @return false, the buffer being left unchanged, if the record does not fit
+     */
+    static boolean clear(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE + 1) {
+            return false;
+        }
+        final int start = begin(buffer, 1);
+        buffer.put(CLEAR);
+        end(buffer, start);
+        return true;
+    }
+
+    private static int begin(ByteBuffer buffer, int length) {
+        final int start = buffer.position();
+        buffer.putInt(length).putInt(0);
+        return start;
+    }
+
+    private static void end(ByteBuffer buffer, int start) {
+        final CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice(start + HEADER_SIZE, buffer.position() - start - HEADER_SIZE));
+        buffer.putInt(start + 4, (int) checksum.getValue());
+    }
+
+    /**
+     * Apply the records from the buffer position on to the todos, up to the
+     * end marker, the end of the buffer or the first torn record. The buffer
+     * is left positioned right after the last valid record.
+     *
+     * @return false if the records stopped at a torn or corrupted record, or
+     *         if anything but zeros follows the last one
+     */
+    static boolean replay(ByteBuffer buffer, Map<UUID, Todo> todos) {
+        while (buffer.remaining() >= HEADER_SIZE) {
+            final int start = buffer.position();
+            final int length = buffer.getInt(start);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || length > buffer.remaining() - HEADER_SIZE) {
+                return false;
+            }
+            final ByteBuffer body = buffer.slice(start + HEADER_SIZE, length);
+            final CRC32C checksum = new CRC32C();
+            checksum.update(body.duplicate());
+            if ((int) checksum.getValue() != buffer.getInt(start + 4) || !apply(body, todos)) {
+                return false;
+            }
+            buffer.position(start + HEADER_SIZE + length);
+        }
+        // Past the last record, anything but zeros was torn.
+        return isZero(buffer);
+    }
+
+    private static boolean isZero(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean apply(ByteBuffer body, Map<UUID, Todo> todos) {
+        switch (body.get()) {
+            case PUT -> {
+                final UUID id = new UUID(body.getLong(), body.getLong());
+                final long version = body.getLong();
+                final int flags = body.get();
+                final int order = body.getInt();
+                final byte[] title = new byte[body.getInt()];
+                body.get(title);
+                todos.put(id, new Todo(
+                        id,
+                        (flags & TITLE_SET) != 0 ? new String(title, StandardCharsets.UTF_8) : null,
+                        (flags & COMPLETED_SET) != 0 ? (flags & COMPLETED) != 0 : null,
+                        (flags & ORDER_SET) != 0 ? order : null,
+                        version));
+            }
+            case DELETE -> todos.remove(new UUID(body.getLong(), body.getLong()));
+            case CLEAR -> todos.clear();
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
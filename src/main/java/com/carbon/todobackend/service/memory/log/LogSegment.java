@@ -0,0 +1,106 @@
+package com.carbon.todobackend.service.memory.log;
+
+import com.carbon.todobackend.domain.dto.Todo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One file of the log, of a fixed size, mapped in memory and appended to
+ * until it is full. Appending is a copy into the mapping, forcing it to the
+ * disk writes only the pages appended since the previous force.
+ * <p>
+ * Not thread-safe, the {@link TodoLog} appends from a single thread at a time.
+ */
+final class LogSegment {
+
+    static final String SUFFIX = ".log";
+
+    private final long sequence;
+
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    private int forced;
+
+    private LogSegment(long sequence, Path path, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open the segment, created empty if it does not exist yet.
+     *
+     * @param size the size of a new segment, an existing one keeps its own
+     */
+    static LogSegment open(Path directory, long sequence, int size) throws IOException {
+        final Path path = directory.resolve(TodoLog.fileName(sequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+            // Mapping past the end of the file extends it with zeros. The mapping outlives the channel.
+            final long mappedSize = Math.max(size, channel.size());
+            return new LogSegment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+        }
+    }
+
+    /**
+     * Replay the records of the segment, then position it after the last
+     * valid one. A torn tail is zeroed, for the next records to replace it.
+     *
+     * @param todos the todos to apply the records to
+     * @return false if the segment had a torn tail
+     */
+    boolean recover(Map<UUID, Todo> todos) {
+        buffer.position(0);
+        final boolean clean = LogRecords.replay(buffer, todos);
+        if (!clean) {
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        forced = buffer.position();
+        return clean;
+    }
+
+    boolean appendPut(Todo todo) {
+        return LogRecords.put(buffer, todo);
+    }
+
+    boolean appendDelete(UUID id) {
+        return LogRecords.delete(buffer, id);
+    }
+
+    boolean appendClear() {
+        return LogRecords.clear(buffer);
+    }
+
+    /**
+     * Write the records appended since the previous call to the disk.
+     */
+    void force() {
+        if (buffer.position() > forced) {
+            buffer.force(forced, buffer.position() - forced);
+            forced = buffer.position();
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    void delete() throws IOException {
+        // Unmapped once collected, Linux lets the file go meanwhile.
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,442 @@
+package com.carbon.todobackend.service.memory.log;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.service.memory.PackedTodoStore;
+import com.carbon.todobackend.service.memory.TodoPersistence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Persists the {@link PackedTodoStore} in an embedded append-only log, made
+ * of memory-mapped segment files, instead of the database.
+ * <p>
+ * Writers only mark the ids they changed. A single thread appends the
+ * current state of every marked todo, then forces the segment to the disk
+ * once for the whole group: concurrent writers waiting in
+ * {@link #awaitPersisted()} share that force, which is the group commit.
+ * <p>
+ * At startup the latest snapshot is read, then the segments written since are
+ * replayed. In the background, once a segment is full, the store is written
+ * to a new snapshot and the segments it covers are deleted.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnExpression("'${todo.storage:jpa}' == 'memory' and '${todo.memory.persistence:database}' == 'log'")
+public class TodoLog implements TodoPersistence, SmartInitializingSingleton, DisposableBean {
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final int SNAPSHOT_BUFFER_SIZE = 1 << 20;
+
+    private static final Duration PERSIST_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Duration RETRY_DELAY = Duration.ofMillis(100);
+
+    private final Set<UUID> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean cleared = new AtomicBoolean();
+
+    /**
+     * Number of changes marked so far. A change is persisted once a group
+     * drained after it has been forced.
+     */
+    private final AtomicLong marked = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition markedCondition = lock.newCondition();
+
+    private final Condition persistedCondition = lock.newCondition();
+
+    private long persisted;
+
+    private volatile boolean running;
+
+    /**
+     * Held to append, by the writer for each group and by the compaction to
+     * roll the segment. The last segment is the one appended to.
+     */
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final Deque<LogSegment> segments = new ArrayDeque<>();
+
+    private final PackedTodoStore todoStore;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final Duration compactionInterval;
+
+    private final Thread writer;
+
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "todo-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TodoLog(PackedTodoStore todoStore,
+                   @Value("${todo.log.directory:data/todo-log}") Path directory,
+                   @Value("${todo.log.segment-size:16MB}") DataSize segmentSize,
+                   @Value("${todo.log.compaction-interval:1m}") Duration compactionInterval) {
+        this.todoStore = todoStore;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.compactionInterval = compactionInterval;
+        this.writer = new Thread(this::writeGroups, "todo-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Replay the log into the store before the application starts serving
+     * requests, then start appending.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        final long start = System.nanoTime();
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the todo log in " + directory, e);
+        }
+        log.info("Replayed {} todos from the todo log in {} ms", todoStore.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        running = true;
+        writer.start();
+        compactor.scheduleWithFixedDelay(this::compact, compactionInterval.toMillis(), compactionInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        final Map<UUID, Todo> todos = new HashMap<>();
+        final List<Long> snapshots = sequences(SNAPSHOT_SUFFIX);
+        final long snapshot = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        if (!snapshots.isEmpty()) {
+            readSnapshot(snapshot, todos);
+        }
+        for (long sequence : sequences(LogSegment.SUFFIX)) {
+            final LogSegment segment = LogSegment.open(directory, sequence, segmentSize);
+            if (sequence < snapshot) {
+                // Left behind by a compaction interrupted before deleting it.
+                segment.delete();
+            } else {
+                if (!segment.recover(todos)) {
+                    log.warn("Cut the torn tail of todo log segment {}", sequence);
+                }
+                segments.addLast(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(LogSegment.open(directory, snapshot, segmentSize));
+        }
+        deleteFiles(TEMPORARY_SUFFIX, sequence -> true);
+        deleteFiles(SNAPSHOT_SUFFIX, sequence -> sequence < snapshot);
+        todoStore.load(todos.values());
+    }
+
+    private void readSnapshot(long sequence, Map<UUID, Todo> todos) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(fileName(sequence, SNAPSHOT_SUFFIX)), READ)) {
+            if (!LogRecords.replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), todos)) {
+                throw new IOException("Todo log snapshot " + sequence + " is corrupted");
+            }
+        }
+    }
+
+    @Override
+    public void markDirty(UUID id) {
+        dirtyIds.add(id);
+        marked();
+    }
+
+    @Override
+    public void markCleared() {
+        cleared.set(true);
+        marked();
+    }
+
+    private void marked() {
+        // Counted once the mark is visible to the writer, so that the group drained after counting includes it.
+        marked.incrementAndGet();
+        lock.lock();
+        try {
+            markedCondition.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the group holding the changes marked so far has been forced to the disk.
+     *
+     * @throws IllegalStateException if the log could not persist them in time
+     */
+    @Override
+    public void awaitPersisted() {
+        final long target = marked.get();
+        lock.lock();
+        try {
+            long nanos = PERSIST_TIMEOUT.toNanos();
+            while (persisted < target) {
+                if (nanos <= 0) {
+                    throw new IllegalStateException("The todo log did not persist the changes within " + PERSIST_TIMEOUT);
+                }
+                nanos = persistedCondition.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the todo log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        awaitPersisted();
+    }
+
+    private void writeGroups() {
+        while (true) {
+            final long target;
+            lock.lock();
+            try {
+                while (running && marked.get() == persisted) {
+                    markedCondition.awaitUninterruptibly();
+                }
+                if (marked.get() == persisted) {
+                    return;
+                }
+                target = marked.get();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                writeGroup();
+            } catch (IOException | RuntimeException e) {
+                if (!running) {
+                    log.error("Could not append the last changes to the todo log", e);
+                    return;
+                }
+                log.error("Could not append to the todo log, retrying", e);
+                sleep(RETRY_DELAY);
+                continue;
+            }
+            lock.lock();
+            try {
+                persisted = target;
+                persistedCondition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeGroup() throws IOException {
+        final List<UUID> ids = new ArrayList<>();
+        for (Iterator<UUID> iterator = dirtyIds.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            // Removed before the todo is read, a change made meanwhile marks it again.
+            iterator.remove();
+        }
+        // Read after the ids: a todo marked after a clear is drained with it, or in a later group.
+        final boolean clear = cleared.getAndSet(false);
+        appendLock.lock();
+        try {
+            if (clear) {
+                append(LogSegment::appendClear);
+            }
+            for (UUID id : ids) {
+                final Optional<Todo> todo = todoStore.get(id);
+                append(todo.<Predicate<LogSegment>>map(present -> segment -> segment.appendPut(present))
+                        .orElse(segment -> segment.appendDelete(id)));
+            }
+            segments.getLast().force();
+        } catch (IOException | RuntimeException e) {
+            if (clear) {
+                cleared.set(true);
+            }
+            dirtyIds.addAll(ids);
+            throw e;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void append(Predicate<LogSegment> record) throws IOException {
+        if (!record.test(segments.getLast())) {
+            roll();
+            if (!record.test(segments.getLast())) {
+                throw new IOException("A todo log record does not fit in a segment of " + segmentSize + " bytes");
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        final LogSegment last = segments.getLast();
+        last.force();
+        segments.addLast(LogSegment.open(directory, last.sequence() + 1, segmentSize));
+    }
+
+    /**
+     * Replace the full segments by a snapshot of the store, once at least one
+     * is full. The store is read a chunk at a time while writers go on, so
+     * the snapshot is only published once the log holds every change it may
+     * have seen.
+     */
+    public void compact() {
+        try {
+            final long sequence;
+            appendLock.lock();
+            try {
+                if (segments.size() < 2) {
+                    return;
+                }
+                roll();
+                sequence = segments.getLast().sequence();
+            } finally {
+                appendLock.unlock();
+            }
+            final Path temporary = writeSnapshot(sequence);
+            awaitPersisted();
+            Files.move(temporary, directory.resolve(fileName(sequence, SNAPSHOT_SUFFIX)), StandardCopyOption.ATOMIC_MOVE);
+            int deleted = 0;
+            appendLock.lock();
+            try {
+                while (segments.getFirst().sequence() < sequence) {
+                    segments.removeFirst().delete();
+                    deleted++;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            deleteFiles(SNAPSHOT_SUFFIX, previous -> previous < sequence);
+            log.info("Compacted {} todo log segments into snapshot {}", deleted, sequence);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not compact the todo log, retrying on the next tick", e);
+        }
+    }
+
+    private Path writeSnapshot(long sequence) throws IOException {
+        final Path temporary = directory.resolve(fileName(sequence, TEMPORARY_SUFFIX));
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            todoStore.forEach(todo -> {
+                if (!LogRecords.put(buffer, todo)) {
+                    write(channel, buffer);
+                    if (!LogRecords.put(buffer, todo)) {
+                        throw new IllegalStateException("Todo " + todo.id() + " does not fit in a snapshot buffer");
+                    }
+                }
+            });
+            write(channel, buffer);
+            channel.force(true);
+        }
+        return temporary;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private List<Long> sequences(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(suffix) && name.length() > suffix.length())
+                    .map(name -> name.substring(0, name.length() - suffix.length()))
+                    .filter(name -> name.chars().allMatch(Character::isDigit))
+                    .map(Long::valueOf)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteFiles(String suffix, Predicate<Long> sequence) throws IOException {
+        for (long candidate : sequences(suffix)) {
+            if (sequence.test(candidate)) {
+                Files.deleteIfExists(directory.resolve(fileName(candidate, suffix)));
+            }
+        }
+    }
+
+    static String fileName(long sequence, String suffix) {
+        return String.format("%020d%s", sequence, suffix);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Append the last changes, then stop.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        compactor.shutdown();
+        compactor.awaitTermination(PERSIST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        lock.lock();
+        try {
+            running = false;
+            markedCondition.signal();
+        } finally {
+            lock.unlock();
+        }
+        writer.join(PERSIST_TIMEOUT.toMillis());
+    }
+}
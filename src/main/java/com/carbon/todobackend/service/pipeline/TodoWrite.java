@@ -0,0 +1,111 @@
+package com.carbon.todobackend.service.pipeline;
+
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A create or an update queued in the {@link TodoWritePipeline}, with the
+ * future its caller waits on.
+ */
+public final class TodoWrite {
+
+    private final CreateTodoRequest createTodoRequest;
+
+    private final UpdateTodoRequest updateTodoRequest;
+
+    private final UUID id;
+
+    private final Long expectedVersion;
+
+    private final CompletableFuture<Todo> result = new CompletableFuture<>();
+
+    private TodoWrite(CreateTodoRequest createTodoRequest, UpdateTodoRequest updateTodoRequest, UUID id,
+                      Long expectedVersion) {
+        this.createTodoRequest = createTodoRequest;
+        this.updateTodoRequest = updateTodoRequest;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public static TodoWrite create(CreateTodoRequest createTodoRequest) {
+        return new TodoWrite(createTodoRequest, null, null, null);
+    }
+
+    public static TodoWrite update(UpdateTodoRequest updateTodoRequest, UUID id, Long expectedVersion) {
+        return new TodoWrite(null, updateTodoRequest, id, expectedVersion);
+    }
+
+    public boolean isCreate() {
+        return createTodoRequest != null;
+    }
+
+    public CreateTodoRequest createTodoRequest() {
+        return createTodoRequest;
+    }
+
+    public UpdateTodoRequest updateTodoRequest() {
+        return updateTodoRequest;
+    }
+
+    /**
+     * @return the id of the todo to update, null for a create
+     */
+    public UUID id() {
+        return id;
+    }
+
+    public Long expectedVersion() {
+        return expectedVersion;
+    }
+
+    public void complete(Todo todo) {
+        result.complete(todo);
+    }
+
+    public void fail(Throwable cause) {
+        result.completeExceptionally(cause);
+    }
+
+    /**
+     * @return true once the write has its result or its error
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * Wait for the write, rethrowing its error as the service would have thrown it.
+     *
+     * @return the created or updated todo
+     */
+    public Todo await() throws AlreadyExistException, NotExistingTodoException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the todo write", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof AlreadyExistException alreadyExistException) {
+                throw alreadyExistException;
+            }
+            if (cause instanceof NotExistingTodoException notExistingTodoException) {
+                throw notExistingTodoException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Todo write failed", cause);
+        }
+    }
+}
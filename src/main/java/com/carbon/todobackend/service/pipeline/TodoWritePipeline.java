@@ -0,0 +1,164 @@
+package com.carbon.todobackend.service.pipeline;
+
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.impl.TodoRepositoryBaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent creates and updates into micro-batches, each written
+ * in a single transaction, so that a commit is shared by many writes.
+ * <p>
+ * A single thread takes the queued writes: it waits at most the configured
+ * delay after the first one for others to join, and stops at the maximum
+ * batch size. Each write is checked on its own, so one rejected write, such
+ * as a title already taken in the same batch, does not fail the others. If
+ * the batch itself fails, its writes are retried one by one, each caller
+ * getting the outcome of its own write.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnExpression("'${todo.storage:jpa}' == 'jpa' and ${todo.write-pipeline.enabled:false}")
+public class TodoWritePipeline implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+
+    private final BlockingQueue<TodoWrite> queue = new LinkedBlockingQueue<>();
+
+    private final TodoRepositoryBaseService todoService;
+
+    private final int maxBatchSize;
+
+    private final Duration maxDelay;
+
+    private final Thread flusher;
+
+    private volatile boolean running;
+
+    public TodoWritePipeline(TodoRepositoryBaseService todoService,
+                             @Value("${todo.write-pipeline.max-batch-size:64}") int maxBatchSize,
+                             @Value("${todo.write-pipeline.max-delay:1ms}") Duration maxDelay) {
+        this.todoService = todoService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.flusher = new Thread(this::flushBatches, "todo-write-pipeline");
+        this.flusher.setDaemon(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        running = true;
+        flusher.start();
+    }
+
+    /**
+     * Queue the write for the next batch.
+     *
+     * @param write the create or update
+     * @return the same write, to wait on
+     * @throws IllegalStateException if the pipeline is stopped
+     */
+    public TodoWrite submit(TodoWrite write) {
+        if (!running) {
+            throw new IllegalStateException("The todo write pipeline is stopped");
+        }
+        queue.add(write);
+        // Stopped meanwhile, the flusher may have left before taking it.
+        if (!running && queue.remove(write)) {
+            write.fail(new IllegalStateException("The todo write pipeline is stopped"));
+        }
+        return write;
+    }
+
+    private void flushBatches() {
+        final List<TodoWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final TodoWrite first = queue.poll(POLL_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not write a batch of {} todos", batch.size(), e);
+                batch.forEach(write -> write.fail(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Add the writes queued until the batch is full or the delay after its first write is over.
+     */
+    private void collect(List<TodoWrite> batch) throws InterruptedException {
+        final long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            final TodoWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<TodoWrite> batch) {
+        try {
+            todoService.writeAll(batch);
+        } catch (AlreadyExistException | RuntimeException e) {
+            log.debug("Could not write a batch of {} todos at once, writing them one by one", batch.size(), e);
+        }
+        // Left pending: the writes of a failed batch, and those on a todo the batch already wrote.
+        for (TodoWrite write : batch) {
+            if (!write.isDone()) {
+                writeAlone(write);
+            }
+        }
+    }
+
+    private void writeAlone(TodoWrite write) {
+        try {
+            write.complete(write.isCreate()
+                    ? todoService.save(write.createTodoRequest())
+                    : todoService.update(write.updateTodoRequest(), write.id(), write.expectedVersion()));
+        } catch (AlreadyExistException | NotExistingTodoException | RuntimeException e) {
+            write.fail(e);
+        }
+    }
+
+    /**
+     * Write the queued writes, then stop.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        flusher.join();
+        for (TodoWrite write; (write = queue.poll()) != null; ) {
+            write.fail(new IllegalStateException("The todo write pipeline is stopped"));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.carbon.todobackend.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Increasing document numbers, stored as the varint-encoded gaps between
+ * them. Most gaps take a single byte, instead of the four of an int array.
+ * <p>
+ * Documents are only appended, a removed one being skipped by the reader
+ * until the index is compacted.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[4];
+
+    private int length;
+
+    private int last = -1;
+
+    private int size;
+
+    /**
+     * Append a document, greater than the last one appended.
+     *
+     * @param doc the document number
+     */
+    void add(int doc) {
+        if (doc <= last) {
+            throw new IllegalArgumentException("Documents must be appended in increasing order: " + doc);
+        }
+        int gap = doc - last;
+        last = doc;
+        size++;
+        if (bytes.length - length < 5) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((gap & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        bytes[length++] = (byte) gap;
+    }
+
+    /**
+     * Get the number of documents.
+     *
+     * @return the number of documents appended
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of bytes used by the encoded documents.
+     *
+     * @return the encoded size
+     */
+    int encodedSize() {
+        return length;
+    }
+
+    /**
+     * Decode every document, in increasing order.
+     *
+     * @param visitor the callback receiving each document number
+     */
+    void forEach(DocVisitor visitor) {
+        int doc = -1;
+        int position = 0;
+        while (position < length) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += gap;
+            visitor.visit(doc);
+        }
+    }
+
+    @FunctionalInterface
+    interface DocVisitor {
+        void visit(int doc);
+    }
+}
@@ -0,0 +1,19 @@
+package com.carbon.todobackend.service.search;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A todo matching a search, with its score.
+ *
+ * @param id the id of the todo
+ * @param score the higher, the better the title matches
+ */
+public record TodoSearchHit(UUID id, int score) {
+
+    /**
+     * Best hits first, ties broken by id so that pages never overlap.
+     */
+    public static final Comparator<TodoSearchHit> RANKING = Comparator.comparingInt(TodoSearchHit::score).reversed()
+            .thenComparing(TodoSearchHit::id);
+}
@@ -0,0 +1,314 @@
+package com.carbon.todobackend.service.search;
+
+import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.dao.TodoTitleProjection;
+import com.carbon.todobackend.domain.dto.Todo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
+
+/**
+ * In-memory trigram inverted index of the todo titles, answering title
+ * searches without scanning the table.
+ * <p>
+ * Each indexed title is a document numbered in insertion order, and each
+ * trigram of the titles has the compressed {@link PostingList} of the
+ * documents having it. A search counts, per document, the query trigrams it
+ * has: only the documents having enough of them are scored by the
+ * {@link TodoTitleQuery}. A changed title is indexed as a new document, the
+ * previous one being skipped until the index is compacted, once removed
+ * documents outnumber the live ones.
+ * <p>
+ * The index follows the committed writes, like the title index.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+public class TodoSearchIndex implements SmartInitializingSingleton {
+
+    private static final int MIN_COMPACTED_DOCS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    private final Map<UUID, Integer> docsById = new HashMap<>();
+
+    // Per document, null once removed.
+    private UUID[] ids = new UUID[1024];
+
+    private String[] titles = new String[1024];
+
+    private int docCount;
+
+    private int removedCount;
+
+    private final TodoRepository todoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TodoSearchIndex(TodoRepository todoRepository, PlatformTransactionManager transactionManager) {
+        this.todoRepository = todoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Index the existing titles before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TodoTitleProjection> titles = todoRepository.streamTitles()) {
+                titles.forEach(title -> put(title.getId(), title.getTitle()));
+            }
+        });
+        log.info("Indexed {} todo titles for search", size());
+    }
+
+    /**
+     * Index the title of the todo once the current transaction commits.
+     *
+     * @param todo the written todo
+     */
+    public void putAfterCommit(Todo todo) {
+        afterCommit(() -> put(todo.id(), todo.title()));
+    }
+
+    /**
+     * Remove the "id" todo once the current transaction commits.
+     *
+     * @param id the id
+     */
+    public void removeAfterCommit(UUID id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Remove the todos once the current transaction commits.
+     *
+     * @param ids the ids
+     */
+    public void removeAfterCommit(Collection<UUID> ids) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(this::removeDoc);
+                compactIfSparse();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove every todo once the current transaction commits.
+     */
+    public void clearAfterCommit() {
+        afterCommit(this::clear);
+    }
+
+    /**
+     * Index the title of the "id" todo, replacing the one it had.
+     *
+     * @param id the id
+     * @param title the title, null to only remove the previous one
+     */
+    public void put(UUID id, String title) {
+        final String normalized = title == null ? null : TodoTitleQuery.normalize(title);
+        lock.writeLock().lock();
+        try {
+            final Integer doc = docsById.get(id);
+            if (doc != null && titles[doc].equals(normalized)) {
+                return;
+            }
+            removeDoc(id);
+            if (normalized != null) {
+                addDoc(id, normalized);
+            }
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the "id" todo.
+     *
+     * @param id the id
+     */
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every todo.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docsById.clear();
+            Arrays.fill(ids, 0, docCount, null);
+            Arrays.fill(titles, 0, docCount, null);
+            docCount = 0;
+            removedCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best todos matching the query, following a cursor.
+     *
+     * @param query the compiled search
+     * @param limit the maximum number of hits
+     * @param after the last hit of the previous page, or null
+     * @return the hits, best first
+     */
+    public List<TodoSearchHit> search(TodoTitleQuery query, int limit, TodoSearchHit after) {
+        final TodoSearchResults results = new TodoSearchResults(limit, after);
+        final int minShared = query.minSharedTrigrams();
+        lock.readLock().lock();
+        try {
+            final PostingList[] lists = Arrays.stream(query.trigrams())
+                    .mapToObj(postings::get)
+                    .filter(list -> list != null)
+                    .toArray(PostingList[]::new);
+            if (lists.length < minShared) {
+                return List.of();
+            }
+            if (lists.length == 1) {
+                lists[0].forEach(doc -> score(query, doc, results));
+                return results.hits();
+            }
+            // A document is scored once, when it reaches the number of shared trigrams required.
+            final short[] shared = new short[docCount];
+            for (PostingList list : lists) {
+                list.forEach(doc -> {
+                    if (++shared[doc] == minShared) {
+                        score(query, doc, results);
+                    }
+                });
+            }
+            return results.hits();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed todos.
+     *
+     * @return the number of todos having a title
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of bytes taken by the posting lists.
+     *
+     * @return the encoded size of every posting list
+     */
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            return postings.values().stream().mapToLong(PostingList::encodedSize).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void score(TodoTitleQuery query, int doc, TodoSearchResults results) {
+        final UUID id = ids[doc];
+        if (id == null) {
+            return;
+        }
+        final int score = query.score(titles[doc]);
+        if (score >= 0) {
+            results.offer(id, score);
+        }
+    }
+
+    private void addDoc(UUID id, String title) {
+        if (docCount == ids.length) {
+            ids = Arrays.copyOf(ids, docCount * 2);
+            titles = Arrays.copyOf(titles, docCount * 2);
+        }
+        final int doc = docCount++;
+        ids[doc] = id;
+        titles[doc] = title;
+        docsById.put(id, doc);
+        long previous = -1;
+        final long[] trigrams = TodoTitleQuery.trigramsOf(title);
+        Arrays.sort(trigrams);
+        for (long trigram : trigrams) {
+            if (trigram != previous) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(doc);
+                previous = trigram;
+            }
+        }
+    }
+
+    private void removeDoc(UUID id) {
+        final Integer doc = docsById.remove(id);
+        if (doc != null) {
+            ids[doc] = null;
+            titles[doc] = null;
+            removedCount++;
+        }
+    }
+
+    /**
+     * Renumber the live documents once most of them are removed ones, which
+     * every search would otherwise keep decoding.
+     */
+    private void compactIfSparse() {
+        if (removedCount < MIN_COMPACTED_DOCS || removedCount < docCount - removedCount) {
+            return;
+        }
+        final UUID[] liveIds = ids;
+        final String[] liveTitles = titles;
+        final int count = docCount;
+        postings.clear();
+        docsById.clear();
+        ids = new UUID[Math.max(1024, Integer.highestOneBit(Math.max(1, count - removedCount)) << 1)];
+        titles = new String[ids.length];
+        docCount = 0;
+        removedCount = 0;
+        for (int doc = 0; doc < count; doc++) {
+            if (liveIds[doc] != null) {
+                addDoc(liveIds[doc], liveTitles[doc]);
+            }
+        }
+    }
+}
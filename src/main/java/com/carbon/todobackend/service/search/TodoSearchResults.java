@@ -0,0 +1,61 @@
+package com.carbon.todobackend.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Keeps the best hits following a cursor, in a heap bounded by the page size,
+ * so that ranking any number of matches holds a single page in memory.
+ */
+public final class TodoSearchResults {
+
+    private final int limit;
+
+    private final TodoSearchHit after;
+
+    // Worst kept hit on top, to be evicted by a better one.
+    private final PriorityQueue<TodoSearchHit> hits;
+
+    /**
+     * @param limit the maximum number of hits kept
+     * @param after the last hit of the previous page, or null
+     */
+    public TodoSearchResults(int limit, TodoSearchHit after) {
+        this.limit = limit;
+        this.after = after;
+        this.hits = new PriorityQueue<>(limit + 1, TodoSearchHit.RANKING.reversed());
+    }
+
+    /**
+     * Keep the hit if it follows the cursor and ranks among the best ones.
+     *
+     * @param id the id of the todo
+     * @param score its score
+     */
+    public void offer(UUID id, int score) {
+        final TodoSearchHit hit = new TodoSearchHit(id, score);
+        if (after != null && TodoSearchHit.RANKING.compare(hit, after) <= 0) {
+            return;
+        }
+        if (hits.size() == limit && TodoSearchHit.RANKING.compare(hit, hits.peek()) >= 0) {
+            return;
+        }
+        hits.add(hit);
+        if (hits.size() > limit) {
+            hits.poll();
+        }
+    }
+
+    /**
+     * Get the hits kept.
+     *
+     * @return the best hits, best first
+     */
+    public List<TodoSearchHit> hits() {
+        final List<TodoSearchHit> ranked = new ArrayList<>(hits);
+        ranked.sort(TodoSearchHit.RANKING);
+        return ranked;
+    }
+}
@@ -0,0 +1,207 @@
+package com.carbon.todobackend.service.search;
+
+import com.carbon.todobackend.exception.InvalidQueryException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A title search, compiled once: its trigrams and how a title matching it is
+ * scored. Titles and queries are compared case insensitively.
+ * <p>
+ * A title scores, from best to worst, when it is the query, starts with it,
+ * has a word starting with it, contains it, or contains it with a few typos:
+ * one from 4 characters, two from 8. Within a kind of match, shorter titles
+ * rank first. Queries shorter than 3 characters only match title prefixes.
+ */
+public final class TodoTitleQuery {
+
+    /** Maximum length of a query, longer ones being truncated. */
+    public static final int MAX_LENGTH = 64;
+
+    static final char START = '\u0002';
+
+    static final char END = '\u0003';
+
+    private static final int NO_MATCH = -1;
+
+    private static final int ASCII_EQUALITIES = 128;
+
+    private static final int TIER = 100_000;
+
+    private static final int EXACT = 5;
+
+    private static final int PREFIX = 4;
+
+    private static final int WORD_PREFIX = 3;
+
+    private static final int SUBSTRING = 2;
+
+    private static final int FUZZY = 1;
+
+    private final String text;
+
+    private final long[] trigrams;
+
+    private final int maxEdits;
+
+    // Per ASCII character, the bits of the query positions holding it.
+    private final long[] asciiEqualities = new long[ASCII_EQUALITIES];
+
+    private TodoTitleQuery(String text) {
+        this.text = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < ASCII_EQUALITIES) {
+                asciiEqualities[text.charAt(i)] |= 1L << i;
+            }
+        }
+        this.maxEdits = text.length() < 4 ? 0 : text.length() < 8 ? 1 : 2;
+        // A short query is looked up among the trigrams starting the titles.
+        this.trigrams = Arrays.stream(text.length() < 3 ? slide(START + "" + START + text) : slide(text))
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Compile a search.
+     *
+     * @param query the searched text
+     * @return the compiled search
+     * @throws InvalidQueryException if the query is blank
+     */
+    public static TodoTitleQuery parse(String query) {
+        final String text = query == null ? "" : normalize(query);
+        if (text.isEmpty()) {
+            throw new InvalidQueryException("The search query must not be blank");
+        }
+        return new TodoTitleQuery(text.length() > MAX_LENGTH ? text.substring(0, MAX_LENGTH) : text);
+    }
+
+    /**
+     * The form in which titles are indexed and compared.
+     *
+     * @param title a title
+     * @return the title stripped and lower cased
+     */
+    public static String normalize(String title) {
+        return title.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trigrams of a normalized title, marked at its start and end so that
+     * prefixes have trigrams of their own.
+     *
+     * @param title the normalized title
+     * @return the trigrams, possibly repeated
+     */
+    static long[] trigramsOf(String title) {
+        return slide(START + "" + START + title + END);
+    }
+
+    private static long[] slide(String text) {
+        final int count = Math.max(0, text.length() - 2);
+        final long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Get the distinct trigrams a matching title has, but for typos.
+     *
+     * @return the trigrams of the query
+     */
+    long[] trigrams() {
+        return trigrams;
+    }
+
+    /**
+     * Get the number of query trigrams a title must have to be scored. Each
+     * typo changes at most three trigrams of the title.
+     *
+     * @return the minimum number of shared trigrams
+     */
+    int minSharedTrigrams() {
+        return Math.max(1, trigrams.length - 3 * maxEdits);
+    }
+
+    /**
+     * Score a title.
+     *
+     * @param title the normalized title
+     * @return the score, negative if the title does not match
+     */
+    public int score(String title) {
+        final int extraLength = Math.min(Math.max(title.length() - text.length(), 0), 999);
+        if (title.equals(text)) {
+            return EXACT * TIER;
+        }
+        if (title.startsWith(text)) {
+            return PREFIX * TIER - extraLength;
+        }
+        if (text.length() < 3) {
+            return NO_MATCH;
+        }
+        final int index = title.indexOf(text);
+        if (index > 0) {
+            return (Character.isLetterOrDigit(title.charAt(index - 1)) ? SUBSTRING : WORD_PREFIX) * TIER - extraLength;
+        }
+        if (maxEdits == 0) {
+            return NO_MATCH;
+        }
+        final int edits = substringDistance(title);
+        return edits > maxEdits ? NO_MATCH : FUZZY * TIER - edits * 1000 - extraLength;
+    }
+
+    /**
+     * Fewest edits turning the query into some substring of the title, with
+     * the bit-parallel algorithm of Myers: one bit per query character, the
+     * query being at most 64 characters long, so a title is scanned once.
+     */
+    private int substringDistance(String title) {
+        final int m = text.length();
+        final long last = 1L << (m - 1);
+        long positive = -1L;
+        long negative = 0L;
+        int edits = m;
+        int best = m;
+        for (int j = 0; j < title.length(); j++) {
+            final long equal = equalities(title.charAt(j));
+            final long xv = equal | negative;
+            final long xh = (((equal & positive) + positive) ^ positive) | equal;
+            long horizontalPositive = negative | ~(xh | positive);
+            long horizontalNegative = positive & xh;
+            if ((horizontalPositive & last) != 0) {
+                edits++;
+            } else if ((horizontalNegative & last) != 0) {
+                edits--;
+            }
+            // A match may start anywhere in the title, the first row stays at zero.
+            horizontalPositive <<= 1;
+            horizontalNegative <<= 1;
+            positive = horizontalNegative | ~(xv | horizontalPositive);
+            negative = horizontalPositive & xv;
+            best = Math.min(best, edits);
+        }
+        return best;
+    }
+
+    private long equalities(char c) {
+        if (c < ASCII_EQUALITIES) {
+            return asciiEqualities[c];
+        }
+        long equal = 0L;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                equal |= 1L << i;
+            }
+        }
+        return equal;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
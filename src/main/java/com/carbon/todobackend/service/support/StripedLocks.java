@@ -0,0 +1,49 @@
+package com.carbon.todobackend.service.support;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks, a key always mapping to the same one. Writers of
+ * different keys mostly take different locks and do not wait for each other,
+ * while the memory used does not depend on the number of keys.
+ */
+public final class StripedLocks {
+
+    private final Lock[] stripes;
+
+    /**
+     * @param stripes the number of locks, rounded up to a power of two
+     */
+    public StripedLocks(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required: " + stripes);
+        }
+        final int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Lock[Math.max(1, size)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Get the lock of the key.
+     *
+     * @param key the key
+     * @return the same lock for equal keys
+     */
+    public Lock get(Object key) {
+        final int hash = key.hashCode();
+        // Spread the high bits, the low ones alone pick the stripe.
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Get the number of locks.
+     *
+     * @return a power of two
+     */
+    public int size() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,48 @@
+package com.carbon.todobackend.service.support;
+
+import java.util.OptionalInt;
+
+/**
+ * Gap-based positions on the order column. Todos are spread {@link #GAP}
+ * apart, so that a moved todo takes the midpoint of its new neighbours and a
+ * move writes a single row. Only when the neighbours leave no room in between
+ * is the whole list renumbered, which doubles the room of every gap again.
+ */
+public final class TodoOrdering {
+
+    public static final int GAP = 1024;
+
+    private TodoOrdering() {
+        // Utility class.
+    }
+
+    /**
+     * Get the order placing a todo between two others.
+     *
+     * @param previous the order of the todo to follow, null when moving to the front
+     * @param next the order of the todo to precede, null when moving to the end
+     * @return the order, or empty when there is no room left and the list must be renumbered
+     */
+    public static OptionalInt between(Integer previous, Integer next) {
+        final long lower = previous != null ? previous : next != null ? (long) next - 2 * GAP : -GAP;
+        final long upper = next != null ? next : lower + 2 * GAP;
+        final long middle = lower + (upper - lower) / 2;
+        if (upper - lower < 2 || middle < Integer.MIN_VALUE || middle > Integer.MAX_VALUE) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of((int) middle);
+    }
+
+    /**
+     * Get the order of a todo once the list is renumbered, the relative order being kept.
+     *
+     * @param position the position of the todo in the list, from 0
+     * @param size the number of todos
+     * @return the order
+     */
+    public static int renumbered(int position, int size) {
+        // Narrower gaps when the list would not fit in the int range otherwise.
+        final long gap = Math.min(GAP, Integer.MAX_VALUE / ((long) size + 1));
+        return (int) ((position + 1) * gap);
+    }
+}
@@ -0,0 +1,46 @@
+package com.carbon.todobackend.service.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Defers in-memory side effects until the surrounding transaction has completed.
+ * Outside of a transaction the actions run immediately, as if committed.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+        // Utility class.
+    }
+
+    public static void afterCommit(Runnable action) {
+        afterCompletion(committed -> {
+            if (committed) {
+                action.run();
+            }
+        });
+    }
+
+    public static void afterRollback(Runnable action) {
+        afterCompletion(committed -> {
+            if (!committed) {
+                action.run();
+            }
+        });
+    }
+
+    public static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.carbon.todobackend.service.version;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.carbon.todobackend.service.support.TransactionHooks.afterCommit;
+
+/**
+ * Version of the whole todo collection, answered without touching the database.
+ * <p>
+ * Every committed write bumps a counter. The counter lives in memory, so the
+ * version also carries an id drawn at startup: a version handed out before a
+ * restart, or by another instance, never matches, at worst costing a full
+ * response instead of a 304.
+ */
+@Component
+public class TodoCollectionVersion {
+
+    private final String epoch = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Bump the version once the current transaction commits.
+     */
+    public void incrementAfterCommit() {
+        afterCommit(changes::incrementAndGet);
+    }
+
+    /**
+     * @return an opaque value, different after every committed write
+     */
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+}
@@ -0,0 +1,15 @@
+-- Identifiers are quoted lower case, as Hibernate maps them with globally_quoted_identifiers.
+create table "todo" (
+    "id" uuid not null,
+    "title" varchar(255),
+    "completed" boolean,
+    "order" integer,
+    "version" bigint,
+    primary key ("id"),
+    constraint "todo_title_uk" unique ("title")
+);
+
+create index "todo_completed_idx" on "todo" ("completed");
+
+-- Also serves the keyset order, by order then id.
+create index "todo_order_idx" on "todo" ("order", "id");
@@ -0,0 +1,27 @@
+-- Todo lists own their todos. The legacy "todo" table stays the unowned collection behind /api/todos.
+create table "todo_list" (
+    "id" uuid not null,
+    "name" varchar(255),
+    "version" bigint,
+    primary key ("id")
+);
+
+-- Every index leads with the list id, so that the writes and queries of one
+-- list only touch its own range of the table and of the indexes.
+create table "list_todo" (
+    "id" uuid not null,
+    "list_id" uuid not null,
+    "title" varchar(255),
+    "completed" boolean,
+    "order" integer,
+    "version" bigint,
+    primary key ("id"),
+    constraint "list_todo_list_fk" foreign key ("list_id") references "todo_list" ("id") on delete cascade,
+    -- Titles are unique per list only.
+    constraint "list_todo_title_uk" unique ("list_id", "title")
+);
+
+create index "list_todo_completed_idx" on "list_todo" ("list_id", "completed");
+
+-- Also serves the keyset order of a list, by order then id.
+create index "list_todo_order_idx" on "list_todo" ("list_id", "order", "id");
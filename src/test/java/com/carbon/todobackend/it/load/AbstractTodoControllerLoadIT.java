@@ -0,0 +1,117 @@
+package com.carbon.todobackend.it.load;
+
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the TodoController endpoints at 1k and 10k concurrent connections
+ * and writes throughput and latency percentiles to target/load-test.
+ * <p>
+ * Run with {@code mvn -P load-test verify}; {@code -Dload.warmup} and
+ * {@code -Dload.duration} set the phases, in seconds.
+ * <p>
+ * Both execution modes run against the same connection pool, so that the
+ * comparison measures the request threads alone.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class AbstractTodoControllerLoadIT {
+
+    static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size=50";
+
+    static final String POOL_TIMEOUT = "spring.datasource.hikari.connection-timeout=2000";
+
+    private static final int SEEDED_TODOS = 500;
+
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 30));
+
+    private final LoadGenerator loadGenerator = new LoadGenerator();
+
+    private final AtomicLong createdTitles = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<UUID> ids;
+
+    abstract String mode();
+
+    @BeforeAll
+    void seed() throws Exception {
+        ids = todoService.saveAll(IntStream.range(0, SEEDED_TODOS)
+                        .mapToObj(i -> new CreateTodoRequest(mode() + "-seed-" + i))
+                        .toList())
+                .stream()
+                .filter(result -> result.outcome() == BatchOutcome.CREATED)
+                .map(TodoBatchResult::id)
+                .toList();
+    }
+
+    @ParameterizedTest(name = "{0} concurrent connections")
+    @ValueSource(ints = {1_000, 10_000})
+    void should_serve_concurrent_connections(int connections) throws Exception {
+        final LoadReport report = loadGenerator.run(mode(), connections, WARMUP, DURATION, this::nextRequest);
+
+        final Path output = Path.of("target", "load-test", mode() + "-" + connections + ".json");
+        Files.createDirectories(output.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        log.info(String.format("%s threads, %d connections: %.0f req/s, p50 %.1f ms, p99 %.1f ms, errors %.2f%%",
+                mode(), connections, report.throughput(), report.p50Millis(), report.p99Millis(), report.errorRate() * 100));
+
+        assertThat(report.requests()).isPositive();
+    }
+
+    /**
+     * Read-heavy mix: 80% GET by id, 10% GET of a page, 10% POST.
+     */
+    private HttpRequest nextRequest() {
+        final int dice = ThreadLocalRandom.current().nextInt(10);
+        if (dice == 0) {
+            return HttpRequest.newBuilder(uri("/api/todos"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"title\":\"" + mode() + "-load-" + createdTitles.incrementAndGet() + "\"}"))
+                    .build();
+        }
+        if (dice == 1) {
+            return HttpRequest.newBuilder(uri("/api/todos?limit=50")).GET().build();
+        }
+        final UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return HttpRequest.newBuilder(uri("/api/todos/" + id)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,110 @@
+package com.carbon.todobackend.it.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load generator: keeps a fixed number of requests in flight,
+ * one per connection, and records the latency of every completed request once
+ * the warmup is over.
+ */
+final class LoadGenerator {
+
+    private static final int MAX_SAMPLES = 4_000_000;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    LoadReport run(String mode, int connections, Duration warmup, Duration duration, Supplier<HttpRequest> requests)
+            throws InterruptedException {
+        final long measureFrom = System.nanoTime() + warmup.toNanos();
+        final long deadline = measureFrom + duration.toNanos();
+        final Run run = new Run(connections, measureFrom, deadline, requests);
+        for (int i = 0; i < connections; i++) {
+            run.fire();
+        }
+        if (!run.done.await(duration.plus(warmup).toSeconds() + 60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Load run did not drain");
+        }
+        return run.report(mode, duration);
+    }
+
+    private final class Run {
+        private final int connections;
+        private final long measureFrom;
+        private final long deadline;
+        private final Supplier<HttpRequest> requests;
+        private final CountDownLatch done;
+        private final long[] samples = new long[MAX_SAMPLES];
+        private final AtomicInteger sampleCount = new AtomicInteger();
+        private final AtomicLong requestCount = new AtomicLong();
+        private final AtomicLong errorCount = new AtomicLong();
+
+        private Run(int connections, long measureFrom, long deadline, Supplier<HttpRequest> requests) {
+            this.connections = connections;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            this.requests = requests;
+            this.done = new CountDownLatch(connections);
+        }
+
+        private void fire() {
+            final long start = System.nanoTime();
+            if (start >= deadline) {
+                done.countDown();
+                return;
+            }
+            httpClient.sendAsync(requests.get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (start >= measureFrom) {
+                            record(System.nanoTime() - start, error != null || response.statusCode() >= 400);
+                        }
+                        fire();
+                    });
+        }
+
+        private void record(long latency, boolean failed) {
+            requestCount.incrementAndGet();
+            if (failed) {
+                errorCount.incrementAndGet();
+            }
+            final int index = sampleCount.getAndIncrement();
+            if (index < MAX_SAMPLES) {
+                samples[index] = latency;
+            }
+        }
+
+        private LoadReport report(String mode, Duration duration) {
+            final long[] sorted = Arrays.copyOf(samples, Math.min(sampleCount.get(), MAX_SAMPLES));
+            Arrays.sort(sorted);
+            return new LoadReport(
+                    mode,
+                    connections,
+                    duration.toMillis(),
+                    requestCount.get(),
+                    errorCount.get(),
+                    requestCount.get() * 1000.0 / duration.toMillis(),
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.carbon.todobackend.it.load;
+
+/**
+ * Outcome of one load scenario, written as JSON under target/load-test.
+ */
+record LoadReport(
+        String mode,
+        int connections,
+        long durationMillis,
+        long requests,
+        long errors,
+        double throughput,
+        double p50Millis,
+        double p99Millis,
+        double maxMillis) {
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
@@ -0,0 +1,21 @@
+package com.carbon.todobackend.it.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=1000",
+                AbstractTodoControllerLoadIT.POOL_SIZE,
+                AbstractTodoControllerLoadIT.POOL_TIMEOUT,
+                // Measure the threads, not the shedding of the concurrency limit.
+                "todo.concurrency-limit.enabled=false"
+        })
+class PlatformThreadsTodoControllerLoadIT extends AbstractTodoControllerLoadIT {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,27 @@
+package com.carbon.todobackend.it.load;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                AbstractTodoControllerLoadIT.POOL_SIZE,
+                AbstractTodoControllerLoadIT.POOL_TIMEOUT,
+                // Measure the threads, not the shedding of the concurrency limit.
+                "todo.concurrency-limit.enabled=false"
+        })
+@ActiveProfiles("virtual-threads")
+@EnabledIf(value = "virtualThreadsAvailable", disabledReason = "Virtual threads require Java 21 or later")
+class VirtualThreadsTodoControllerLoadIT extends AbstractTodoControllerLoadIT {
+
+    static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,165 @@
+package com.carbon.todobackend.it.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Launches the packaged application in each startup mode and measures the
+ * time to the first successful GET /api/todos, written to target/startup.
+ * <ul>
+ * <li>jvm: the executable jar as is,</li>
+ * <li>lazy: with the lazy profile,</li>
+ * <li>cds-lazy: from target/cds with a Class Data Sharing archive, made by a
+ * training run when missing, and the lazy profile,</li>
+ * <li>aot: the jar built with the native profile, on the JVM with the
+ * AOT-generated context,</li>
+ * <li>native: the GraalVM executable built with native:compile.</li>
+ * </ul>
+ * Modes whose artifacts were not built are skipped. Run with
+ * {@code mvn -P native,cds,startup verify};
+ * {@code -Dstartup.runs} sets the number of launches per mode.
+ */
+class ApplicationStartupIT {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private static final Path OUTPUT = Path.of("target", "startup");
+
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", "target/todobackend-0.0.1-SNAPSHOT.jar"));
+
+    private static final Path CDS_JAR = Path.of(System.getProperty("startup.cds-jar",
+            "target/cds/todobackend-0.0.1-SNAPSHOT-cds.jar"));
+
+    private static final Path CDS_ARCHIVE = CDS_JAR.resolveSibling("todobackend.jsa");
+
+    private static final Path NATIVE_EXECUTABLE = Path.of("target", "todobackend");
+
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"jvm", "lazy", "cds-lazy", "aot", "native"})
+    void should_serve_the_first_request(String mode) throws Exception {
+        Files.createDirectories(OUTPUT);
+        if (mode.equals("cds-lazy") && Files.exists(CDS_JAR) && !Files.exists(CDS_ARCHIVE)) {
+            // The archive is dumped when the training run exits.
+            launch(mode + "-training", List.of(JAVA, "-XX:ArchiveClassesAtExit=" + CDS_ARCHIVE, "-jar",
+                    CDS_JAR.toString(), "--spring.profiles.active=lazy"));
+        }
+        final List<String> command = command(mode);
+        final List<Long> runsMillis = new ArrayList<>(RUNS);
+        for (int i = 0; i < RUNS; i++) {
+            runsMillis.add(launch(mode + "-" + i, command));
+        }
+
+        final StartupReport report = StartupReport.of(mode, runsMillis);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(OUTPUT.resolve(mode + ".json").toFile(), report);
+        System.out.printf("%s: first GET /api/todos after %d ms median, %d ms min, %d ms max%n",
+                mode, report.medianMillis(), report.minMillis(), report.maxMillis());
+
+        assertThat(report.minMillis()).isPositive();
+    }
+
+    private List<String> command(String mode) throws IOException {
+        return switch (mode) {
+            case "jvm" -> List.of(JAVA, "-jar", jar().toString());
+            case "lazy" -> List.of(JAVA, "-jar", jar().toString(), "--spring.profiles.active=lazy");
+            case "cds-lazy" -> {
+                assumeTrue(Files.exists(CDS_ARCHIVE), "Package with the cds profile first");
+                yield List.of(JAVA, "-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-jar", CDS_JAR.toString(),
+                        "--spring.profiles.active=lazy");
+            }
+            case "aot" -> {
+                assumeTrue(hasAotContext(jar()), "Package with the native profile first");
+                yield List.of(JAVA, "-Dspring.aot.enabled=true", "-jar", jar().toString());
+            }
+            case "native" -> {
+                assumeTrue(Files.isExecutable(NATIVE_EXECUTABLE), "Build with mvn -P native native:compile first");
+                yield List.of(NATIVE_EXECUTABLE.toString());
+            }
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    private static Path jar() {
+        assumeTrue(Files.exists(JAR), "Package the application first");
+        return JAR;
+    }
+
+    private static boolean hasAotContext(Path jar) throws IOException {
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            return zipFile.getEntry(
+                    "BOOT-INF/classes/com/carbon/todobackend/TodobackendApplication__ApplicationContextInitializer.class")
+                    != null;
+        }
+    }
+
+    /**
+     * Start the application, wait for its first successful GET /api/todos, then stop it.
+     *
+     * @return the milliseconds from the launch to the first success
+     */
+    private long launch(String name, List<String> command) throws Exception {
+        final int port = freePort();
+        final List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        final long start = System.nanoTime();
+        final Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(OUTPUT.resolve(name + ".log").toFile())
+                .start();
+        try {
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos"))
+                    .GET()
+                    .build();
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                assertThat(process.isAlive()).as("%s exited, see %s.log", name, name).isTrue();
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError(name + " did not serve GET /api/todos within " + TIMEOUT);
+        } finally {
+            // A graceful exit, which also writes the CDS archive of a training run.
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.carbon.todobackend.it.startup;
+
+import java.util.List;
+
+/**
+ * Startup times of one mode, from the process launch to the first successful
+ * GET /api/todos, written as JSON under target/startup.
+ */
+record StartupReport(
+        String mode,
+        List<Long> runsMillis,
+        long minMillis,
+        long medianMillis,
+        long maxMillis) {
+
+    static StartupReport of(String mode, List<Long> runsMillis) {
+        final List<Long> sorted = runsMillis.stream().sorted().toList();
+        return new StartupReport(mode, runsMillis, sorted.get(0), sorted.get(sorted.size() / 2),
+                sorted.get(sorted.size() - 1));
+    }
+}
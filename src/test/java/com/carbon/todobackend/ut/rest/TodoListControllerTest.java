@@ -0,0 +1,153 @@
+package com.carbon.todobackend.ut.rest;
+
+import com.carbon.todobackend.domain.dto.CreateTodoListRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoList;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotFoundException;
+import com.carbon.todobackend.exception.TodoListBusyException;
+import com.carbon.todobackend.rest.TodoListController;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import com.carbon.todobackend.service.TodoListService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TodoListController.class)
+@Import(TodoLinkFactory.class)
+class TodoListControllerTest {
+
+    @MockBean
+    private TodoListService todoListService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID listId = UUID.randomUUID();
+
+    @Test
+    void should_respond_201_with_the_location_of_the_created_list() throws Exception {
+        var todoList = new TodoList(listId, "groceries");
+        when(todoListService.createList(new CreateTodoListRequest("groceries"))).thenReturn(todoList);
+
+        mockMvc.perform(post("/api/lists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoListRequest("groceries"))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/lists/" + listId))
+                .andExpect(content().json(objectMapper.writeValueAsString(todoList)));
+    }
+
+    @Test
+    void should_respond_404_when_list_does_not_exist() throws Exception {
+        when(todoListService.findList(listId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/lists/{listId}", listId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void should_respond_201_with_the_location_of_the_todo_in_the_list() throws Exception {
+        var todo = new Todo(UUID.randomUUID(), "milk", false, null, 0L);
+        when(todoListService.save(listId, new CreateTodoRequest("milk"))).thenReturn(todo);
+
+        mockMvc.perform(post("/api/lists/{listId}/todos", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoRequest("milk"))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION,
+                        "http://localhost/api/lists/" + listId + "/todos/" + todo.id()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    void should_respond_409_when_title_already_exist_in_the_list() throws Exception {
+        when(todoListService.save(eq(listId), any())).thenThrow(new AlreadyExistException("Title for the same value already exist"));
+
+        mockMvc.perform(post("/api/lists/{listId}/todos", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoRequest("milk"))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void should_respond_503_when_other_writes_of_the_list_are_still_in_progress() throws Exception {
+        when(todoListService.save(eq(listId), any())).thenThrow(new TodoListBusyException("busy"));
+
+        mockMvc.perform(post("/api/lists/{listId}/todos", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoRequest("milk"))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void should_respond_404_when_creating_todo_in_missing_list() throws Exception {
+        when(todoListService.save(eq(listId), any())).thenThrow(new NotFoundException("Todo list does not exist"));
+
+        mockMvc.perform(post("/api/lists/{listId}/todos", listId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoRequest("milk"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void should_pass_the_if_match_version_when_updating_todo_of_the_list() throws Exception {
+        var todo = new Todo(UUID.randomUUID(), "milk", true, 1, 4L);
+        when(todoListService.update(listId, new UpdateTodoRequest("milk", true, 1), todo.id(), 3L)).thenReturn(todo);
+
+        mockMvc.perform(put("/api/lists/{listId}/todos/{id}", listId, todo.id())
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateTodoRequest("milk", true, 1))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void should_respond_page_of_the_list_with_links_under_the_list() throws Exception {
+        var todo = new Todo(UUID.randomUUID(), "milk", false, 1);
+        when(todoListService.findPage(eq(listId), eq(100), isNull())).thenReturn(new CursorPage<>(List.of(todo), "next"));
+        var todoView = new TodoView(todo.id(), "milk", false, 1,
+                "http://localhost/api/lists/" + listId + "/todos/" + todo.id());
+
+        mockMvc.perform(get("/api/lists/{listId}/todos", listId))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(new CursorPage<>(List.of(todoView), "next"))));
+    }
+
+    @Test
+    void should_respond_204_when_todo_of_the_list_is_deleted() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mockMvc.perform(delete("/api/lists/{listId}/todos/{id}", listId, id))
+                .andExpect(status().isNoContent());
+        verify(todoListService).deleteById(listId, id);
+    }
+}
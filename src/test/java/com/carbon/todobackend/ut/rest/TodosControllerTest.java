@@ -1,41 +1,86 @@
 package com.carbon.todobackend.ut.rest;
 
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
 import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.MoveTodoRequest;
 import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoChange;
+import com.carbon.todobackend.domain.dto.TodoChangeType;
+import com.carbon.todobackend.domain.dto.TodoChangeView;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoField;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSort;
+import com.carbon.todobackend.domain.dto.TodoSummary;
 import com.carbon.todobackend.domain.dto.TodoView;
 import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.exception.InvalidQueryException;
+import com.carbon.todobackend.exception.MoveInProgressException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
 import com.carbon.todobackend.rest.TodoController;
+import com.carbon.todobackend.rest.codec.TodoPayloadFormat;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
 import com.carbon.todobackend.service.TodoService;
+import com.carbon.todobackend.service.cache.TodoResponseCache;
+import com.carbon.todobackend.service.event.TodoChangeFeed;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TodoController.class)
+@Import({TodoLinkFactory.class, TodoResponseCache.class})
 class TodosControllerTest {
 
     @MockBean
     private TodoService todoService;
 
+    @MockBean
+    private TodoChangeFeed todoChangeFeed;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
     @Test
     void should_respond_200_when_todo_is_successfully_retrieved() throws Exception {
         UUID uuid = UUID.randomUUID();
@@ -63,6 +108,49 @@ class TodosControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void should_respond_304_when_todo_did_not_change() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        when(todoService.findById(any(UUID.class))).thenReturn(Optional.of(new Todo(uuid, "coucou", false, 1, 2L)));
+
+        mockMvc.perform(
+                        get("/api/todos/{id}", uuid.toString())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void should_stream_the_changes_as_server_sent_events() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "coucou", false, 1);
+        when(todoChangeFeed.changesAfter(anyString())).thenReturn(Flux.just(
+                new TodoChange(43, TodoChangeType.UPDATED, uuid, todo),
+                new TodoChange(44, TodoChangeType.DELETED, uuid, null)));
+        when(todoChangeFeed.eventId(any(TodoChange.class)))
+                .thenAnswer(invocation -> "epoch:" + invocation.<TodoChange>getArgument(0).sequence());
+
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/api/todos/changes")
+                                .header("Last-Event-ID", "epoch:42")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(
+                        "id:epoch:43\nevent:updated\ndata:" + objectMapper.writeValueAsString(new TodoChangeView(TodoChangeType.UPDATED, uuid,
+                                new TodoView(uuid, "coucou", false, 1, "http://localhost/api/todos/" + uuid))) + "\n\n"
+                        + "id:epoch:44\nevent:deleted\ndata:" + objectMapper.writeValueAsString(new TodoChangeView(TodoChangeType.DELETED, uuid, null)) + "\n\n"));
+
+        verify(todoChangeFeed).changesAfter("epoch:42");
+        verifyNoInteractions(todoService);
+    }
+
     @Test
     void should_respond_201_when_todo_is_successfully_saved() throws Exception {
         UUID uuid = UUID.randomUUID();
@@ -76,6 +164,7 @@ class TodosControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(createTodoRequest)))
                 .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/todos/" + uuid))
                 .andExpect(content().json(objectMapper.writeValueAsString(todo), true));
 
         verify(todoService).save(createTodoRequest);
@@ -94,6 +183,17 @@ class TodosControllerTest {
         verifyNoMoreInteractions(todoService);
     }
 
+    @Test
+    void should_respond_204_when_completed_todos_are_successfully_deleted() throws Exception {
+        when(todoService.deleteCompleted()).thenReturn(2);
+
+        mockMvc.perform(delete("/api/todos/completed"))
+                .andExpect(status().isNoContent());
+
+        verify(todoService).deleteCompleted();
+        verifyNoMoreInteractions(todoService);
+    }
+
     @Test
     void should_respond_204_when_todo_is_successfully_deleted() throws Exception {
         UUID uuid = UUID.randomUUID();
@@ -114,7 +214,7 @@ class TodosControllerTest {
         var updatedTodo = new UpdateTodoRequest("test", true, 1);
         UUID uuid = UUID.randomUUID();
         var todo = new Todo(uuid, "coucou", false, 1);
-        when(todoService.update(any(UpdateTodoRequest.class), any(UUID.class))).thenReturn(todo);
+        when(todoService.update(any(UpdateTodoRequest.class), any(UUID.class), isNull())).thenReturn(todo);
 
         mockMvc.perform(
                         put("/api/todos/{id}", uuid.toString())
@@ -124,25 +224,476 @@ class TodosControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(todo), true));
 
-        verify(todoService).update(updatedTodo, uuid);
+        verify(todoService).update(updatedTodo, uuid, null);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_update_only_the_if_match_version() throws Exception {
+        var updatedTodo = new UpdateTodoRequest("test", true, 1);
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "test", true, 1, 4L);
+        when(todoService.update(any(UpdateTodoRequest.class), any(UUID.class), anyLong())).thenReturn(todo);
+
+        mockMvc.perform(
+                        put("/api/todos/{id}", uuid.toString())
+                                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(updatedTodo)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(todoService).update(updatedTodo, uuid, 3L);
         verifyNoMoreInteractions(todoService);
     }
 
+    @Test
+    void should_respond_412_when_todo_is_no_longer_at_the_if_match_version() throws Exception {
+        when(todoService.update(any(UpdateTodoRequest.class), any(UUID.class), anyLong()))
+                .thenThrow(new TodoVersionMismatchException("Todo is no longer at version 3"));
+
+        mockMvc.perform(
+                        put("/api/todos/{id}", UUID.randomUUID().toString())
+                                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new UpdateTodoRequest("test", true, 1))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void should_respond_412_when_if_match_is_a_weak_etag() throws Exception {
+        mockMvc.perform(
+                        put("/api/todos/{id}", UUID.randomUUID().toString())
+                                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new UpdateTodoRequest("test", true, 1))))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_when_todo_is_successfully_patched() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "coucou", true, 1, 4L);
+        when(todoService.patch(any(TodoPatch.class), any(UUID.class), anyLong())).thenReturn(todo);
+
+        mockMvc.perform(
+                        patch("/api/todos/{id}", uuid.toString())
+                                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                                .contentType("application/merge-patch+json")
+                                .content("{\"completed\":true,\"order\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().json(objectMapper.writeValueAsString(todo), true));
+
+        verify(todoService).patch(
+                new TodoPatch(EnumSet.of(TodoField.COMPLETED, TodoField.ORDER), null, true, null), uuid, 3L);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_400_when_a_patched_field_has_the_wrong_type() throws Exception {
+        mockMvc.perform(
+                        patch("/api/todos/{id}", UUID.randomUUID().toString())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"completed\":\"yes\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_when_todo_is_successfully_moved() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        UUID after = UUID.randomUUID();
+        var todo = new Todo(uuid, "coucou", false, 1536, 4L);
+        when(todoService.move(any(UUID.class), any(UUID.class))).thenReturn(todo);
+
+        mockMvc.perform(
+                        post("/api/todos/{id}/move", uuid.toString())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new MoveTodoRequest(after))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().json(objectMapper.writeValueAsString(todo), true));
+
+        verify(todoService).move(uuid, after);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_503_when_other_moves_are_still_in_progress() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        when(todoService.move(any(UUID.class), any())).thenThrow(new MoveInProgressException("busy"));
+
+        mockMvc.perform(
+                        post("/api/todos/{id}/move", uuid.toString())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new MoveTodoRequest(null))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
     @Test
     void should_respond_200_when_todos_are_successfully_retrieved() throws Exception {
         UUID uuid = UUID.randomUUID();
-        var todoView = new TodoView(uuid, "title", false, 1, "http://localhost/api/todos");
+        var todoView = new TodoView(uuid, "title", false, 1, "http://localhost/api/todos/" + uuid);
         var todo = new Todo(uuid, "title", false, 1);
-        when(todoService.findAll()).thenReturn(List.of(todo));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Todo>>getArgument(0).accept(todo);
+            return null;
+        }).when(todoService).streamAll(any());
+        when(todoService.collectionVersion()).thenReturn("v1");
 
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/api/todos")
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(todoView)), true));
 
-        verify(todoService).findAll();
+        verify(todoService).collectionVersion();
+        verify(todoService).streamAll(any());
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_send_the_etag_of_all_todos_only_once() throws Exception {
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/api/todos")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "W/\"v1\""));
+    }
+
+    @Test
+    void should_copy_the_encoded_todos_while_the_collection_did_not_change() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todoView = new TodoView(uuid, "title", false, 1, "http://localhost/api/todos/" + uuid);
+        var todo = new Todo(uuid, "title", false, 1, 0L);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Todo>>getArgument(0).accept(todo);
+            return null;
+        }).when(todoService).streamAll(any());
+        when(todoService.collectionVersion()).thenReturn("v1", "v1", "v2");
+
+        for (int i = 0; i < 3; i++) {
+            MvcResult mvcResult = mockMvc.perform(
+                            get("/api/todos")
+                                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().json(objectMapper.writeValueAsString(List.of(todoView)), true));
+        }
+
+        verify(todoService, times(3)).collectionVersion();
+        verify(todoService, times(2)).streamAll(any());
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_stream_the_todos_in_cbor_when_accepted() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todoView = new TodoView(uuid, "title", false, 1, "http://localhost/api/todos/" + uuid);
+        var todo = new Todo(uuid, "title", false, 1);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Todo>>getArgument(0).accept(todo);
+            return null;
+        }).when(todoService).streamAll(any());
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/api/todos")
+                                .accept(TodoPayloadFormat.CBOR.mediaType()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TodoPayloadFormat.CBOR.mediaType()))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cborMapper.readValue(body, TodoView[].class)).containsExactly(todoView);
+    }
+
+    @Test
+    void should_read_and_write_a_todo_in_cbor() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "coucou", false, 1);
+        var createTodoRequest = new CreateTodoRequest("coucou");
+        when(todoService.save(any(CreateTodoRequest.class))).thenReturn(todo);
+
+        byte[] body = mockMvc.perform(
+                        post("/api/todos")
+                                .accept(TodoPayloadFormat.CBOR.mediaType())
+                                .contentType(TodoPayloadFormat.CBOR.mediaType())
+                                .content(cborMapper.writeValueAsBytes(createTodoRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(TodoPayloadFormat.CBOR.mediaType()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cborMapper.readValue(body, Todo.class)).isEqualTo(todo);
+        verify(todoService).save(createTodoRequest);
+    }
+
+    @Test
+    void should_respond_304_when_todos_did_not_change() throws Exception {
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        mockMvc.perform(
+                        get("/api/todos")
+                                .header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\"")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(todoService).collectionVersion();
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_stream_the_requested_fields_of_the_todos_matching_the_query() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "buy milk", null, null);
+        var query = new TodoQuery(false, "buy", null, 1, null,
+                List.of(new TodoSort(TodoField.TITLE, true)), EnumSet.of(TodoField.ID, TodoField.TITLE));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Todo>>getArgument(1).accept(todo);
+            return null;
+        }).when(todoService).streamAll(eq(query), any());
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/api/todos")
+                                .param("completed", "false")
+                                .param("titlePrefix", "buy")
+                                .param("minOrder", "1")
+                                .param("sort", "-title")
+                                .param("fields", "title,url")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"title\":\"buy milk\",\"url\":\"http://localhost/api/todos/" + uuid + "\"}]", true));
+
+        verify(todoService).collectionVersion();
+        verify(todoService).streamAll(eq(query), any());
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_400_when_a_field_is_unknown() throws Exception {
+        mockMvc.perform(
+                        get("/api/todos")
+                                .param("fields", "title,owner")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_with_a_page_of_the_todos_matching_the_query() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "title", true, 1);
+        var query = new TodoQuery(true, null, "it", null, null, List.of(), EnumSet.of(TodoField.ID));
+        when(todoService.findPage(anyInt(), isNull(), eq(query))).thenReturn(new CursorPage<>(List.of(todo), null));
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        mockMvc.perform(
+                        get("/api/todos")
+                                .param("limit", "10")
+                                .param("completed", "true")
+                                .param("titleContains", "it")
+                                .param("fields", "id")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"items\":[{\"id\":\"" + uuid + "\"}],\"next\":null}", true));
+
+        verify(todoService).collectionVersion();
+        verify(todoService).findPage(10, null, query);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_with_the_summary_of_the_todos() throws Exception {
+        var summary = new TodoSummary(3, 2, 1);
+        when(todoService.summarize()).thenReturn(summary);
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        mockMvc.perform(
+                        get("/api/todos/summary")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
+                .andExpect(content().json("{\"total\":3,\"active\":2,\"completed\":1}", true));
+
+        verify(todoService).collectionVersion();
+        verify(todoService).summarize();
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_304_when_the_summary_did_not_change() throws Exception {
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        mockMvc.perform(
+                        get("/api/todos/summary")
+                                .header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(todoService).collectionVersion();
         verifyNoMoreInteractions(todoService);
     }
+
+    @Test
+    void should_respond_200_when_a_page_of_todos_is_successfully_retrieved() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todoView = new TodoView(uuid, "title", false, 1, "http://localhost/api/todos/" + uuid);
+        var todo = new Todo(uuid, "title", false, 1);
+        when(todoService.findPage(anyInt(), isNull())).thenReturn(new CursorPage<>(List.of(todo), "next"));
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        mockMvc.perform(
+                        get("/api/todos")
+                                .param("limit", "1")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
+                .andExpect(content().json(objectMapper.writeValueAsString(new CursorPage<>(List.of(todoView), "next")), true));
+
+        verify(todoService).collectionVersion();
+        verify(todoService).findPage(1, null);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_with_the_ranked_todos_matching_a_search() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todoView = new TodoView(uuid, "Buy milk", false, 1, "http://localhost/api/todos/" + uuid);
+        var todo = new Todo(uuid, "Buy milk", false, 1);
+        when(todoService.search("milk", 5, null)).thenReturn(new CursorPage<>(List.of(todo), "next"));
+        when(todoService.collectionVersion()).thenReturn("v1");
+
+        mockMvc.perform(
+                        get("/api/todos/search")
+                                .param("q", "milk")
+                                .param("limit", "5")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
+                .andExpect(content().json(objectMapper.writeValueAsString(new CursorPage<>(List.of(todoView), "next")), true));
+    }
+
+    @Test
+    void should_respond_400_when_search_query_is_blank() throws Exception {
+        when(todoService.search(any(), anyInt(), any())).thenThrow(new InvalidQueryException("The search query must not be blank"));
+
+        mockMvc.perform(
+                        get("/api/todos/search")
+                                .param("q", " ")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_respond_400_when_cursor_is_malformed() throws Exception {
+        when(todoService.findPage(anyInt(), any())).thenThrow(new InvalidCursorException("Malformed cursor"));
+
+        mockMvc.perform(
+                        get("/api/todos")
+                                .param("limit", "10")
+                                .param("after", "garbage")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_respond_200_with_a_result_per_created_todo() throws Exception {
+        var todo = new Todo(UUID.randomUUID(), "coucou", false, null);
+        var createTodoRequests = List.of(new CreateTodoRequest("coucou"), new CreateTodoRequest("coucou"));
+        var results = List.of(
+                TodoBatchResult.of(BatchOutcome.CREATED, todo),
+                new TodoBatchResult(BatchOutcome.CONFLICT, null, null));
+        when(todoService.saveAll(anyList())).thenReturn(results);
+
+        mockMvc.perform(
+                        post("/api/todos/batch")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(createTodoRequests)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results), true));
+
+        verify(todoService).saveAll(createTodoRequests);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_with_a_result_per_updated_todo() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "coucou", true, null);
+        var batchUpdateTodoRequests = List.of(new BatchUpdateTodoRequest(uuid, null, true, null));
+        var results = List.of(TodoBatchResult.of(BatchOutcome.UPDATED, todo));
+        when(todoService.updateAll(anyList())).thenReturn(results);
+
+        mockMvc.perform(
+                        patch("/api/todos/batch")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batchUpdateTodoRequests)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results), true));
+
+        verify(todoService).updateAll(batchUpdateTodoRequests);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_200_with_a_result_per_deleted_todo() throws Exception {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        var results = List.of(TodoBatchResult.of(BatchOutcome.DELETED, ids.get(0)));
+        when(todoService.deleteAllById(anyList())).thenReturn(results);
+
+        mockMvc.perform(
+                        delete("/api/todos/batch")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results), true));
+
+        verify(todoService).deleteAllById(ids);
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_413_when_batch_is_too_large() throws Exception {
+        when(todoService.deleteAllById(anyList())).thenThrow(new BatchTooLargeException("Too many todos"));
+
+        mockMvc.perform(
+                        delete("/api/todos/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                .andExpect(status().isPayloadTooLarge());
+    }
 }
@@ -0,0 +1,30 @@
+package com.carbon.todobackend.ut.rest.codec;
+
+import com.carbon.todobackend.rest.codec.TodoPayloadFormat;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoPayloadFormatTest {
+
+    @Test
+    void should_negotiate_json_by_default() {
+        assertThat(TodoPayloadFormat.negotiate(null)).isEqualTo(TodoPayloadFormat.JSON);
+        assertThat(TodoPayloadFormat.negotiate("*/*")).isEqualTo(TodoPayloadFormat.JSON);
+        assertThat(TodoPayloadFormat.negotiate("application/*")).isEqualTo(TodoPayloadFormat.JSON);
+        assertThat(TodoPayloadFormat.negotiate("text/html")).isEqualTo(TodoPayloadFormat.JSON);
+        assertThat(TodoPayloadFormat.negotiate("not a media type")).isEqualTo(TodoPayloadFormat.JSON);
+    }
+
+    @Test
+    void should_negotiate_a_named_binary_format() {
+        assertThat(TodoPayloadFormat.negotiate("application/cbor")).isEqualTo(TodoPayloadFormat.CBOR);
+        assertThat(TodoPayloadFormat.negotiate("application/x-jackson-smile, */*;q=0.8")).isEqualTo(TodoPayloadFormat.SMILE);
+    }
+
+    @Test
+    void should_negotiate_the_preferred_format() {
+        assertThat(TodoPayloadFormat.negotiate("application/cbor;q=0.5, application/json")).isEqualTo(TodoPayloadFormat.JSON);
+        assertThat(TodoPayloadFormat.negotiate("application/json;q=0.9, application/cbor")).isEqualTo(TodoPayloadFormat.CBOR);
+    }
+}
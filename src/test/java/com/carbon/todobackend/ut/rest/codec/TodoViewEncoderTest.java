@@ -0,0 +1,69 @@
+package com.carbon.todobackend.ut.rest.codec;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.rest.codec.EncodedTodoWriter;
+import com.carbon.todobackend.rest.codec.TodoPayloadFormat;
+import com.carbon.todobackend.rest.codec.TodoViewEncoder;
+import com.carbon.todobackend.rest.link.TodoLinks;
+import com.carbon.todobackend.service.cache.EncodedTodo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoViewEncoderTest {
+
+    private static final ObjectMapper JSON_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @ParameterizedTest
+    @EnumSource(TodoPayloadFormat.class)
+    void should_write_what_the_object_mapper_writes(TodoPayloadFormat format) throws Exception {
+        final UUID id = UUID.randomUUID();
+        final List<TodoView> todoViews = List.of(
+                new TodoView(id, "Buy milk", true, 3, "http://localhost/api/todos/" + id),
+                new TodoView(null, null, null, null, null));
+
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (JsonGenerator generator = format.createGenerator(JSON_MAPPER.getFactory(), encoded)) {
+            generator.writeStartArray();
+            for (TodoView todoView : todoViews) {
+                TodoViewEncoder.write(generator, todoView);
+            }
+            generator.writeEndArray();
+        }
+
+        final ObjectMapper objectMapper = mapperOf(format);
+        assertThat(objectMapper.readTree(encoded.toByteArray())).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(todoViews)));
+        assertThat(objectMapper.readValue(encoded.toByteArray(), TodoView[].class)).containsExactlyElementsOf(todoViews);
+    }
+
+    private static ObjectMapper mapperOf(TodoPayloadFormat format) {
+        return switch (format) {
+            case JSON -> JSON_MAPPER;
+            case CBOR -> Jackson2ObjectMapperBuilder.cbor().build();
+            case SMILE -> Jackson2ObjectMapperBuilder.smile().build();
+        };
+    }
+
+    @Test
+    void should_encode_a_todo_around_the_base_url_of_its_link() throws Exception {
+        final UUID id = UUID.randomUUID();
+        final TodoLinks links = TodoLinks.of("http://localhost/api/todos");
+
+        final EncodedTodo encodedTodo = TodoViewEncoder.encode(JSON_MAPPER.getFactory(), new Todo(id, "Buy \"milk\"", null, 3, 7L));
+
+        assertThat(encodedTodo.version()).isEqualTo(7);
+        assertThat(new String(EncodedTodoWriter.toBytes(encodedTodo, links), StandardCharsets.UTF_8))
+                .isEqualTo(JSON_MAPPER.writeValueAsString(new TodoView(id, "Buy \"milk\"", null, 3, links.todo(id))));
+    }
+}
@@ -0,0 +1,95 @@
+package com.carbon.todobackend.ut.rest.limit;
+
+import com.carbon.todobackend.rest.limit.ConcurrencyLimitFilter;
+import com.carbon.todobackend.rest.limit.GradientConcurrencyLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final GradientConcurrencyLimit readLimit = new GradientConcurrencyLimit(1, 1, 10);
+
+    private final GradientConcurrencyLimit writeLimit = new GradientConcurrencyLimit(1, 1, 10);
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimit, writeLimit,
+            Set.of("/api/todos/changes"), Duration.ofSeconds(2));
+
+    @Test
+    void should_shed_requests_over_the_limit_with_retry_after() throws Exception {
+        final MockHttpServletResponse shed = new MockHttpServletResponse();
+        final MockHttpServletResponse write = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/api/todos"), new MockHttpServletResponse(), (request, response) -> {
+            filter.doFilter(request("GET", "/api/todos/summary"), shed, new MockFilterChain());
+            filter.doFilter(request("POST", "/api/todos"), write, new MockFilterChain());
+        });
+
+        assertThat(shed.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(write.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(readLimit.inflight()).isZero();
+        assertThat(readLimit.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void should_hold_the_permit_of_an_asynchronous_request_until_it_completes() throws Exception {
+        final MockHttpServletRequest asyncRequest = request("GET", "/api/todos");
+        asyncRequest.setAsyncSupported(true);
+
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertThat(readLimit.inflight()).isEqualTo(1);
+
+        ((MockAsyncContext) asyncRequest.getAsyncContext()).complete();
+
+        assertThat(readLimit.inflight()).isZero();
+    }
+
+    @Test
+    void should_not_limit_the_change_feed() throws Exception {
+        final MockHttpServletResponse feed = new MockHttpServletResponse();
+
+        filter.doFilter(request("GET", "/api/todos"), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(request("GET", "/api/todos/changes"), feed, new MockFilterChain()));
+
+        assertThat(feed.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(readLimit.rejected()).isZero();
+    }
+
+    @Test
+    void should_back_off_when_a_request_fails() throws Exception {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 100);
+        final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit, writeLimit, Set.of(), Duration.ofSeconds(1));
+
+        filter.doFilter(request("GET", "/api/todos"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+
+        assertThat(limit.limit()).isEqualTo(18);
+    }
+
+    @Test
+    void should_publish_the_limits() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        filter.bindTo(registry);
+
+        assertThat(registry.get("todo.concurrency.limit").tag("kind", "read").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("todo.concurrency.inflight").tag("kind", "write").gauge().value()).isZero();
+        assertThat(registry.get("todo.concurrency.rejected").tag("kind", "read").functionCounter().count()).isZero();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
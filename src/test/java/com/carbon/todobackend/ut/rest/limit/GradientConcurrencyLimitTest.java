@@ -0,0 +1,102 @@
+package com.carbon.todobackend.ut.rest.limit;
+
+import com.carbon.todobackend.rest.limit.GradientConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void should_reject_requests_over_the_limit() {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, clock::get);
+
+        final GradientConcurrencyLimit.Permit first = limit.tryAcquire();
+        final GradientConcurrencyLimit.Permit second = limit.tryAcquire();
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limit.tryAcquire()).isNull();
+        assertThat(limit.rejected()).isEqualTo(1);
+        assertThat(limit.inflight()).isEqualTo(2);
+
+        first.release(false);
+        first.release(false);
+
+        assertThat(limit.inflight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void should_raise_the_limit_while_the_latency_holds() {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 1, 100, clock::get);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limit, 10);
+        }
+
+        assertThat(limit.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void should_lower_the_limit_when_the_latency_rises() {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 1, 100, clock::get);
+        for (int i = 0; i < 5; i++) {
+            saturate(limit, 10);
+        }
+        final int steadyLimit = limit.limit();
+
+        for (int i = 0; i < 5; i++) {
+            saturate(limit, 100);
+        }
+
+        assertThat(limit.limit()).isLessThan(steadyLimit / 2);
+    }
+
+    @Test
+    void should_not_learn_from_a_limit_it_does_not_use() {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 1, 100, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            final GradientConcurrencyLimit.Permit permit = limit.tryAcquire();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+            permit.release(false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(50);
+    }
+
+    @Test
+    void should_back_off_on_failures_down_to_the_minimum() {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 100, clock::get);
+
+        limit.tryAcquire().release(true);
+
+        assertThat(limit.limit()).isEqualTo(18);
+
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire().release(true);
+        }
+
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    /**
+     * Let as many requests through as the limit allows, all completing after that latency.
+     */
+    private void saturate(GradientConcurrencyLimit limit, long latencyMillis) {
+        final List<GradientConcurrencyLimit.Permit> permits = new ArrayList<>();
+        for (GradientConcurrencyLimit.Permit permit = limit.tryAcquire(); permit != null; permit = limit.tryAcquire()) {
+            permits.add(permit);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        permits.forEach(permit -> permit.release(false));
+    }
+}
@@ -0,0 +1,166 @@
+package com.carbon.todobackend.ut.rest.reactive;
+
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.domain.dto.TodoView;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.rest.link.TodoLinkFactory;
+import com.carbon.todobackend.rest.reactive.TodoHandler;
+import com.carbon.todobackend.rest.reactive.TodoRouter;
+import com.carbon.todobackend.service.ReactiveTodoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TodoRouterTest {
+
+    private ReactiveTodoService todoService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        todoService = mock(ReactiveTodoService.class);
+        webTestClient = WebTestClient
+                .bindToRouterFunction(new TodoRouter().todoRoutes(new TodoHandler(todoService, new TodoLinkFactory())))
+                .build();
+    }
+
+    @Test
+    void should_respond_200_when_todo_is_successfully_retrieved() {
+        UUID uuid = UUID.randomUUID();
+        when(todoService.findById(uuid)).thenReturn(Mono.just(new Todo(uuid, "coucou", false, 1)));
+
+        webTestClient.get().uri("/api/todos/{id}", uuid)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TodoView.class)
+                .isEqualTo(new TodoView(uuid, "coucou", false, 1, "/api/todos/" + uuid));
+    }
+
+    @Test
+    void should_respond_200_with_the_summary_of_the_todos() {
+        when(todoService.summarize()).thenReturn(Mono.just(new TodoSummary(3, 2, 1)));
+
+        webTestClient.get().uri("/api/todos/summary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TodoSummary.class)
+                .isEqualTo(new TodoSummary(3, 2, 1));
+        verify(todoService, never()).findById(any());
+    }
+
+    @Test
+    void should_respond_404_when_todo_is_not_found() {
+        when(todoService.findById(any(UUID.class))).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/todos/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void should_respond_400_when_id_is_malformed() {
+        webTestClient.get().uri("/api/todos/{id}", "coucou")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void should_respond_201_when_todo_is_successfully_saved() {
+        UUID uuid = UUID.randomUUID();
+        var todo = new Todo(uuid, "coucou", false, 1);
+        when(todoService.save(any(CreateTodoRequest.class))).thenReturn(Mono.just(todo));
+
+        webTestClient.post().uri("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateTodoRequest("coucou"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location("/api/todos/" + uuid)
+                .expectBody(Todo.class).isEqualTo(todo);
+    }
+
+    @Test
+    void should_respond_409_when_title_already_exist() {
+        when(todoService.save(any(CreateTodoRequest.class)))
+                .thenReturn(Mono.error(new AlreadyExistException("Title for the same value already exist")));
+
+        webTestClient.post().uri("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateTodoRequest("coucou"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void should_respond_200_with_every_todo() {
+        UUID uuid = UUID.randomUUID();
+        when(todoService.findAll()).thenReturn(Flux.just(new Todo(uuid, "coucou", false, 1)));
+
+        webTestClient.get().uri("/api/todos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TodoView.class)
+                .isEqualTo(List.of(new TodoView(uuid, "coucou", false, 1, "/api/todos/" + uuid)));
+    }
+
+    @Test
+    void should_respond_200_with_a_page_of_todos() {
+        UUID uuid = UUID.randomUUID();
+        when(todoService.findPage(1, null))
+                .thenReturn(Mono.just(new CursorPage<>(List.of(new Todo(uuid, "coucou", false, 1)), "next")));
+
+        webTestClient.get().uri("/api/todos?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(uuid.toString())
+                .jsonPath("$.next").isEqualTo("next");
+    }
+
+    @Test
+    void should_respond_400_when_cursor_is_invalid() {
+        when(todoService.findPage(10, "coucou")).thenReturn(Mono.error(new InvalidCursorException("Invalid cursor")));
+
+        webTestClient.get().uri("/api/todos?limit=10&after=coucou")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void should_respond_413_when_batch_is_too_large() {
+        when(todoService.saveAll(anyList())).thenReturn(Flux.error(new BatchTooLargeException("A batch holds at most 1000 todos")));
+
+        webTestClient.post().uri("/api/todos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new CreateTodoRequest("coucou")))
+                .exchange()
+                .expectStatus().isEqualTo(413);
+    }
+
+    @Test
+    void should_respond_204_when_todos_are_deleted() {
+        when(todoService.deleteAll()).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/api/todos")
+                .exchange()
+                .expectStatus().isNoContent();
+        verify(todoService).deleteAll();
+    }
+}
@@ -0,0 +1,171 @@
+package com.carbon.todobackend.ut.service;
+
+import com.carbon.todobackend.dao.reactive.ReactiveTodoRepository;
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.domain.entities.ReactiveTodoEntity;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.impl.ReactiveTodoRepositoryBaseService;
+import com.carbon.todobackend.service.mapper.CreateTodoRequestMapper;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import com.carbon.todobackend.service.mapper.UpdateTodoRequestMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTodoServiceTest {
+
+	@Mock
+	private TodoMapper todoMapper;
+
+	@Mock
+	private CreateTodoRequestMapper createTodoRequestMapper;
+
+	@Mock
+	private UpdateTodoRequestMapper updateTodoRequestMapper;
+
+	@Mock
+	private ReactiveTodoRepository todoRepository;
+
+	@Mock
+	private R2dbcEntityTemplate r2dbcEntityTemplate;
+
+	@Mock
+	private TransactionalOperator transactionalOperator;
+
+	@InjectMocks
+	private ReactiveTodoRepositoryBaseService todoService;
+
+	@BeforeEach
+	void setUp() {
+		lenient().when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+		lenient().when(transactionalOperator.transactional(ArgumentMatchers.<Flux<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void should_save_todo_with_an_assigned_id() {
+		final ReactiveTodoEntity todoEntity = new ReactiveTodoEntity();
+		todoEntity.setTitle("coucou");
+		final var todo = new Todo(UUID.randomUUID(), "coucou", false, null);
+
+		when(todoRepository.existsByTitle("coucou")).thenReturn(Mono.just(false));
+		when(createTodoRequestMapper.toReactiveEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+		when(r2dbcEntityTemplate.insert(todoEntity)).thenReturn(Mono.just(todoEntity));
+		when(todoMapper.toDto(todoEntity)).thenReturn(todo);
+
+		StepVerifier.create(todoService.save(new CreateTodoRequest("coucou")))
+				.expectNext(todo)
+				.verifyComplete();
+		assertThat(todoEntity.getId()).isNotNull();
+	}
+
+	@Test
+	void should_reject_todo_when_title_already_exist_during_creation() {
+		when(todoRepository.existsByTitle("coucou")).thenReturn(Mono.just(true));
+
+		StepVerifier.create(todoService.save(new CreateTodoRequest("coucou")))
+				.verifyError(AlreadyExistException.class);
+		verifyNoInteractions(r2dbcEntityTemplate);
+	}
+
+	@Test
+	void should_map_unique_constraint_violation_to_already_exist() {
+		final ReactiveTodoEntity todoEntity = new ReactiveTodoEntity();
+
+		when(todoRepository.existsByTitle("coucou")).thenReturn(Mono.just(false));
+		when(createTodoRequestMapper.toReactiveEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+		when(r2dbcEntityTemplate.insert(todoEntity)).thenReturn(Mono.error(new DataIntegrityViolationException("unique")));
+
+		StepVerifier.create(todoService.save(new CreateTodoRequest("coucou")))
+				.verifyError(AlreadyExistException.class);
+	}
+
+	@Test
+	void should_reject_update_of_missing_todo() {
+		final UUID id = UUID.randomUUID();
+		when(todoRepository.findById(id)).thenReturn(Mono.empty());
+
+		StepVerifier.create(todoService.update(new UpdateTodoRequest("coucou", false, 1), id))
+				.verifyError(NotExistingTodoException.class);
+	}
+
+	@Test
+	void should_return_a_cursor_when_another_page_follows() {
+		final ReactiveTodoEntity first = entity(1);
+		final ReactiveTodoEntity second = entity(2);
+
+		when(todoRepository.findFirstPage(2)).thenReturn(Flux.just(first, second));
+		when(todoMapper.toDto(first)).thenReturn(new Todo(first.getId(), "1", false, 1));
+
+		StepVerifier.create(todoService.findPage(1, null))
+				.assertNext(page -> {
+					assertThat(page.items()).hasSize(1);
+					assertThat(page.next()).isNotNull();
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void should_reject_invalid_cursor() {
+		StepVerifier.create(todoService.findPage(10, "not a cursor"))
+				.verifyError(InvalidCursorException.class);
+		verifyNoInteractions(todoRepository);
+	}
+
+	@Test
+	void should_reject_too_large_batch() {
+		final List<CreateTodoRequest> createTodoRequests = Collections.nCopies(1001, new CreateTodoRequest("coucou"));
+
+		StepVerifier.create(todoService.saveAll(createTodoRequests))
+				.verifyError(BatchTooLargeException.class);
+		verifyNoInteractions(todoRepository);
+	}
+
+	@Test
+	void should_report_deleted_and_missing_ids() {
+		final UUID existing = UUID.randomUUID();
+		final UUID missing = UUID.randomUUID();
+
+		when(todoRepository.findExistingIds(List.of(existing, missing))).thenReturn(Flux.just(existing));
+		when(todoRepository.deleteAllById(Set.of(existing))).thenReturn(Mono.empty());
+
+		StepVerifier.create(todoService.deleteAllById(List.of(existing, missing)))
+				.expectNext(TodoBatchResult.of(BatchOutcome.DELETED, existing))
+				.expectNext(TodoBatchResult.of(BatchOutcome.NOT_FOUND, missing))
+				.verifyComplete();
+	}
+
+	private static ReactiveTodoEntity entity(int order) {
+		final ReactiveTodoEntity todoEntity = new ReactiveTodoEntity();
+		todoEntity.setId(UUID.randomUUID());
+		todoEntity.setTitle(String.valueOf(order));
+		todoEntity.setOrder(order);
+		return todoEntity;
+	}
+}
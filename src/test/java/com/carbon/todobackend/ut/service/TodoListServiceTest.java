@@ -0,0 +1,241 @@
+package com.carbon.todobackend.ut.service;
+
+import com.carbon.todobackend.dao.ListTodoRepository;
+import com.carbon.todobackend.dao.TodoListRepository;
+import com.carbon.todobackend.domain.dto.CreateTodoListRequest;
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoList;
+import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
+import com.carbon.todobackend.domain.entities.ListTodoEntity;
+import com.carbon.todobackend.domain.entities.TodoListEntity;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.NotFoundException;
+import com.carbon.todobackend.exception.TodoListBusyException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
+import com.carbon.todobackend.service.impl.TodoListRepositoryBaseService;
+import com.carbon.todobackend.service.mapper.TodoListMapper;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoListServiceTest {
+
+	@Mock
+	private TodoListRepository todoListRepository;
+
+	@Mock
+	private ListTodoRepository listTodoRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private TodoListRepositoryBaseService todoListService;
+
+	private final UUID listId = UUID.randomUUID();
+
+	@BeforeEach
+	void setUp() {
+		todoListService = new TodoListRepositoryBaseService(todoListRepository, listTodoRepository,
+				Mappers.getMapper(TodoListMapper.class), Mappers.getMapper(TodoMapper.class), transactionManager, 16, Duration.ofMillis(100));
+	}
+
+	private static ListTodoEntity listTodo(UUID listId, String title, Integer order, Long version) {
+		final ListTodoEntity todoEntity = new ListTodoEntity();
+		todoEntity.setId(UUID.randomUUID());
+		todoEntity.setListId(listId);
+		todoEntity.setTitle(title);
+		todoEntity.setCompleted(false);
+		todoEntity.setOrder(order);
+		todoEntity.setVersion(version);
+		return todoEntity;
+	}
+
+	@Test
+	void should_create_list() {
+		when(todoListRepository.save(any(TodoListEntity.class))).thenAnswer(invocation -> {
+			final TodoListEntity todoListEntity = invocation.getArgument(0);
+			todoListEntity.setId(listId);
+			return todoListEntity;
+		});
+
+		assertThat(todoListService.createList(new CreateTodoListRequest("groceries")))
+				.isEqualTo(new TodoList(listId, "groceries"));
+	}
+
+	@Nested
+	@DisplayName("When Create Todo In List")
+	class WhenCreateTodoInList {
+		@Test
+		void should_save_todo_in_the_list() throws AlreadyExistException {
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.saveAndFlush(any(ListTodoEntity.class))).thenAnswer(invocation -> {
+				final ListTodoEntity todoEntity = invocation.getArgument(0);
+				todoEntity.setId(UUID.randomUUID());
+				todoEntity.setVersion(0L);
+				return todoEntity;
+			});
+
+			final Todo todo = todoListService.save(listId, new CreateTodoRequest("milk"));
+
+			assertThat(todo.title()).isEqualTo("milk");
+			assertThat(todo.completed()).isFalse();
+			assertThat(todo.version()).isZero();
+			verify(listTodoRepository).existsByListIdAndTitle(listId, "milk");
+			verify(listTodoRepository).saveAndFlush(argThat(todoEntity -> listId.equals(todoEntity.getListId())));
+		}
+
+		@Test
+		void should_reject_todo_when_title_already_exist_in_the_list() {
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.existsByListIdAndTitle(listId, "milk")).thenReturn(true);
+
+			assertThrows(AlreadyExistException.class,
+					() -> todoListService.save(listId, new CreateTodoRequest("milk")));
+			verify(listTodoRepository, never()).saveAndFlush(any());
+			verify(transactionManager).rollback(any());
+		}
+
+		@Test
+		void should_reject_todo_when_the_constraint_rejects_the_title() {
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.saveAndFlush(any(ListTodoEntity.class)))
+					.thenThrow(new DataIntegrityViolationException("list_todo_title_uk"));
+
+			assertThrows(AlreadyExistException.class,
+					() -> todoListService.save(listId, new CreateTodoRequest("milk")));
+		}
+
+		@Test
+		void should_give_up_without_a_transaction_when_another_write_of_the_list_holds_the_lock() throws Exception {
+			final CountDownLatch locked = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			when(todoListRepository.existsById(listId)).thenAnswer(invocation -> {
+				locked.countDown();
+				release.await();
+				return true;
+			});
+			when(listTodoRepository.saveAndFlush(any(ListTodoEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+			final CompletableFuture<Todo> first = CompletableFuture.supplyAsync(() -> {
+				try {
+					return todoListService.save(listId, new CreateTodoRequest("milk"));
+				} catch (AlreadyExistException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			locked.await();
+
+			assertThrows(TodoListBusyException.class,
+					() -> todoListService.save(listId, new CreateTodoRequest("eggs")));
+			verify(transactionManager).getTransaction(any());
+
+			release.countDown();
+			first.get();
+		}
+
+		@Test
+		void should_reject_todo_when_the_list_does_not_exist() {
+			assertThrows(NotFoundException.class,
+					() -> todoListService.save(listId, new CreateTodoRequest("milk")));
+			verifyNoInteractions(listTodoRepository);
+		}
+	}
+
+	@Nested
+	@DisplayName("When Update Todo In List")
+	class WhenUpdateTodoInList {
+		@Test
+		void should_update_todo_without_looking_up_an_unchanged_title() throws AlreadyExistException, NotExistingTodoException {
+			final ListTodoEntity todoEntity = listTodo(listId, "milk", 1, 3L);
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.findByListIdAndId(listId, todoEntity.getId())).thenReturn(Optional.of(todoEntity));
+			when(listTodoRepository.saveAndFlush(todoEntity)).thenReturn(todoEntity);
+
+			final Todo todo = todoListService.update(listId, new UpdateTodoRequest("milk", true, 2), todoEntity.getId(), 3L);
+
+			assertThat(todo).isEqualTo(new Todo(todoEntity.getId(), "milk", true, 2, 3L));
+			verify(listTodoRepository, never()).existsByListIdAndTitleAndIdNot(any(), any(), any());
+		}
+
+		@Test
+		void should_reject_title_of_another_todo_of_the_list() {
+			final ListTodoEntity todoEntity = listTodo(listId, "milk", 1, 3L);
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.findByListIdAndId(listId, todoEntity.getId())).thenReturn(Optional.of(todoEntity));
+			when(listTodoRepository.existsByListIdAndTitleAndIdNot(listId, "eggs", todoEntity.getId())).thenReturn(true);
+
+			assertThrows(AlreadyExistException.class,
+					() -> todoListService.update(listId, new UpdateTodoRequest("eggs", false, 1), todoEntity.getId(), null));
+			verify(listTodoRepository, never()).saveAndFlush(any());
+		}
+
+		@Test
+		void should_reject_todo_no_longer_at_the_expected_version() {
+			final ListTodoEntity todoEntity = listTodo(listId, "milk", 1, 3L);
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.findByListIdAndId(listId, todoEntity.getId())).thenReturn(Optional.of(todoEntity));
+
+			assertThrows(TodoVersionMismatchException.class,
+					() -> todoListService.update(listId, new UpdateTodoRequest("milk", true, 1), todoEntity.getId(), 2L));
+		}
+
+		@Test
+		void should_reject_todo_of_another_list() {
+			final UUID id = UUID.randomUUID();
+			when(todoListRepository.existsById(listId)).thenReturn(true);
+			when(listTodoRepository.findByListIdAndId(listId, id)).thenReturn(Optional.empty());
+
+			assertThrows(NotExistingTodoException.class,
+					() -> todoListService.update(listId, new UpdateTodoRequest("milk", true, 1), id, null));
+		}
+	}
+
+	@Test
+	void should_return_page_of_the_list_with_cursor_of_the_next_one() {
+		final List<ListTodoEntity> todoEntities = List.of(
+				listTodo(listId, "a", 1, 0L), listTodo(listId, "b", 2, 0L), listTodo(listId, "c", 3, 0L));
+		when(todoListRepository.existsById(listId)).thenReturn(true);
+		when(listTodoRepository.findFirstPage(eq(listId), any(Pageable.class))).thenReturn(todoEntities);
+
+		final CursorPage<Todo> page = todoListService.findPage(listId, 2, null);
+
+		assertThat(page.items()).extracting(Todo::title).containsExactly("a", "b");
+		assertThat(page.next()).isNotNull();
+		final ListTodoEntity last = todoEntities.get(1);
+		todoListService.findPage(listId, 2, page.next());
+		verify(listTodoRepository).findPageAfter(eq(listId), eq(2), eq(last.getId()), any(Pageable.class));
+	}
+
+	@Test
+	void should_delete_todo_of_the_list_only() {
+		final UUID id = UUID.randomUUID();
+
+		todoListService.deleteById(listId, id);
+
+		verify(listTodoRepository).deleteTodoById(listId, id);
+	}
+}
@@ -1,16 +1,40 @@
 package com.carbon.todobackend.ut.service;
 
+import com.carbon.todobackend.dao.TodoCountsProjection;
+import com.carbon.todobackend.dao.TodoPositionProjection;
 import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.domain.dto.BatchOutcome;
+import com.carbon.todobackend.domain.dto.BatchUpdateTodoRequest;
 import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.CursorPage;
 import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoBatchResult;
+import com.carbon.todobackend.domain.dto.TodoChangeType;
+import com.carbon.todobackend.domain.dto.TodoField;
+import com.carbon.todobackend.domain.dto.TodoPatch;
+import com.carbon.todobackend.domain.dto.TodoQuery;
+import com.carbon.todobackend.domain.dto.TodoSort;
+import com.carbon.todobackend.domain.dto.TodoSummary;
 import com.carbon.todobackend.domain.dto.UpdateTodoRequest;
 import com.carbon.todobackend.domain.entities.TodoEntity;
 import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.BatchTooLargeException;
+import com.carbon.todobackend.exception.InvalidCursorException;
+import com.carbon.todobackend.exception.InvalidQueryException;
 import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.exception.TodoVersionMismatchException;
+import com.carbon.todobackend.service.cache.TodoCache;
+import com.carbon.todobackend.service.cache.TodoResponseCache;
+import com.carbon.todobackend.service.event.TodoChangeFeed;
 import com.carbon.todobackend.service.impl.TodoRepositoryBaseService;
+import com.carbon.todobackend.service.index.TodoTitleIndex;
 import com.carbon.todobackend.service.mapper.CreateTodoRequestMapper;
 import com.carbon.todobackend.service.mapper.TodoMapper;
 import com.carbon.todobackend.service.mapper.UpdateTodoRequestMapper;
+import com.carbon.todobackend.service.pipeline.TodoWrite;
+import com.carbon.todobackend.service.search.TodoSearchIndex;
+import com.carbon.todobackend.service.version.TodoCollectionVersion;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.RollbackException;
 import org.junit.jupiter.api.DisplayName;
@@ -21,15 +45,29 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +85,30 @@ class TodoServiceTest {
 	@Mock
 	private TodoRepository todoRepository;
 
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Spy
+	private TodoCache todoCache = new TodoCache(100, Duration.ofMinutes(1));
+
+	@Spy
+	private TodoResponseCache todoResponseCache = new TodoResponseCache(DataSize.ofMegabytes(1), 100);
+
+	@Spy
+	private TodoTitleIndex todoTitleIndex = new TodoTitleIndex(null, null);
+
+	@Spy
+	private TodoSearchIndex todoSearchIndex = new TodoSearchIndex(null, null);
+
+	@Spy
+	private TodoCollectionVersion todoCollectionVersion = new TodoCollectionVersion();
+
+	@Spy
+	private TodoChangeFeed todoChangeFeed = new TodoChangeFeed(16);
+
 	@InjectMocks
 	private TodoRepositoryBaseService todoService;
 	
@@ -63,16 +125,17 @@ class TodoServiceTest {
 			var createTodoRequest = new CreateTodoRequest("coucou");
 			var todo = new Todo(UUID.randomUUID(), "coucou", false, 1);
 
-			when(todoRepository.existsByTitle(anyString())).thenReturn(false);
 			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
-			when(todoRepository.save(any(TodoEntity.class))).thenReturn(todoEntity);
+			when(todoRepository.saveAndFlush(any(TodoEntity.class))).thenReturn(todoEntity);
 			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
 
 			assertThat(todoService.save(createTodoRequest)).isEqualTo(todo);
 			verify(createTodoRequestMapper).toEntity(createTodoRequest);
-			verify(todoRepository).save(todoEntity);
+			verify(todoRepository).saveAndFlush(todoEntity);
 			verify(todoMapper).toDto(todoEntity);
-			verify(todoRepository).existsByTitle("coucou");
+			verify(todoTitleIndex).reserve("coucou", null);
+			assertThat(todoTitleIndex.contains("coucou")).isTrue();
+			verify(todoChangeFeed).publishAfterCommit(TodoChangeType.CREATED, todo);
 			verifyNoMoreInteractions(todoRepository);
 			verifyNoMoreInteractions(todoMapper);
 		}
@@ -84,14 +147,31 @@ class TodoServiceTest {
 			todoEntity.setTitle("coucou");
 			var createTodoRequest = new CreateTodoRequest("coucou");
 
-			when(todoRepository.existsByTitle(anyString())).thenReturn(true);
+			todoTitleIndex.assignAfterCommit("coucou", todoEntity.getId());
 
 			assertThrows(
 					AlreadyExistException.class,
 					() -> todoService.save(createTodoRequest));
-			verify(todoRepository).existsByTitle("coucou");
+			verify(todoTitleIndex).reserve("coucou", null);
+			verifyNoInteractions(todoMapper);
+			verifyNoInteractions(todoRepository);
+		}
+
+		@Test
+		void should_map_the_unique_constraint_violation_to_already_exist() {
+			final TodoEntity todoEntity = new TodoEntity();
+			todoEntity.setTitle("coucou");
+			var createTodoRequest = new CreateTodoRequest("coucou");
+
+			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+			doThrow(DataIntegrityViolationException.class).when(todoRepository).saveAndFlush(any(TodoEntity.class));
+
+			assertThrows(
+					AlreadyExistException.class,
+					() -> todoService.save(createTodoRequest));
+			verify(todoTitleIndex).release("coucou");
+			assertThat(todoTitleIndex.contains("coucou")).isFalse();
 			verifyNoInteractions(todoMapper);
-			verifyNoMoreInteractions(todoRepository);
 		}
 
 		@Test
@@ -101,16 +181,15 @@ class TodoServiceTest {
 			todoEntity.setTitle("coucou");
 			var createTodoRequest = new CreateTodoRequest("coucou");
 
-			when(todoRepository.existsByTitle(anyString())).thenReturn(false);
 			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
-			doThrow(RollbackException.class).when(todoRepository).save(any(TodoEntity.class));
+			doThrow(RollbackException.class).when(todoRepository).saveAndFlush(any(TodoEntity.class));
 
 			assertThrows(
 					RollbackException.class,
 					() -> todoService.save(createTodoRequest));
-			verify(todoRepository).existsByTitle("coucou");
+			verify(todoTitleIndex).reserve("coucou", null);
 			verify(createTodoRequestMapper).toEntity(createTodoRequest);
-			verify(todoRepository).save(todoEntity);
+			verify(todoRepository).saveAndFlush(todoEntity);
 			verifyNoMoreInteractions(todoMapper);
 			verifyNoMoreInteractions(todoRepository);
 		}
@@ -127,33 +206,55 @@ class TodoServiceTest {
 			var todo = new Todo(UUID.randomUUID(), "title", false, 1);
 			var updateTodoRequest = new UpdateTodoRequest("coucou", true, 1);
 
-			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
 			when(updateTodoRequestMapper.toEntity(any(UpdateTodoRequest.class), any(UUID.class))).thenReturn(todoEntity);
-			when(todoRepository.existsByTitle(anyString())).thenReturn(false);
 			when(todoRepository.saveAndFlush(any(TodoEntity.class))).thenReturn(todoEntity);
 			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
 
 			assertThat(todoService.update(updateTodoRequest, uuid)).isEqualTo(todo);
 			verify(updateTodoRequestMapper).toEntity(updateTodoRequest, uuid);
-			verify(todoRepository).existsByTitle("coucou");
+			verify(todoRepository).findByIdForUpdate(uuid);
+			verify(todoTitleIndex).reserve("coucou", uuid);
 			verify(todoRepository).saveAndFlush(todoEntity);
 			verify(todoMapper, times(2)).toDto(todoEntity);
+			verify(todoResponseCache).evictAfterCommit(todo.id());
 			verifyNoMoreInteractions(todoRepository);
 			verifyNoMoreInteractions(todoMapper);
 		}
 
+		@Test
+		void should_reject_updating_todo_when_version_changed() {
+			var todoEntity = new TodoEntity();
+			UUID uuid = UUID.randomUUID();
+			todoEntity.setId(uuid);
+			todoEntity.setVersion(4L);
+			var updateTodoRequest = new UpdateTodoRequest("coucou", true, 1);
+
+			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(new Todo(uuid, "title", false, 1, 4L));
+
+			assertThrows(
+					TodoVersionMismatchException.class,
+					() -> todoService.update(updateTodoRequest, uuid, 3L));
+			verify(todoRepository).findById(uuid);
+			verifyNoMoreInteractions(todoRepository);
+			verifyNoInteractions(updateTodoRequestMapper);
+			verify(todoTitleIndex, never()).reserve(any(), any());
+			verify(todoCache).evict(uuid);
+		}
+
 		@Test
 		void should_reject_a_non_existing_todo() {
 			TodoEntity todoEntity = new TodoEntity();
 			todoEntity.setId(UUID.randomUUID());
 			var updateTodoRequest = new UpdateTodoRequest("coucou", true, 1);
 
-			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.empty());
 
 			assertThrows(
 					NotExistingTodoException.class,
 					() -> todoService.update(updateTodoRequest, todoEntity.getId()));
-			verify(todoRepository).findById(todoEntity.getId());
+			verify(todoRepository).findByIdForUpdate(todoEntity.getId());
 			verifyNoMoreInteractions(todoRepository);
 			verifyNoInteractions(todoMapper);
 		}
@@ -166,16 +267,16 @@ class TodoServiceTest {
 			var updateTodoRequest = new UpdateTodoRequest("coucou", true, 1);
 			var todo = new Todo(uuid, "title", false, 1);
 
-			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
 			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
-			when(todoRepository.existsByTitle(anyString())).thenReturn(true);
+			todoTitleIndex.assignAfterCommit("coucou", UUID.randomUUID());
 
 			assertThrows(
 					AlreadyExistException.class,
 					() -> todoService.update(updateTodoRequest, uuid));
-			verify(todoRepository).findById(uuid);
+			verify(todoRepository).findByIdForUpdate(uuid);
 			verify(todoMapper).toDto(todoEntity);
-			verify(todoRepository).existsByTitle("coucou");
+			verify(todoTitleIndex).reserve("coucou", uuid);
 			verifyNoMoreInteractions(todoRepository);
 			verifyNoMoreInteractions(todoMapper);
 		}
@@ -189,7 +290,7 @@ class TodoServiceTest {
 			var todo = new Todo(uuid, "coucou", false, 1);
 			var updateTodoRequest = new UpdateTodoRequest("coucou", true, 1);
 
-			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
 			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
 			when(updateTodoRequestMapper.toEntity(any(UpdateTodoRequest.class), any(UUID.class))).thenReturn(todoEntity);
 			doThrow(RollbackException.class).when(todoRepository).saveAndFlush(any(TodoEntity.class));
@@ -199,13 +300,410 @@ class TodoServiceTest {
 					() -> todoService.update(updateTodoRequest, uuid));
 			verify(updateTodoRequestMapper).toEntity(updateTodoRequest, uuid);
 			verify(todoRepository).saveAndFlush(todoEntity);
-			verify(todoRepository).findById(uuid);
+			verify(todoRepository).findByIdForUpdate(uuid);
 			verify(updateTodoRequestMapper).toEntity(updateTodoRequest, uuid);
 			verifyNoMoreInteractions(todoMapper);
 			verifyNoMoreInteractions(todoRepository);
 		}
 	}
 
+	@Test
+	void should_keep_the_title_of_an_updated_todo() throws NotExistingTodoException, AlreadyExistException {
+		var todoEntity = new TodoEntity();
+		UUID uuid = UUID.randomUUID();
+		todoEntity.setId(uuid);
+		var todo = new Todo(uuid, "coucou", true, 1);
+		var updateTodoRequest = new UpdateTodoRequest("coucou", true, 1);
+		todoTitleIndex.assignAfterCommit("coucou", uuid);
+
+		when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+		when(updateTodoRequestMapper.toEntity(any(UpdateTodoRequest.class), any(UUID.class))).thenReturn(todoEntity);
+		when(todoRepository.saveAndFlush(any(TodoEntity.class))).thenReturn(todoEntity);
+		when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+		assertThat(todoService.update(updateTodoRequest, uuid)).isEqualTo(todo);
+		assertThat(todoTitleIndex.contains("coucou")).isTrue();
+		assertThat(todoTitleIndex.size()).isEqualTo(1);
+	}
+
+	@Nested
+	@DisplayName("When Patch Todo")
+	class WhenPatchTodo {
+		@Test
+		void should_update_only_the_changed_columns_of_a_cached_todo() throws NotExistingTodoException, AlreadyExistException {
+			UUID uuid = UUID.randomUUID();
+			todoCache.putAfterCommit(new Todo(uuid, "title", false, 1, 3L));
+			var patch = new TodoPatch(EnumSet.of(TodoField.TITLE, TodoField.COMPLETED), "title", true, null);
+			var patched = new Todo(uuid, "title", true, 1, 4L);
+
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(1);
+
+			assertThat(todoService.patch(patch, uuid, 3L)).isEqualTo(patched);
+			verify(todoRepository).updateColumns(patched, EnumSet.of(TodoField.COMPLETED), 3L);
+			verify(todoTitleIndex, never()).reserve(any(), any());
+			verifyNoMoreInteractions(todoRepository);
+			verifyNoInteractions(todoMapper);
+			assertThat(todoCache.get(uuid, id -> Optional.empty())).contains(patched);
+		}
+
+		@Test
+		void should_reserve_a_changed_title() throws NotExistingTodoException, AlreadyExistException {
+			UUID uuid = UUID.randomUUID();
+			todoCache.putAfterCommit(new Todo(uuid, "title", false, 1, 3L));
+			var patch = new TodoPatch(EnumSet.of(TodoField.TITLE), "coucou", null, null);
+
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(1);
+
+			todoService.patch(patch, uuid, 3L);
+			verify(todoTitleIndex).reserve("coucou", uuid);
+			verify(todoRepository).updateColumns(new Todo(uuid, "coucou", false, 1, 4L), EnumSet.of(TodoField.TITLE), 3L);
+			assertThat(todoTitleIndex.contains("coucou")).isTrue();
+		}
+
+		@Test
+		void should_not_write_a_patch_which_changes_nothing() throws NotExistingTodoException, AlreadyExistException {
+			UUID uuid = UUID.randomUUID();
+			var todo = new Todo(uuid, "title", false, 1, 3L);
+			todoCache.putAfterCommit(todo);
+
+			assertThat(todoService.patch(new TodoPatch(EnumSet.of(TodoField.COMPLETED), null, false, null), uuid, 3L))
+					.isEqualTo(todo);
+			verifyNoInteractions(todoRepository);
+		}
+
+		@Test
+		void should_reject_a_patch_when_the_todo_changed_meanwhile_and_evict_it() {
+			UUID uuid = UUID.randomUUID();
+			todoCache.putAfterCommit(new Todo(uuid, "title", false, 1, 3L));
+			var patch = new TodoPatch(EnumSet.of(TodoField.COMPLETED), null, true, null);
+
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(0);
+
+			assertThrows(TodoVersionMismatchException.class, () -> todoService.patch(patch, uuid, 3L));
+			verify(todoCache).evict(uuid);
+			assertThat(todoCache.get(uuid, id -> Optional.empty())).isEmpty();
+		}
+
+		@Test
+		void should_patch_a_cached_todo_without_if_match_with_a_single_statement() throws NotExistingTodoException, AlreadyExistException {
+			UUID uuid = UUID.randomUUID();
+			todoCache.putAfterCommit(new Todo(uuid, "title", false, 1, 3L));
+			var patch = new TodoPatch(EnumSet.of(TodoField.COMPLETED), null, true, null);
+			var patched = new Todo(uuid, "title", true, 1, 4L);
+
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(1);
+
+			assertThat(todoService.patch(patch, uuid, null)).isEqualTo(patched);
+			verify(todoRepository).updateColumns(patched, EnumSet.of(TodoField.COMPLETED), 3L);
+			verifyNoMoreInteractions(todoRepository);
+		}
+
+		@Test
+		void should_patch_the_locked_row_again_without_if_match_when_the_cached_todo_is_stale() throws NotExistingTodoException, AlreadyExistException {
+			UUID uuid = UUID.randomUUID();
+			var todoEntity = new TodoEntity();
+			todoCache.putAfterCommit(new Todo(uuid, "title", false, 1, 2L));
+			var patch = new TodoPatch(EnumSet.of(TodoField.COMPLETED), null, true, null);
+			var patched = new Todo(uuid, "title", true, 1, 4L);
+
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(0, 1);
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(new Todo(uuid, "title", false, 1, 3L));
+
+			assertThat(todoService.patch(patch, uuid, null)).isEqualTo(patched);
+			verify(todoRepository).updateColumns(new Todo(uuid, "title", true, 1, 3L), EnumSet.of(TodoField.COMPLETED), 2L);
+			verify(todoRepository).findByIdForUpdate(uuid);
+			verify(todoRepository).updateColumns(patched, EnumSet.of(TodoField.COMPLETED), 3L);
+			assertThat(todoCache.get(uuid, id -> Optional.empty())).contains(patched);
+		}
+
+		@Test
+		void should_lock_the_row_before_patching_its_title_without_if_match() throws NotExistingTodoException, AlreadyExistException {
+			UUID uuid = UUID.randomUUID();
+			var todoEntity = new TodoEntity();
+			todoCache.putAfterCommit(new Todo(uuid, "title", false, 1, 2L));
+			var patch = new TodoPatch(EnumSet.of(TodoField.TITLE), "coucou", null, null);
+
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(new Todo(uuid, "title", false, 1, 3L));
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(1);
+
+			todoService.patch(patch, uuid, null);
+			verify(todoRepository).findByIdForUpdate(uuid);
+			verify(todoRepository).updateColumns(new Todo(uuid, "coucou", false, 1, 4L), EnumSet.of(TodoField.TITLE), 3L);
+		}
+
+		@Test
+		void should_reject_patching_a_non_existing_todo() {
+			UUID uuid = UUID.randomUUID();
+
+			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+
+			assertThrows(
+					NotExistingTodoException.class,
+					() -> todoService.patch(new TodoPatch(EnumSet.of(TodoField.COMPLETED), null, true, null), uuid, null));
+			verify(todoRepository).findById(uuid);
+			verifyNoMoreInteractions(todoRepository);
+		}
+	}
+
+	@Nested
+	@DisplayName("When Move Todo")
+	class WhenMoveTodo {
+		@Test
+		void should_move_todo_to_the_midpoint_of_its_neighbours_with_a_single_update() throws NotExistingTodoException {
+			UUID uuid = UUID.randomUUID();
+			UUID previous = UUID.randomUUID();
+			UUID next = UUID.randomUUID();
+			var todoEntity = new TodoEntity();
+
+			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(new Todo(uuid, "title", false, 4096, 3L));
+			when(todoRepository.findPositionById(any(UUID.class))).thenReturn(Optional.of(position(previous, 1024)));
+			when(todoRepository.findPositionsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of(position(next, 2048)));
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(1);
+
+			var movedTodo = new Todo(uuid, "title", false, 1536, 4L);
+			assertThat(todoService.move(uuid, previous)).isEqualTo(movedTodo);
+			verify(todoRepository).findPositionsAfter(1024, previous, Pageable.ofSize(1));
+			verify(todoRepository).updateColumns(movedTodo, EnumSet.of(TodoField.ORDER), 3L);
+			verify(todoRepository, never()).findAllForUpdate();
+			assertThat(todoCache.get(uuid, id -> Optional.empty())).contains(movedTodo);
+		}
+
+		@Test
+		void should_not_write_a_todo_already_in_place() throws NotExistingTodoException {
+			UUID uuid = UUID.randomUUID();
+			var todo = new Todo(uuid, "title", false, 0, 3L);
+
+			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(new TodoEntity()));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+			when(todoRepository.findFirstPositions(any(Pageable.class))).thenReturn(List.of(position(uuid, 0)));
+
+			assertThat(todoService.move(uuid, null)).isEqualTo(todo);
+			verify(todoRepository, never()).updateColumns(any(), any(), any());
+		}
+
+		@Test
+		void should_renumber_todos_when_the_neighbours_leave_no_room() throws NotExistingTodoException {
+			UUID uuid = UUID.randomUUID();
+			UUID previous = UUID.randomUUID();
+			UUID next = UUID.randomUUID();
+			var todoEntities = List.of(entity(previous, 1), entity(next, 2), entity(uuid, 3));
+
+			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntities.get(2)));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenAnswer(invocation -> {
+				TodoEntity todoEntity = invocation.getArgument(0);
+				return new Todo(todoEntity.getId(), null, null, todoEntity.getOrder(), 1L);
+			});
+			when(todoRepository.findPositionById(any(UUID.class))).thenReturn(Optional.of(position(previous, 1)));
+			when(todoRepository.findPositionsAfter(any(), any(), any(Pageable.class))).thenReturn(List.of(position(next, 2)));
+			when(todoRepository.findAllForUpdate()).thenReturn(todoEntities);
+			when(todoRepository.updateColumns(any(Todo.class), any(), any())).thenReturn(1);
+
+			assertThat(todoService.move(uuid, previous).order()).isEqualTo(1536);
+			assertThat(todoEntities).extracting(TodoEntity::getOrder).containsExactly(1024, 2048, 3072);
+			verify(todoRepository).flush();
+			verify(todoChangeFeed, times(4)).publishAfterCommit(eq(TodoChangeType.UPDATED), any());
+		}
+
+		@Test
+		void should_reject_moving_after_a_non_existing_todo() {
+			UUID uuid = UUID.randomUUID();
+
+			when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(new TodoEntity()));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(new Todo(uuid, "title", false, 0, 3L));
+			when(todoRepository.findPositionById(any(UUID.class))).thenReturn(Optional.empty());
+
+			assertThrows(NotExistingTodoException.class, () -> todoService.move(uuid, UUID.randomUUID()));
+			verify(todoRepository, never()).updateColumns(any(), any(), any());
+			verify(transactionManager).rollback(any());
+		}
+
+		private static TodoEntity entity(UUID id, Integer order) {
+			var todoEntity = new TodoEntity();
+			todoEntity.setId(id);
+			todoEntity.setOrder(order);
+			return todoEntity;
+		}
+
+		private static TodoPositionProjection position(UUID id, Integer order) {
+			return new TodoPositionProjection() {
+				@Override
+				public UUID getId() {
+					return id;
+				}
+
+				@Override
+				public Integer getOrder() {
+					return order;
+				}
+			};
+		}
+	}
+
+	@Nested
+	@DisplayName("When Batch Todos")
+	class WhenBatchTodos {
+		@Test
+		void should_save_todos_and_reject_duplicated_titles() throws AlreadyExistException {
+			TodoEntity todoEntity = new TodoEntity();
+			todoEntity.setTitle("first");
+			var todo = new Todo(UUID.randomUUID(), "first", false, null);
+			var first = new CreateTodoRequest("first");
+			var duplicate = new CreateTodoRequest("first");
+
+			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+			List<TodoBatchResult> results = todoService.saveAll(List.of(first, duplicate));
+
+			assertThat(results).extracting(TodoBatchResult::outcome)
+					.containsExactly(BatchOutcome.CREATED, BatchOutcome.CONFLICT);
+			verify(todoRepository).saveAll(List.of(todoEntity));
+			verify(todoRepository).flush();
+			verifyNoMoreInteractions(todoRepository);
+			verify(todoCollectionVersion).incrementAfterCommit();
+		}
+
+		@Test
+		void should_update_the_found_todos_in_place() throws AlreadyExistException {
+			TodoEntity todoEntity = new TodoEntity();
+			UUID uuid = UUID.randomUUID();
+			UUID missing = UUID.randomUUID();
+			todoEntity.setId(uuid);
+			todoEntity.setTitle("title");
+			todoEntity.setCompleted(false);
+			var todo = new Todo(uuid, "title", true, null);
+
+			when(todoRepository.findAllById(any())).thenReturn(List.of(todoEntity));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+			List<TodoBatchResult> results = todoService.updateAll(List.of(
+					new BatchUpdateTodoRequest(uuid, null, true, null),
+					new BatchUpdateTodoRequest(missing, "other", true, null)));
+
+			assertThat(results).extracting(TodoBatchResult::outcome)
+					.containsExactly(BatchOutcome.UPDATED, BatchOutcome.NOT_FOUND);
+			assertThat(todoEntity.getTitle()).isEqualTo("title");
+			assertThat(todoEntity.isCompleted()).isTrue();
+			verify(todoRepository).findAllById(Set.of(uuid, missing));
+			verify(todoRepository).flush();
+			verifyNoMoreInteractions(todoRepository);
+		}
+
+		@Test
+		void should_reject_an_update_to_a_taken_title() throws AlreadyExistException {
+			TodoEntity todoEntity = new TodoEntity();
+			UUID uuid = UUID.randomUUID();
+			todoEntity.setId(uuid);
+			todoEntity.setTitle("title");
+			todoTitleIndex.assignAfterCommit("taken", UUID.randomUUID());
+
+			when(todoRepository.findAllById(any())).thenReturn(List.of(todoEntity));
+
+			List<TodoBatchResult> results = todoService.updateAll(List.of(new BatchUpdateTodoRequest(uuid, "taken", null, null)));
+
+			assertThat(results).extracting(TodoBatchResult::outcome).containsExactly(BatchOutcome.CONFLICT);
+			assertThat(todoEntity.getTitle()).isEqualTo("title");
+			verifyNoInteractions(todoMapper);
+		}
+
+		@Test
+		void should_delete_the_existing_todos_with_one_statement() {
+			UUID existing = UUID.randomUUID();
+			UUID missing = UUID.randomUUID();
+
+			when(todoRepository.findExistingIds(any())).thenReturn(List.of(existing));
+
+			List<TodoBatchResult> results = todoService.deleteAllById(List.of(existing, missing));
+
+			assertThat(results).extracting(TodoBatchResult::outcome)
+					.containsExactly(BatchOutcome.DELETED, BatchOutcome.NOT_FOUND);
+			verify(todoRepository).deleteAllByIdInBatch(Set.of(existing));
+			verify(todoCache).evictAfterCommit(Set.of(existing));
+			verify(todoTitleIndex).removeAfterCommit(Set.of(existing));
+			verify(todoChangeFeed).publishDeletedAfterCommit(Set.of(existing));
+		}
+
+		@Test
+		void should_reject_a_too_large_batch() {
+			List<UUID> ids = Collections.nCopies(1001, UUID.randomUUID());
+
+			assertThrows(
+					BatchTooLargeException.class,
+					() -> todoService.deleteAllById(ids));
+			verifyNoInteractions(todoRepository);
+		}
+	}
+
+	@Nested
+	@DisplayName("When Write Queued Todos")
+	class WhenWriteQueuedTodos {
+		@Test
+		void should_write_the_batch_and_reject_a_duplicated_title_alone() throws Exception {
+			TodoEntity todoEntity = new TodoEntity();
+			todoEntity.setTitle("first");
+			var todo = new Todo(UUID.randomUUID(), "first", false, null);
+			TodoWrite first = TodoWrite.create(new CreateTodoRequest("first"));
+			TodoWrite duplicate = TodoWrite.create(new CreateTodoRequest("first"));
+
+			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+			when(todoRepository.save(any(TodoEntity.class))).thenReturn(todoEntity);
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+			todoService.writeAll(List.of(first, duplicate));
+
+			assertThat(first.await()).isEqualTo(todo);
+			assertThrows(AlreadyExistException.class, duplicate::await);
+			verify(todoRepository).save(todoEntity);
+			verify(todoRepository).flush();
+			verifyNoMoreInteractions(todoRepository);
+			verify(todoChangeFeed).publishAfterCommit(TodoChangeType.CREATED, todo);
+			verify(todoCollectionVersion).incrementAfterCommit();
+		}
+
+		@Test
+		void should_leave_a_second_update_of_the_same_todo_pending() throws Exception {
+			var todoEntity = new TodoEntity();
+			UUID uuid = UUID.randomUUID();
+			todoEntity.setId(uuid);
+			var todo = new Todo(uuid, "second", true, 1);
+			TodoWrite first = TodoWrite.update(new UpdateTodoRequest("first", true, 1), uuid, null);
+			TodoWrite second = TodoWrite.update(new UpdateTodoRequest("second", true, 1), uuid, null);
+
+			when(todoRepository.findByIdForUpdate(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+			when(updateTodoRequestMapper.toEntity(any(UpdateTodoRequest.class), any(UUID.class))).thenReturn(todoEntity);
+			when(todoRepository.save(any(TodoEntity.class))).thenReturn(todoEntity);
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+			todoService.writeAll(List.of(first, second));
+
+			assertThat(first.await()).isEqualTo(todo);
+			assertThat(second.isDone()).isFalse();
+			verify(todoRepository).save(todoEntity);
+			verify(todoChangeFeed).publishAfterCommit(TodoChangeType.UPDATED, todo);
+		}
+
+		@Test
+		void should_leave_the_writes_pending_when_the_flush_fails() {
+			TodoEntity todoEntity = new TodoEntity();
+			todoEntity.setTitle("first");
+			TodoWrite first = TodoWrite.create(new CreateTodoRequest("first"));
+
+			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+			when(todoRepository.save(any(TodoEntity.class))).thenReturn(todoEntity);
+			doThrow(DataIntegrityViolationException.class).when(todoRepository).flush();
+
+			assertThrows(
+					AlreadyExistException.class,
+					() -> todoService.writeAll(List.of(first)));
+			assertThat(first.isDone()).isFalse();
+			assertThat(todoTitleIndex.contains("first")).isFalse();
+			verifyNoInteractions(todoMapper);
+		}
+	}
+
 	@Test
 	void should_find_all_todos() {
 		TodoEntity todoEntity = new TodoEntity();
@@ -236,6 +734,203 @@ class TodoServiceTest {
 		verifyNoInteractions(todoMapper);
 	}
 
+	@Nested
+	@DisplayName("When Find Page Of Todos")
+	class WhenFindPageOfTodos {
+		@Test
+		void should_return_next_cursor_when_more_todos_follow() {
+			TodoEntity first = todoEntity(1);
+			TodoEntity second = todoEntity(2);
+			var todo = new Todo(first.getId(), "title", false, 1);
+
+			when(todoRepository.findFirstPage(any(Pageable.class))).thenReturn(List.of(first, second));
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+			CursorPage<Todo> page = todoService.findPage(1, null);
+
+			assertThat(page.items()).containsExactly(todo);
+			assertThat(page.next()).isNotNull();
+			verify(todoRepository).findFirstPage(Pageable.ofSize(2));
+			verify(todoMapper).toDto(first);
+			verifyNoMoreInteractions(todoRepository);
+			verifyNoMoreInteractions(todoMapper);
+		}
+
+		@Test
+		void should_resume_after_the_cursor() {
+			TodoEntity first = todoEntity(1);
+			TodoEntity second = todoEntity(null);
+			when(todoRepository.findFirstPage(any(Pageable.class))).thenReturn(List.of(first, second));
+			String next = todoService.findPage(1, null).next();
+
+			when(todoRepository.findPageAfter(any(), any(UUID.class), any(Pageable.class))).thenReturn(List.of(second));
+
+			CursorPage<Todo> page = todoService.findPage(1, next);
+
+			assertThat(page.next()).isNull();
+			verify(todoRepository).findPageAfter(1, first.getId(), Pageable.ofSize(2));
+		}
+
+		@Test
+		void should_clamp_the_page_size() {
+			when(todoRepository.findFirstPage(any(Pageable.class))).thenReturn(Collections.emptyList());
+
+			assertThat(todoService.findPage(0, null).items()).isEmpty();
+			verify(todoRepository).findFirstPage(Pageable.ofSize(2));
+		}
+
+		@Test
+		void should_reject_a_malformed_cursor() {
+			assertThrows(
+					InvalidCursorException.class,
+					() -> todoService.findPage(10, "not-a-cursor"));
+			verifyNoInteractions(todoRepository);
+		}
+
+		@Test
+		void should_read_the_cursor_columns_of_a_page_matching_a_query() {
+			TodoEntity first = todoEntity(1);
+			var query = new TodoQuery(true, null, null, null, null, List.of(), EnumSet.of(TodoField.TITLE));
+			var pageQuery = new TodoQuery(true, null, null, null, null, List.of(), EnumSet.of(TodoField.ID, TodoField.TITLE, TodoField.ORDER));
+			when(todoRepository.findPageMatching(any(TodoQuery.class), any(), any(), anyInt())).thenReturn(List.of(first));
+
+			CursorPage<Todo> page = todoService.findPage(10, null, query);
+
+			assertThat(page.next()).isNull();
+			verify(todoRepository).findPageMatching(pageQuery, null, null, 11);
+		}
+
+		@Test
+		void should_reject_a_sorted_page() {
+			var query = new TodoQuery(null, null, null, null, null, List.of(new TodoSort(TodoField.TITLE, false)), EnumSet.allOf(TodoField.class));
+
+			assertThrows(
+					InvalidQueryException.class,
+					() -> todoService.findPage(10, null, query));
+			verifyNoInteractions(todoRepository);
+		}
+
+		private TodoEntity todoEntity(Integer order) {
+			TodoEntity todoEntity = new TodoEntity();
+			todoEntity.setId(UUID.randomUUID());
+			todoEntity.setOrder(order);
+			return todoEntity;
+		}
+	}
+
+	@Nested
+	@DisplayName("When Search Todos")
+	class WhenSearchTodos {
+		@Test
+		void should_index_the_title_of_a_saved_todo() throws AlreadyExistException {
+			TodoEntity todoEntity = new TodoEntity();
+			var todo = new Todo(UUID.randomUUID(), "Buy milk", false, null, 0L);
+			when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+			when(todoRepository.saveAndFlush(any(TodoEntity.class))).thenReturn(todoEntity);
+			when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+			todoService.save(new CreateTodoRequest("Buy milk"));
+			CursorPage<Todo> page = todoService.search("milk", 10, null);
+
+			verify(todoSearchIndex).putAfterCommit(todo);
+			assertThat(page.items()).containsExactly(todo);
+			assertThat(page.next()).isNull();
+		}
+
+		@Test
+		void should_page_through_the_ranked_hits() {
+			var best = new Todo(UUID.randomUUID(), "milk", false, null, 0L);
+			var other = new Todo(UUID.randomUUID(), "oat milk", false, null, 0L);
+			todoSearchIndex.put(best.id(), best.title());
+			todoSearchIndex.put(other.id(), other.title());
+			todoCache.putAfterCommit(best);
+			todoCache.putAfterCommit(other);
+
+			CursorPage<Todo> first = todoService.search("milk", 1, null);
+			CursorPage<Todo> second = todoService.search("milk", 1, first.next());
+
+			assertThat(first.items()).containsExactly(best);
+			assertThat(second.items()).containsExactly(other);
+			assertThat(second.next()).isNull();
+			verifyNoInteractions(todoRepository);
+		}
+
+		@Test
+		void should_leave_out_a_hit_deleted_meanwhile() {
+			UUID id = UUID.randomUUID();
+			todoSearchIndex.put(id, "milk");
+			when(todoRepository.findById(id)).thenReturn(Optional.empty());
+
+			assertThat(todoService.search("milk", 10, null).items()).isEmpty();
+		}
+
+		@Test
+		void should_forget_the_title_of_a_deleted_todo() {
+			UUID id = UUID.randomUUID();
+			todoSearchIndex.put(id, "milk");
+			when(todoRepository.deleteTodoById(id)).thenReturn(1);
+
+			todoService.deleteById(id);
+
+			assertThat(todoSearchIndex.size()).isZero();
+		}
+
+		@Test
+		void should_reject_a_blank_query() {
+			assertThrows(
+					InvalidQueryException.class,
+					() -> todoService.search(" ", 10, null));
+		}
+	}
+
+	@Test
+	void should_summarize_todos_from_the_aggregate_counts() {
+		TodoCountsProjection counts = mock(TodoCountsProjection.class);
+		when(counts.getTotal()).thenReturn(5L);
+		when(counts.getCompleted()).thenReturn(2L);
+		when(todoRepository.countTodos()).thenReturn(counts);
+
+		assertThat(todoService.summarize()).isEqualTo(new TodoSummary(5, 3, 2));
+		verify(todoRepository).countTodos();
+		verifyNoMoreInteractions(todoRepository);
+	}
+
+	@Test
+	void should_stream_the_todos_matching_a_query() {
+		TodoEntity todoEntity = new TodoEntity();
+		todoEntity.setTitle("title");
+		var todo = new Todo(null, "title", null, null);
+		var query = new TodoQuery(null, "ti", null, null, null, List.of(), EnumSet.of(TodoField.TITLE));
+		List<Todo> visited = new ArrayList<>();
+
+		when(todoRepository.streamMatching(query)).thenReturn(Stream.of(todoEntity));
+		when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+		todoService.streamAll(query, visited::add);
+
+		assertThat(visited).containsExactly(todo);
+		verify(todoRepository).streamMatching(query);
+		verifyNoInteractions(entityManager);
+	}
+
+	@Test
+	void should_stream_all_todos_and_detach_them() {
+		TodoEntity todoEntity = new TodoEntity();
+		todoEntity.setId(UUID.randomUUID());
+		var todo = new Todo(todoEntity.getId(), "title", false, 1);
+		List<Todo> visited = new ArrayList<>();
+
+		when(todoRepository.streamAll()).thenReturn(Stream.of(todoEntity));
+		when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+		todoService.streamAll(visited::add);
+
+		assertThat(visited).containsExactly(todo);
+		verify(entityManager).detach(todoEntity);
+		verify(todoRepository).streamAll();
+		verifyNoMoreInteractions(todoRepository);
+	}
+
 	@Test
 	void should_find_todo_by_id() {
 		TodoEntity todoEntity = new TodoEntity();
@@ -253,26 +948,108 @@ class TodoServiceTest {
 		verifyNoMoreInteractions(todoMapper);
 	}
  
+	@Test
+	void should_serve_a_cached_todo_without_querying_the_repository() {
+		TodoEntity todoEntity = new TodoEntity();
+		UUID uuid = UUID.randomUUID();
+		todoEntity.setId(uuid);
+		var todo = new Todo(uuid, "title", false, 1);
+
+		when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity));
+		when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+		assertThat(todoService.findById(uuid)).hasValue(todo);
+		assertThat(todoService.findById(uuid)).hasValue(todo);
+		verify(todoRepository, times(1)).findById(uuid);
+		assertThat(todoCache.stats().hitCount()).isEqualTo(1);
+		assertThat(todoCache.stats().missCount()).isEqualTo(1);
+	}
+
+	@Test
+	void should_cache_a_saved_todo() throws AlreadyExistException {
+		TodoEntity todoEntity = new TodoEntity();
+		var todo = new Todo(UUID.randomUUID(), "coucou", false, null);
+
+		when(createTodoRequestMapper.toEntity(any(CreateTodoRequest.class))).thenReturn(todoEntity);
+		when(todoRepository.saveAndFlush(any(TodoEntity.class))).thenReturn(todoEntity);
+		when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+
+		todoService.save(new CreateTodoRequest("coucou"));
+
+		assertThat(todoService.findById(todo.id())).hasValue(todo);
+		verify(todoRepository, never()).findById(any(UUID.class));
+	}
+
+	@Test
+	void should_evict_a_deleted_todo() {
+		TodoEntity todoEntity = new TodoEntity();
+		UUID uuid = UUID.randomUUID();
+		var todo = new Todo(uuid, "title", false, 1);
+
+		when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todoEntity)).thenReturn(Optional.empty());
+		when(todoMapper.toDto(any(TodoEntity.class))).thenReturn(todo);
+		when(todoRepository.deleteTodoById(uuid)).thenReturn(1);
+
+		assertThat(todoService.findById(uuid)).hasValue(todo);
+		todoService.deleteById(uuid);
+
+		assertThat(todoService.findById(uuid)).isEmpty();
+		verify(todoCache).evictAfterCommit(uuid);
+		verify(todoResponseCache).evictAfterCommit(uuid);
+	}
+
 	@Test
 	void should_delete_todo_by_id() {
 		UUID id = UUID.randomUUID();
-		doNothing().when(todoRepository).deleteById(any(UUID.class));
+		when(todoRepository.deleteTodoById(any(UUID.class))).thenReturn(1);
 
 		todoService.deleteById(id);
 
-		verify(todoRepository).deleteById((UUID) captor.capture());
+		verify(todoRepository).deleteTodoById((UUID) captor.capture());
 		verifyNoMoreInteractions(todoRepository);	
 		verifyNoInteractions(todoMapper);
+		verify(todoChangeFeed).publishDeletedAfterCommit(id);
 		assertThat(UUID.fromString(captor.getValue().toString())).isNotNull();
 	}
 
 	@Test
-	void should_delete_todos() {
-		doNothing().when(todoRepository).deleteAll();
+	void should_ignore_deleting_a_missing_todo() {
+		UUID id = UUID.randomUUID();
+		when(todoRepository.deleteTodoById(id)).thenReturn(0);
+
+		todoService.deleteById(id);
 
+		verify(todoRepository).deleteTodoById(id);
+		verifyNoInteractions(todoCache, todoResponseCache, todoTitleIndex, todoChangeFeed);
+	}
+
+	@Test
+	void should_delete_the_completed_todos_with_a_single_statement() {
+		List<UUID> ids = Stream.generate(UUID::randomUUID).limit(1500).toList();
+		when(todoRepository.deleteCompleted()).thenReturn(ids);
+
+		assertThat(todoService.deleteCompleted()).isEqualTo(1500);
+
+		verify(todoRepository).deleteCompleted();
+		verifyNoMoreInteractions(todoRepository);
+		verify(todoTitleIndex).removeAfterCommit(ids);
+		verify(todoSearchIndex).removeAfterCommit(ids);
+		verify(todoCache).clearAfterCommit();
+		verify(todoResponseCache).clearAfterCommit();
+		verify(todoChangeFeed).publishCompletedDeletedAfterCommit();
+		verify(todoChangeFeed, never()).publishDeletedAfterCommit(anyCollection());
+		verifyNoInteractions(todoMapper);
+	}
+
+	@Test
+	void should_delete_todos() {
 		todoService.deleteAll();
 
-		verify(todoRepository).deleteAll();
+		verify(todoRepository).deleteAllInBatch();
+		verify(todoTitleIndex).clearAfterCommit();
+		verify(todoCache).clearAfterCommit();
+		verify(todoResponseCache).clearAfterCommit();
+		verify(todoChangeFeed).publishClearedAfterCommit();
 		verifyNoMoreInteractions(todoRepository);
 		verifyNoInteractions(todoMapper);
 	}
@@ -0,0 +1,81 @@
+package com.carbon.todobackend.ut.service.cache;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.service.cache.TodoCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoCacheTest {
+
+    private final TodoCache todoCache = new TodoCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void should_not_cache_absent_todos() {
+        UUID uuid = UUID.randomUUID();
+
+        assertThat(todoCache.get(uuid, id -> Optional.empty())).isEmpty();
+        assertThat(todoCache.stats().size()).isZero();
+    }
+
+    @Test
+    void should_apply_writes_only_after_commit() {
+        var todo = new Todo(UUID.randomUUID(), "title", false, 1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoCache.putAfterCommit(todo);
+            assertThat(todoCache.get(todo.id(), id -> Optional.empty())).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(todoCache.get(todo.id(), id -> Optional.empty())).hasValue(todo);
+    }
+
+    @Test
+    void should_drop_writes_of_a_rolled_back_transaction() {
+        var todo = new Todo(UUID.randomUUID(), "title", false, 1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoCache.putAfterCommit(todo);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(todoCache.get(todo.id(), id -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void should_keep_the_highest_version_when_writes_land_out_of_order() {
+        UUID uuid = UUID.randomUUID();
+        var newer = new Todo(uuid, "newer", false, 1, 5L);
+        todoCache.putAfterCommit(newer);
+        todoCache.putAfterCommit(new Todo(uuid, "older", false, 1, 4L));
+
+        assertThat(todoCache.get(uuid, id -> Optional.empty())).hasValue(newer);
+    }
+
+    @Test
+    void should_evict_and_clear() {
+        var first = new Todo(UUID.randomUUID(), "first", false, 1);
+        var second = new Todo(UUID.randomUUID(), "second", false, 2);
+        todoCache.putAfterCommit(first);
+        todoCache.putAfterCommit(second);
+
+        todoCache.evictAfterCommit(first.id());
+        assertThat(todoCache.get(first.id(), id -> Optional.empty())).isEmpty();
+        assertThat(todoCache.get(second.id(), id -> Optional.empty())).hasValue(second);
+
+        todoCache.clearAfterCommit();
+        assertThat(todoCache.get(second.id(), id -> Optional.empty())).isEmpty();
+    }
+}
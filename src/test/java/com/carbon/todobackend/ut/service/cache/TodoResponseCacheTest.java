@@ -0,0 +1,80 @@
+package com.carbon.todobackend.ut.service.cache;
+
+import com.carbon.todobackend.service.cache.EncodedTodo;
+import com.carbon.todobackend.service.cache.TodoResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoResponseCacheTest {
+
+    private final TodoResponseCache todoResponseCache = new TodoResponseCache(DataSize.ofKilobytes(1), 2);
+
+    @Test
+    void should_serve_a_todo_only_at_its_encoded_version() {
+        UUID uuid = UUID.randomUUID();
+        var encodedTodo = encodedTodo(3, 10);
+
+        todoResponseCache.put(uuid, encodedTodo);
+
+        assertThat(todoResponseCache.get(uuid, 3)).isSameAs(encodedTodo);
+        assertThat(todoResponseCache.get(uuid, 4)).isNull();
+    }
+
+    @Test
+    void should_serve_the_collection_only_at_its_version() {
+        var encodedTodos = List.of(encodedTodo(0, 10), encodedTodo(0, 10));
+
+        assertThat(todoResponseCache.putCollection("v1", encodedTodos)).isTrue();
+
+        assertThat(todoResponseCache.getCollection("v1")).isEqualTo(encodedTodos);
+        assertThat(todoResponseCache.getCollection("v2")).isNull();
+    }
+
+    @Test
+    void should_not_keep_a_collection_of_too_many_todos() {
+        assertThat(todoResponseCache.putCollection("v1", List.of(encodedTodo(0, 10), encodedTodo(0, 10), encodedTodo(0, 10))))
+                .isFalse();
+
+        assertThat(todoResponseCache.getCollection("v1")).isNull();
+    }
+
+    @Test
+    void should_bound_the_bytes_kept() {
+        for (int i = 0; i < 100; i++) {
+            todoResponseCache.put(UUID.randomUUID(), encodedTodo(0, 100));
+        }
+
+        assertThat(todoResponseCache.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void should_drop_the_todo_and_the_collection_after_commit() {
+        UUID uuid = UUID.randomUUID();
+        todoResponseCache.put(uuid, encodedTodo(3, 10));
+        todoResponseCache.putCollection("v1", List.of(encodedTodo(3, 10)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoResponseCache.evictAfterCommit(uuid);
+            assertThat(todoResponseCache.get(uuid, 3)).isNotNull();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(todoResponseCache.get(uuid, 3)).isNull();
+        assertThat(todoResponseCache.getCollection("v1")).isNull();
+    }
+
+    private static EncodedTodo encodedTodo(long version, int size) {
+        return new EncodedTodo(version, new byte[size / 2], new byte[size - size / 2]);
+    }
+}
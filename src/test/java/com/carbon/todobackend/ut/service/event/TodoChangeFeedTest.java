@@ -0,0 +1,104 @@
+package com.carbon.todobackend.ut.service.event;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoChange;
+import com.carbon.todobackend.domain.dto.TodoChangeType;
+import com.carbon.todobackend.service.event.TodoChangeFeed;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoChangeFeedTest {
+
+    @Test
+    void should_push_the_new_changes() {
+        var todoChangeFeed = new TodoChangeFeed(16);
+        var todo = new Todo(UUID.randomUUID(), "coucou", false, 1);
+
+        StepVerifier.create(todoChangeFeed.changesAfter(null).take(2))
+                .then(() -> {
+                    todoChangeFeed.publishAfterCommit(TodoChangeType.CREATED, todo);
+                    todoChangeFeed.publishDeletedAfterCommit(todo.id());
+                })
+                .assertNext(change -> {
+                    assertThat(change.type()).isEqualTo(TodoChangeType.CREATED);
+                    assertThat(change.todo()).isEqualTo(todo);
+                })
+                .assertNext(change -> {
+                    assertThat(change.type()).isEqualTo(TodoChangeType.DELETED);
+                    assertThat(change.id()).isEqualTo(todo.id());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void should_replay_the_missed_changes_before_the_new_ones() {
+        var todoChangeFeed = new TodoChangeFeed(16);
+        List<TodoChange> received = publishCreated(todoChangeFeed, 3);
+
+        StepVerifier.create(todoChangeFeed.changesAfter(todoChangeFeed.eventId(received.get(0))).take(3))
+                .expectNext(received.get(1), received.get(2))
+                .then(todoChangeFeed::publishClearedAfterCommit)
+                .assertNext(change -> {
+                    assertThat(change.type()).isEqualTo(TodoChangeType.CLEARED);
+                    assertThat(change.sequence()).isEqualTo(received.get(2).sequence() + 1);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void should_reset_when_the_missed_changes_are_no_longer_buffered() {
+        var todoChangeFeed = new TodoChangeFeed(2);
+        List<TodoChange> received = publishCreated(todoChangeFeed, 4);
+
+        StepVerifier.create(todoChangeFeed.changesAfter(todoChangeFeed.eventId(received.get(0))).take(1))
+                .assertNext(change -> {
+                    assertThat(change.type()).isEqualTo(TodoChangeType.RESET);
+                    assertThat(change.sequence()).isEqualTo(received.get(3).sequence());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void should_reset_on_an_event_id_from_before_a_restart() {
+        var previousFeed = new TodoChangeFeed(16);
+        List<TodoChange> previous = publishCreated(previousFeed, 2);
+        var todoChangeFeed = new TodoChangeFeed(16);
+        publishCreated(todoChangeFeed, 2);
+
+        // Both sequences are buffered by the new feed, only the epoch differs.
+        for (String lastEventId : List.of(previousFeed.eventId(previous.get(0)), previousFeed.eventId(previous.get(1)), "42")) {
+            StepVerifier.create(todoChangeFeed.changesAfter(lastEventId).take(1))
+                    .assertNext(change -> assertThat(change.type()).isEqualTo(TodoChangeType.RESET))
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    void should_disconnect_a_subscriber_lagging_more_than_the_buffer() {
+        var todoChangeFeed = new TodoChangeFeed(2);
+
+        StepVerifier.create(todoChangeFeed.changesAfter(null), 0)
+                .then(() -> publishCreated(todoChangeFeed, 3))
+                .thenRequest(3)
+                .expectNextCount(2)
+                .verifyErrorMatches(Exceptions::isOverflow);
+    }
+
+    private static List<TodoChange> publishCreated(TodoChangeFeed todoChangeFeed, int count) {
+        List<TodoChange> received = new ArrayList<>();
+        Disposable subscription = todoChangeFeed.changesAfter(null).subscribe(received::add);
+        for (int i = 0; i < count; i++) {
+            todoChangeFeed.publishAfterCommit(TodoChangeType.CREATED, new Todo(UUID.randomUUID(), "todo " + i, false, i));
+        }
+        subscription.dispose();
+        return received;
+    }
+}
@@ -0,0 +1,110 @@
+package com.carbon.todobackend.ut.service.index;
+
+import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.dao.TodoTitleProjection;
+import com.carbon.todobackend.service.index.TodoTitleIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoTitleIndexTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void should_load_the_existing_titles() {
+        UUID uuid = UUID.randomUUID();
+        var todoTitleIndex = new TodoTitleIndex(todoRepository, transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(todoRepository.streamTitles()).thenReturn(Stream.of(titleOf(uuid, "coucou")));
+
+        todoTitleIndex.afterSingletonsInstantiated();
+
+        assertThat(todoTitleIndex.contains("coucou")).isTrue();
+        assertThat(todoTitleIndex.reserve("coucou", null)).isFalse();
+        assertThat(todoTitleIndex.reserve("coucou", uuid)).isTrue();
+    }
+
+    @Test
+    void should_reject_a_title_reserved_by_a_pending_write() {
+        var todoTitleIndex = new TodoTitleIndex(todoRepository, transactionManager);
+
+        assertThat(todoTitleIndex.reserve("coucou", null)).isTrue();
+        assertThat(todoTitleIndex.reserve("coucou", null)).isFalse();
+        assertThat(todoTitleIndex.reserve("coucou", UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void should_release_the_reservation_of_a_rolled_back_write() {
+        var todoTitleIndex = new TodoTitleIndex(todoRepository, transactionManager);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(todoTitleIndex.reserve("coucou", null)).isTrue();
+            todoTitleIndex.assignAfterCommit("coucou", UUID.randomUUID());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(todoTitleIndex.contains("coucou")).isFalse();
+        assertThat(todoTitleIndex.size()).isZero();
+    }
+
+    @Test
+    void should_free_the_previous_title_of_a_renamed_todo() {
+        UUID uuid = UUID.randomUUID();
+        var todoTitleIndex = new TodoTitleIndex(todoRepository, transactionManager);
+        todoTitleIndex.assignAfterCommit("before", uuid);
+
+        assertThat(todoTitleIndex.reserve("after", uuid)).isTrue();
+        todoTitleIndex.assignAfterCommit("after", uuid);
+
+        assertThat(todoTitleIndex.contains("before")).isFalse();
+        assertThat(todoTitleIndex.contains("after")).isTrue();
+        assertThat(todoTitleIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_free_the_title_of_a_deleted_todo() {
+        UUID uuid = UUID.randomUUID();
+        var todoTitleIndex = new TodoTitleIndex(todoRepository, transactionManager);
+        todoTitleIndex.assignAfterCommit("coucou", uuid);
+
+        todoTitleIndex.removeAfterCommit(uuid);
+
+        assertThat(todoTitleIndex.reserve("coucou", null)).isTrue();
+    }
+
+    private static TodoTitleProjection titleOf(UUID id, String title) {
+        return new TodoTitleProjection() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+}
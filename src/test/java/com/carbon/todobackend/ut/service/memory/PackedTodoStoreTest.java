@@ -0,0 +1,229 @@
+package com.carbon.todobackend.ut.service.memory;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.domain.dto.TodoSummary;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.exception.NotExistingTodoException;
+import com.carbon.todobackend.service.memory.PackedTodoStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedTodoStoreTest {
+
+    private static final Comparator<Todo> KEYSET_ORDER = Comparator
+            .comparing(Todo::order, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Todo::id);
+
+    private final PackedTodoStore todoStore = new PackedTodoStore(16);
+
+    @Test
+    void should_store_and_find_a_todo() throws AlreadyExistException {
+        UUID uuid = UUID.randomUUID();
+
+        Todo todo = todoStore.create(uuid, "coucou é", false, null);
+
+        assertThat(todo).isEqualTo(new Todo(uuid, "coucou é", false, null, 0L));
+        assertThat(todoStore.get(uuid)).contains(todo);
+        assertThat(todoStore.get(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void should_reject_a_title_already_taken() throws AlreadyExistException {
+        todoStore.create(UUID.randomUUID(), "coucou", false, null);
+
+        assertThrows(AlreadyExistException.class, () -> todoStore.create(UUID.randomUUID(), "coucou", false, null));
+        assertThat(todoStore.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_update_a_todo_and_increment_its_version() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        todoStore.create(uuid, "coucou", false, null);
+
+        Todo todo = todoStore.update(uuid, current -> new Todo(uuid, "hello", true, 3, current.version()));
+
+        assertThat(todo).isEqualTo(new Todo(uuid, "hello", true, 3, 1L));
+        assertThat(todoStore.get(uuid)).contains(todo);
+        todoStore.create(UUID.randomUUID(), "coucou", false, null);
+    }
+
+    @Test
+    void should_reject_updating_to_the_title_of_another_todo() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        todoStore.create(uuid, "coucou", false, null);
+        todoStore.create(UUID.randomUUID(), "hello", false, null);
+
+        assertThrows(AlreadyExistException.class,
+                () -> todoStore.update(uuid, current -> new Todo(uuid, "hello", false, null, current.version())));
+        assertThrows(NotExistingTodoException.class,
+                () -> todoStore.update(UUID.randomUUID(), current -> current));
+        assertThat(todoStore.get(uuid).map(Todo::title)).contains("coucou");
+    }
+
+    @Test
+    void should_move_a_todo_to_the_midpoint_of_its_new_neighbours() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        todoStore.create(first, "first", false, 0);
+        todoStore.create(second, "second", false, 1024);
+        todoStore.create(moved, "moved", false, 2048);
+        List<Todo> renumbered = new ArrayList<>();
+
+        Todo todo = todoStore.move(moved, first, renumbered::add);
+
+        assertThat(todo).isEqualTo(new Todo(moved, "moved", false, 512, 1L));
+        assertThat(todoStore.pageAfter(null, null, 10)).extracting(Todo::id).containsExactly(first, moved, second);
+        assertThat(todoStore.move(moved, first, renumbered::add)).isEqualTo(todo);
+        assertThat(renumbered).isEmpty();
+    }
+
+    @Test
+    void should_renumber_the_todos_when_the_neighbours_leave_no_room() throws Exception {
+        UUID unordered = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        todoStore.create(unordered, "unordered", false, null);
+        todoStore.create(next, "next", false, 1);
+        todoStore.create(moved, "moved", false, 2);
+        List<Todo> renumbered = new ArrayList<>();
+
+        Todo todo = todoStore.move(moved, unordered, renumbered::add);
+
+        assertThat(renumbered).extracting(Todo::order).containsExactly(1024, 2048, 3072);
+        assertThat(todo).isEqualTo(new Todo(moved, "moved", false, 1536, 2L));
+        assertThat(todoStore.pageAfter(null, null, 10)).extracting(Todo::id).containsExactly(unordered, moved, next);
+        assertThrows(NotExistingTodoException.class, () -> todoStore.move(moved, UUID.randomUUID(), renumbered::add));
+    }
+
+    @Test
+    void should_free_the_title_and_the_slot_of_a_removed_todo() throws AlreadyExistException {
+        UUID uuid = UUID.randomUUID();
+        todoStore.create(uuid, "coucou", false, null);
+
+        assertThat(todoStore.remove(uuid)).isTrue();
+        assertThat(todoStore.remove(uuid)).isFalse();
+        assertThat(todoStore.get(uuid)).isEmpty();
+        todoStore.create(UUID.randomUUID(), "coucou", false, null);
+        assertThat(todoStore.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_count_the_completed_todos_still_stored() throws Exception {
+        UUID done = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        todoStore.create(done, "done", true, null);
+        todoStore.create(other, "other", null, null);
+        todoStore.create(UUID.randomUUID(), "active", false, null);
+        todoStore.update(other, current -> new Todo(other, "other", true, null, current.version()));
+
+        todoStore.remove(done);
+
+        assertThat(todoStore.summarize()).isEqualTo(new TodoSummary(2, 1, 1));
+    }
+
+    @Test
+    void should_remove_the_completed_todos_in_one_pass() throws AlreadyExistException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        todoStore.create(first, "first", true, 1);
+        Todo active = todoStore.create(UUID.randomUUID(), "active", false, 2);
+        todoStore.create(second, "second", true, 3);
+        List<UUID> removed = new ArrayList<>();
+
+        assertThat(todoStore.removeCompleted(removed::add)).isEqualTo(2);
+
+        assertThat(removed).containsExactly(first, second);
+        assertThat(todoStore.pageAfter(null, null, 10)).containsExactly(active);
+        assertThat(todoStore.get(first)).isEmpty();
+        assertThat(todoStore.summarize()).isEqualTo(new TodoSummary(1, 1, 0));
+        todoStore.create(UUID.randomUUID(), "first", true, null);
+    }
+
+    @Test
+    void should_run_the_action_and_empty_the_store() throws AlreadyExistException {
+        todoStore.create(UUID.randomUUID(), "coucou", false, null);
+        List<Integer> sizesSeen = new ArrayList<>();
+
+        todoStore.clear(() -> sizesSeen.add(0));
+
+        assertThat(sizesSeen).containsExactly(0);
+        assertThat(todoStore.size()).isZero();
+        assertThat(todoStore.pageAfter(null, null, 10)).isEmpty();
+        todoStore.create(UUID.randomUUID(), "coucou", false, null);
+    }
+
+    @Test
+    void should_load_todos_in_keyset_order() {
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            todos.add(new Todo(UUID.randomUUID(), "todo " + i, i % 2 == 0, i % 7 == 0 ? null : i % 5, (long) i));
+        }
+
+        todoStore.load(todos);
+
+        List<Todo> expected = new ArrayList<>(todos);
+        expected.sort(KEYSET_ORDER);
+        assertThat(todoStore.pageAfter(null, null, 1000)).containsExactlyElementsOf(expected);
+        assertThat(todoStore.pageAfter(expected.get(9).order(), expected.get(9).id(), 5))
+                .containsExactlyElementsOf(expected.subList(10, 15));
+    }
+
+    @Test
+    void should_behave_like_a_sorted_map_under_random_writes() throws Exception {
+        Random random = new Random(42);
+        Map<UUID, Todo> model = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 4 || ids.isEmpty()) {
+                UUID uuid = UUID.randomUUID();
+                // Long titles, so that overwritten ones make the arena compact.
+                String title = "todo " + random.nextInt(5_000) + " " + "x".repeat(random.nextInt(2_000));
+                Integer order = random.nextInt(4) == 0 ? null : random.nextInt(100);
+                boolean taken = model.values().stream().anyMatch(todo -> title.equals(todo.title()));
+                if (taken) {
+                    assertThrows(AlreadyExistException.class, () -> todoStore.create(uuid, title, false, order));
+                } else {
+                    model.put(uuid, todoStore.create(uuid, title, false, order));
+                    ids.add(uuid);
+                }
+            } else if (operation < 8) {
+                UUID uuid = ids.get(random.nextInt(ids.size()));
+                String title = random.nextBoolean() ? null : "renamed " + random.nextInt(1_000_000);
+                Integer order = random.nextInt(4) == 0 ? null : random.nextInt(100);
+                boolean taken = title != null && model.values().stream()
+                        .anyMatch(todo -> title.equals(todo.title()) && !todo.id().equals(uuid));
+                if (taken) {
+                    assertThrows(AlreadyExistException.class,
+                            () -> todoStore.update(uuid, current -> new Todo(uuid, title, true, order, current.version())));
+                } else {
+                    Todo todo = todoStore.update(uuid, current -> new Todo(uuid, title, true, order, current.version()));
+                    assertThat(todo.version()).isEqualTo(model.get(uuid).version() + 1);
+                    model.put(uuid, todo);
+                }
+            } else {
+                UUID uuid = ids.remove(random.nextInt(ids.size()));
+                assertThat(todoStore.remove(uuid)).isTrue();
+                model.remove(uuid);
+            }
+        }
+
+        List<Todo> expected = new ArrayList<>(model.values());
+        expected.sort(KEYSET_ORDER);
+        List<Todo> visited = new ArrayList<>();
+        todoStore.forEach(visited::add);
+        assertThat(visited).containsExactlyElementsOf(expected);
+        model.forEach((uuid, todo) -> assertThat(todoStore.get(uuid)).contains(todo));
+    }
+}
@@ -0,0 +1,108 @@
+package com.carbon.todobackend.ut.service.memory;
+
+import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.service.mapper.TodoMapper;
+import com.carbon.todobackend.service.memory.PackedTodoStore;
+import com.carbon.todobackend.service.memory.TodoWriteBehind;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoWriteBehindTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoMapper todoMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final PackedTodoStore todoStore = new PackedTodoStore(16);
+
+    private TodoWriteBehind todoWriteBehind;
+
+    @BeforeEach
+    void setUp() {
+        todoWriteBehind = new TodoWriteBehind(todoStore, todoRepository, todoMapper, entityManager, transactionManager,
+                Duration.ofSeconds(1));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void should_write_back_the_current_state_of_the_marked_todos() throws AlreadyExistException {
+        Todo stored = todoStore.create(UUID.randomUUID(), "stored", false, 1);
+        Todo created = todoStore.create(UUID.randomUUID(), "created", false, null);
+        UUID deleted = UUID.randomUUID();
+        // Only the stored todo has a row to overwrite, whatever the order the ids are written in.
+        when(todoRepository.overwrite(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> stored.id().equals(invocation.getArgument(0)) ? 1 : 0);
+        todoWriteBehind.markDirty(stored.id());
+        todoWriteBehind.markDirty(created.id());
+        todoWriteBehind.markDirty(deleted);
+
+        todoWriteBehind.flush();
+
+        InOrder inOrder = inOrder(todoRepository);
+        inOrder.verify(todoRepository).deleteAllByIdInBatch(List.of(deleted));
+        inOrder.verify(todoRepository).clearTitles(argThat(ids -> ids.size() == 2));
+        verify(todoRepository).insert(created.id(), "created", false, null, 0L);
+        verify(todoRepository, never()).insert(eq(stored.id()), any(), any(), any(), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void should_delete_every_stored_todo_before_writing_the_marked_ones() throws AlreadyExistException {
+        todoStore.clear(todoWriteBehind::markCleared);
+        Todo created = todoStore.create(UUID.randomUUID(), "created", false, null);
+        todoWriteBehind.markDirty(created.id());
+
+        todoWriteBehind.flush();
+        todoWriteBehind.flush();
+
+        InOrder inOrder = inOrder(todoRepository);
+        inOrder.verify(todoRepository).deleteAllInBatch();
+        inOrder.verify(todoRepository).clearTitles(List.of(created.id()));
+        inOrder.verify(todoRepository).overwrite(created.id(), "created", false, null, 0L);
+        inOrder.verify(todoRepository).insert(created.id(), "created", false, null, 0L);
+        verifyNoMoreInteractions(todoRepository);
+    }
+
+    @Test
+    void should_retry_a_failed_write_back_on_the_next_flush() throws AlreadyExistException {
+        Todo created = todoStore.create(UUID.randomUUID(), "created", false, null);
+        todoWriteBehind.markDirty(created.id());
+        when(todoRepository.overwrite(any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("down"))
+                .thenReturn(1);
+
+        todoWriteBehind.flush();
+        todoWriteBehind.flush();
+        todoWriteBehind.flush();
+
+        verify(todoRepository, times(2)).overwrite(created.id(), "created", false, null, 0L);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.carbon.todobackend.ut.service.memory.log;
+
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.service.memory.PackedTodoStore;
+import com.carbon.todobackend.service.memory.log.TodoLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoLogTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<TodoLog> todoLogs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (TodoLog todoLog : todoLogs) {
+            todoLog.destroy();
+        }
+    }
+
+    private PackedTodoStore open(PackedTodoStore todoStore, DataSize segmentSize) {
+        final TodoLog todoLog = new TodoLog(todoStore, directory, segmentSize, Duration.ofHours(1));
+        todoLogs.add(todoLog);
+        todoLog.afterSingletonsInstantiated();
+        return todoStore;
+    }
+
+    private TodoLog lastLog() {
+        return todoLogs.get(todoLogs.size() - 1);
+    }
+
+    @Test
+    void should_replay_the_persisted_changes_after_a_restart() throws Exception {
+        PackedTodoStore todoStore = open(new PackedTodoStore(16), DataSize.ofKilobytes(64));
+        Todo kept = todoStore.create(UUID.randomUUID(), "kept é", null, null);
+        Todo removed = todoStore.create(UUID.randomUUID(), "removed", false, 2);
+        lastLog().markDirty(kept.id());
+        lastLog().markDirty(removed.id());
+        lastLog().awaitPersisted();
+        Todo updated = todoStore.update(kept.id(), current -> new Todo(current.id(), current.title(), true, 7, current.version()));
+        todoStore.remove(removed.id());
+        lastLog().markDirty(kept.id());
+        lastLog().markDirty(removed.id());
+        lastLog().awaitPersisted();
+
+        PackedTodoStore replayed = open(new PackedTodoStore(16), DataSize.ofKilobytes(64));
+
+        assertThat(replayed.get(kept.id())).contains(updated);
+        assertThat(replayed.get(removed.id())).isEmpty();
+        assertThat(replayed.size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_write_the_todos_marked_after_a_clear() throws Exception {
+        PackedTodoStore todoStore = open(new PackedTodoStore(16), DataSize.ofKilobytes(64));
+        Todo before = todoStore.create(UUID.randomUUID(), "before", false, null);
+        lastLog().markDirty(before.id());
+        lastLog().awaitPersisted();
+        todoStore.clear(lastLog()::markCleared);
+        Todo after = todoStore.create(UUID.randomUUID(), "after", false, null);
+        lastLog().markDirty(after.id());
+        lastLog().awaitPersisted();
+
+        PackedTodoStore replayed = open(new PackedTodoStore(16), DataSize.ofKilobytes(64));
+
+        assertThat(replayed.pageAfter(null, null, 10)).containsExactly(after);
+    }
+
+    @Test
+    void should_cut_a_torn_record_and_append_after_the_last_valid_one() throws Exception {
+        PackedTodoStore todoStore = open(new PackedTodoStore(16), DataSize.ofKilobytes(64));
+        Todo first = todoStore.create(UUID.randomUUID(), "first", false, null);
+        lastLog().markDirty(first.id());
+        lastLog().awaitPersisted();
+        Todo torn = todoStore.create(UUID.randomUUID(), "torn", false, null);
+        lastLog().markDirty(torn.id());
+        lastLog().awaitPersisted();
+        lastLog().destroy();
+        Path segment = files(".log").get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 1;
+        Files.write(segment, bytes);
+
+        PackedTodoStore replayed = open(new PackedTodoStore(16), DataSize.ofKilobytes(64));
+        Todo next = replayed.create(UUID.randomUUID(), "next", false, null);
+        lastLog().markDirty(next.id());
+        lastLog().awaitPersisted();
+
+        assertThat(replayed.get(torn.id())).isEmpty();
+        assertThat(open(new PackedTodoStore(16), DataSize.ofKilobytes(64)).pageAfter(null, null, 10))
+                .containsExactlyInAnyOrder(first, next);
+    }
+
+    @Test
+    void should_compact_the_full_segments_into_a_snapshot() throws Exception {
+        PackedTodoStore todoStore = open(new PackedTodoStore(16), DataSize.ofKilobytes(1));
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Todo todo = todoStore.create(UUID.randomUUID(), "todo " + i, i % 2 == 0, i);
+            todos.add(todo);
+            lastLog().markDirty(todo.id());
+        }
+        lastLog().awaitPersisted();
+        assertThat(files(".log")).hasSizeGreaterThan(2);
+
+        lastLog().compact();
+
+        assertThat(files(".snapshot")).hasSize(1);
+        assertThat(files(".log")).hasSize(1);
+        assertThat(open(new PackedTodoStore(16), DataSize.ofKilobytes(1)).pageAfter(null, null, 200))
+                .containsExactlyElementsOf(todos);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.carbon.todobackend.ut.service.pipeline;
+
+import com.carbon.todobackend.domain.dto.CreateTodoRequest;
+import com.carbon.todobackend.domain.dto.Todo;
+import com.carbon.todobackend.exception.AlreadyExistException;
+import com.carbon.todobackend.service.impl.TodoRepositoryBaseService;
+import com.carbon.todobackend.service.pipeline.TodoWrite;
+import com.carbon.todobackend.service.pipeline.TodoWritePipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoWritePipelineTest {
+
+    @Mock
+    private TodoRepositoryBaseService todoService;
+
+    private TodoWritePipeline todoWritePipeline;
+
+    private TodoWritePipeline start(int maxBatchSize, Duration maxDelay) {
+        todoWritePipeline = new TodoWritePipeline(todoService, maxBatchSize, maxDelay);
+        todoWritePipeline.afterSingletonsInstantiated();
+        return todoWritePipeline;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        todoWritePipeline.destroy();
+    }
+
+    private static Todo todo(String title) {
+        return new Todo(UUID.randomUUID(), title, false, null, 0L);
+    }
+
+    @Test
+    void should_write_the_queued_writes_in_one_batch() throws Exception {
+        Todo todo = todo("coucou");
+        // The pipeline reuses its batch list, it is copied when written.
+        List<List<TodoWrite>> batches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<TodoWrite> writes = invocation.getArgument(0);
+            batches.add(List.copyOf(writes));
+            writes.forEach(write -> write.complete(todo));
+            return null;
+        }).when(todoService).writeAll(any());
+        // The delay outlasts the test, only the size closes the batch.
+        start(3, Duration.ofMinutes(1));
+
+        List<TodoWrite> writes = List.of(
+                todoWritePipeline.submit(TodoWrite.create(new CreateTodoRequest("a"))),
+                todoWritePipeline.submit(TodoWrite.create(new CreateTodoRequest("b"))),
+                todoWritePipeline.submit(TodoWrite.create(new CreateTodoRequest("c"))));
+
+        for (TodoWrite write : writes) {
+            assertThat(write.await()).isEqualTo(todo);
+        }
+        assertThat(batches).containsExactly(writes);
+        verify(todoService).writeAll(any());
+        verifyNoMoreInteractions(todoService);
+    }
+
+    @Test
+    void should_write_each_write_alone_when_the_batch_fails() throws Exception {
+        Todo todo = todo("a");
+        doThrow(new AlreadyExistException("Title for the same value already exist")).when(todoService).writeAll(any());
+        when(todoService.save(any())).thenReturn(todo)
+                .thenThrow(new AlreadyExistException("Title for the same value already exist"));
+        start(2, Duration.ofMinutes(1));
+
+        TodoWrite accepted = todoWritePipeline.submit(TodoWrite.create(new CreateTodoRequest("a")));
+        TodoWrite rejected = todoWritePipeline.submit(TodoWrite.create(new CreateTodoRequest("b")));
+
+        assertThat(accepted.await()).isEqualTo(todo);
+        assertThrows(AlreadyExistException.class, rejected::await);
+        verify(todoService, times(2)).save(any());
+    }
+
+    @Test
+    void should_write_the_writes_left_pending_by_the_batch_alone() throws Exception {
+        Todo first = todo("first");
+        Todo second = todo("second");
+        UUID id = first.id();
+        doAnswer(invocation -> {
+            List<TodoWrite> writes = invocation.getArgument(0);
+            writes.get(0).complete(first);
+            return null;
+        }).when(todoService).writeAll(any());
+        when(todoService.update(any(), eq(id), eq(null))).thenReturn(second);
+        start(2, Duration.ofMinutes(1));
+
+        TodoWrite written = todoWritePipeline.submit(TodoWrite.update(null, id, null));
+        TodoWrite pending = todoWritePipeline.submit(TodoWrite.update(null, id, null));
+
+        assertThat(written.await()).isEqualTo(first);
+        assertThat(pending.await()).isEqualTo(second);
+        verify(todoService).update(null, id, null);
+    }
+
+    @Test
+    void should_reject_writes_once_stopped() throws InterruptedException {
+        start(2, Duration.ofMillis(1)).destroy();
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> todoWritePipeline.submit(TodoWrite.create(new CreateTodoRequest("a"))));
+        verifyNoInteractions(todoService);
+    }
+}
@@ -0,0 +1,171 @@
+package com.carbon.todobackend.ut.service.search;
+
+import com.carbon.todobackend.dao.TodoRepository;
+import com.carbon.todobackend.dao.TodoTitleProjection;
+import com.carbon.todobackend.exception.InvalidQueryException;
+import com.carbon.todobackend.service.search.TodoSearchHit;
+import com.carbon.todobackend.service.search.TodoSearchIndex;
+import com.carbon.todobackend.service.search.TodoTitleQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoSearchIndexTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<UUID, String> titles = new LinkedHashMap<>();
+
+    private TodoSearchIndex index(String... titles) {
+        var todoSearchIndex = new TodoSearchIndex(todoRepository, transactionManager);
+        for (String title : titles) {
+            UUID id = UUID.randomUUID();
+            this.titles.put(id, title);
+            todoSearchIndex.put(id, title);
+        }
+        return todoSearchIndex;
+    }
+
+    private List<String> search(TodoSearchIndex todoSearchIndex, String query) {
+        return todoSearchIndex.search(TodoTitleQuery.parse(query), 100, null).stream()
+                .map(hit -> titles.get(hit.id()))
+                .toList();
+    }
+
+    @Test
+    void should_load_the_existing_titles() {
+        UUID uuid = UUID.randomUUID();
+        var todoSearchIndex = new TodoSearchIndex(todoRepository, transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(todoRepository.streamTitles()).thenReturn(Stream.of(titleOf(uuid, "Buy milk")));
+
+        todoSearchIndex.afterSingletonsInstantiated();
+
+        assertThat(todoSearchIndex.search(TodoTitleQuery.parse("milk"), 10, null))
+                .extracting(TodoSearchHit::id)
+                .containsExactly(uuid);
+    }
+
+    @Test
+    void should_rank_exact_then_prefix_then_word_then_substring_then_typo_matches() {
+        var todoSearchIndex = index("homemade bread", "bread", "whole bread loaf", "breadcrumbs", "shortbread", "bred sticks", "butter");
+
+        assertThat(search(todoSearchIndex, "Bread"))
+                .containsExactly("bread", "breadcrumbs", "homemade bread", "whole bread loaf", "shortbread", "bred sticks");
+    }
+
+    @Test
+    void should_match_short_queries_on_title_prefixes_only() {
+        var todoSearchIndex = index("milk", "oat milk", "mint");
+
+        assertThat(search(todoSearchIndex, "mi")).containsExactlyInAnyOrder("milk", "mint");
+        assertThat(search(todoSearchIndex, "m")).containsExactlyInAnyOrder("milk", "mint");
+    }
+
+    @Test
+    void should_tolerate_typos_in_longer_queries() {
+        var todoSearchIndex = index("schedule dentist appointment", "call the plumber");
+
+        assertThat(search(todoSearchIndex, "apointment")).containsExactly("schedule dentist appointment");
+        assertThat(search(todoSearchIndex, "plumbr")).containsExactly("call the plumber");
+        assertThat(search(todoSearchIndex, "xylophone")).isEmpty();
+    }
+
+    @Test
+    void should_follow_title_changes_and_removals() {
+        var todoSearchIndex = index("walk the dog");
+        UUID id = titles.keySet().iterator().next();
+
+        todoSearchIndex.put(id, "feed the cat");
+        titles.put(id, "feed the cat");
+
+        assertThat(search(todoSearchIndex, "dog")).isEmpty();
+        assertThat(search(todoSearchIndex, "cat")).containsExactly("feed the cat");
+
+        todoSearchIndex.remove(id);
+
+        assertThat(search(todoSearchIndex, "cat")).isEmpty();
+        assertThat(todoSearchIndex.size()).isZero();
+    }
+
+    @Test
+    void should_page_through_every_hit_once() {
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            all.add("task " + i);
+        }
+        var todoSearchIndex = index(all.toArray(String[]::new));
+
+        Set<UUID> seen = new HashSet<>();
+        TodoSearchHit after = null;
+        List<TodoSearchHit> page;
+        do {
+            page = todoSearchIndex.search(TodoTitleQuery.parse("task"), 10, after);
+            page.forEach(hit -> assertThat(seen.add(hit.id())).isTrue());
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 10);
+
+        assertThat(seen).hasSize(25);
+    }
+
+    @Test
+    void should_keep_the_live_titles_when_compacting() {
+        var todoSearchIndex = index();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            titles.put(id, "todo " + i);
+            todoSearchIndex.put(id, "todo " + i);
+        }
+
+        ids.subList(0, 2500).forEach(todoSearchIndex::remove);
+
+        assertThat(todoSearchIndex.size()).isEqualTo(500);
+        assertThat(search(todoSearchIndex, "todo 2999")).first().isEqualTo("todo 2999");
+        assertThat(search(todoSearchIndex, "todo 1"))
+                .isNotEmpty()
+                .allMatch(title -> Integer.parseInt(title.substring(5)) >= 2500);
+    }
+
+    @Test
+    void should_reject_a_blank_query() {
+        assertThrows(InvalidQueryException.class, () -> TodoTitleQuery.parse("  "));
+    }
+
+    private static TodoTitleProjection titleOf(UUID id, String title) {
+        return new TodoTitleProjection() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.carbon.todobackend.ut.service.support;
+
+import com.carbon.todobackend.service.support.StripedLocks;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLocksTest {
+
+    @Test
+    void should_round_the_number_of_stripes_up_to_a_power_of_two() {
+        assertThat(new StripedLocks(1).size()).isEqualTo(1);
+        assertThat(new StripedLocks(64).size()).isEqualTo(64);
+        assertThat(new StripedLocks(65).size()).isEqualTo(128);
+    }
+
+    @Test
+    void should_map_equal_keys_to_the_same_lock() {
+        final StripedLocks locks = new StripedLocks(64);
+        final UUID key = UUID.randomUUID();
+
+        assertThat(locks.get(key)).isSameAs(locks.get(UUID.fromString(key.toString())));
+    }
+
+    @Test
+    void should_let_writers_of_another_stripe_through() throws Exception {
+        final StripedLocks locks = new StripedLocks(64);
+        final UUID key = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        while (locks.get(other) == locks.get(key)) {
+            other = UUID.randomUUID();
+        }
+        final Lock lock = locks.get(key);
+        final Lock otherLock = locks.get(other);
+        lock.lock();
+        try {
+            assertThat(CompletableFuture.supplyAsync(() -> tryLockAndUnlock(otherLock)).get(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(CompletableFuture.supplyAsync(() -> tryLockAndUnlock(lock)).get(1, TimeUnit.SECONDS)).isFalse();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean tryLockAndUnlock(Lock lock) {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        lock.unlock();
+        return true;
+    }
+}